@@ -138,6 +138,46 @@ public class Config extends ConfigJNI{
 
    public static final boolean enableDoubles = Boolean.getBoolean(propPkgName + ".enableDoubles");
 
+   /**
+    * Allows the user to request that generated kernels reference their arguments directly rather than through a per work item 
+    * <code>This</code> struct, helper methods receive only the fields they use as explicit parameters. Kernels which assign fields in 
+    * helper methods, use arrays of objects or declare a local variable named like a field keep the struct.
+    *
+    *  Usage -Dcom.aparapi.enableDirectFieldAccess={true|false}
+    *  
+    */
+   public static final boolean enableDirectFieldAccess = Boolean.getBoolean(propPkgName + ".enableDirectFieldAccess");
+
+   /**
+    * Allows the user to request that the generated OpenCL is optimized at the expression level. <code>final</code> scalar fields of the 
+    * kernel are replaced by their values and folded, loop invariant expressions are hoisted out of <code>for</code> loops, expressions 
+    * repeated within a statement are evaluated once and runs of statements storing to consecutive array elements are written as 
+    * <code>vstoreN</code> of vector arithmetic on <code>vloadN</code>s.
+    *
+    *  Usage -Dcom.aparapi.enableExpressionOptimizations={true|false}
+    *  
+    */
+   public static final boolean enableExpressionOptimizations = Boolean.getBoolean(propPkgName + ".enableExpressionOptimizations");
+
+   /**
+    * Allows the user to bound the number of generated OpenCL programs which are cached, one for each kernel class and combination of 
+    * {@link Kernel.Specialize} values. The least recently used program is discarded first.
+    *
+    *  Usage -Dcom.aparapi.maxProgramCacheSize=<count>
+    *  
+    */
+   public static final int maxProgramCacheSize = Integer.getInteger(propPkgName + ".maxProgramCacheSize", 64);
+
+   /**
+    * Allows the user to bound the number of OpenCL contexts each kernel instance keeps aside for its other entrypoints, kinds of range 
+    * and combinations of {@link Kernel.Specialize} values. Each context holds device copies of the arrays of the kernel, so the least 
+    * recently used context is released first.
+    *
+    *  Usage -Dcom.aparapi.maxKernelContexts=<count>
+    *  
+    */
+   public static final int maxKernelContexts = Integer.getInteger(propPkgName + ".maxKernelContexts", 4);
+
    // Debugging related flags
    public static final boolean verboseComparitor = Boolean.getBoolean(propPkgName + ".verboseComparitor");
 
@@ -228,6 +268,10 @@ public class Config extends ConfigJNI{
                + enableVerboseJNIOpenCLResourceTracking);
          System.out.println(propPkgName + ".enableShowGeneratedOpenCL{true|false}=" + enableShowGeneratedOpenCL);
          System.out.println(propPkgName + ".enableExecutionModeReporting{true|false}=" + enableExecutionModeReporting);
+         System.out.println(propPkgName + ".enableDirectFieldAccess{true|false}=" + enableDirectFieldAccess);
+         System.out.println(propPkgName + ".enableExpressionOptimizations{true|false}=" + enableExpressionOptimizations);
+         System.out.println(propPkgName + ".maxProgramCacheSize{<count>}=" + maxProgramCacheSize);
+         System.out.println(propPkgName + ".maxKernelContexts{<count>}=" + maxKernelContexts);
          System.out.println(propPkgName + ".enableInstructionDecodeViewer{true|false}=" + enableInstructionDecodeViewer);
          System.out.println(propPkgName
                + ".instructionListenerClassName{<class name which extends com.codegen.Config.InstructionListener>}="
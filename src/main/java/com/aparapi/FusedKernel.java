@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi;
+
+import java.lang.reflect.Field;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import com.aparapi.device.Device;
+import com.aparapi.device.OpenCLDevice;
+import com.aparapi.internal.model.ClassModel;
+import com.aparapi.internal.model.Entrypoint;
+
+/**
+ * A kernel which runs a pipeline of kernels over the same range, each work item running the <code>run()</code> of every stage in
+ * turn.
+ * <p>
+ * <pre><code>
+ *  Kernel pipeline = new FusedKernel(scale, offset, clamp);
+ *  pipeline.execute(Range.create(JavaDevice.THREAD_POOL, size));
+ * </code></pre>
+ * <p>
+ * In {@link Kernel.EXECUTION_MODE#JTP} and {@link Kernel.EXECUTION_MODE#SEQ} the stages are fused, so the pipeline is one execution and
+ * the element a work item writes in one stage is still in cache when the next stage reads it. Running a stage's work item before the
+ * previous stage has finished is only safe if a work item never touches another work item's elements, so the constructor checks the
+ * kernels, and refuses any array shared by two stages and written by one of them which is not accessed only at <code>getGlobalId()</code>
+ * in <code>run()</code> (see {@link Entrypoint#getArrayFieldElementwise()}).
+ * <p>
+ * The OpenCL kernel generated for a stage binds to the fields of that stage, so on an OpenCL device the stages are executed one after
+ * another, each pass running every stage once. The pass id a stage sees is then always 0.
+ */
+public class FusedKernel extends Kernel {
+
+   private final Kernel[] stages;
+
+   /**
+    * The copies of the stages which share the state of this kernel, and are run by {@link #run()}.
+    */
+   private Kernel[] workers;
+
+   /**
+    * @param _stages the kernels to run, in order
+    * @throws IllegalArgumentException if running the kernels one work item at a time could change their result
+    */
+   public FusedKernel(Kernel... _stages) {
+      if (_stages.length == 0) {
+         throw new IllegalArgumentException("a fused kernel needs at least one stage");
+      }
+      stages = _stages.clone();
+      checkElementwise(stages);
+      workers = cloneStages();
+   }
+
+   @Override
+   public void run() {
+      for (final Kernel worker : workers) {
+         worker.run();
+      }
+   }
+
+   /**
+    * Each thread gets its own copies of the stages, which share its ids, taken from the stages as they are now.
+    */
+   @Override
+   public FusedKernel clone() {
+      final FusedKernel worker = (FusedKernel) super.clone();
+      worker.workers = worker.cloneStages();
+      return (worker);
+   }
+
+   @Override
+   public synchronized Kernel execute(String _entrypoint, Range _range, int _passes) {
+      final Device device = (_range.getDevice() != null) ? _range.getDevice() : getTargetDevice();
+      if (device instanceof OpenCLDevice) {
+         for (int pass = 0; pass < _passes; pass++) {
+            for (final Kernel stage : stages) {
+               stage.execute(_entrypoint, _range);
+            }
+         }
+         return (this);
+      }
+      return (super.execute(_entrypoint, _range, _passes));
+   }
+
+   /**
+    * @return the stages, in the order they are run
+    */
+   public Kernel[] getStages() {
+      return (stages.clone());
+   }
+
+   private Kernel[] cloneStages() {
+      final Kernel[] clones = new Kernel[stages.length];
+      for (int i = 0; i < stages.length; i++) {
+         clones[i] = stages[i].clone();
+         clones[i].shareKernelState(this);
+      }
+      return (clones);
+   }
+
+   private static void checkElementwise(Kernel[] _stages) {
+      final Map<Object, Integer> firstStage = new IdentityHashMap<Object, Integer>();
+      final Map<Object, Boolean> shared = new IdentityHashMap<Object, Boolean>();
+      final Map<Object, Boolean> written = new IdentityHashMap<Object, Boolean>();
+      final Map<Object, String> notElementwise = new IdentityHashMap<Object, String>();
+
+      for (int i = 0; i < _stages.length; i++) {
+         final Kernel stage = _stages[i];
+         final Entrypoint entrypoint;
+         try {
+            entrypoint = ClassModel.createClassModel(stage.getClass()).getEntrypoint("run", stage);
+         } catch (final Exception e) {
+            throw new IllegalArgumentException("can not analyze stage " + i + " (" + stage.getClass().getName() + ")", e);
+         }
+
+         for (final Field field : entrypoint.getReferencedFields()) {
+            if (!field.getType().isArray()) {
+               continue;
+            }
+            final Object array;
+            try {
+               field.setAccessible(true);
+               array = field.get(stage);
+            } catch (final IllegalAccessException e) {
+               throw new IllegalArgumentException("can not read field " + field.getName() + " of stage " + i, e);
+            }
+            if (array == null) {
+               continue;
+            }
+
+            final Integer first = firstStage.get(array);
+            if (first == null) {
+               firstStage.put(array, i);
+            } else if (first != i) {
+               shared.put(array, Boolean.TRUE);
+            }
+            if (!entrypoint.getArrayFieldReadOnly().contains(field.getName())) {
+               written.put(array, Boolean.TRUE);
+            }
+            if (!entrypoint.getArrayFieldElementwise().contains(field.getName()) && !notElementwise.containsKey(array)) {
+               notElementwise.put(array, "field " + field.getName() + " of stage " + i + " (" + stage.getClass().getName() + ")");
+            }
+         }
+      }
+
+      for (final Object array : shared.keySet()) {
+         if (written.containsKey(array) && notElementwise.containsKey(array)) {
+            throw new IllegalArgumentException("can not fuse, the array in " + notElementwise.get(array)
+                  + " is shared between stages, written by one and not only accessed at getGlobalId() in run()");
+         }
+      }
+   }
+}
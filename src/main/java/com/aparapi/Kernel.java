@@ -64,12 +64,14 @@ import com.aparapi.internal.opencl.OpenCLLoader;
 
 import java.lang.annotation.Annotation;
 import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Deque;
@@ -85,6 +87,7 @@ import java.util.concurrent.ForkJoinPool.ManagedBlocker;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.IntBinaryOperator;
+import java.util.function.LongBinaryOperator;
 import java.util.logging.Logger;
 
 import com.aparapi.device.Device;
@@ -97,8 +100,13 @@ import com.aparapi.internal.kernel.KernelDeviceProfile;
 import com.aparapi.internal.kernel.KernelManager;
 import com.aparapi.internal.kernel.KernelProfile;
 import com.aparapi.internal.kernel.KernelRunner;
+import com.aparapi.internal.kernel.TransferStatistics;
+import com.aparapi.internal.util.FastMath;
 import com.aparapi.internal.util.Reflection;
 import com.aparapi.internal.util.UnsafeWrapper;
+import com.aparapi.util.Bits;
+import com.aparapi.util.Half;
+import com.aparapi.util.Philox;
 
 /**
  * A <i>kernel</i> encapsulates a data parallel algorithm that will execute either on a GPU
@@ -232,6 +240,224 @@ public abstract class Kernel implements Cloneable {
 
    }
 
+   /**
+    *  We can use this Annotation to 'tag' 2D and 3D primitive array fields which should be gathered into a single contiguous buffer
+    *  before being handed to OpenCL.
+    *
+    *  <pre><code>
+    *  &#64Contiguous float[][] matrix = new float[1024][1024];
+    *  </code></pre>
+    *
+    *  <p>The rows are copied (in parallel) into one primitive array whose first bytes hold the lengths and pitches of each dimension,
+    *  and the generated kernel indexes into it with pitched arithmetic. Rows written by the kernel are scattered back in parallel
+    *  after execution. The array must be rectangular, and <code>boolean</code> arrays are not supported.</p>
+    *
+    *  <p>In {@link EXECUTION_MODE#JTP} and {@link EXECUTION_MODE#SEQ} the annotation has no effect.</p>
+    */
+   @Retention(RetentionPolicy.RUNTIME)
+   @Target({ElementType.FIELD})
+   public @interface Contiguous {
+
+   }
+
+   /**
+    *  We can use this Annotation to 'tag' scalar fields whose value stays the same for a whole run, such as an image width or a filter 
+    *  radius, as specialization constants.
+    *
+    *  <pre><code>
+    *  &#64Specialize int radius = 3;
+    *  </code></pre>
+    *
+    *  <p>The current value of the field is written into the generated OpenCL as a <code>#define</code>, so the OpenCL compiler can fold 
+    *  it and fully unroll loops bounded by it. Each combination of values is built into its own program, with its own OpenCL context and 
+    *  buffers, so changing the value between executions switches to the program of the new value, building it on first use, rather than 
+    *  passing a new argument. Alternating between values therefore neither rebuilds a program nor reallocates the buffers.</p>
+    *
+    *  <p>Every combination in use costs device memory for its own copy of each array the kernel accesses, so a field taking many values
+    *  multiplies the memory the kernel holds on the device. The kernel keeps the contexts of at most {@link Config#maxKernelContexts} 
+    *  other combinations (or entrypoints), releasing the least recently used first, and the generated source of at most 
+    *  {@link Config#maxProgramCacheSize} programs is cached across kernels.</p>
+    *
+    *  <p>In {@link EXECUTION_MODE#JTP} and {@link EXECUTION_MODE#SEQ} the annotation has no effect.</p>
+    */
+   @Retention(RetentionPolicy.RUNTIME)
+   @Target({ElementType.FIELD})
+   public @interface Specialize {
+
+   }
+
+   /**
+    *  We can use this Annotation to 'tag' <code>int</code>, <code>long</code>, <code>float</code> or <code>double</code> array fields 
+    *  which the kernel only updates through <code>atomicAdd()</code>, such as the bins of a histogram, to be privatized in 
+    *  {@link EXECUTION_MODE#JTP}.
+    *
+    *  <pre><code>
+    *  &#64Privatized int[] bins = new int[256];
+    *  </code></pre>
+    *
+    *  <p>Each thread of the pool adds into its own zeroed copy of the array, without atomics, and the copies are added into the array 
+    *  after each pass, so the threads no longer contend for the same cache lines. Within a pass, reads of the array and the values 
+    *  returned by <code>atomicAdd()</code> only see the additions of the current thread. As every thread holds a copy, the annotation 
+    *  suits small arrays.</p>
+    *
+    *  <p>The copies are merged by addition, so any other update of the array, an element store, <code>atomicMin()</code>, 
+    *  <code>atomicMax()</code>, <code>atomicCmpXchg()</code> or a bit intrinsic such as {@link Kernel#atomicSetBit(long[], long)}, 
+    *  is rejected with an <code>IllegalStateException</code>, when the kernel is first executed if its bytecode can be analysed, 
+    *  otherwise by the atomics themselves.</p>
+    *
+    *  <p>In {@link EXECUTION_MODE#SEQ} and on OpenCL devices the annotation has no effect.</p>
+    */
+   @Retention(RetentionPolicy.RUNTIME)
+   @Target({ElementType.FIELD})
+   public @interface Privatized {
+
+   }
+
+   /**
+    *  We can use this Annotation to ask the OpenCL compiler to unroll every loop in a kernel method (<code>run()</code> or a method it 
+    *  calls) by the given factor, or fully if no factor is given.
+    *
+    *  <pre><code>
+    *  &#64Unroll(4) float dot(int row) { ... }
+    *  </code></pre>
+    *
+    *  <p>Each loop of the method is preceded by <code>#pragma unroll 4</code>. A single loop can be unrolled with {@link Kernel#unroll(int)} 
+    *  instead.</p>
+    *
+    *  <p>In {@link EXECUTION_MODE#JTP} and {@link EXECUTION_MODE#SEQ} the annotation has no effect.</p>
+    */
+   @Retention(RetentionPolicy.RUNTIME)
+   @Target({ElementType.METHOD})
+   public @interface Unroll {
+      int value() default 0;
+   }
+
+   /**
+    *  We can use this Annotation on <code>run()</code> to declare the only work group size the kernel will be executed with, which is 
+    *  emitted as <code>__attribute__((reqd_work_group_size(x, y, z)))</code> and allows the OpenCL compiler to size registers and local 
+    *  memory for it.
+    *
+    *  <pre><code>
+    *  &#64WorkGroupSize(x = 16, y = 16) public void run() { ... }
+    *  </code></pre>
+    *
+    *  <p>The local size of every {@link Range} the kernel is executed with on an OpenCL device must then match, otherwise OpenCL refuses 
+    *  to enqueue the kernel.</p>
+    */
+   @Retention(RetentionPolicy.RUNTIME)
+   @Target({ElementType.METHOD})
+   public @interface WorkGroupSize {
+      int x();
+
+      int y() default 1;
+
+      int z() default 1;
+   }
+
+   /**
+    *  We can use this Annotation on <code>run()</code> to tell the OpenCL compiler which vector type the kernel's arithmetic is best 
+    *  expressed in, which is emitted as <code>__attribute__((vec_type_hint(type)))</code>.
+    *
+    *  <pre><code>
+    *  &#64VecTypeHint("float4") public void run() { ... }
+    *  </code></pre>
+    */
+   @Retention(RetentionPolicy.RUNTIME)
+   @Target({ElementType.METHOD})
+   public @interface VecTypeHint {
+      String value();
+   }
+
+   /**
+    * The math policy requested with {@link Precision}.
+    */
+   public enum MathPrecision {
+      /**
+       * The precise OpenCL built-ins, and <code>java.lang.Math</code> in Java. This is the default.
+       */
+      PRECISE,
+      /**
+       * The precise built-ins, but <code>fma</code> is mapped to the faster <code>mad</code> and the OpenCL compiler may contract 
+       * <code>a * b + c</code> expressions (<code>#pragma OPENCL FP_CONTRACT ON</code>).
+       */
+      RELAXED,
+      /**
+       * As {@link #RELAXED}, and the float overloads of <code>sin</code>, <code>cos</code>, <code>tan</code>, <code>exp</code>, 
+       * <code>exp2</code>, <code>exp10</code>, <code>log</code>, <code>log2</code>, <code>log10</code>, <code>sqrt</code> and 
+       * <code>rsqrt</code> are mapped to their <code>native_</code> variants, whose accuracy is implementation defined.
+       */
+      NATIVE,
+      /**
+       * As {@link #NATIVE}, but using the <code>half_</code> variants, which are accurate to about 10 bits.
+       */
+      HALF
+   }
+
+   /**
+    * The operator {@link #executeReduce(Range, ReduceOp)} combines the values passed to {@link #reduce(float)} with. The order of the 
+    * constants matches the operator numbers of the generated OpenCL.
+    */
+   public enum ReduceOp {
+      /**
+       * The sum of the values, 0 if there are none. The values are summed in a different order in each execution mode, so the rounding 
+       * of the sum varies.
+       */
+      SUM(0f),
+      /**
+       * The smallest value, positive infinity if there are none. NaN values are ignored, as <code>fmin()</code> ignores them in OpenCL.
+       */
+      MIN(Float.POSITIVE_INFINITY),
+      /**
+       * The largest value, negative infinity if there are none. NaN values are ignored, as <code>fmax()</code> ignores them in OpenCL.
+       */
+      MAX(Float.NEGATIVE_INFINITY);
+
+      private final float identity;
+
+      private ReduceOp(float _identity) {
+         identity = _identity;
+      }
+
+      /**
+       * @return the result of reducing no values
+       */
+      public float identity() {
+         return (identity);
+      }
+
+      /**
+       * @return <code>_a</code> and <code>_b</code> combined, for {@link #MIN} and {@link #MAX} the other value if one is NaN
+       */
+      public float apply(float _a, float _b) {
+         switch (this) {
+            case MIN:
+               return ((_a != _a) ? _b : ((_b != _b) ? _a : Math.min(_a, _b)));
+            case MAX:
+               return ((_a != _a) ? _b : ((_b != _b) ? _a : Math.max(_a, _b)));
+            default:
+               return (_a + _b);
+         }
+      }
+   }
+
+   /**
+    *  We can use this Annotation on a kernel class to trade the accuracy of its float math for speed.
+    *
+    *  <pre><code>
+    *  &#64Precision(MathPrecision.NATIVE) class Shade extends Kernel { ... }
+    *  </code></pre>
+    *
+    *  <p>In {@link EXECUTION_MODE#JTP} and {@link EXECUTION_MODE#SEQ} kernels asking for {@link MathPrecision#NATIVE} or 
+    *  {@link MathPrecision#HALF} compute the float overloads of <code>sin</code>, <code>cos</code>, <code>tan</code>, <code>exp</code> 
+    *  and <code>log</code> with single precision approximations instead of rounding the <code>java.lang.Math</code> result.</p>
+    */
+   @Retention(RetentionPolicy.RUNTIME)
+   @Target({ElementType.TYPE})
+   @Inherited
+   public @interface Precision {
+      MathPrecision value();
+   }
+
    /**
     *
     *  We can use this Annotation to 'tag' __private (unshared) array fields. Data in the __private address space in OpenCL is accessible only from
@@ -500,10 +726,60 @@ public abstract class Kernel implements Cloneable {
 
    private KernelRunner kernelRunner = null;
 
+   private final boolean fastMath = getMathPrecision(getClass()).compareTo(MathPrecision.NATIVE) >= 0;
+
    private boolean autoCleanUpArrays = false;
 
    private KernelState kernelState = new KernelState();
 
+   /**
+    * The per worker accumulators of the reduction being executed by {@link #executeReduce(Range, ReduceOp)}, null otherwise. Shared by 
+    * the clones executing the kernel in Java.
+    */
+   private List<float[]> reduceAccumulators = null;
+
+   /**
+    * The accumulator of this worker, one of {@link #reduceAccumulators}.
+    */
+   private float[] reduceAccumulator = null;
+
+   /**
+    * The ordinal of the {@link ReduceOp} of the reduction being executed, passed to the generated OpenCL.
+    */
+   private int reduceOp = 0;
+
+   /**
+    * The {@link ReduceOp} of the reduction being executed, which {@link #reduce(float)} applies in Java.
+    */
+   private ReduceOp reduceOperator = null;
+
+   /**
+    * The partial result of each work group, written by the generated OpenCL.
+    */
+   private float[] reducePartials = null;
+
+   /**
+    * The local memory through which the generated OpenCL of {@link #reduce(float)} and of the work group collectives exchanges the values 
+    * of a work group, one element per work item. Sized to the work group before each execution in OpenCL.
+    */
+   @Local private float[] workGroupScratch = null;
+
+   /**
+    * The indices of the indexed range being executed in OpenCL, from which the generated OpenCL reads the global id of each work item.
+    */
+   private int[] rangeIndices = null;
+
+   /**
+    * The global id of the first work item of the part of a long range beyond <code>Integer.MAX_VALUE</code> being executed in OpenCL,
+    * which is dispatched in parts.
+    */
+   private long rangeOffset = 0;
+
+   /**
+    * The global size of the long range beyond <code>Integer.MAX_VALUE</code> being executed in OpenCL.
+    */
+   private long rangeSize = 0;
+
    /**
     * This class is for internal Kernel state management<p>
     * NOT INTENDED FOR USE BY USERS
@@ -516,12 +792,20 @@ public abstract class Kernel implements Cloneable {
 
       private int[] groupIds = new int[] {0, 0, 0};
 
+      private long globalIdLong;
+
       private Range range;
 
       private int passId;
 
       private final AtomicReference<IKernelBarrier> localBarrier = new AtomicReference<IKernelBarrier>();
 
+      private double[] localSlots;
+
+      private Object[] privatizedArrays;
+
+      private IKernelBarrier gridBarrier;
+
       /**
        * Default constructor
        */
@@ -536,9 +820,13 @@ public abstract class Kernel implements Cloneable {
          globalIds = kernelState.getGlobalIds();
          localIds = kernelState.getLocalIds();
          groupIds = kernelState.getGroupIds();
+         globalIdLong = kernelState.getGlobalIdLong();
          range = kernelState.getRange();
          passId = kernelState.getPassId();
          localBarrier.set(kernelState.getLocalBarrier());
+         localSlots = kernelState.getLocalSlots();
+         privatizedArrays = kernelState.getPrivatizedArrays();
+         gridBarrier = kernelState.getGridBarrier();
       }
 
       /**
@@ -565,6 +853,20 @@ public abstract class Kernel implements Cloneable {
          globalIds[_index] = value;
       }
 
+      /**
+       * @return the 64 bit globalId, only maintained when executing a range created by <code>Range.createLong()</code>
+       */
+      public long getGlobalIdLong() {
+         return globalIdLong;
+      }
+
+      /**
+       * @param globalIdLong the 64 bit globalId to set
+       */
+      public void setGlobalIdLong(long globalIdLong) {
+         this.globalIdLong = globalIdLong;
+      }
+
       /**
        * @return the localIds
        */
@@ -668,6 +970,66 @@ public abstract class Kernel implements Cloneable {
     	  }
       }
 
+      /**
+       * @return the barrier shared by every work item of the execution, or null if the work groups are not all resident
+       */
+      public IKernelBarrier getGridBarrier() {
+         return gridBarrier;
+      }
+
+      /**
+       * @param gridBarrier the barrier to set, shared by the threads executing every work item of the execution
+       */
+      public void setGridBarrier(IKernelBarrier gridBarrier) {
+         this.gridBarrier = gridBarrier;
+      }
+
+      public void awaitOnGridBarrier() {
+         final IKernelBarrier barrier = gridBarrier;
+         if (barrier == null) {
+            throw new IllegalStateException("gridBarrier() needs every work group to be resident, which only an execution in a thread pool "
+                  + "over a range which is neither indexed nor long provides");
+         }
+         boolean completed = false;
+         while (!completed) {
+            try {
+               ForkJoinPool.managedBlock(barrier);
+               completed = true;
+            } catch (InterruptedException ex) {
+               //Empty on purpose, as for awaitOnLocalBarrier()
+            }
+         }
+      }
+
+      /**
+       * @return the slots, one per work item of a work group, through which the threads executing the work group exchange the values of 
+       *         the work group collectives, or null if the work group is not emulated
+       */
+      public double[] getLocalSlots() {
+         return localSlots;
+      }
+
+      /**
+       * @param localSlots the slots to set, shared by the threads which share the local barrier
+       */
+      public void setLocalSlots(double[] localSlots) {
+         this.localSlots = localSlots;
+      }
+
+      /**
+       * @return the copies of the {@link Privatized} arrays which only this thread adds into, or null if the arrays are not privatized
+       */
+      public Object[] getPrivatizedArrays() {
+         return privatizedArrays;
+      }
+
+      /**
+       * @param privatizedArrays the copies of the {@link Privatized} arrays owned by the thread executing this kernel
+       */
+      public void setPrivatizedArrays(Object[] privatizedArrays) {
+         this.privatizedArrays = privatizedArrays;
+      }
+
       public void disableLocalBarrier() {
     	  final IKernelBarrier barrier = localBarrier.getAndSet(null);
     	  if (barrier != null) {
@@ -740,6 +1102,8 @@ public abstract class Kernel implements Cloneable {
     * Each invocation of <code>SquareKernel.run()</code> retrieves it's globalId by calling <code>getGlobalId()</code>, and then computes the value of <code>square[gid]</code> for a given value of <code>value[gid]</code>.
     * <p>
     * @return The globalId for the Kernel being executed
+    * @throws IllegalStateException if the range was created using <code>Range.createLong()</code> and the global id exceeds 
+    *         <code>Integer.MAX_VALUE</code>, use {@link #getGlobalIdLong()} instead
     *
     * @see #getLocalId()
     * @see #getGroupId()
@@ -755,9 +1119,29 @@ public abstract class Kernel implements Cloneable {
 
    @OpenCLDelegate
    protected final int getGlobalId(int _dim) {
+      if ((_dim == 0) && (kernelState.getGlobalIdLong() > Integer.MAX_VALUE) && kernelState.getRange().isLong()) {
+         throw new IllegalStateException("global id " + kernelState.getGlobalIdLong() + " does not fit in an int, use getGlobalIdLong()");
+      }
       return kernelState.getGlobalIds()[_dim];
    }
 
+   /**
+    * Determine the 64 bit globalId of an executing kernel.
+    * <p>
+    * Ranges created using <code>Range.createLong()</code> may contain more than <code>Integer.MAX_VALUE</code> work items, 
+    * in which case <code>getGlobalId()</code> can not represent the id of the work item and kernels should use this method instead.
+    * For all other ranges this returns the same value as <code>getGlobalId()</code>.
+    *
+    * @return The 64 bit globalId for the Kernel being executed
+    *
+    * @see #getGlobalId()
+    * @see #getGlobalSizeLong()
+    */
+   @OpenCLDelegate
+   protected final long getGlobalIdLong() {
+      return (kernelState.getRange().isLong() ? kernelState.getGlobalIdLong() : kernelState.getGlobalIds()[0]);
+   }
+
    /*
       @OpenCLDelegate protected final int getGlobalX() {
          return (getGlobalId(0));
@@ -947,15 +1331,34 @@ public abstract class Kernel implements Cloneable {
     * @see #getLocalSize()
     *
     * @return The value passed to <code>Kernel.execute(int globalSize)</code> causing the current execution.
+    * @throws IllegalStateException if the range was created using <code>Range.createLong()</code> and its global size exceeds 
+    *         <code>Integer.MAX_VALUE</code>, use {@link #getGlobalSizeLong()} instead
     */
    @OpenCLDelegate
    protected final int getGlobalSize() {
-      return kernelState.getRange().getGlobalSize(0);
+      return getGlobalSize(0);
    }
 
    @OpenCLDelegate
    protected final int getGlobalSize(int _dim) {
-      return kernelState.getRange().getGlobalSize(_dim);
+      final Range range = kernelState.getRange();
+      if ((_dim == 0) && (range.getGlobalSizeLong() > Integer.MAX_VALUE)) {
+         throw new IllegalStateException("global size " + range.getGlobalSizeLong() + " does not fit in an int, use getGlobalSizeLong()");
+      }
+      return range.getGlobalSize(_dim);
+   }
+
+   /**
+    * Determine the 64 bit global size of the first dimension of the range being executed.
+    *
+    * @see #getGlobalIdLong()
+    * @see #getGlobalSize()
+    *
+    * @return The 64 bit global size of the range causing the current execution.
+    */
+   @OpenCLDelegate
+   protected final long getGlobalSizeLong() {
+      return kernelState.getRange().getGlobalSizeLong();
    }
 
    /*
@@ -1080,6 +1483,14 @@ public abstract class Kernel implements Cloneable {
       return kernelRunner.isExecuting();
    }
 
+   /**
+    * Make this kernel read its ids, sizes, pass id and barrier from the state of <code>_kernel</code>, so that it can run as a stage of 
+    * the {@link FusedKernel} <code>_kernel</code>.
+    */
+   void shareKernelState(Kernel _kernel) {
+      kernelState = _kernel.kernelState;
+   }
+
    /**
     * When using a Java Thread Pool Aparapi uses clone to copy the initial instance to each thread.
     *
@@ -1100,6 +1511,13 @@ public abstract class Kernel implements Cloneable {
 
          worker.kernelState.setGlobalIds(new int[] {0, 0, 0});
 
+         if (reduceAccumulators != null) {
+            worker.reduceAccumulator = new float[] {reduceOperator.identity()};
+            synchronized (reduceAccumulators) {
+               reduceAccumulators.add(worker.reduceAccumulator);
+            }
+         }
+
          return worker;
       } catch (final CloneNotSupportedException e) {
          // TODO Auto-generated catch block
@@ -1283,7 +1701,7 @@ public abstract class Kernel implements Cloneable {
      */
    @OpenCLMapping(mapTo = "cos")
    protected float cos(float _f) {
-      return (float) Math.cos(_f);
+      return (fastMath ? FastMath.cos(_f) : (float) Math.cos(_f));
    }
 
    /**
@@ -1315,7 +1733,7 @@ public abstract class Kernel implements Cloneable {
      */
    @OpenCLMapping(mapTo = "exp")
    protected float exp(float _f) {
-      return (float) Math.exp(_f);
+      return (fastMath ? FastMath.exp(_f) : (float) Math.exp(_f));
    }
 
    /**
@@ -1636,7 +2054,7 @@ public abstract class Kernel implements Cloneable {
      */
    @OpenCLMapping(mapTo = "log")
    protected float log(float _f) {
-      return (float) Math.log(_f);
+      return (fastMath ? FastMath.log(_f) : (float) Math.log(_f));
    }
 
    /**
@@ -1864,7 +2282,7 @@ public abstract class Kernel implements Cloneable {
      */
    @OpenCLMapping(mapTo = "sin")
    protected float sin(float _f) {
-      return (float) Math.sin(_f);
+      return (fastMath ? FastMath.sin(_f) : (float) Math.sin(_f));
    }
 
    /**
@@ -1928,7 +2346,7 @@ public abstract class Kernel implements Cloneable {
      */
    @OpenCLMapping(mapTo = "tan")
    protected float tan(float _f) {
-      return (float) Math.tan(_f);
+      return (fastMath ? FastMath.tan(_f) : (float) Math.tan(_f));
    }
 
    /**
@@ -2337,7 +2755,11 @@ public abstract class Kernel implements Cloneable {
      */
    @OpenCLMapping(atomic32 = true)
    protected int atomicAdd(int[] _arr, int _index, int _delta) {
-      if (!Config.disableUnsafe) {
+      if (isPrivatized(_arr)) {
+         final int previous = _arr[_index];
+         _arr[_index] = previous + _delta;
+         return previous;
+      } else if (!Config.disableUnsafe) {
          return UnsafeWrapper.atomicAdd(_arr, _index, _delta);
       } else {
          synchronized (_arr) {
@@ -2452,52 +2874,657 @@ public abstract class Kernel implements Cloneable {
 	   return p.getAndAccumulate(val, xorOperator);
    }
 
-   /**
-    * Wait for all kernels in the current work group to rendezvous at this call before continuing execution.<br> 
-    * It will also enforce memory ordering, such that modifications made by each thread in the work-group, to the memory,
-    * before entering into this barrier call will be visible by all threads leaving the barrier.
-    * <br>
-    * <br><b>Note1: </b>In OpenCL will execute as barrier(CLK_LOCAL_MEM_FENCE), which will have a different behaviour than in Java,
-    * because it will only guarantee visibility of modifications made to <b>local memory space</b> to all threads leaving the barrier.
-    * <br>
-    * <br><b>Note2: </b>In OpenCL it is required that all threads must enter the same if blocks and must iterate
-    * the same number of times in all loops (for, while, ...).
-    * <br>
-    * <br><b>Note3: </b> Java version is identical to localBarrier(), globalBarrier() and localGlobalBarrier()
-    *
-    * @annotion Experimental
-    */
-   @OpenCLDelegate
-   @Experimental
-   protected final void localBarrier() {
-      kernelState.awaitOnLocalBarrier();
-   }
+   private static final IntBinaryOperator floatAddOperator = new IntBinaryOperator() {
+      @Override
+      public int applyAsInt(int oldBits, int deltaBits) {
+         return Float.floatToRawIntBits(Float.intBitsToFloat(oldBits) + Float.intBitsToFloat(deltaBits));
+      }
+   };
 
-   /**
-    * Wait for all kernels in the current work group to rendezvous at this call before continuing execution.<br> 
-    * It will also enforce memory ordering, such that modifications made by each thread in the work-group, to the memory,
-    * before entering into this barrier call will be visible by all threads leaving the barrier.
-    * <br> 
-    * <br><b>Note1: </b>In OpenCL will execute as barrier(CLK_GLOBAL_MEM_FENCE), which will have a different behaviour; than in Java,
-    * because it will only guarantee visibility of modifications made to <b>global memory space</b> to all threads,
-    * in the work group, leaving the barrier.
-    * <br>
-    * <br><b>Note2: </b>In OpenCL it is required that all threads must enter the same if blocks and must iterate
-    * the same number of times in all loops (for, while, ...).
-    * <br>
-    * <br><b>Note3: </b> Java version is identical to localBarrier(), globalBarrier() and localGlobalBarrier()
-    *
-    * @annotion Experimental
-    */
-   @OpenCLDelegate
-   @Experimental
-   protected final void globalBarrier() {
-	   kernelState.awaitOnLocalBarrier();
-   }
+   private static final IntBinaryOperator floatMinOperator = new IntBinaryOperator() {
+      @Override
+      public int applyAsInt(int oldBits, int newBits) {
+         return (Float.intBitsToFloat(newBits) < Float.intBitsToFloat(oldBits)) ? newBits : oldBits;
+      }
+   };
 
-   /**
-    * Wait for all kernels in the current work group to rendezvous at this call before continuing execution.<br> 
-    * It will also enforce memory ordering, such that modifications made by each thread in the work-group, to the memory,
+   private static final IntBinaryOperator floatMaxOperator = new IntBinaryOperator() {
+      @Override
+      public int applyAsInt(int oldBits, int newBits) {
+         return (Float.intBitsToFloat(newBits) > Float.intBitsToFloat(oldBits)) ? newBits : oldBits;
+      }
+   };
+
+   private static final LongBinaryOperator longAddOperator = new LongBinaryOperator() {
+      @Override
+      public long applyAsLong(long oldVal, long delta) {
+         return oldVal + delta;
+      }
+   };
+
+   private static final LongBinaryOperator longMinOperator = new LongBinaryOperator() {
+      @Override
+      public long applyAsLong(long oldVal, long newVal) {
+         return Math.min(oldVal, newVal);
+      }
+   };
+
+   private static final LongBinaryOperator longMaxOperator = new LongBinaryOperator() {
+      @Override
+      public long applyAsLong(long oldVal, long newVal) {
+         return Math.max(oldVal, newVal);
+      }
+   };
+
+   private static final LongBinaryOperator longOrOperator = new LongBinaryOperator() {
+      @Override
+      public long applyAsLong(long oldVal, long mask) {
+         return oldVal | mask;
+      }
+   };
+
+   private static final LongBinaryOperator longAndOperator = new LongBinaryOperator() {
+      @Override
+      public long applyAsLong(long oldVal, long mask) {
+         return oldVal & mask;
+      }
+   };
+
+   private static final LongBinaryOperator doubleAddOperator = new LongBinaryOperator() {
+      @Override
+      public long applyAsLong(long oldBits, long deltaBits) {
+         return Double.doubleToRawLongBits(Double.longBitsToDouble(oldBits) + Double.longBitsToDouble(deltaBits));
+      }
+   };
+
+   private static final LongBinaryOperator doubleMinOperator = new LongBinaryOperator() {
+      @Override
+      public long applyAsLong(long oldBits, long newBits) {
+         return (Double.longBitsToDouble(newBits) < Double.longBitsToDouble(oldBits)) ? newBits : oldBits;
+      }
+   };
+
+   private static final LongBinaryOperator doubleMaxOperator = new LongBinaryOperator() {
+      @Override
+      public long applyAsLong(long oldBits, long newBits) {
+         return (Double.longBitsToDouble(newBits) > Double.longBitsToDouble(oldBits)) ? newBits : oldBits;
+      }
+   };
+
+   /**
+    * Atomically adds <code>_delta</code> to the <code>_index</code> element of <code>_arr</code>. In Java the addition is retried 
+    * until no other thread changed the element in between, in OpenCL it is a loop around <code>atomic_cmpxchg()</code> on the bits of the 
+    * element, as there is no atomic float addition.
+    *
+    * @param _arr array, a field of the kernel
+    * @param _index index of the element to add to
+    * @param _delta value to add
+    * @return previous value of the element
+    */
+   @OpenCLMapping(atomic32 = true, mapTo = "atomicAdd_float")
+   protected final float atomicAdd(float[] _arr, int _index, float _delta) {
+      if (isPrivatized(_arr)) {
+         final float previous = _arr[_index];
+         _arr[_index] = previous + _delta;
+         return (previous);
+      }
+      return (Float.intBitsToFloat(accumulateInt(_arr, _index, Float.floatToRawIntBits(_delta), floatAddOperator)));
+   }
+
+   /**
+    * Atomically adds <code>_delta</code> to the <code>_index</code> element of <code>_arr</code>, delegating to <code>atom_add()</code> 
+    * in OpenCL, which needs the <code>cl_khr_int64_base_atomics</code> extension.
+    *
+    * @param _arr array, a field of the kernel
+    * @param _index index of the element to add to
+    * @param _delta value to add
+    * @return previous value of the element
+    */
+   @OpenCLMapping(atomic64 = true, mapTo = "atomicAdd_long")
+   protected final long atomicAdd(long[] _arr, int _index, long _delta) {
+      if (isPrivatized(_arr)) {
+         final long previous = _arr[_index];
+         _arr[_index] = previous + _delta;
+         return (previous);
+      }
+      return (accumulateLong(_arr, _index, _delta, longAddOperator));
+   }
+
+   /**
+    * Atomically adds <code>_delta</code> to the <code>_index</code> element of <code>_arr</code>, as {@link #atomicAdd(float[], int, float)} 
+    * but looping around <code>atom_cmpxchg()</code> in OpenCL, which needs the <code>cl_khr_int64_base_atomics</code> extension.
+    *
+    * @param _arr array, a field of the kernel
+    * @param _index index of the element to add to
+    * @param _delta value to add
+    * @return previous value of the element
+    */
+   @OpenCLMapping(atomic64 = true, mapTo = "atomicAdd_double")
+   protected final double atomicAdd(double[] _arr, int _index, double _delta) {
+      if (isPrivatized(_arr)) {
+         final double previous = _arr[_index];
+         _arr[_index] = previous + _delta;
+         return (previous);
+      }
+      return (Double.longBitsToDouble(accumulateLong(_arr, _index, Double.doubleToRawLongBits(_delta), doubleAddOperator)));
+   }
+
+   /**
+    * Atomically replaces the <code>_index</code> element of <code>_arr</code> with <code>_val</code> if <code>_val</code> is smaller, 
+    * delegating to <code>atomic_min()</code> in OpenCL.
+    *
+    * @return previous value of the element
+    * @throws IllegalStateException if <code>_arr</code> is {@link Privatized}
+    */
+   @OpenCLMapping(atomic32 = true, mapTo = "atomicMin_int")
+   protected final int atomicMin(int[] _arr, int _index, int _val) {
+      checkNotPrivatized(_arr);
+      return (accumulateInt(_arr, _index, _val, minOperator));
+   }
+
+   /**
+    * Atomically replaces the <code>_index</code> element of <code>_arr</code> with <code>_val</code> if <code>_val</code> is smaller, 
+    * delegating to <code>atom_min()</code> in OpenCL.
+    *
+    * @return previous value of the element
+    * @throws IllegalStateException if <code>_arr</code> is {@link Privatized}
+    */
+   @OpenCLMapping(atomic64 = true, mapTo = "atomicMin_long")
+   protected final long atomicMin(long[] _arr, int _index, long _val) {
+      checkNotPrivatized(_arr);
+      return (accumulateLong(_arr, _index, _val, longMinOperator));
+   }
+
+   /**
+    * Atomically replaces the <code>_index</code> element of <code>_arr</code> with <code>_val</code> if <code>_val</code> is smaller, so 
+    * a NaN is never stored and a stored NaN is never replaced. A loop around <code>atomic_cmpxchg()</code> in OpenCL.
+    *
+    * @return previous value of the element
+    * @throws IllegalStateException if <code>_arr</code> is {@link Privatized}
+    */
+   @OpenCLMapping(atomic32 = true, mapTo = "atomicMin_float")
+   protected final float atomicMin(float[] _arr, int _index, float _val) {
+      checkNotPrivatized(_arr);
+      return (Float.intBitsToFloat(accumulateInt(_arr, _index, Float.floatToRawIntBits(_val), floatMinOperator)));
+   }
+
+   /**
+    * As {@link #atomicMin(float[], int, float)}, looping around <code>atom_cmpxchg()</code> in OpenCL.
+    *
+    * @return previous value of the element
+    * @throws IllegalStateException if <code>_arr</code> is {@link Privatized}
+    */
+   @OpenCLMapping(atomic64 = true, mapTo = "atomicMin_double")
+   protected final double atomicMin(double[] _arr, int _index, double _val) {
+      checkNotPrivatized(_arr);
+      return (Double.longBitsToDouble(accumulateLong(_arr, _index, Double.doubleToRawLongBits(_val), doubleMinOperator)));
+   }
+
+   /**
+    * Atomically replaces the <code>_index</code> element of <code>_arr</code> with <code>_val</code> if <code>_val</code> is larger, 
+    * delegating to <code>atomic_max()</code> in OpenCL.
+    *
+    * @return previous value of the element
+    * @throws IllegalStateException if <code>_arr</code> is {@link Privatized}
+    */
+   @OpenCLMapping(atomic32 = true, mapTo = "atomicMax_int")
+   protected final int atomicMax(int[] _arr, int _index, int _val) {
+      checkNotPrivatized(_arr);
+      return (accumulateInt(_arr, _index, _val, maxOperator));
+   }
+
+   /**
+    * Atomically replaces the <code>_index</code> element of <code>_arr</code> with <code>_val</code> if <code>_val</code> is larger, 
+    * delegating to <code>atom_max()</code> in OpenCL.
+    *
+    * @return previous value of the element
+    * @throws IllegalStateException if <code>_arr</code> is {@link Privatized}
+    */
+   @OpenCLMapping(atomic64 = true, mapTo = "atomicMax_long")
+   protected final long atomicMax(long[] _arr, int _index, long _val) {
+      checkNotPrivatized(_arr);
+      return (accumulateLong(_arr, _index, _val, longMaxOperator));
+   }
+
+   /**
+    * Atomically replaces the <code>_index</code> element of <code>_arr</code> with <code>_val</code> if <code>_val</code> is larger, so 
+    * a NaN is never stored and a stored NaN is never replaced. A loop around <code>atomic_cmpxchg()</code> in OpenCL.
+    *
+    * @return previous value of the element
+    * @throws IllegalStateException if <code>_arr</code> is {@link Privatized}
+    */
+   @OpenCLMapping(atomic32 = true, mapTo = "atomicMax_float")
+   protected final float atomicMax(float[] _arr, int _index, float _val) {
+      checkNotPrivatized(_arr);
+      return (Float.intBitsToFloat(accumulateInt(_arr, _index, Float.floatToRawIntBits(_val), floatMaxOperator)));
+   }
+
+   /**
+    * As {@link #atomicMax(float[], int, float)}, looping around <code>atom_cmpxchg()</code> in OpenCL.
+    *
+    * @return previous value of the element
+    * @throws IllegalStateException if <code>_arr</code> is {@link Privatized}
+    */
+   @OpenCLMapping(atomic64 = true, mapTo = "atomicMax_double")
+   protected final double atomicMax(double[] _arr, int _index, double _val) {
+      checkNotPrivatized(_arr);
+      return (Double.longBitsToDouble(accumulateLong(_arr, _index, Double.doubleToRawLongBits(_val), doubleMaxOperator)));
+   }
+
+   /**
+    * Atomically replaces the <code>_index</code> element of <code>_arr</code> with <code>_newVal</code> if it is 
+    * <code>_expectedVal</code>, delegating to <code>atomic_cmpxchg()</code> in OpenCL.
+    *
+    * @return previous value of the element, which is <code>_expectedVal</code> if it was replaced
+    * @throws IllegalStateException if <code>_arr</code> is {@link Privatized}
+    */
+   @OpenCLMapping(atomic32 = true, mapTo = "atomicCmpXchg_int")
+   protected final int atomicCmpXchg(int[] _arr, int _index, int _expectedVal, int _newVal) {
+      checkNotPrivatized(_arr);
+      return (compareAndExchangeInt(_arr, _index, _expectedVal, _newVal));
+   }
+
+   /**
+    * As {@link #atomicCmpXchg(int[], int, int, int)}, delegating to <code>atom_cmpxchg()</code> in OpenCL.
+    *
+    * @return previous value of the element, which is <code>_expectedVal</code> if it was replaced
+    * @throws IllegalStateException if <code>_arr</code> is {@link Privatized}
+    */
+   @OpenCLMapping(atomic64 = true, mapTo = "atomicCmpXchg_long")
+   protected final long atomicCmpXchg(long[] _arr, int _index, long _expectedVal, long _newVal) {
+      checkNotPrivatized(_arr);
+      return (compareAndExchangeLong(_arr, _index, _expectedVal, _newVal));
+   }
+
+   /**
+    * As {@link #atomicCmpXchg(int[], int, int, int)}. The bits of the element are compared with the bits of <code>_expectedVal</code>, so 
+    * <code>-0f</code> does not match <code>0f</code> and a NaN matches the same NaN.
+    *
+    * @return previous value of the element, which has the bits of <code>_expectedVal</code> if it was replaced
+    * @throws IllegalStateException if <code>_arr</code> is {@link Privatized}
+    */
+   @OpenCLMapping(atomic32 = true, mapTo = "atomicCmpXchg_float")
+   protected final float atomicCmpXchg(float[] _arr, int _index, float _expectedVal, float _newVal) {
+      checkNotPrivatized(_arr);
+      return (Float.intBitsToFloat(compareAndExchangeInt(_arr, _index, Float.floatToRawIntBits(_expectedVal),
+            Float.floatToRawIntBits(_newVal))));
+   }
+
+   /**
+    * As {@link #atomicCmpXchg(float[], int, float, float)}, delegating to <code>atom_cmpxchg()</code> in OpenCL.
+    *
+    * @return previous value of the element, which has the bits of <code>_expectedVal</code> if it was replaced
+    * @throws IllegalStateException if <code>_arr</code> is {@link Privatized}
+    */
+   @OpenCLMapping(atomic64 = true, mapTo = "atomicCmpXchg_double")
+   protected final double atomicCmpXchg(double[] _arr, int _index, double _expectedVal, double _newVal) {
+      checkNotPrivatized(_arr);
+      return (Double.longBitsToDouble(compareAndExchangeLong(_arr, _index, Double.doubleToRawLongBits(_expectedVal),
+            Double.doubleToRawLongBits(_newVal))));
+   }
+
+   /**
+    * @return true if <code>_arr</code> is this thread's copy of a {@link Privatized} array, which no other thread updates
+    */
+   private boolean isPrivatized(Object _arr) {
+      final Object[] privatizedArrays = kernelState.getPrivatizedArrays();
+      if (privatizedArrays != null) {
+         for (final Object privatized : privatizedArrays) {
+            if (privatized == _arr) {
+               return (true);
+            }
+         }
+      }
+      return (false);
+   }
+
+   /**
+    * The copies of a {@link Privatized} array are added into the array, so any update but an addition, such as a minimum or a packed
+    * bit, would be corrupted.
+    *
+    * @throws IllegalStateException if <code>_arr</code> is this thread's copy of a {@link Privatized} array
+    */
+   private void checkNotPrivatized(Object _arr) {
+      if (isPrivatized(_arr)) {
+         throw new IllegalStateException("a @Privatized array can only be updated by atomicAdd(), its copies are added together");
+      }
+   }
+
+   /**
+    * Applies <code>_op</code> to an element of an <code>int[]</code>, or the bits of an element of a <code>float[]</code>, and 
+    * <code>_value</code>, lock free unless {@link Config#disableUnsafe}.
+    */
+   private static int accumulateInt(Object _arr, int _index, int _value, IntBinaryOperator _op) {
+      if (!Config.disableUnsafe) {
+         return (UnsafeWrapper.getAndAccumulateInt(_arr, _index, _value, _op));
+      }
+      synchronized (_arr) {
+         if (_arr instanceof float[]) {
+            final float[] floats = (float[]) _arr;
+            final int previous = Float.floatToRawIntBits(floats[_index]);
+            floats[_index] = Float.intBitsToFloat(_op.applyAsInt(previous, _value));
+            return (previous);
+         }
+         final int[] ints = (int[]) _arr;
+         final int previous = ints[_index];
+         ints[_index] = _op.applyAsInt(previous, _value);
+         return (previous);
+      }
+   }
+
+   /**
+    * As {@link #accumulateInt(Object, int, int, IntBinaryOperator)} for a <code>long[]</code>, or the bits of a <code>double[]</code>.
+    */
+   private static long accumulateLong(Object _arr, int _index, long _value, LongBinaryOperator _op) {
+      if (!Config.disableUnsafe) {
+         return (UnsafeWrapper.getAndAccumulateLong(_arr, _index, _value, _op));
+      }
+      synchronized (_arr) {
+         if (_arr instanceof double[]) {
+            final double[] doubles = (double[]) _arr;
+            final long previous = Double.doubleToRawLongBits(doubles[_index]);
+            doubles[_index] = Double.longBitsToDouble(_op.applyAsLong(previous, _value));
+            return (previous);
+         }
+         final long[] longs = (long[]) _arr;
+         final long previous = longs[_index];
+         longs[_index] = _op.applyAsLong(previous, _value);
+         return (previous);
+      }
+   }
+
+   private static int compareAndExchangeInt(Object _arr, int _index, int _expected, int _new) {
+      if (!Config.disableUnsafe) {
+         return (UnsafeWrapper.compareAndExchangeInt(_arr, _index, _expected, _new));
+      }
+      synchronized (_arr) {
+         if (_arr instanceof float[]) {
+            final float[] floats = (float[]) _arr;
+            final int previous = Float.floatToRawIntBits(floats[_index]);
+            if (previous == _expected) {
+               floats[_index] = Float.intBitsToFloat(_new);
+            }
+            return (previous);
+         }
+         final int[] ints = (int[]) _arr;
+         final int previous = ints[_index];
+         if (previous == _expected) {
+            ints[_index] = _new;
+         }
+         return (previous);
+      }
+   }
+
+   private static long compareAndExchangeLong(Object _arr, int _index, long _expected, long _new) {
+      if (!Config.disableUnsafe) {
+         return (UnsafeWrapper.compareAndExchangeLong(_arr, _index, _expected, _new));
+      }
+      synchronized (_arr) {
+         if (_arr instanceof double[]) {
+            final double[] doubles = (double[]) _arr;
+            final long previous = Double.doubleToRawLongBits(doubles[_index]);
+            if (previous == _expected) {
+               doubles[_index] = Double.longBitsToDouble(_new);
+            }
+            return (previous);
+         }
+         final long[] longs = (long[]) _arr;
+         final long previous = longs[_index];
+         if (previous == _expected) {
+            longs[_index] = _new;
+         }
+         return (previous);
+      }
+   }
+
+   /**
+    * Read bit <code>_index</code> of a packed bit array, which holds 64 flags in each element, bit <code>_index</code> being bit 
+    * <code>_index % 64</code> of element <code>_index / 64</code> (see {@link Bits}). A bitmap held this way takes an eighth of the memory, 
+    * and of the transfers, of a <code>boolean[]</code>.
+    * <br>
+    * <br>The array must be a field of the kernel.
+    *
+    * @param _bits the packed bits
+    * @param _index the index of the bit
+    * @return true if the bit is set
+    */
+   @OpenCLMapping(mapTo = "bits_get")
+   protected final boolean getBit(long[] _bits, long _index) {
+      return (Bits.get(_bits, _index));
+   }
+
+   /**
+    * Set bit <code>_index</code> of a packed bit array, as laid out for {@link #getBit(long[], long)}. This reads and writes the whole 
+    * element, so is only safe if no other work item updates a bit of the same element during the execution, otherwise use 
+    * {@link #atomicSetBit(long[], long)}.
+    *
+    * @param _bits the packed bits, a field of the kernel
+    * @param _index the index of the bit
+    * @throws IllegalStateException if <code>_bits</code> is {@link Privatized}
+    */
+   @OpenCLMapping(mapTo = "bits_set")
+   protected final void setBit(long[] _bits, long _index) {
+      checkNotPrivatized(_bits);
+      Bits.set(_bits, _index);
+   }
+
+   /**
+    * Clear bit <code>_index</code> of a packed bit array, with the same restriction as {@link #setBit(long[], long)}, otherwise use 
+    * {@link #atomicClearBit(long[], long)}.
+    *
+    * @param _bits the packed bits, a field of the kernel
+    * @param _index the index of the bit
+    * @throws IllegalStateException if <code>_bits</code> is {@link Privatized}
+    */
+   @OpenCLMapping(mapTo = "bits_clear")
+   protected final void clearBit(long[] _bits, long _index) {
+      checkNotPrivatized(_bits);
+      Bits.clear(_bits, _index);
+   }
+
+   /**
+    * Atomically set bit <code>_index</code> of a packed bit array, delegating to <code>atom_or()</code> in OpenCL, which needs the 
+    * <code>cl_khr_int64_extended_atomics</code> extension. As exactly one of the work items setting the same bit sees it clear, this 
+    * can claim the vertices of a visited set or frontier.
+    *
+    * @param _bits the packed bits, a field of the kernel
+    * @param _index the index of the bit
+    * @return true if the bit was already set
+    * @throws IllegalStateException if <code>_bits</code> is {@link Privatized}
+    */
+   @OpenCLMapping(atomic64 = true, mapTo = "bits_atomic_set")
+   protected final boolean atomicSetBit(long[] _bits, long _index) {
+      checkNotPrivatized(_bits);
+      final long mask = 1L << _index;
+      return ((accumulateLong(_bits, (int) (_index >>> 6), mask, longOrOperator) & mask) != 0);
+   }
+
+   /**
+    * Atomically clear bit <code>_index</code> of a packed bit array, delegating to <code>atom_and()</code> in OpenCL.
+    *
+    * @param _bits the packed bits, a field of the kernel
+    * @param _index the index of the bit
+    * @return true if the bit was set
+    * @throws IllegalStateException if <code>_bits</code> is {@link Privatized}
+    */
+   @OpenCLMapping(atomic64 = true, mapTo = "bits_atomic_clear")
+   protected final boolean atomicClearBit(long[] _bits, long _index) {
+      checkNotPrivatized(_bits);
+      final long mask = 1L << _index;
+      return ((accumulateLong(_bits, (int) (_index >>> 6), ~mask, longAndOperator) & mask) != 0);
+   }
+
+   /**
+    * Read an element of an array of half precision (16 bit) floats, as converted by {@link Half#fromFloat(float)} or written by 
+    * {@link #storeHalf(short[], int, float)}. Storing data as halves halves the memory traffic of bandwidth bound kernels, while the 
+    * arithmetic is still done in float.
+    * <br>
+    * <br>Maps to <code>vload_half()</code> in OpenCL, which every device supports whether or not it has <code>cl_khr_fp16</code>. 
+    * The array must be a field of the kernel.
+    *
+    * @param _array the halves
+    * @param _index the index of the element to read
+    * @return the value of the element
+    */
+   @OpenCLDelegate
+   protected final float loadHalf(short[] _array, int _index) {
+      return (Half.toFloat(_array[_index]));
+   }
+
+   /**
+    * Write an element of an array of half precision (16 bit) floats, rounding <code>_value</code> to the nearest half.
+    * <br>
+    * <br>Maps to <code>vstore_half()</code> in OpenCL. The array must be a field of the kernel.
+    *
+    * @param _array the halves
+    * @param _index the index of the element to write
+    * @param _value the value to store
+    */
+   @OpenCLDelegate
+   protected final void storeHalf(short[] _array, int _index, float _value) {
+      _array[_index] = Half.fromFloat(_value);
+   }
+
+   /**
+    * Draw a random int, as a function of a key and a counter: the same key and counter always give the same int, and changing either 
+    * gives an unrelated int. A kernel typically passes a seed as the key and combines the global id with an iteration as the counter, 
+    * so work items draw independent streams without keeping any state.
+    * <br>
+    * <br>Computed by the Philox4x32-10 generator (see {@link Philox}), which the generated OpenCL also implements, so a kernel draws the 
+    * same numbers whichever device executes it.
+    *
+    * @param _key the key, such as a seed
+    * @param _counter the counter, which should differ for each number drawn with the same key
+    * @return the random int
+    */
+   @OpenCLMapping(mapTo = "randomInt")
+   protected final int randomInt(long _key, long _counter) {
+      return (Philox.randomInt(_key, _counter));
+   }
+
+   /**
+    * Draw a random float in <code>[0, 1)</code>, as a function of a key and a counter, from the top 24 bits of 
+    * {@link #randomInt(long, long)}. The result is the same on every device.
+    *
+    * @param _key the key, such as a seed
+    * @param _counter the counter, which should differ for each number drawn with the same key
+    * @return the random float, a multiple of <code>2^-24</code>
+    */
+   @OpenCLMapping(mapTo = "randomFloat")
+   protected final float randomFloat(long _key, long _counter) {
+      return (Philox.randomFloat(_key, _counter));
+   }
+
+   /**
+    * Contribute a value to the reduction being executed by {@link #executeReduce(Range, ReduceOp)}.
+    * <br>
+    * <br>In OpenCL the values of a work group are combined in local memory, which needs barriers, so every work item must call 
+    * <code>reduce()</code> exactly once, and not from conditional code. A work item which has nothing to contribute passes the 
+    * {@link ReduceOp#identity()} of the operator.
+    *
+    * @param _value the value of this work item
+    * @throws IllegalStateException if the kernel is not being executed by <code>executeReduce()</code>
+    */
+   @OpenCLDelegate
+   protected final void reduce(float _value) {
+      if (reduceAccumulator == null) {
+         throw new IllegalStateException("reduce() can only be called while the kernel is executed by executeReduce()");
+      }
+      reduceAccumulator[0] = reduceOperator.apply(reduceAccumulator[0], _value);
+   }
+
+   /**
+    * Ask the OpenCL compiler to unroll the loop which immediately follows this call by the given factor, by emitting 
+    * <code>#pragma unroll _factor</code>. The factor must be a compile time constant, such as a literal or a {@link Specialize} field.
+    * <br>
+    * <br>Has no effect in Java.
+    *
+    * @param _factor the number of iterations to unroll
+    */
+   @OpenCLDelegate
+   protected final void unroll(int _factor) {
+      // a marker for the OpenCL code generator
+   }
+
+   /**
+    * Ask the OpenCL compiler to fully unroll the loop which immediately follows this call, by emitting <code>#pragma unroll</code>. 
+    * The number of iterations must be known to the OpenCL compiler.
+    * <br>
+    * <br>Has no effect in Java.
+    */
+   @OpenCLDelegate
+   protected final void unroll() {
+      // a marker for the OpenCL code generator
+   }
+
+   /**
+    * Wait for all kernels in the current work group to rendezvous at this call before continuing execution.<br> 
+    * It will also enforce memory ordering, such that modifications made by each thread in the work-group, to the memory,
+    * before entering into this barrier call will be visible by all threads leaving the barrier.
+    * <br>
+    * <br><b>Note1: </b>In OpenCL will execute as barrier(CLK_LOCAL_MEM_FENCE), which will have a different behaviour than in Java,
+    * because it will only guarantee visibility of modifications made to <b>local memory space</b> to all threads leaving the barrier.
+    * <br>
+    * <br><b>Note2: </b>In OpenCL it is required that all threads must enter the same if blocks and must iterate
+    * the same number of times in all loops (for, while, ...).
+    * <br>
+    * <br><b>Note3: </b> Java version is identical to localBarrier(), globalBarrier() and localGlobalBarrier()
+    *
+    * @annotion Experimental
+    */
+   @OpenCLDelegate
+   @Experimental
+   protected final void localBarrier() {
+      kernelState.awaitOnLocalBarrier();
+   }
+
+   /**
+    * Wait for all kernels in the current work group to rendezvous at this call before continuing execution.<br> 
+    * It will also enforce memory ordering, such that modifications made by each thread in the work-group, to the memory,
+    * before entering into this barrier call will be visible by all threads leaving the barrier.
+    * <br> 
+    * <br><b>Note1: </b>In OpenCL will execute as barrier(CLK_GLOBAL_MEM_FENCE), which will have a different behaviour; than in Java,
+    * because it will only guarantee visibility of modifications made to <b>global memory space</b> to all threads,
+    * in the work group, leaving the barrier.
+    * <br>
+    * <br><b>Note2: </b>In OpenCL it is required that all threads must enter the same if blocks and must iterate
+    * the same number of times in all loops (for, while, ...).
+    * <br>
+    * <br><b>Note3: </b> Java version is identical to localBarrier(), globalBarrier() and localGlobalBarrier()
+    *
+    * @annotion Experimental
+    */
+   @OpenCLDelegate
+   @Experimental
+   protected final void globalBarrier() {
+	   kernelState.awaitOnLocalBarrier();
+   }
+
+   /**
+    * Wait for every work item of the execution, in every work group, to rendezvous at this call before continuing execution. 
+    * Modifications made to any memory before entering the barrier are visible to all threads leaving it, so a kernel can run many steps 
+    * of an iterative algorithm in one execution, with a grid wide synchronisation between steps, rather than one execution per step.
+    * <br>
+    * <br><b>Note1: </b>A grid wide barrier is only valid when every work group is resident. In {@link EXECUTION_MODE#JTP} a kernel which 
+    * calls gridBarrier() therefore runs each work item of the range in its own thread, so the global size should be small, as in the 
+    * persistent threads pattern where each work item loops over a share of the data.
+    * <br>
+    * <br><b>Note2: </b>OpenCL does not guarantee that work groups are resident, so a kernel which calls gridBarrier() is not converted 
+    * to OpenCL and falls back to Java. Sequential execution and indexed or long ranges throw an <code>IllegalStateException</code>.
+    * <br>
+    * <br><b>Note3: </b>As for localBarrier(), every work item must reach the same barriers.
+    *
+    * @annotion Experimental
+    */
+   @OpenCLDelegate
+   @Experimental
+   protected final void gridBarrier() {
+      kernelState.awaitOnGridBarrier();
+   }
+
+   /**
+    * Wait for all kernels in the current work group to rendezvous at this call before continuing execution.<br> 
+    * It will also enforce memory ordering, such that modifications made by each thread in the work-group, to the memory,
     * before entering into this barrier call will be visible by all threads leaving the barrier.
     * <br> 
     * <br><b>Note1: </b>When in doubt, use this barrier instead of localBarrier() or globalBarrier(), despite the possible
@@ -2520,6 +3547,211 @@ public abstract class Kernel implements Cloneable {
 	   kernelState.awaitOnLocalBarrier();
    }
 
+   /**
+    * @return the sum of <code>_value</code> over the work items of the work group
+    * @see #workGroupReduceAdd(float)
+    */
+   @OpenCLMapping(mapTo = "work_group_reduce_add")
+   protected final int workGroupReduceAdd(int _value) {
+      return ((int) combineWithWorkGroup(_value, COLLECTIVE_ADD, true, false));
+   }
+
+   /**
+    * Combine a value of every work item of the work group. Every work item of the work group must make the call, and not from 
+    * conditional code, as for {@link #localBarrier()}.
+    * <br>
+    * <br>Maps to <code>work_group_reduce_add()</code> when the program is compiled as OpenCL C 2.0 or later, and otherwise to a 
+    * reduction in local memory. In Java the threads executing the work group exchange the values at the local barrier.
+    *
+    * @param _value the value of this work item
+    * @return the sum of <code>_value</code> over the work items of the work group
+    */
+   @OpenCLMapping(mapTo = "work_group_reduce_add")
+   protected final float workGroupReduceAdd(float _value) {
+      return ((float) combineWithWorkGroup(_value, COLLECTIVE_ADD, false, false));
+   }
+
+   /**
+    * @return the smallest <code>_value</code> of the work items of the work group
+    * @see #workGroupReduceAdd(float)
+    */
+   @OpenCLMapping(mapTo = "work_group_reduce_min")
+   protected final int workGroupReduceMin(int _value) {
+      return ((int) combineWithWorkGroup(_value, COLLECTIVE_MIN, true, false));
+   }
+
+   /**
+    * @return the smallest <code>_value</code> of the work items of the work group
+    * @see #workGroupReduceAdd(float)
+    */
+   @OpenCLMapping(mapTo = "work_group_reduce_min")
+   protected final float workGroupReduceMin(float _value) {
+      return ((float) combineWithWorkGroup(_value, COLLECTIVE_MIN, false, false));
+   }
+
+   /**
+    * @return the largest <code>_value</code> of the work items of the work group
+    * @see #workGroupReduceAdd(float)
+    */
+   @OpenCLMapping(mapTo = "work_group_reduce_max")
+   protected final int workGroupReduceMax(int _value) {
+      return ((int) combineWithWorkGroup(_value, COLLECTIVE_MAX, true, false));
+   }
+
+   /**
+    * @return the largest <code>_value</code> of the work items of the work group
+    * @see #workGroupReduceAdd(float)
+    */
+   @OpenCLMapping(mapTo = "work_group_reduce_max")
+   protected final float workGroupReduceMax(float _value) {
+      return ((float) combineWithWorkGroup(_value, COLLECTIVE_MAX, false, false));
+   }
+
+   /**
+    * @return the sum of <code>_value</code> over the work items of the work group up to and including this one
+    * @see #workGroupScanInclusiveAdd(float)
+    */
+   @OpenCLMapping(mapTo = "work_group_scan_inclusive_add")
+   protected final int workGroupScanInclusiveAdd(int _value) {
+      return ((int) combineWithWorkGroup(_value, COLLECTIVE_ADD, true, true));
+   }
+
+   /**
+    * Combine a value of each work item of the work group up to and including this one, in the order of the local ids (the local id in 
+    * dimension 0 varying fastest). Every work item of the work group must make the call, and not from conditional code, as for 
+    * {@link #localBarrier()}.
+    * <br>
+    * <br>Maps to <code>work_group_scan_inclusive_add()</code> when the program is compiled as OpenCL C 2.0 or later, and otherwise to a 
+    * scan in local memory. In Java the threads executing the work group exchange the values at the local barrier.
+    *
+    * @param _value the value of this work item
+    * @return the sum of <code>_value</code> over the work items of the work group up to and including this one
+    */
+   @OpenCLMapping(mapTo = "work_group_scan_inclusive_add")
+   protected final float workGroupScanInclusiveAdd(float _value) {
+      return ((float) combineWithWorkGroup(_value, COLLECTIVE_ADD, false, true));
+   }
+
+   /**
+    * @return the smallest <code>_value</code> of the work items of the work group up to and including this one
+    * @see #workGroupScanInclusiveAdd(float)
+    */
+   @OpenCLMapping(mapTo = "work_group_scan_inclusive_min")
+   protected final int workGroupScanInclusiveMin(int _value) {
+      return ((int) combineWithWorkGroup(_value, COLLECTIVE_MIN, true, true));
+   }
+
+   /**
+    * @return the smallest <code>_value</code> of the work items of the work group up to and including this one
+    * @see #workGroupScanInclusiveAdd(float)
+    */
+   @OpenCLMapping(mapTo = "work_group_scan_inclusive_min")
+   protected final float workGroupScanInclusiveMin(float _value) {
+      return ((float) combineWithWorkGroup(_value, COLLECTIVE_MIN, false, true));
+   }
+
+   /**
+    * @return the largest <code>_value</code> of the work items of the work group up to and including this one
+    * @see #workGroupScanInclusiveAdd(float)
+    */
+   @OpenCLMapping(mapTo = "work_group_scan_inclusive_max")
+   protected final int workGroupScanInclusiveMax(int _value) {
+      return ((int) combineWithWorkGroup(_value, COLLECTIVE_MAX, true, true));
+   }
+
+   /**
+    * @return the largest <code>_value</code> of the work items of the work group up to and including this one
+    * @see #workGroupScanInclusiveAdd(float)
+    */
+   @OpenCLMapping(mapTo = "work_group_scan_inclusive_max")
+   protected final float workGroupScanInclusiveMax(float _value) {
+      return ((float) combineWithWorkGroup(_value, COLLECTIVE_MAX, false, true));
+   }
+
+   /**
+    * @return the <code>_value</code> of the work item of the work group whose linear local id is <code>_localId</code>
+    * @see #workGroupBroadcast(float, int)
+    */
+   @OpenCLMapping(mapTo = "work_group_broadcast")
+   protected final int workGroupBroadcast(int _value, int _localId) {
+      return ((int) broadcastToWorkGroup(_value, _localId));
+   }
+
+   /**
+    * Share the value of one work item with the whole work group. Every work item of the work group must make the call with the same 
+    * <code>_localId</code>, and not from conditional code, as for {@link #localBarrier()}.
+    * <br>
+    * <br>Maps to <code>work_group_broadcast()</code> when the program is compiled as OpenCL C 2.0 or later, and otherwise to an 
+    * exchange through local memory. In Java the threads executing the work group exchange the values at the local barrier.
+    *
+    * @param _value the value of this work item
+    * @param _localId the linear local id of the work item to share the value of, 
+    *        <code>getLocalId(0) + getLocalSize(0) * (getLocalId(1) + getLocalSize(1) * getLocalId(2))</code>
+    * @return the <code>_value</code> of that work item
+    */
+   @OpenCLMapping(mapTo = "work_group_broadcast")
+   protected final float workGroupBroadcast(float _value, int _localId) {
+      return ((float) broadcastToWorkGroup(_value, _localId));
+   }
+
+   private static final int COLLECTIVE_ADD = 0;
+
+   private static final int COLLECTIVE_MIN = 1;
+
+   private static final int COLLECTIVE_MAX = 2;
+
+   /**
+    * The Java work group collectives. Each thread executing the work group writes its value to its slot, and after the local barrier 
+    * combines the slots it needs, a second barrier keeping the slots from being overwritten by the next collective while another thread 
+    * still reads them. Without emulated work groups (in a sliced execution, which KernelRunner only allows when every work group is a 
+    * single work item) each work item is its own work group.
+    *
+    * @param _int whether the values are ints, whose sum wraps, rather than floats
+    * @param _scan whether to combine only the values of the work items up to and including this one
+    */
+   private double combineWithWorkGroup(double _value, int _op, boolean _int, boolean _scan) {
+      final double[] slots = kernelState.getLocalSlots();
+      if (slots == null) {
+         return (_value);
+      }
+      final int localId = getLocalLinearId();
+      slots[localId] = _value;
+      kernelState.awaitOnLocalBarrier();
+      final int count = _scan ? (localId + 1) : slots.length;
+      double result = slots[0];
+      for (int i = 1; i < count; i++) {
+         if (_op == COLLECTIVE_MIN) {
+            result = Math.min(result, slots[i]);
+         } else if (_op == COLLECTIVE_MAX) {
+            result = Math.max(result, slots[i]);
+         } else if (_int) {
+            result = (int) result + (int) slots[i];
+         } else {
+            result = (float) result + (float) slots[i];
+         }
+      }
+      kernelState.awaitOnLocalBarrier();
+      return (result);
+   }
+
+   private double broadcastToWorkGroup(double _value, int _localId) {
+      final double[] slots = kernelState.getLocalSlots();
+      if (slots == null) {
+         return (_value);
+      }
+      slots[getLocalLinearId()] = _value;
+      kernelState.awaitOnLocalBarrier();
+      final double result = slots[_localId];
+      kernelState.awaitOnLocalBarrier();
+      return (result);
+   }
+
+   private int getLocalLinearId() {
+      final int[] localIds = kernelState.getLocalIds();
+      final Range range = kernelState.getRange();
+      return (localIds[0] + (range.getLocalSize(0) * (localIds[1] + (range.getLocalSize(1) * localIds[2]))));
+   }
+
    @OpenCLMapping(mapTo = "hypot")
    protected float hypot(final float a, final float b) {
       return (float) Math.hypot(a, b);
@@ -2885,6 +4117,10 @@ public abstract class Kernel implements Cloneable {
     * When <code>kernel.execute("entrypoint", globalSize)</code> is invoked, Aparapi will schedule the execution of <code>globalSize</code> kernels. If the execution mode is GPU then
     * the kernels will execute as OpenCL code on the GPU device. Otherwise, if the mode is JTP, the kernels will execute as a pool of Java threads on the CPU.
     * <p>
+    * Each entrypoint is executed by its own OpenCL program, which has its own copies of the arrays on the device. With 
+    * {@link #setExplicit(boolean)} the arrays are not transferred between entrypoints, so an array written by one entrypoint and read 
+    * by another should be fetched with <code>get()</code> after the first and sent with <code>put()</code> before the second.
+    * <p>
     * @param _entrypoint is the name of the method we wish to use as the entrypoint to the kernel
     * @return The Kernel instance (this) so we can chain calls to put(arr).execute(range).get(arr)
     *
@@ -2907,6 +4143,50 @@ public abstract class Kernel implements Cloneable {
       return prepareKernelRunner().execute(_entrypoint, _range, _passes);
    }
 
+   /**
+    * Execute <code>_range</code> kernels, combining the values which <code>run()</code> passes to {@link #reduce(float)} with 
+    * <code>_op</code>, without transferring anything else back.
+    * <pre><code>
+    *  float total = new Kernel(){
+    *     public void run() {
+    *        reduce(values[getGlobalId()]);
+    *     }
+    *  }.executeReduce(Range.create(values.length), Kernel.ReduceOp.SUM);
+    * </code></pre>
+    * In Java each worker thread accumulates into its own variable, and the variables are combined when the execution completes. In OpenCL 
+    * each work group combines its values with a tree reduction in local memory, and writes one partial result, so only one float per 
+    * work group is read back and combined.
+    *
+    * @param _range the work items
+    * @param _op how to combine the values
+    * @return the values combined, or {@link ReduceOp#identity()} if no work item ran
+    */
+   public synchronized float executeReduce(Range _range, ReduceOp _op) {
+      reduceOp = _op.ordinal();
+      reduceOperator = _op;
+      reducePartials = new float[_range.getNumGroups(0) * _range.getNumGroups(1) * _range.getNumGroups(2)];
+      Arrays.fill(reducePartials, _op.identity());
+      reduceAccumulators = new ArrayList<float[]>();
+      try {
+         put(reducePartials);
+         execute(_range);
+         get(reducePartials);
+
+         float result = _op.identity();
+         for (final float partial : reducePartials) {
+            result = _op.apply(result, partial);
+         }
+         for (final float[] accumulator : reduceAccumulators) {
+            result = _op.apply(result, accumulator[0]);
+         }
+         return (result);
+      } finally {
+         reduceAccumulators = null;
+         reducePartials = null;
+         reduceOperator = null;
+      }
+   }
+
    /**
     * Force pre-compilation of the kernel for a given device, without executing it.
     * 
@@ -3174,6 +4454,14 @@ public abstract class Kernel implements Cloneable {
       return (mappedName);
    }
 
+   /**
+    * @return the math policy requested by <code>_kernelClass</code> with {@link Precision}, or {@link MathPrecision#PRECISE}
+    */
+   public static MathPrecision getMathPrecision(Class<?> _kernelClass) {
+      final Precision precision = _kernelClass.getAnnotation(Precision.class);
+      return ((precision == null) ? MathPrecision.PRECISE : precision.value());
+   }
+
    public static boolean isMappedMethod(MethodReferenceEntry methodReferenceEntry) {
       if (CacheEnabler.areCachesEnabled())
          return getBoolean(mappedMethodFlags, methodReferenceEntry);
@@ -3211,7 +4499,7 @@ public abstract class Kernel implements Cloneable {
          return getProperty(atomic32Cache, methodReferenceEntry, false);
       for (final Method kernelMethod : Kernel.class.getDeclaredMethods()) {
          if (kernelMethod.isAnnotationPresent(OpenCLMapping.class)) {
-            if (methodReferenceEntry.getNameAndTypeEntry().getNameUTF8Entry().getUTF8().equals(kernelMethod.getName())) {
+            if (toSignature(methodReferenceEntry).equals(toSignature(kernelMethod))) {
                final OpenCLMapping annotation = kernelMethod.getAnnotation(OpenCLMapping.class);
                return annotation.atomic32();
             }
@@ -3220,18 +4508,17 @@ public abstract class Kernel implements Cloneable {
       return (false);
    }
 
-   // For alpha release atomic64 is not supported
    public static boolean usesAtomic64(MethodReferenceEntry methodReferenceEntry) {
-      //      if (CacheEnabler.areCachesEnabled())
-      //      return getProperty(atomic64Cache, methodReferenceEntry, false);
-      //for (java.lang.reflect.Method kernelMethod : Kernel.class.getDeclaredMethods()) {
-      //   if (kernelMethod.isAnnotationPresent(Kernel.OpenCLMapping.class)) {
-      //      if (methodReferenceEntry.getNameAndTypeEntry().getNameUTF8Entry().getUTF8().equals(kernelMethod.getName())) {
-      //         OpenCLMapping annotation = kernelMethod.getAnnotation(Kernel.OpenCLMapping.class);
-      //           return annotation.atomic64();
-      //      }
-      //   }
-      //}
+      if (CacheEnabler.areCachesEnabled())
+         return getProperty(atomic64Cache, methodReferenceEntry, false);
+      for (final Method kernelMethod : Kernel.class.getDeclaredMethods()) {
+         if (kernelMethod.isAnnotationPresent(OpenCLMapping.class)) {
+            if (toSignature(methodReferenceEntry).equals(toSignature(kernelMethod))) {
+               final OpenCLMapping annotation = kernelMethod.getAnnotation(OpenCLMapping.class);
+               return annotation.atomic64();
+            }
+         }
+      }
       return (false);
    }
 
@@ -3259,6 +4546,118 @@ public abstract class Kernel implements Cloneable {
       return prepareKernelRunner().isExplicit();
    }
 
+   /**
+    * Determine whether arrays this Kernel only reads are automatically skipped when unchanged.
+    * <p>
+    * Outside of explicit memory management every array is copied to the device on every execution. With automatic transfers enabled
+    * an array which the kernel only reads is not uploaded again if it is the same array object, has not been tagged using 
+    * <code>markDirty()</code> and a checksum sampled from its elements is unchanged since it was last uploaded. Results are still 
+    * copied back automatically.
+    * <p>
+    * The sampled checksum will not notice updates which only touch elements between the sampled ones, so code which makes sparse 
+    * updates to such arrays must call <code>markDirty()</code>.
+    * 
+    * @param _autoTransfer (true if we want unchanged read only arrays to be skipped)
+    * @see #getTransferStatistics()
+    */
+   public void setAutoTransfer(boolean _autoTransfer) {
+      prepareKernelRunner().setAutoTransfer(_autoTransfer);
+   }
+
+   /**
+    * @return  (true if this kernel skips uploads of unchanged read only arrays)
+    */
+   public boolean isAutoTransfer() {
+      return prepareKernelRunner().isAutoTransfer();
+   }
+
+   /**
+    * @return the statistics of array transfers performed and skipped when executing this Kernel on an OpenCL device
+    */
+   public TransferStatistics getTransferStatistics() {
+      return prepareKernelRunner().getTransferStatistics();
+   }
+
+   /**
+    * Tag this array as modified so that it is uploaded before the kernel is next executed when using automatic transfers
+    * @param array
+    * @return This kernel so that we can use the 'fluent' style API
+    */
+   public Kernel markDirty(int[] array) {
+      prepareKernelRunner().markDirty(array);
+      return (this);
+   }
+
+   /**
+    * Tag this array as modified so that it is uploaded before the kernel is next executed when using automatic transfers
+    * @param array
+    * @return This kernel so that we can use the 'fluent' style API
+    */
+   public Kernel markDirty(float[] array) {
+      prepareKernelRunner().markDirty(array);
+      return (this);
+   }
+
+   /**
+    * Tag this array as modified so that it is uploaded before the kernel is next executed when using automatic transfers
+    * @param array
+    * @return This kernel so that we can use the 'fluent' style API
+    */
+   public Kernel markDirty(double[] array) {
+      prepareKernelRunner().markDirty(array);
+      return (this);
+   }
+
+   /**
+    * Tag this array as modified so that it is uploaded before the kernel is next executed when using automatic transfers
+    * @param array
+    * @return This kernel so that we can use the 'fluent' style API
+    */
+   public Kernel markDirty(long[] array) {
+      prepareKernelRunner().markDirty(array);
+      return (this);
+   }
+
+   /**
+    * Tag this array as modified so that it is uploaded before the kernel is next executed when using automatic transfers
+    * @param array
+    * @return This kernel so that we can use the 'fluent' style API
+    */
+   public Kernel markDirty(short[] array) {
+      prepareKernelRunner().markDirty(array);
+      return (this);
+   }
+
+   /**
+    * Tag this array as modified so that it is uploaded before the kernel is next executed when using automatic transfers
+    * @param array
+    * @return This kernel so that we can use the 'fluent' style API
+    */
+   public Kernel markDirty(byte[] array) {
+      prepareKernelRunner().markDirty(array);
+      return (this);
+   }
+
+   /**
+    * Tag this array as modified so that it is uploaded before the kernel is next executed when using automatic transfers
+    * @param array
+    * @return This kernel so that we can use the 'fluent' style API
+    */
+   public Kernel markDirty(char[] array) {
+      prepareKernelRunner().markDirty(array);
+      return (this);
+   }
+
+   /**
+    * Tag this array as modified so that it is uploaded before the kernel is next executed when using automatic transfers
+    * @param array
+    * @return This kernel so that we can use the 'fluent' style API
+    */
+   public Kernel markDirty(boolean[] array) {
+      prepareKernelRunner().markDirty(array);
+      return (this);
+   }
+
    /**
     * Tag this array so that it is explicitly enqueued before the kernel is executed
     * @param array
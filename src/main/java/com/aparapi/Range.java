@@ -61,6 +61,14 @@ import java.util.*;
  *  int groupDepth=2
  *  Range.create3D(width, height, depth, groupWidth, groupHeight, groupDepth);
  * </pre></blockquote>
+ * When only a subset of a domain needs to be processed (for example the active set of an iterative algorithm) we can
+ * create a one dimensional range over an explicit list of indices
+ * <blockquote><pre>
+ *  int[] active = new int[] {3, 17, 42, 99};
+ *  Range.create(active);
+ * </pre></blockquote>
+ * In this case <code>Kernel.getGlobalId()</code> returns <code>active[i]</code> for the i'th work item, so the work done is 
+ * proportional to the number of active indices rather than to the size of the whole domain.
  */
 public class Range extends RangeJNI{
 
@@ -81,6 +89,10 @@ public class Range extends RangeJNI{
          MAX_GROUP_SIZE
    };
 
+   private int[] indices = null;
+
+   private long globalSizeLong = -1;
+
    /**
     * Minimal constructor
     * 
@@ -196,6 +208,82 @@ public class Range extends RangeJNI{
       return (range);
    }
 
+   /** 
+    * Create a one dimensional range over an explicit list of indices.
+    * <br/>
+    * The range has <code>_indices.length</code> work items and <code>Kernel.getGlobalId()</code> returns <code>_indices[i]</code> 
+    * for the i'th work item. <code>Kernel.getGlobalSize()</code> returns <code>_indices.length</code>.
+    * <br/>
+    * In OpenCL the indices are passed to the kernel along with its fields, and each work item reads its global id from them. In Java 
+    * the work items are split evenly across the available threads, and local barriers, which are not meaningful across an arbitrary 
+    * list of indices, are disabled. Work group reductions, scans and broadcasts throw an <code>IllegalStateException</code> there unless 
+    * the local size is 1.
+    * <br/>
+    * Note that the array is not copied, it should not be modified while the range is being executed.
+    * 
+    * @param _indices the indices we wish to process
+    * @return A new Range over the requested indices
+    */
+   public static Range create(Device _device, int[] _indices) {
+      if (_indices == null) {
+         throw new IllegalArgumentException("indices can't be null");
+      }
+      final Range range = create(_device, _indices.length);
+      range.indices = _indices;
+
+      return (range);
+   }
+
+   /** 
+    * Create a one dimensional range over an explicit list of indices, with a local size chosen for the default device.
+    * 
+    * @param _indices the indices we wish to process
+    * @return A new Range over the requested indices
+    * @see #create(Device, int[])
+    */
+   public static Range create(int[] _indices) {
+      final Range range = create(null, _indices);
+
+      return (range);
+   }
+
+   /** 
+    * Create a one dimensional range <code>0.._globalWidth</code> where <code>_globalWidth</code> may exceed <code>Integer.MAX_VALUE</code>.
+    * <br/>
+    * Kernels executing a long range should use <code>Kernel.getGlobalIdLong()</code> and <code>Kernel.getGlobalSizeLong()</code>. 
+    * <code>getGlobalSize(0)</code> of the range is clamped to <code>Integer.MAX_VALUE</code>, while in Java <code>Kernel.getGlobalId()</code>
+    * and <code>Kernel.getGlobalSize()</code> throw an <code>IllegalStateException</code> rather than truncate a value beyond it.
+    * <br/>
+    * In Java long ranges are executed by splitting the range into one contiguous chunk per pool thread, local barriers are disabled and
+    * work group reductions, scans and broadcasts throw an <code>IllegalStateException</code> unless the local size is 1. 
+    * On an OpenCL device a range beyond <code>Integer.MAX_VALUE</code> is dispatched in parts, the global ids of each part being offset 
+    * by its start. Work group reductions and collectives, and executions of several passes, can not be split so are executed in Java.
+    * 
+    * @param _globalWidth the overall range we wish to process
+    * @return A new Range with the requested size
+    */
+   public static Range createLong(Device _device, long _globalWidth) {
+      if (_globalWidth < 0) {
+         throw new IllegalArgumentException("globalWidth can't be negative: " + _globalWidth);
+      }
+      final Range range;
+      if (_globalWidth <= Integer.MAX_VALUE) {
+         range = create(_device, (int) _globalWidth);
+      } else {
+         range = create(_device, Integer.MAX_VALUE, 1);
+         range.setLocalIsDerived(true);
+      }
+      range.globalSizeLong = _globalWidth;
+
+      return (range);
+   }
+
+   public static Range createLong(long _globalWidth) {
+      final Range range = createLong(null, _globalWidth);
+
+      return (range);
+   }
+
    /** 
     * Create a two dimensional range 0.._globalWidth x 0.._globalHeight using a group which is _localWidth x _localHeight in size.
     * <br/>
@@ -429,7 +517,10 @@ public class Range extends RangeJNI{
 
       switch (dims) {
          case 1:
-            sb.append("global:" + globalSize_0 + " local:" + (localIsDerived ? "(derived)" : "") + localSize_0);
+            if (indices != null) {
+               sb.append("indexed ");
+            }
+            sb.append("global:" + getGlobalSizeLong() + " local:" + (localIsDerived ? "(derived)" : "") + localSize_0);
             break;
          case 2:
             sb.append("2D(global:" + globalSize_0 + "x" + globalSize_1 + " local:" + (localIsDerived ? "(derived)" : "")
@@ -488,6 +579,34 @@ public class Range extends RangeJNI{
       return (device);
    }
 
+   /**
+    * @return the indices this range was created from, or <code>null</code> if this is not an indexed range
+    */
+   public int[] getIndices() {
+      return (indices);
+   }
+
+   /**
+    * @return true if this range was created from an explicit list of indices
+    */
+   public boolean isIndexed() {
+      return (indices != null);
+   }
+
+   /**
+    * @return the 64 bit globalSize of the first dimension of this range
+    */
+   public long getGlobalSizeLong() {
+      return (globalSizeLong >= 0 ? globalSizeLong : globalSize_0);
+   }
+
+   /**
+    * @return true if this range was created using <code>createLong()</code>
+    */
+   public boolean isLong() {
+      return (globalSizeLong >= 0);
+   }
+
    /**
     * @return the globalSize_0
     */
@@ -101,7 +101,8 @@ import com.aparapi.internal.instruction.Instruction;
       MULTIDIMENSIONARRAYASSIGN("Can't assign to two dimension array"), //
       MULTIDIMENSIONARRAYACCESS("Can't access through a two dimensional array"), //
       MISSINGLOCALVARIABLETABLE("Method does not contain a local variable table (recompile with -g?)"), //
-      IMPROPERPRIVATENAMEMANGLING("Could not parse private array size from field name");
+      IMPROPERPRIVATENAMEMANGLING("Could not parse private array size from field name"), //
+      GRIDBARRIER("We don't support gridBarrier(), OpenCL work groups may not all be resident");
 
       private String description;
 
@@ -3381,6 +3381,20 @@ public class InstructionSet{
       @Override public String getDescription() {
          return ("pop 2 items");
       }
+
+      /**
+       * The long or double returned by a discarded call is a single folded expression, although it takes two stack slots.
+       */
+      @Override public int getStackConsumeCount() {
+         if (getPrevPC() instanceof MethodCall) {
+            final String descriptor = ((MethodCall) getPrevPC()).getConstantPoolMethodEntry().getNameAndTypeEntry()
+                  .getDescriptorUTF8Entry().getUTF8();
+            if (descriptor.endsWith(")J") || descriptor.endsWith(")D")) {
+               return (1);
+            }
+         }
+         return (super.getStackConsumeCount());
+      }
    }
 
    public static class I_PUTFIELD extends Index16 implements AssignToInstanceField{
@@ -0,0 +1,248 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.internal.kernel;
+
+import java.lang.reflect.*;
+import java.nio.*;
+import java.util.concurrent.*;
+
+import com.aparapi.internal.writer.*;
+
+/**
+ * Gathers the rows of a rectangular 2D or 3D primitive array into one contiguous primitive array, and scatters them back again.
+ * <p>
+ * The contiguous array starts with a header of {@link KernelWriter#CONTIGUOUS_HEADER_BYTES} bytes holding the length of each
+ * dimension followed by the pitch (in elements) of each dimension, stored as native order ints so that the generated
+ * kernel can read them through an <code>int</code> pointer. The elements follow the header in row major order.
+ *
+ * @see com.aparapi.Kernel.Contiguous
+ */
+public class ContiguousArray {
+
+   /**
+    * Rows are only copied in parallel once a task holds at least this many elements.
+    */
+   private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+   private static final int HEADER_INTS = KernelWriter.CONTIGUOUS_HEADER_BYTES / 4;
+
+   /**
+    * Copy the rows of <code>_array</code> into a contiguous array.
+    *
+    * @param _array the 2D or 3D primitive array
+    * @param _reuse a contiguous array returned by an earlier call, reused if it has the right type and length, may be null
+    * @param _pool the pool used to copy the rows in parallel, may be null
+    * @return the contiguous array
+    */
+   public static Object gather(Object _array, Object _reuse, ForkJoinPool _pool) {
+      final int[] dims = getDims(_array);
+      final Class<?> elementType = getElementType(_array.getClass());
+      final int offset = getHeaderElements(elementType);
+      final int length = offset + getElementCount(dims);
+
+      Object buffer = _reuse;
+      if ((buffer == null) || (buffer.getClass().getComponentType() != elementType) || (Array.getLength(buffer) != length)) {
+         buffer = Array.newInstance(elementType, length);
+      }
+
+      writeHeader(buffer, dims);
+      copyRows(getRows(_array, dims), buffer, offset, dims[dims.length - 1], true, _pool);
+      return (buffer);
+   }
+
+   /**
+    * Copy the elements of a contiguous array back into the rows of <code>_array</code>.
+    *
+    * @param _buffer the contiguous array returned by {@link #gather(Object, Object, ForkJoinPool)}
+    * @param _array the 2D or 3D primitive array, which must still have the shape it was gathered with
+    * @param _pool the pool used to copy the rows in parallel, may be null
+    */
+   public static void scatter(Object _buffer, Object _array, ForkJoinPool _pool) {
+      final int[] dims = getDims(_array);
+      final int offset = getHeaderElements(_buffer.getClass().getComponentType());
+      if (Array.getLength(_buffer) != (offset + getElementCount(dims))) {
+         throw new IllegalStateException("contiguous array does not match the shape of the array it was gathered from");
+      }
+      copyRows(getRows(_array, dims), _buffer, offset, dims[dims.length - 1], false, _pool);
+   }
+
+   /**
+    * @return the number of elements of the given primitive type occupied by the header
+    */
+   public static int getHeaderElements(Class<?> _elementType) {
+      if ((_elementType == int.class) || (_elementType == float.class)) {
+         return (KernelWriter.CONTIGUOUS_HEADER_BYTES / 4);
+      } else if ((_elementType == long.class) || (_elementType == double.class)) {
+         return (KernelWriter.CONTIGUOUS_HEADER_BYTES / 8);
+      } else if ((_elementType == short.class) || (_elementType == char.class)) {
+         return (KernelWriter.CONTIGUOUS_HEADER_BYTES / 2);
+      } else if (_elementType == byte.class) {
+         return (KernelWriter.CONTIGUOUS_HEADER_BYTES);
+      }
+      throw new IllegalArgumentException("contiguous arrays of " + _elementType + " are not supported");
+   }
+
+   private static Class<?> getElementType(Class<?> _arrayType) {
+      Class<?> elementType = _arrayType;
+      while (elementType.isArray()) {
+         elementType = elementType.getComponentType();
+      }
+      return (elementType);
+   }
+
+   private static int[] getDims(Object _array) {
+      int numDims = 0;
+      for (Class<?> type = _array.getClass(); type.isArray(); type = type.getComponentType()) {
+         numDims++;
+      }
+      if ((numDims < 2) || (numDims > 3)) {
+         throw new IllegalArgumentException("only 2D and 3D arrays can be contiguous");
+      }
+      final int[] dims = new int[numDims];
+      Object sub = _array;
+      for (int d = 0; d < numDims; d++) {
+         dims[d] = Array.getLength(sub);
+         if (dims[d] == 0) {
+            break;
+         }
+         if (d < (numDims - 1)) {
+            sub = Array.get(sub, 0);
+         }
+      }
+      return (dims);
+   }
+
+   private static int getElementCount(int[] _dims) {
+      long count = 1;
+      for (final int dim : _dims) {
+         count *= dim;
+      }
+      if (count > Integer.MAX_VALUE) {
+         throw new IllegalStateException("contiguous array would hold " + count + " elements");
+      }
+      return ((int) count);
+   }
+
+   /**
+    * @return the innermost rows of the array in row major order, after checking that the array is rectangular
+    */
+   private static Object[] getRows(Object _array, int[] _dims) {
+      final Object[] outer = (Object[]) _array;
+      if (_dims.length == 2) {
+         for (final Object row : outer) {
+            checkLength(row, _dims[1]);
+         }
+         return (outer);
+      }
+      final Object[] rows = new Object[_dims[0] * _dims[1]];
+      for (int i = 0; i < _dims[0]; i++) {
+         final Object[] plane = (Object[]) outer[i];
+         checkLength(plane, _dims[1]);
+         for (int j = 0; j < _dims[1]; j++) {
+            checkLength(plane[j], _dims[2]);
+            rows[(i * _dims[1]) + j] = plane[j];
+         }
+      }
+      return (rows);
+   }
+
+   private static void checkLength(Object _row, int _length) {
+      if ((_row == null) || (Array.getLength(_row) != _length)) {
+         throw new IllegalStateException("contiguous arrays must be rectangular");
+      }
+   }
+
+   private static void writeHeader(Object _buffer, int[] _dims) {
+      final int[] header = new int[HEADER_INTS];
+      int pitch = 1;
+      for (int d = _dims.length - 1; d >= 0; d--) {
+         header[d] = _dims[d];
+         header[KernelWriter.CONTIGUOUS_HEADER_DIMENSION_OFFSET + d] = pitch;
+         pitch *= _dims[d];
+      }
+
+      final ByteBuffer bytes = ByteBuffer.allocate(KernelWriter.CONTIGUOUS_HEADER_BYTES).order(ByteOrder.nativeOrder());
+      bytes.asIntBuffer().put(header);
+      if (_buffer instanceof int[]) {
+         bytes.asIntBuffer().get((int[]) _buffer, 0, HEADER_INTS);
+      } else if (_buffer instanceof float[]) {
+         bytes.asFloatBuffer().get((float[]) _buffer, 0, HEADER_INTS);
+      } else if (_buffer instanceof long[]) {
+         bytes.asLongBuffer().get((long[]) _buffer, 0, HEADER_INTS / 2);
+      } else if (_buffer instanceof double[]) {
+         bytes.asDoubleBuffer().get((double[]) _buffer, 0, HEADER_INTS / 2);
+      } else if (_buffer instanceof short[]) {
+         bytes.asShortBuffer().get((short[]) _buffer, 0, HEADER_INTS * 2);
+      } else if (_buffer instanceof char[]) {
+         bytes.asCharBuffer().get((char[]) _buffer, 0, HEADER_INTS * 2);
+      } else {
+         bytes.get((byte[]) _buffer, 0, HEADER_INTS * 4);
+      }
+   }
+
+   private static void copyRows(Object[] _rows, Object _buffer, int _offset, int _rowLength, boolean _gather, ForkJoinPool _pool) {
+      final RowCopy copy = new RowCopy(_rows, _buffer, _offset, _rowLength, _gather, 0, _rows.length);
+      if ((_pool == null) || (((long) _rows.length * _rowLength) <= PARALLEL_THRESHOLD)) {
+         copy.compute();
+      } else {
+         _pool.invoke(copy);
+      }
+   }
+
+   @SuppressWarnings("serial")
+   private static class RowCopy extends RecursiveAction {
+      private final Object[] rows;
+
+      private final Object buffer;
+
+      private final int offset;
+
+      private final int rowLength;
+
+      private final boolean gather;
+
+      private final int from;
+
+      private final int to;
+
+      RowCopy(Object[] _rows, Object _buffer, int _offset, int _rowLength, boolean _gather, int _from, int _to) {
+         rows = _rows;
+         buffer = _buffer;
+         offset = _offset;
+         rowLength = _rowLength;
+         gather = _gather;
+         from = _from;
+         to = _to;
+      }
+
+      @Override protected void compute() {
+         if (((to - from) > 1) && (((long) (to - from) * rowLength) > PARALLEL_THRESHOLD)) {
+            final int mid = (from + to) >>> 1;
+            invokeAll(new RowCopy(rows, buffer, offset, rowLength, gather, from, mid), new RowCopy(rows, buffer, offset,
+                  rowLength, gather, mid, to));
+            return;
+         }
+         for (int row = from; row < to; row++) {
+            final int position = offset + (row * rowLength);
+            if (gather) {
+               System.arraycopy(rows[row], 0, buffer, position, rowLength);
+            } else {
+               System.arraycopy(buffer, position, rows[row], 0, rowLength);
+            }
+         }
+      }
+   }
+}
@@ -59,6 +59,21 @@ public class KernelArg extends KernelArgJNI{
     */
    private int primitiveSize;
 
+   /**
+    * True if the kernel never reads this array and writes every element at getGlobalId()
+    */
+   private boolean writeOnly;
+
+   /**
+    * Sampled checksum of the array when it was last uploaded, for automatic transfers of read only arrays
+    */
+   private long checksum;
+
+   /**
+    * True if this multi dimensional array is gathered into a single contiguous buffer
+    */
+   private boolean contiguous;
+
    /**
     * Default constructor
     */
@@ -136,6 +151,48 @@ public class KernelArg extends KernelArgJNI{
       this.primitiveSize = primitiveSize;
    }
 
+   /**
+    * @return the writeOnly
+    */
+   protected boolean isWriteOnly() {
+      return writeOnly;
+   }
+
+   /**
+    * @param writeOnly the writeOnly to set
+    */
+   protected void setWriteOnly(boolean writeOnly) {
+      this.writeOnly = writeOnly;
+   }
+
+   /**
+    * @return the checksum
+    */
+   protected long getChecksum() {
+      return checksum;
+   }
+
+   /**
+    * @param checksum the checksum to set
+    */
+   protected void setChecksum(long checksum) {
+      this.checksum = checksum;
+   }
+
+   /**
+    * @return the contiguous
+    */
+   protected boolean isContiguous() {
+      return contiguous;
+   }
+
+   /**
+    * @param contiguous the contiguous to set
+    */
+   protected void setContiguous(boolean contiguous) {
+      this.contiguous = contiguous;
+   }
+
    /**
     * @return the type
     */
@@ -157,7 +157,17 @@ public class KernelRunner extends KernelRunnerJNI{
    //Allow a thread pool per KernelRunner which will also be per Kernel instance 
    private final ForkJoinPool threadPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
          lowPriorityThreadFactory, handler, false);
-   private static HashMap<Class<? extends Kernel>, String> openCLCache = new HashMap<>();
+   /**
+    * Generated OpenCL keyed by the name of the kernel class, and of the entrypoint unless it is <code>run</code>, qualified by the arrays
+    * promoted to __constant and the values of any specialized or folded final fields (see {@link #getProgramKey(Entrypoint, Set)}).
+    * Bounded by {@link Config#maxProgramCacheSize}, the least recently used program is discarded first.
+    */
+   @SuppressWarnings("serial") private static LinkedHashMap<String, String> openCLCache = new LinkedHashMap<String, String>(16, 0.75f,
+         true){
+      @Override protected boolean removeEldestEntry(Map.Entry<String, String> _eldest) {
+         return (size() > Config.maxProgramCacheSize);
+      }
+   };
    private static LinkedHashSet<String> seenBinaryKeys = new LinkedHashSet<>();
 
    private class ThreadDiedHandler implements UncaughtExceptionHandler {
@@ -169,8 +179,83 @@ public class KernelRunner extends KernelRunnerJNI{
 	   }
    }
    
-   private final Hashtable<Device, Boolean> kernelIsCompiledForDeviceHash = new Hashtable<Device, Boolean>();
-   private final Hashtable<Device, Boolean> kernelNeverExecutedForDeviceHash = new Hashtable<Device, Boolean>();
+   private Hashtable<Device, Boolean> kernelIsCompiledForDeviceHash = new Hashtable<Device, Boolean>();
+   private Hashtable<Device, Boolean> kernelNeverExecutedForDeviceHash = new Hashtable<Device, Boolean>();
+
+   /**
+    * The values of the {@link Kernel.Specialize} fields the current program was generated for.
+    */
+   private Map<String, Object> specializedFieldValues = null;
+
+   /**
+    * The array fields which held the same java array as another array field when the current program was generated, which the program
+    * does not declare <code>restrict</code>.
+    */
+   private Set<String> arrayFieldAliases = null;
+
+   /**
+    * The name of the entrypoint the current program, args and JNI context belong to, null until the kernel is first executed or compiled.
+    */
+   private String entrypointName = null;
+
+   /**
+    * The kind of range the current program executes.
+    */
+   private Entrypoint.RangeKind rangeKind = Entrypoint.RangeKind.PLAIN;
+
+   /**
+    * The number of work items of each dispatch of a long range beyond <code>Integer.MAX_VALUE</code>, a power of two so that every part 
+    * but the last can use the largest work group size of the device.
+    */
+   private static final int SPLIT_RANGE_PART_SIZE = 1 << 30;
+
+   /**
+    * The programs put aside while another program of the kernel is current, keyed by 
+    * {@link #getProgramStateKey(String, Entrypoint.RangeKind, Map)}, least recently used first (see {@link #selectEntrypoint(String)}, 
+    * {@link #selectRangeKind(Entrypoint.RangeKind)} and {@link #selectSpecialization(Map, Set)}). At most 
+    * {@link Config#maxKernelContexts} are kept as each JNI context holds device copies of the arrays, the JNI context of the program 
+    * discarded is disposed.
+    */
+   @SuppressWarnings("serial") private final LinkedHashMap<String, ProgramState> programStates = new LinkedHashMap<String, ProgramState>(16,
+         0.75f, true){
+      @Override protected boolean removeEldestEntry(Map.Entry<String, ProgramState> _eldest) {
+         if (size() > Config.maxKernelContexts) {
+            if (_eldest.getValue().jniContextHandle != 0) {
+               disposeJNI(_eldest.getValue().jniContextHandle);
+            }
+            return (true);
+         }
+         return (false);
+      }
+   };
+
+   /**
+    * The OpenCL state of one program of the kernel, that is of one entrypoint, for one kind of range, one combination of 
+    * {@link Kernel.Specialize} values and one set of array fields referring to the same java arrays, put aside while another program of the kernel is current. Each program keeps its own JNI context,
+    * holding its built program and its buffers, so alternating between entrypoints, kinds of range or specialized values neither 
+    * rebuilds a program nor reallocates the buffers.
+    */
+   private static final class ProgramState {
+      private String entrypointName;
+
+      private Entrypoint.RangeKind rangeKind;
+
+      private Entrypoint entryPoint;
+
+      private long jniContextHandle;
+
+      private KernelArg[] args;
+
+      private int argc;
+
+      private Map<String, Object> specializedFieldValues;
+
+      private Set<String> arrayFieldAliases;
+
+      private Hashtable<Device, Boolean> kernelIsCompiledForDeviceHash = new Hashtable<Device, Boolean>();
+
+      private Hashtable<Device, Boolean> kernelNeverExecutedForDeviceHash = new Hashtable<Device, Boolean>();
+   }
    
    /**
     * Create a KernelRunner for a specific Kernel instance.
@@ -227,10 +312,20 @@ public class KernelRunner extends KernelRunnerJNI{
    public synchronized void dispose() {
       if (kernel.isRunningCL()) {
          disposeJNI(jniContextHandle);
+         for (final ProgramState programState : programStates.values()) {
+            if (programState.jniContextHandle != 0) {
+               disposeJNI(programState.jniContextHandle);
+            }
+         }
+         programStates.clear();
          seenBinaryKeys.clear();
       }
       // We are using a shared pool, so there's no need no shutdown it when kernel is disposed
       //      threadPool.shutdownNow();
+      if (gridPool != null) {
+         gridPool.shutdown();
+         gridPool = null;
+      }
    }
 
    public long getKernelMinimumPrivateMemSizeInUsePerWorkItem(Device device) throws QueryFailedException {
@@ -462,6 +557,126 @@ public class KernelRunner extends KernelRunnerJNI{
       }
    }
 
+   /**
+    * Determine where a slice starts when splitting <code>_size</code> work items into <code>_slices</code> contiguous slices
+    * whose sizes differ by at most one.
+    */
+   private static long sliceStart(long _size, int _slices, int _slice) {
+      return ((_slice * (_size / _slices)) + Math.min(_slice, _size % _slices));
+   }
+
+   /**
+    * Record the transfers the native side will perform for this (one dimensional primitive) array arg.
+    */
+   private void recordTransfers(KernelArg arg) {
+      final int type = arg.getType();
+      if ((type & ARG_EXPLICIT) != 0) {
+         if ((type & ARG_EXPLICIT_WRITE) != 0) {
+            transferStatistics.recordUpload(arg.getSizeInBytes());
+         } else if ((type & ARG_READ) != 0) {
+            transferStatistics.recordSkippedUpload(arg.getSizeInBytes());
+         }
+      } else {
+         if ((type & ARG_READ) != 0) {
+            transferStatistics.recordUpload(arg.getSizeInBytes());
+         } else if (arg.isWriteOnly()) {
+            transferStatistics.recordSkippedUpload(arg.getSizeInBytes());
+         }
+         if ((type & ARG_WRITE) != 0) {
+            transferStatistics.recordDownload(arg.getSizeInBytes());
+         }
+      }
+   }
+
+   /**
+    * Compute a checksum over at most <code>AUTO_TRANSFER_SAMPLES</code> elements spread evenly across a primitive array.
+    * <p>
+    * This is cheap enough to compute on every execution, but will miss changes which only touch elements between the samples, 
+    * callers making such sparse updates must use <code>Kernel.markDirty()</code>.
+    */
+   private static long sampleChecksum(Object _array) {
+      final int length = Array.getLength(_array);
+      final int step = Math.max(1, length / AUTO_TRANSFER_SAMPLES);
+      long checksum = length;
+      for (int i = 0; i < length; i += step) {
+         checksum = (checksum * 31) + elementBits(_array, i);
+      }
+      if (length > 0) {
+         checksum = (checksum * 31) + elementBits(_array, length - 1);
+      }
+      return (checksum);
+   }
+
+   private static long elementBits(Object _array, int _index) {
+      if (_array instanceof int[]) {
+         return (((int[]) _array)[_index]);
+      } else if (_array instanceof float[]) {
+         return (Float.floatToRawIntBits(((float[]) _array)[_index]));
+      } else if (_array instanceof double[]) {
+         return (Double.doubleToRawLongBits(((double[]) _array)[_index]));
+      } else if (_array instanceof long[]) {
+         return (((long[]) _array)[_index]);
+      } else if (_array instanceof short[]) {
+         return (((short[]) _array)[_index]);
+      } else if (_array instanceof byte[]) {
+         return (((byte[]) _array)[_index]);
+      } else if (_array instanceof char[]) {
+         return (((char[]) _array)[_index]);
+      } else if (_array instanceof boolean[]) {
+         return (((boolean[]) _array)[_index] ? 1 : 0);
+      }
+      throw new IllegalArgumentException("expected a primitive array, found " + _array.getClass().getName());
+   }
+
+   /**
+    * @return the method of the kernel named <code>_entrypoint</code>, or null for <code>run()</code> which is called directly
+    */
+   private Method getEntrypointMethod(String _entrypoint) {
+      if ((_entrypoint == null) || _entrypoint.equals("run")) {
+         return (null);
+      }
+      for (Class<?> clazz = kernel.getClass(); clazz != Kernel.class; clazz = clazz.getSuperclass()) {
+         try {
+            final Method method = clazz.getDeclaredMethod(_entrypoint);
+            method.setAccessible(true);
+            return (method);
+         } catch (final NoSuchMethodException e) {
+            // look in the superclass
+         }
+      }
+      throw new IllegalStateException("kernel " + kernel.getClass().getName() + " has no entrypoint " + _entrypoint + "()");
+   }
+
+   /**
+    * @return the work each work item does in Java on <code>_kernelClone</code>, calling <code>_entrypointMethod</code>, or 
+    *         <code>run()</code> if it is null
+    */
+   private static Runnable getWorkItem(final Kernel _kernelClone, final Method _entrypointMethod) {
+      if (_entrypointMethod == null) {
+         return new Runnable(){
+            @Override public void run() {
+               _kernelClone.run();
+            }
+         };
+      }
+      return new Runnable(){
+         @Override public void run() {
+            try {
+               _entrypointMethod.invoke(_kernelClone);
+            } catch (final InvocationTargetException e) {
+               if (e.getCause() instanceof RuntimeException) {
+                  throw (RuntimeException) e.getCause();
+               } else if (e.getCause() instanceof Error) {
+                  throw (Error) e.getCause();
+               }
+               throw new IllegalStateException(e.getCause());
+            } catch (final IllegalAccessException e) {
+               throw new IllegalStateException(e);
+            }
+         }
+      };
+   }
+
    //   @FunctionalInterface
    private interface ThreadIdSetter{
       void set(KernelState kernelState, int globalGroupId, int threadId);
@@ -491,6 +706,7 @@ public class KernelRunner extends KernelRunnerJNI{
                fallBackToNextDevice(device, _settings, (Exception) null, silently);
             }
          } else {
+            final Method entrypointMethod = getEntrypointMethod(_settings.entrypoint);
             final int localSize0 = _settings.range.getLocalSize(0);
             final int localSize1 = _settings.range.getLocalSize(1);
             final int localSize2 = _settings.range.getLocalSize(2);
@@ -510,6 +726,7 @@ public class KernelRunner extends KernelRunnerJNI{
 
                final Kernel kernelClone = kernel.clone();
                final KernelState kernelState = kernelClone.getKernelState();
+               final Runnable workItem = getWorkItem(kernelClone, entrypointMethod);
 
                kernelState.setRange(_settings.range);
                kernelState.setGroupId(0, 0);
@@ -519,6 +736,7 @@ public class KernelRunner extends KernelRunnerJNI{
                kernelState.setLocalId(1, 0);
                kernelState.setLocalId(2, 0);
                kernelState.setLocalBarrier(new FJSafeBarrier(1));
+               kernelState.setLocalSlots(new double[1]);
 
                for (passId = 0; passId < _settings.passes; passId++) {
                   if (getCancelState() == CANCEL_STATUS_TRUE) {
@@ -526,10 +744,25 @@ public class KernelRunner extends KernelRunnerJNI{
                   }
                   kernelState.setPassId(passId);
 
-                  if (_settings.range.getDims() == 1) {
+                  if (_settings.range.isLong()) {
+                     final long globalSizeLong = _settings.range.getGlobalSizeLong();
+                     for (long id = 0; id < globalSizeLong; id++) {
+                        kernelState.setGlobalIdLong(id);
+                        kernelState.setGlobalId(0, (int) id);
+                        workItem.run();
+                     }
+                  }
+                  else if (_settings.range.isIndexed()) {
+                     final int[] indices = _settings.range.getIndices();
+                     for (int i = 0; i < indices.length; i++) {
+                        kernelState.setGlobalId(0, indices[i]);
+                        workItem.run();
+                     }
+                  }
+                  else if (_settings.range.getDims() == 1) {
                      for (int id = 0; id < _settings.range.getGlobalSize(0); id++) {
                         kernelState.setGlobalId(0, id);
-                        kernelClone.run();
+                        workItem.run();
                      }
                   }
                   else if (_settings.range.getDims() == 2) {
@@ -538,7 +771,7 @@ public class KernelRunner extends KernelRunnerJNI{
 
                         for (int y = 0; y < globalSize1; y++) {
                            kernelState.setGlobalId(1, y);
-                           kernelClone.run();
+                           workItem.run();
                         }
                      }
                   }
@@ -551,10 +784,10 @@ public class KernelRunner extends KernelRunnerJNI{
 
                            for (int z = 0; z < _settings.range.getGlobalSize(2); z++) {
                               kernelState.setGlobalId(2, z);
-                              kernelClone.run();
+                              workItem.run();
                            }
 
-                           kernelClone.run();
+                           workItem.run();
                         }
                      }
                   }
@@ -565,10 +798,30 @@ public class KernelRunner extends KernelRunnerJNI{
                if (device != JavaDevice.THREAD_POOL && kernel.getExecutionMode() != Kernel.EXECUTION_MODE.JTP) {
                   throw new AssertionError("unexpected JavaDevice or EXECUTION_MODE");
                }
-               final int threads = localSize0 * localSize1 * localSize2;
+               final int[] indices = _settings.range.getIndices();
+               final boolean longRange = _settings.range.isLong();
+               final long sliceSize = (indices != null) ? indices.length : _settings.range.getGlobalSizeLong();
+               /**
+                * Indexed and long ranges have no meaningful work group structure, so rather than emulating groups we split the
+                * range into one contiguous slice per pool thread.
+                */
+               final boolean sliced = (indices != null) || longRange;
+               final int localItems = localSize0 * localSize1 * localSize2;
+               if (sliced && (localItems > 1) && usesWorkGroupCollectives()) {
+                  throw new IllegalStateException("Work group reductions, scans and broadcasts can not be executed in Java on an "
+                        + ((indices != null) ? "indexed" : "long") + " range, whose work items are not executed in work groups");
+               }
                final int numGroups0 = _settings.range.getNumGroups(0);
                final int numGroups1 = _settings.range.getNumGroups(1);
                final int globalGroups = numGroups0 * numGroups1 * _settings.range.getNumGroups(2);
+               /**
+                * A kernel which calls gridBarrier() needs every work group to be resident, so each work item runs in its own thread of a
+                * pool as wide as the range, rather than each thread running one work item of every group in turn.
+                */
+               final boolean resident = !sliced && usesGridBarrier();
+               final int threads = resident ? (localItems * globalGroups) : !sliced ? localItems
+                     : (int) Math.max(1, Math.min(sliceSize, threadPool.getParallelism()));
+               final ForkJoinPool pool = resident ? getGridPool(threads) : threadPool;
                
                /**
                 * This localBarrier is only ever used by the kernels.  If the kernel does not use the barrier the threads
@@ -581,7 +834,25 @@ public class KernelRunner extends KernelRunnerJNI{
                 *
                 * This barrier is threadCount wide.  We never hit the barrier from the dispatch thread.
                 */
-               final FJSafeBarrier localBarrier = new FJSafeBarrier(threads);
+               final FJSafeBarrier localBarrier = new FJSafeBarrier(localItems);
+
+               /**
+                * The work group collectives exchange values through one slot per thread, read by the threads of the group between two
+                * waits at the localBarrier. Sliced executions have no work groups.
+                */
+               final double[] localSlots = sliced ? null : new double[localItems];
+
+               /**
+                * When the work groups are resident each has its own local barrier and slots, and all threads share the grid barrier.
+                */
+               final FJSafeBarrier[] groupBarriers = resident ? new FJSafeBarrier[globalGroups] : null;
+               final double[][] groupSlots = resident ? new double[globalGroups][localItems] : null;
+               final FJSafeBarrier gridBarrier = resident ? new FJSafeBarrier(threads) : null;
+               if (resident) {
+                  for (int group = 0; group < globalGroups; group++) {
+                     groupBarriers[group] = new FJSafeBarrier(localItems);
+                  }
+               }
 
                final ThreadIdSetter threadIdSetter;
 
@@ -591,7 +862,7 @@ public class KernelRunner extends KernelRunnerJNI{
                      public void set(KernelState kernelState, int globalGroupId, int threadId) {
                         //                   (kernelState, globalGroupId, threadId) ->{
                         kernelState.setLocalId(0, (threadId % localSize0));
-                        kernelState.setGlobalId(0, (threadId + (globalGroupId * threads)));
+                        kernelState.setGlobalId(0, (threadId + (globalGroupId * localSize0)));
                         kernelState.setGroupId(0, globalGroupId);
                      }
                   };
@@ -723,6 +994,12 @@ public class KernelRunner extends KernelRunnerJNI{
                   throw new IllegalArgumentException("Expected 1,2 or 3 dimensions, found " + _settings.range.getDims());
                }
                
+               /**
+                * Each thread adds into its own copies of the @Privatized arrays, which are added into the arrays after each pass.
+                */
+               final List<Field> privatized = (threads > 1) ? getPrivatizedFields(_settings.entrypoint) : Collections.<Field> emptyList();
+               final Object[][] privatizedCopies = privatized.isEmpty() ? null : createPrivatizedCopies(privatized, threads);
+
                ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[threads];
                for (passId = 0; passId < _settings.passes; passId++) {
                   if (getCancelState() == CANCEL_STATUS_TRUE) {
@@ -771,30 +1048,68 @@ public class KernelRunner extends KernelRunnerJNI{
                       */
                      final Kernel kernelClone = kernel.clone();
                      final KernelState kernelState = kernelClone.getKernelState();
+                     final Runnable workItem = getWorkItem(kernelClone, entrypointMethod);
                      kernelState.setRange(_settings.range);
                      kernelState.setPassId(passId);
 
-                     if (threads == 1) {
+                     final FJSafeBarrier threadLocalBarrier = resident ? groupBarriers[threadId / localItems] : localBarrier;
+                     if ((localItems == 1) || sliced) {
                         kernelState.disableLocalBarrier();
                      }
                      else {
-                        kernelState.setLocalBarrier(localBarrier);
+                        kernelState.setLocalBarrier(threadLocalBarrier);
+                     }
+                     kernelState.setLocalSlots(resident ? groupSlots[threadId / localItems] : localSlots);
+                     kernelState.setGridBarrier(gridBarrier);
+                     if (privatizedCopies != null) {
+                        setFields(kernelClone, privatized, privatizedCopies[threadId]);
+                        kernelState.setPrivatizedArrays(privatizedCopies[threadId]);
                      }
 
-                     ForkJoinTask<?> fjt = threadPool.submit(
+                     ForkJoinTask<?> fjt = pool.submit(
                      //                     () -> {
                      new Runnable() {
                         public void run() {
                            try {
-                              for (int globalGroupId = 0; globalGroupId < globalGroups; globalGroupId++) {
-                                 threadIdSetter.set(kernelState, globalGroupId, threadId);
-                                 kernelClone.run();
+                              if (indices != null) {
+                                 final int from = (int) sliceStart(sliceSize, threads, threadId);
+                                 final int to = (int) sliceStart(sliceSize, threads, threadId + 1);
+                                 for (int i = from; i < to; i++) {
+                                    kernelState.setLocalId(0, (i % localSize0));
+                                    kernelState.setGroupId(0, (i / localSize0));
+                                    kernelState.setGlobalId(0, indices[i]);
+                                    workItem.run();
+                                 }
+                              } else if (longRange) {
+                                 final long from = sliceStart(sliceSize, threads, threadId);
+                                 final long to = sliceStart(sliceSize, threads, threadId + 1);
+                                 for (long id = from; id < to; id++) {
+                                    kernelState.setLocalId(0, (int) (id % localSize0));
+                                    kernelState.setGroupId(0, (int) (id / localSize0));
+                                    kernelState.setGlobalIdLong(id);
+                                    kernelState.setGlobalId(0, (int) id);
+                                    workItem.run();
+                                 }
+                              } else if (resident) {
+                                 threadIdSetter.set(kernelState, threadId / localItems, threadId % localItems);
+                                 workItem.run();
+                              } else {
+                                 for (int globalGroupId = 0; globalGroupId < globalGroups; globalGroupId++) {
+                                    threadIdSetter.set(kernelState, globalGroupId, threadId);
+                                    workItem.run();
+                                 }
                               }
                            } catch (AparapiBrokenBarrierException e) {
                         	   //Intentionally empty to not obfuscate threads that failed executing the kernel with those that had
                         	   //the barrier broken by the first ones.
                            } catch (RuntimeException | Error e) {
-                        	  localBarrier.breakBarrier(e);
+                              if (resident) {
+                                 for (final FJSafeBarrier groupBarrier : groupBarriers) {
+                                    groupBarrier.breakBarrier(e);
+                                 }
+                                 gridBarrier.breakBarrier(e);
+                              }
+                        	  threadLocalBarrier.breakBarrier(e);
                         	  throw new AparapiKernelFailedException(kernelState.describe(), e);
                            }
                         }
@@ -806,6 +1121,9 @@ public class KernelRunner extends KernelRunnerJNI{
                   for (ForkJoinTask<?> task : tasks) { // This dispatch thread waits for all worker threads here.
                 	  task.join();
                   }
+                  if (privatizedCopies != null) {
+                     mergePrivatizedCopies(privatized, privatizedCopies);
+                  }
                   
                   long deathCount = handler.threadsDiedCounter.get() - deadThreadCount;
                   if (deathCount > 0) {
@@ -820,10 +1138,217 @@ public class KernelRunner extends KernelRunnerJNI{
       }
    }
 
+   /**
+    * @return the {@link Privatized} fields of the kernel, checking on the first execution of <code>_entrypoint</code> that it only
+    *         updates them through <code>atomicAdd()</code>
+    * @throws IllegalStateException if <code>_entrypoint</code> stores into a {@link Privatized} array or updates it with another atomic
+    */
+   private List<Field> getPrivatizedFields(String _entrypoint) {
+      if (privatizedFields == null) {
+         final List<Field> fields = new ArrayList<Field>();
+         for (Class<?> c = kernel.getClass(); c != Kernel.class; c = c.getSuperclass()) {
+            for (final Field field : c.getDeclaredFields()) {
+               if (field.isAnnotationPresent(Privatized.class)) {
+                  final Class<?> type = field.getType();
+                  if ((type != int[].class) && (type != long[].class) && (type != float[].class) && (type != double[].class)) {
+                     throw new IllegalStateException("@Privatized field " + field.getName()
+                           + " is not an int[], long[], float[] or double[]");
+                  }
+                  field.setAccessible(true);
+                  fields.add(field);
+               }
+            }
+         }
+         privatizedFields = fields;
+      }
+      if (!privatizedFields.isEmpty() && !privatizedCheckedEntrypoints.contains(_entrypoint)) {
+         try {
+            final Set<String> nonAddUpdates = ClassModel.createClassModel(kernel.getClass()).getEntrypoint(_entrypoint, kernel)
+                  .getArrayFieldNonAddUpdates();
+            for (final Field field : privatizedFields) {
+               if (nonAddUpdates.contains(field.getName())) {
+                  throw new IllegalStateException("@Privatized field " + field.getName()
+                        + " is updated other than by atomicAdd(), its copies would be added together");
+               }
+            }
+         } catch (final AparapiException e) {
+            // the atomics themselves reject an update of a copy
+            logger.log(Level.FINE, "Could not check the updates of the @Privatized fields of " + kernel.getClass().getName(), e);
+         }
+         privatizedCheckedEntrypoints.add(_entrypoint);
+      }
+      return (privatizedFields);
+   }
+
+   /**
+    * @return for each thread, a zeroed copy of each of the arrays held by <code>_fields</code>, or null for a null array
+    */
+   private Object[][] createPrivatizedCopies(List<Field> _fields, int _threads) {
+      final Object[][] copies = new Object[_threads][_fields.size()];
+      for (int i = 0; i < _fields.size(); i++) {
+         final Object array = getField(kernel, _fields.get(i));
+         if (array != null) {
+            for (int thread = 0; thread < _threads; thread++) {
+               copies[thread][i] = Array.newInstance(array.getClass().getComponentType(), Array.getLength(array));
+            }
+         }
+      }
+      return (copies);
+   }
+
+   /**
+    * Add each thread's copies into the arrays of the kernel, and zero the copies for the next pass.
+    */
+   private void mergePrivatizedCopies(List<Field> _fields, Object[][] _copies) {
+      for (int i = 0; i < _fields.size(); i++) {
+         final Object array = getField(kernel, _fields.get(i));
+         for (final Object[] threadCopies : _copies) {
+            final Object copy = threadCopies[i];
+            if (copy instanceof int[]) {
+               final int[] target = (int[]) array;
+               final int[] source = (int[]) copy;
+               for (int j = 0; j < source.length; j++) {
+                  target[j] += source[j];
+               }
+               Arrays.fill(source, 0);
+            } else if (copy instanceof long[]) {
+               final long[] target = (long[]) array;
+               final long[] source = (long[]) copy;
+               for (int j = 0; j < source.length; j++) {
+                  target[j] += source[j];
+               }
+               Arrays.fill(source, 0L);
+            } else if (copy instanceof float[]) {
+               final float[] target = (float[]) array;
+               final float[] source = (float[]) copy;
+               for (int j = 0; j < source.length; j++) {
+                  target[j] += source[j];
+               }
+               Arrays.fill(source, 0f);
+            } else if (copy instanceof double[]) {
+               final double[] target = (double[]) array;
+               final double[] source = (double[]) copy;
+               for (int j = 0; j < source.length; j++) {
+                  target[j] += source[j];
+               }
+               Arrays.fill(source, 0.0);
+            }
+         }
+      }
+   }
+
+   private static Object getField(Object _object, Field _field) {
+      try {
+         return (_field.get(_object));
+      } catch (final IllegalAccessException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
+   private static void setFields(Object _object, List<Field> _fields, Object[] _values) {
+      for (int i = 0; i < _fields.size(); i++) {
+         if (_values[i] != null) {
+            try {
+               _fields.get(i).set(_object, _values[i]);
+            } catch (final IllegalAccessException e) {
+               throw new RuntimeException(e);
+            }
+         }
+      }
+   }
+
+   /**
+    * The {@link Privatized} fields of the kernel, found on the first execution in a thread pool.
+    */
+   private List<Field> privatizedFields;
+
+   /**
+    * The entrypoints found to update the {@link Privatized} fields only through <code>atomicAdd()</code>, or which could not be analysed.
+    */
+   private final Set<String> privatizedCheckedEntrypoints = new HashSet<String>();
+
+   /**
+    * @return true if the kernel class, or a superclass, calls {@link Kernel#gridBarrier()}
+    */
+   private boolean usesGridBarrier() {
+      return (getCalledMethods().contains("gridBarrier()V"));
+   }
+
+   /**
+    * @return true if the kernel class, or a superclass, calls a work group reduction, scan or broadcast such as 
+    *         {@link Kernel#workGroupReduceAdd(int)}
+    */
+   private boolean usesWorkGroupCollectives() {
+      for (final String method : getCalledMethods()) {
+         if (method.startsWith("workGroupReduce") || method.startsWith("workGroupScan") || method.startsWith("workGroupBroadcast")) {
+            return (true);
+         }
+      }
+      return (false);
+   }
+
+   /**
+    * @return the name and descriptor of every method the kernel class, or a superclass, calls, or none if a class could not be parsed
+    */
+   private Set<String> getCalledMethods() {
+      if (calledMethods == null) {
+         final Set<String> methods = new HashSet<String>();
+         try {
+            for (Class<?> c = kernel.getClass(); c != Kernel.class; c = c.getSuperclass()) {
+               for (final ClassModel.ConstantPool.Entry entry : ClassModel.createClassModel(c).getConstantPool()) {
+                  if (entry instanceof ClassModel.ConstantPool.MethodEntry) {
+                     final ClassModel.ConstantPool.NameAndTypeEntry nameAndType = ((ClassModel.ConstantPool.MethodEntry) entry)
+                           .getNameAndTypeEntry();
+                     methods.add(nameAndType.getNameUTF8Entry().getUTF8() + nameAndType.getDescriptorUTF8Entry().getUTF8());
+                  }
+               }
+            }
+         } catch (final ClassParseException e) {
+            logger.log(Level.WARNING, "Could not find the methods " + kernel.getClass().getName() + " calls", e);
+            methods.clear();
+         }
+         calledMethods = methods;
+      }
+      return (calledMethods);
+   }
+
+   /**
+    * @return a pool with a thread for each of the <code>_threads</code> work items of an execution whose work groups are all resident
+    */
+   private ForkJoinPool getGridPool(int _threads) {
+      if (_threads > MAX_GRID_THREADS) {
+         throw new IllegalStateException("gridBarrier() needs a thread per work item, " + _threads + " exceeds " + MAX_GRID_THREADS);
+      }
+      if ((gridPool == null) || (gridPool.getParallelism() != _threads)) {
+         if (gridPool != null) {
+            gridPool.shutdown();
+         }
+         gridPool = new ForkJoinPool(_threads, lowPriorityThreadFactory, handler, false);
+      }
+      return (gridPool);
+   }
+
+   /**
+    * The most threads a {@link ForkJoinPool} can have.
+    */
+   private static final int MAX_GRID_THREADS = 0x7fff;
+
+   /**
+    * The methods called by the kernel class and its superclasses, found on the first execution in a thread pool.
+    */
+   private Set<String> calledMethods;
+
+   /**
+    * The pool executing kernels which call {@link Kernel#gridBarrier()}, sized to the last such range.
+    */
+   private ForkJoinPool gridPool;
+
    private KernelArg[] args = null;
 
    private boolean usesOopConversion = false;
 
+   private boolean usesContiguousArrays = false;
+
    /**
     * Helper method to retrieve the class model from a kernel argument. 
     * @param arg the kernel argument
@@ -1114,6 +1639,19 @@ public class KernelRunner extends KernelRunnerJNI{
       }
    }
    
+   private void scatterContiguousArrays() {
+      for (int i = 0; i < argc; i++) {
+         final KernelArg arg = args[i];
+         if (arg.isContiguous() && ((arg.getType() & ARG_WRITE) != 0)) {
+            try {
+               ContiguousArray.scatter(arg.getJavaArray(), arg.getField().get(kernel), threadPool);
+            } catch (final IllegalAccessException e) {
+               e.printStackTrace();
+            }
+         }
+      }
+   }
+
    private boolean prepareAtomicIntegerConversionBuffer(KernelArg arg) throws AparapiException {
       usesOopConversion = true;
       final Class<?> arrayClass = arg.getField().getType();
@@ -1222,7 +1760,7 @@ public class KernelRunner extends KernelRunnerJNI{
       }
    }
 
-   private boolean updateKernelArrayRefs() throws AparapiException {
+   private boolean updateKernelArrayRefs(Range _range) throws AparapiException {
       boolean needsSync = false;
 
       for (int i = 0; i < argc; i++) {
@@ -1249,6 +1787,12 @@ public class KernelRunner extends KernelRunnerJNI{
                   }
                }
 
+               if (arg.isContiguous()) {
+                  newArrayRef = ContiguousArray.gather(newArrayRef, arg.getJavaArray(), threadPool);
+                  arrayLength = Array.getLength(newArrayRef);
+                  usesContiguousArrays = true;
+               }
+
                if (arg.getField().getType() == AtomicInteger[].class) {
             	  prepareAtomicIntegerConversionBuffer(arg);
                } else if ((arg.getType() & ARG_OBJ_ARRAY_STRUCT) != 0) {
@@ -1259,11 +1803,36 @@ public class KernelRunner extends KernelRunnerJNI{
                   arg.setNumElements(arrayLength);
                   arg.setSizeInBytes(arg.getNumElements() * arg.getPrimitiveSize());
 
+                  if (arg.isWriteOnly()) {
+                     // only skip the upload if every element will be written, otherwise we would copy back garbage
+                     if ((_range.getDims() == 1) && !_range.isIndexed() && (_range.getGlobalSize_0() >= arrayLength)) {
+                        arg.setType(arg.getType() & ~ARG_READ);
+                     } else {
+                        arg.setType(arg.getType() | ARG_READ);
+                     }
+                  }
+
+                  if (!explicit) {
+                     if (autoTransfer && ((arg.getType() & (ARG_READ | ARG_WRITE)) == ARG_READ)) {
+                        // the device copy of an array the kernel only reads is still valid if the array has not changed since
+                        // it was last uploaded, so we use the explicit machinery to only enqueue the write when it has
+                        final long checksum = sampleChecksum(newArrayRef);
+                        final boolean dirty = (newArrayRef != arg.getArray()) || dirtyArrays.contains(newArrayRef)
+                              || (checksum != arg.getChecksum());
+                        arg.setChecksum(checksum);
+                        arg.setType((arg.getType() & ~ARG_EXPLICIT_WRITE) | ARG_EXPLICIT | (dirty ? ARG_EXPLICIT_WRITE : 0));
+                     } else {
+                        arg.setType(arg.getType() & ~(ARG_EXPLICIT | ARG_EXPLICIT_WRITE));
+                     }
+                  }
+
                   if (((args[i].getType() & ARG_EXPLICIT) != 0) && puts.contains(newArrayRef)) {
                      args[i].setType(args[i].getType() | ARG_EXPLICIT_WRITE);
                      // System.out.println("detected an explicit write " + args[i].name);
                      puts.remove(newArrayRef);
                   }
+
+                  recordTransfers(arg);
                }
 
                if (newArrayRef != arg.getArray()) {
@@ -1312,6 +1881,7 @@ public class KernelRunner extends KernelRunnerJNI{
             e.printStackTrace();
          }
       }
+      dirtyArrays.clear();
       return needsSync;
    }
 
@@ -1321,13 +1891,31 @@ public class KernelRunner extends KernelRunnerJNI{
       // Read the array refs after kernel may have changed them
       // We need to do this as input to computing the localSize
       assert args != null : "args should not be null";
-      final boolean needSync = updateKernelArrayRefs();
+      if (entryPoint.requiresWorkGroupScratch()) {
+         sizeWorkGroupScratch(_settings.range);
+      }
+      if (entryPoint.getRangeKind() == Entrypoint.RangeKind.INDEXED) {
+         setKernelField("rangeIndices", _settings.range.getIndices());
+         if (explicit) {
+            // the indices are not a field of the caller, who can not put() them
+            puts.add(_settings.range.getIndices());
+         }
+      } else if (entryPoint.getRangeKind() == Entrypoint.RangeKind.SPLIT_LONG) {
+         if (entryPoint.requiresWorkGroupScratch()) {
+            // the work groups of the parts would share the partial results of the reduction
+            return fallBackToNextDevice(device, _settings,
+                  "work group reductions and collectives can not be split into several dispatches");
+         }
+         setKernelField("rangeSize", _settings.range.getGlobalSizeLong());
+      }
+      final boolean needSync = updateKernelArrayRefs(_settings.range);
       if (needSync && logger.isLoggable(Level.FINE)) {
          logger.fine("Need to resync arrays on " + kernel);
       }
 
       // native side will reallocate array buffers if necessary
-      int returnValue = runKernelJNI(jniContextHandle, _settings.range, needSync, _settings.passes, inBufferRemote, outBufferRemote);
+      int returnValue = (entryPoint.getRangeKind() == Entrypoint.RangeKind.SPLIT_LONG) ? runSplitLongRange(device, _settings, needSync)
+            : runKernelJNI(jniContextHandle, _settings.range, needSync, _settings.passes, inBufferRemote, outBufferRemote);
       if (returnValue != 0) {
          String reason = "OpenCL execution seems to have failed (runKernelJNI returned " + returnValue + ")";
          return fallBackToNextDevice(device, _settings, new AparapiException(reason));
@@ -1337,6 +1925,10 @@ public class KernelRunner extends KernelRunnerJNI{
          restoreObjects();
       }
 
+      if (usesContiguousArrays) {
+         scatterContiguousArrays();
+      }
+
       if (logger.isLoggable(Level.FINE)) {
          logger.fine("executeOpenCL completed. " + _settings.range);
       }
@@ -1370,7 +1962,13 @@ public class KernelRunner extends KernelRunnerJNI{
          Range result;
          switch (_settings.range.getDims()) {
             case 1: {
-               result = Range.create(device, _settings.range.getGlobalSize_0());
+               if (_settings.range.isIndexed()) {
+                  result = Range.create(device, _settings.range.getIndices());
+               } else if (_settings.range.isLong()) {
+                  result = Range.createLong(device, _settings.range.getGlobalSizeLong());
+               } else {
+                  result = Range.create(device, _settings.range.getGlobalSize_0());
+               }
                break;
             }
             case 2: {
@@ -1486,6 +2084,8 @@ public class KernelRunner extends KernelRunnerJNI{
          throw new IllegalStateException("range can't be null");
       }
 
+      selectEntrypoint(_settings.entrypoint);
+
       EXECUTION_MODE requestedExecutionMode = kernel.getExecutionMode();
 
       if (!compileOnly && requestedExecutionMode.isOpenCL() && _settings.range.getDevice() != null && !(_settings.range.getDevice() instanceof OpenCLDevice)) {
@@ -1571,15 +2171,39 @@ public class KernelRunner extends KernelRunnerJNI{
             device = openCLDevice;
          }
          assert device != null : "No device available";
+         /* ranges beyond the int limit are dispatched in parts, which can not be interleaved with the passes of a multi pass execution */
+         final boolean rangeOnlyInJava = (_settings.range.getGlobalSizeLong() > Integer.MAX_VALUE) && (_settings.passes > 1);
+         final boolean javaOnlyRange = !compileOnly && rangeOnlyInJava
+               && (requestedExecutionMode.isOpenCL() || device instanceof OpenCLDevice);
+         if (javaOnlyRange) {
+            if (logger.isLoggable(Level.FINE)) {
+               logger.fine("Range " + _settings.range + " requested on " + device.getShortDescription() + ", executing in JTP");
+            }
+            device = JavaDevice.THREAD_POOL;
+         }
          _settings.profile.onStart(device);
          /* for backward compatibility reasons we still honor execution mode */
-         boolean isOpenCl = requestedExecutionMode.isOpenCL() || device instanceof OpenCLDevice;
+         boolean isOpenCl = !javaOnlyRange && (requestedExecutionMode.isOpenCL() || device instanceof OpenCLDevice);
          if (isOpenCl) {
+            final Entrypoint.RangeKind requiredRangeKind = Entrypoint.RangeKind.of(_settings.range);
+            if (requiredRangeKind != rangeKind) {
+               // indexed and split long ranges execute programs of their own, which do not take the global ids from the dispatch
+               selectRangeKind(requiredRangeKind);
+            }
+            if ((entryPoint != null) && (specializedFieldValues != null)) {
+               final Map<String, Object> currentSpecializedFieldValues = entryPoint.getSpecializedFieldValues();
+               final Set<String> currentArrayFieldAliases = entryPoint.getArrayFieldAliases();
+               if (!currentSpecializedFieldValues.equals(specializedFieldValues) || !currentArrayFieldAliases.equals(arrayFieldAliases)) {
+                  // the program was generated for other values of the specialized fields, or declares restrict an array another field
+                  // now refers to, switch to the program for the current values and aliases
+                  selectSpecialization(currentSpecializedFieldValues, currentArrayFieldAliases);
+               }
+            }
             if (kernelNeverExecutedForDeviceHash.getOrDefault(device, true) || (entryPoint == null) || (isFallBack)) {
                if (entryPoint == null) {
                   try {
                      final ClassModel classModel = ClassModel.createClassModel(kernel.getClass());
-                     entryPoint = classModel.getEntrypoint(_settings.entrypoint, kernel);
+                     entryPoint = classModel.getEntrypoint(_settings.entrypoint, kernel, rangeKind);
                      _settings.profile.onEvent(device, ProfilingEvent.CLASS_MODEL_BUILT);
                   } catch (final Exception exception) {
                      _settings.profile.onEvent(device, ProfilingEvent.CLASS_MODEL_BUILT);
@@ -1649,9 +2273,13 @@ public class KernelRunner extends KernelRunnerJNI{
                      return fallBackToNextDevice(device, _settings, "32 bit Atomics required but not supported");
                   }
 
+                  final Set<String> constantArrays = entryPoint.getArrayFieldConstant();
+                  specializedFieldValues = entryPoint.getSpecializedFieldValues();
+                  arrayFieldAliases = entryPoint.getArrayFieldAliases();
+                  final String programKey = getProgramKey(entryPoint, constantArrays);
                   String openCL;
                   synchronized (openCLCache) {
-                     openCL = openCLCache.get(kernel.getClass());
+                     openCL = openCLCache.get(programKey);
                      if (openCL == null) {
                         try {
                            openCL = KernelWriter.writeToString(entryPoint);
@@ -1662,10 +2290,10 @@ public class KernelRunner extends KernelRunnerJNI{
                               System.out.println(openCL);
                            }
                            _settings.profile.onEvent(device, ProfilingEvent.OPENCL_GENERATED);
-                           openCLCache.put(kernel.getClass(), openCL);
+                           openCLCache.put(programKey, openCL);
                         }
                         catch (final CodeGenException codeGenException) {
-                           openCLCache.put(kernel.getClass(), CODE_GEN_ERROR_MARKER);
+                           openCLCache.put(programKey, CODE_GEN_ERROR_MARKER);
                            _settings.profile.onEvent(device, ProfilingEvent.OPENCL_GENERATED);
                            if (compileOnly) {
                               throw new CompileFailedException(codeGenException);
@@ -1691,7 +2319,7 @@ public class KernelRunner extends KernelRunnerJNI{
                      handle = buildProgramJNI(jniContextHandle, openCL, "");
                   } else {
                      synchronized (seenBinaryKeys) {
-                        String binaryKey = kernel.getClass().getName() + ":" + device.getDeviceId();
+                        String binaryKey = programKey + ":" + device.getDeviceId();
                         if (seenBinaryKeys.contains(binaryKey)) {
                            // use cached binary
                            logger.log(Level.INFO, "reusing cached binary for " + binaryKey);
@@ -1724,6 +2352,7 @@ public class KernelRunner extends KernelRunnerJNI{
                if (entryPoint != null) {
                   //Pre-compiled kernels that never executed must resume here 
                   args = new KernelArg[entryPoint.getReferencedFields().size()];
+                  final Set<String> constantArrays = entryPoint.getArrayFieldConstant();
                   int i = 0;
 
                   for (final Field field : entryPoint.getReferencedFields()) {
@@ -1742,7 +2371,7 @@ public class KernelRunner extends KernelRunnerJNI{
                            if (field.getAnnotation(Local.class) != null || args[i].getName().endsWith(Kernel.LOCAL_SUFFIX)) {
                               args[i].setType(args[i].getType() | ARG_LOCAL);
                            } else if ((field.getAnnotation(Constant.class) != null)
-                                 || args[i].getName().endsWith(Kernel.CONSTANT_SUFFIX)) {
+                                 || args[i].getName().endsWith(Kernel.CONSTANT_SUFFIX) || constantArrays.contains(field.getName())) {
                               args[i].setType(args[i].getType() | ARG_CONSTANT);
                            } else {
                               args[i].setType(args[i].getType() | ARG_GLOBAL);
@@ -1750,12 +2379,13 @@ public class KernelRunner extends KernelRunnerJNI{
                            if (isExplicit()) {
                               args[i].setType(args[i].getType() | ARG_EXPLICIT);
                            }
-                           // for now, treat all write arrays as read-write, see bugzilla issue 4859
-                           // we might come up with a better solution later
+                           // treat write arrays as read-write unless we can prove every element is written, see bugzilla issue 4859
+                           // write only arrays have ARG_READ cleared in updateKernelArrayRefs() if the range covers the array
                            args[i].setType(args[i].getType()
                                  | (entryPoint.getArrayFieldAssignments().contains(field.getName()) ? (ARG_WRITE | ARG_READ) : 0));
                            args[i].setType(args[i].getType()
                                  | (entryPoint.getArrayFieldAccesses().contains(field.getName()) ? ARG_READ : 0));
+                           args[i].setWriteOnly(!isExplicit() && entryPoint.getArrayFieldWriteOnly().contains(field.getName()));
                            // args[i].type |= ARG_GLOBAL;
 
                            if (type.getName().startsWith("[L")) {
@@ -1769,7 +2399,10 @@ public class KernelRunner extends KernelRunnerJNI{
                            } else if (type.getName().startsWith("[[")) {
 
                               try {
-                                 setMultiArrayType(args[i], type);
+                                 setMultiArrayType(args[i], type, entryPoint.getArrayFieldReadOnly().contains(field.getName()));
+                                 if (field.getAnnotation(Contiguous.class) != null) {
+                                    setContiguousArrayType(args[i]);
+                                 }
                               } catch (AparapiException e) {
                                  return fallBackToNextDevice(device, _settings, "failed to set kernel arguement "
                                        + args[i].getName() + ".  Aparapi only supports 2D and 3D arrays.");
@@ -2002,8 +2635,216 @@ public class KernelRunner extends KernelRunnerJNI{
       return 0;
    }
 
-   private void setMultiArrayType(KernelArg arg, Class<?> type) throws AparapiException {
-      arg.setType(arg.getType() | (ARG_WRITE | ARG_READ | ARG_APARAPI_BUFFER));
+   /**
+    * The same kernel class generates different OpenCL when small read only arrays of an instance are promoted to __constant, for each 
+    * combination of values of its specialized fields, when array fields of the instance refer to the same java array, and when expression optimizations write the values of the instance's final 
+    * fields into the kernel.
+    */
+   private String getProgramKey(Entrypoint _entryPoint, Set<String> _constantArrays) {
+      String programKey = kernel.getClass().getName();
+      if (!_entryPoint.getMethodModel().getSimpleName().equals("run")) {
+         programKey += "." + _entryPoint.getMethodModel().getSimpleName();
+      }
+      if (_entryPoint.getRangeKind() != Entrypoint.RangeKind.PLAIN) {
+         programKey += "[" + _entryPoint.getRangeKind() + "]";
+      }
+      if (!_constantArrays.isEmpty()) {
+         programKey += _constantArrays;
+      }
+      if (!specializedFieldValues.isEmpty()) {
+         programKey += specializedFieldValues;
+      }
+      if (!arrayFieldAliases.isEmpty()) {
+         programKey += "[aliased" + arrayFieldAliases + "]";
+      }
+      if (Config.enableExpressionOptimizations) {
+         final Map<String, Object> finalFieldValues = _entryPoint.getFinalFieldValues();
+         if (!finalFieldValues.isEmpty()) {
+            programKey += finalFieldValues;
+         }
+      }
+      return (programKey);
+   }
+
+   /**
+    * The work group reductions and collectives of the generated OpenCL exchange values through a local array which Kernel keeps for them, 
+    * whose length must be the number of work items in a work group of the range being executed.
+    */
+   private void sizeWorkGroupScratch(Range _range) throws AparapiException {
+      final int localSize = _range.getLocalSize(0) * _range.getLocalSize(1) * _range.getLocalSize(2);
+      for (final Field field : entryPoint.getReferencedFields()) {
+         if ((field.getDeclaringClass() == Kernel.class) && field.getName().equals("workGroupScratch")) {
+            try {
+               field.setAccessible(true);
+               final float[] scratch = (float[]) field.get(kernel);
+               if ((scratch == null) || (scratch.length != localSize)) {
+                  field.set(kernel, new float[localSize]);
+               }
+            } catch (final IllegalAccessException e) {
+               throw new AparapiException(e);
+            }
+         }
+      }
+   }
+
+   /**
+    * Set a private field of {@link Kernel} which the generated OpenCL of the current entrypoint reads, such as the indices of an 
+    * indexed range.
+    */
+   private void setKernelField(String _name, Object _value) throws AparapiException {
+      for (final Field field : entryPoint.getReferencedFields()) {
+         if ((field.getDeclaringClass() == Kernel.class) && field.getName().equals(_name)) {
+            try {
+               field.setAccessible(true);
+               field.set(kernel, _value);
+            } catch (final IllegalAccessException e) {
+               throw new AparapiException(e);
+            }
+         }
+      }
+   }
+
+   /**
+    * A long range beyond <code>Integer.MAX_VALUE</code> has no single OpenCL dispatch, so it is dispatched in parts of 
+    * {@link #SPLIT_RANGE_PART_SIZE} work items, the generated OpenCL adding the offset of the part, which Kernel keeps for it, to the
+    * global id of each work item. The arrays are synchronised before the first part only, without explicit mode the arrays are still 
+    * transferred for each part.
+    * 
+    * @return the value returned by the first failing <code>runKernelJNI()</code>, or 0
+    */
+   private int runSplitLongRange(Device _device, ExecutionSettings _settings, boolean _needSync) throws AparapiException {
+      final long globalSize = _settings.range.getGlobalSizeLong();
+      boolean needSync = _needSync;
+      for (long offset = 0; offset < globalSize; offset += SPLIT_RANGE_PART_SIZE) {
+         final Range part = Range.create(_device, (int) Math.min(SPLIT_RANGE_PART_SIZE, globalSize - offset));
+         setKernelField("rangeOffset", offset);
+         final int returnValue = runKernelJNI(jniContextHandle, part, needSync, _settings.passes, inBufferRemote, outBufferRemote);
+         if (returnValue != 0) {
+            return (returnValue);
+         }
+         needSync = false;
+      }
+      return (0);
+   }
+
+   /**
+    * Make <code>_entrypointName</code> the current entrypoint, putting the current program aside and restoring the most recently used 
+    * program of <code>_entrypointName</code> for the current kind of range if it has been executed or compiled before.
+    */
+   private void selectEntrypoint(String _entrypointName) {
+      if (entrypointName == null) {
+         entrypointName = _entrypointName;
+         return;
+      } else if (entrypointName.equals(_entrypointName)) {
+         return;
+      }
+      selectProgramState(removeProgramState(_entrypointName, rangeKind));
+   }
+
+   /**
+    * Make the program of the current entrypoint for <code>_rangeKind</code> current, putting the current program aside.
+    */
+   private void selectRangeKind(Entrypoint.RangeKind _rangeKind) {
+      selectProgramState(removeProgramState(entrypointName, _rangeKind));
+   }
+
+   /**
+    * Make the program of the current entrypoint and kind of range generated for <code>_specializedFieldValues</code> and 
+    * <code>_arrayFieldAliases</code> current, putting the current program aside. The {@link Entrypoint} is shared, only the generated 
+    * program, args and JNI context differ between specializations.
+    */
+   private void selectSpecialization(Map<String, Object> _specializedFieldValues, Set<String> _arrayFieldAliases) {
+      ProgramState next = programStates.remove(getProgramStateKey(entrypointName, rangeKind, _specializedFieldValues,
+            _arrayFieldAliases));
+      if (next == null) {
+         next = new ProgramState();
+         next.entrypointName = entrypointName;
+         next.rangeKind = rangeKind;
+         next.entryPoint = entryPoint;
+         next.specializedFieldValues = _specializedFieldValues;
+         next.arrayFieldAliases = _arrayFieldAliases;
+      }
+      selectProgramState(next);
+   }
+
+   /**
+    * Remove the most recently used program of <code>_entrypointName</code> for <code>_rangeKind</code> from the programs put aside,
+    * or create an empty one if there is none.
+    */
+   private ProgramState removeProgramState(String _entrypointName, Entrypoint.RangeKind _rangeKind) {
+      ProgramState next = null;
+      for (final ProgramState programState : programStates.values()) {
+         if (programState.entrypointName.equals(_entrypointName) && (programState.rangeKind == _rangeKind)) {
+            next = programState; // the last match is the most recently used
+         }
+      }
+      if (next == null) {
+         next = new ProgramState();
+         next.entrypointName = _entrypointName;
+         next.rangeKind = _rangeKind;
+      } else {
+         programStates.remove(getProgramStateKey(next.entrypointName, next.rangeKind, next.specializedFieldValues,
+               next.arrayFieldAliases));
+      }
+      return (next);
+   }
+
+   private static String getProgramStateKey(String _entrypointName, Entrypoint.RangeKind _rangeKind,
+         Map<String, Object> _specializedFieldValues, Set<String> _arrayFieldAliases) {
+      return (_entrypointName + "[" + _rangeKind + "]" + ((_specializedFieldValues == null) ? "" : _specializedFieldValues)
+            + ((_arrayFieldAliases == null) ? "" : _arrayFieldAliases));
+   }
+
+   /**
+    * Put the current program, args and JNI context aside and restore those of <code>_next</code>.
+    * <p>
+    * Each program has its own buffers. In explicit mode nothing is transferred between them, the caller <code>get()</code>s the arrays
+    * written by one program after executing it and <code>put()</code>s those read by the next, as for any array it changes. Without 
+    * explicit mode every array is transferred on each execution anyway.
+    */
+   private void selectProgramState(ProgramState _next) {
+      final ProgramState previous = new ProgramState();
+      previous.entrypointName = entrypointName;
+      previous.rangeKind = rangeKind;
+      previous.entryPoint = entryPoint;
+      previous.jniContextHandle = jniContextHandle;
+      previous.args = args;
+      previous.argc = argc;
+      previous.specializedFieldValues = specializedFieldValues;
+      previous.arrayFieldAliases = arrayFieldAliases;
+      previous.kernelIsCompiledForDeviceHash = kernelIsCompiledForDeviceHash;
+      previous.kernelNeverExecutedForDeviceHash = kernelNeverExecutedForDeviceHash;
+
+      entrypointName = _next.entrypointName;
+      rangeKind = _next.rangeKind;
+      entryPoint = _next.entryPoint;
+      jniContextHandle = _next.jniContextHandle;
+      args = _next.args;
+      argc = _next.argc;
+      specializedFieldValues = _next.specializedFieldValues;
+      arrayFieldAliases = _next.arrayFieldAliases;
+      kernelIsCompiledForDeviceHash = _next.kernelIsCompiledForDeviceHash;
+      kernelNeverExecutedForDeviceHash = _next.kernelNeverExecutedForDeviceHash;
+
+      // put aside last, the eviction of the least recently used program may dispose a JNI context
+      programStates.put(getProgramStateKey(previous.entrypointName, previous.rangeKind, previous.specializedFieldValues,
+            previous.arrayFieldAliases), previous);
+   }
+
+   private void setContiguousArrayType(KernelArg arg) throws AparapiException {
+      if ((arg.getType() & ARG_BOOLEAN) != 0) {
+         throw new AparapiException("Aparapi does not support contiguous boolean arrays.");
+      }
+      // the rows are gathered into one primitive array in updateKernelArrayRefs, which is then passed like any other array,
+      // the generated kernel reads the lengths and dimensions from its header rather than from separate args
+      arg.setType((arg.getType() & ~(ARG_APARAPI_BUFFER | ARG_ARRAYLENGTH | ARG_EXPLICIT)) | ARG_ARRAY);
+      arg.setWriteOnly(false);
+      arg.setContiguous(true);
+   }
+
+   private void setMultiArrayType(KernelArg arg, Class<?> type, boolean readOnly) throws AparapiException {
+      // a multi dimensional array which is never written need not be copied back
+      arg.setType(arg.getType() | (readOnly ? ARG_READ : (ARG_WRITE | ARG_READ)) | ARG_APARAPI_BUFFER);
       int numDims = 0;
       while (type.getName().startsWith("[[[[")) {
          throw new AparapiException("Aparapi only supports 2D and 3D arrays.");
@@ -2107,6 +2948,32 @@ public class KernelRunner extends KernelRunnerJNI{
       return (explicit);
    }
 
+   private static final int AUTO_TRANSFER_SAMPLES = 64;
+
+   private final Set<Object> dirtyArrays = new HashSet<Object>();
+
+   private final TransferStatistics transferStatistics = new TransferStatistics();
+
+   private boolean autoTransfer = false;
+
+   public void setAutoTransfer(boolean _autoTransfer) {
+      autoTransfer = _autoTransfer;
+   }
+
+   public boolean isAutoTransfer() {
+      return (autoTransfer);
+   }
+
+   public void markDirty(Object array) {
+      if (autoTransfer) {
+         dirtyArrays.add(array);
+      }
+   }
+
+   public TransferStatistics getTransferStatistics() {
+      return (transferStatistics);
+   }
+
    private static class ExecutionSettings {
       final KernelPreferences preferences;
       final KernelProfile profile;
@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.internal.kernel;
+
+import java.util.concurrent.atomic.*;
+
+/**
+ * Counts the host to device (upload) and device to host (download) array transfers requested for a kernel, and the uploads which were
+ * skipped because the array was known to be unchanged since it was last uploaded.
+ * <p>
+ * Only one dimensional primitive array arguments of kernels executing on an OpenCL device are counted, explicit <code>Kernel.get()</code> 
+ * calls are not.
+ * 
+ * @see com.aparapi.Kernel#setAutoTransfer(boolean)
+ */
+public class TransferStatistics {
+
+   private final AtomicLong uploads = new AtomicLong();
+
+   private final AtomicLong uploadedBytes = new AtomicLong();
+
+   private final AtomicLong skippedUploads = new AtomicLong();
+
+   private final AtomicLong skippedBytes = new AtomicLong();
+
+   private final AtomicLong downloads = new AtomicLong();
+
+   private final AtomicLong downloadedBytes = new AtomicLong();
+
+   void recordUpload(long _bytes) {
+      uploads.incrementAndGet();
+      uploadedBytes.addAndGet(_bytes);
+   }
+
+   void recordSkippedUpload(long _bytes) {
+      skippedUploads.incrementAndGet();
+      skippedBytes.addAndGet(_bytes);
+   }
+
+   void recordDownload(long _bytes) {
+      downloads.incrementAndGet();
+      downloadedBytes.addAndGet(_bytes);
+   }
+
+   /**
+    * @return the number of arrays copied to the device
+    */
+   public long getUploads() {
+      return (uploads.get());
+   }
+
+   /**
+    * @return the number of bytes copied to the device
+    */
+   public long getUploadedBytes() {
+      return (uploadedBytes.get());
+   }
+
+   /**
+    * @return the number of array uploads which were skipped because the array was unchanged
+    */
+   public long getSkippedUploads() {
+      return (skippedUploads.get());
+   }
+
+   /**
+    * @return the number of bytes which did not need to be copied to the device because the array was unchanged
+    */
+   public long getSkippedBytes() {
+      return (skippedBytes.get());
+   }
+
+   /**
+    * @return the number of arrays copied back from the device
+    */
+   public long getDownloads() {
+      return (downloads.get());
+   }
+
+   /**
+    * @return the number of bytes copied back from the device
+    */
+   public long getDownloadedBytes() {
+      return (downloadedBytes.get());
+   }
+
+   public void reset() {
+      uploads.set(0);
+      uploadedBytes.set(0);
+      skippedUploads.set(0);
+      skippedBytes.set(0);
+      downloads.set(0);
+      downloadedBytes.set(0);
+   }
+
+   @Override public String toString() {
+      return ("uploads:" + getUploads() + " (" + getUploadedBytes() + " bytes) skipped:" + getSkippedUploads() + " ("
+            + getSkippedBytes() + " bytes) downloads:" + getDownloads() + " (" + getDownloadedBytes() + " bytes)");
+   }
+}
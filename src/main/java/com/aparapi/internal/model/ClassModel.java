@@ -2786,6 +2786,18 @@ public class ClassModel {
       public ClassModel getOwnerClassModel() {
          return ClassModel.this;
       }
+
+      /**
+       * @return the annotation of the given type on the method, or null if it is not annotated or can not be found by reflection
+       */
+      public <A extends java.lang.annotation.Annotation> A getAnnotation(Class<A> _annotationClass) {
+         for (final Method method : getClassModel().getClassWeAreModelling().getDeclaredMethods()) {
+            if (method.getName().equals(getName()) && org.apache.bcel.generic.Type.getSignature(method).equals(getDescriptor())) {
+               return (method.getAnnotation(_annotationClass));
+            }
+         }
+         return (null);
+      }
    }
 
    public class ClassModelInterface {
@@ -3043,21 +3055,26 @@ public class ClassModel {
          });
 
    Entrypoint getEntrypoint(String _entrypointName, String _descriptor, Object _k) throws AparapiException {
+      return (getEntrypoint(_entrypointName, _descriptor, _k, Entrypoint.RangeKind.PLAIN));
+   }
+
+   Entrypoint getEntrypoint(String _entrypointName, String _descriptor, Object _k, Entrypoint.RangeKind _rangeKind)
+         throws AparapiException {
       if (CacheEnabler.areCachesEnabled()) {
-         EntrypointKey key = EntrypointKey.of(_entrypointName, _descriptor);
+         EntrypointKey key = EntrypointKey.of(_entrypointName, _descriptor, _rangeKind);
          long s = System.nanoTime();
          Entrypoint entrypointWithoutKernel = entrypointCache.computeIfAbsent(key);
          long e = System.nanoTime() - s;
          return entrypointWithoutKernel.cloneForKernel(_k);
       } else {
          final MethodModel method = getMethodModel(_entrypointName, _descriptor);
-         return new Entrypoint(this, method, _k);
+         return new Entrypoint(this, method, _k, _rangeKind);
       }
    }
 
    Entrypoint computeBasicEntrypoint(EntrypointKey entrypointKey) throws AparapiException {
       final MethodModel method = getMethodModel(entrypointKey.getEntrypointName(), entrypointKey.getDescriptor());
-      return new Entrypoint(this, method, null);
+      return new Entrypoint(this, method, null, entrypointKey.getRangeKind());
    }
 
    public Class<?> getClassWeAreModelling() {
@@ -3068,8 +3085,15 @@ public class ClassModel {
       return (getEntrypoint(_entrypointName, "()V", _k));
    }
 
+   /**
+    * @param _rangeKind the kind of range the entrypoint executes, see {@link Entrypoint#getRangeKind()}
+    */
+   public Entrypoint getEntrypoint(String _entrypointName, Object _k, Entrypoint.RangeKind _rangeKind) throws AparapiException {
+      return (getEntrypoint(_entrypointName, "()V", _k, _rangeKind));
+   }
+
    public Entrypoint getEntrypoint() throws AparapiException {
-      return (getEntrypoint("run", "()V", null));
+      return (getEntrypoint("run", "()V", (Object) null));
    }
 
    public static void invalidateCaches() {
@@ -68,6 +68,33 @@ import java.util.logging.*;
 
 public class Entrypoint implements Cloneable {
 
+   /**
+    * The kinds of range whose global ids are not those of the OpenCL dispatch, so which are executed by a program of their own.
+    */
+   public enum RangeKind {
+      /**
+       * The global ids are those of the dispatch.
+       */
+      PLAIN,
+      /**
+       * An indexed range, the global id of each work item is read from {@link Range#getIndices()}.
+       */
+      INDEXED,
+      /**
+       * A long range beyond <code>Integer.MAX_VALUE</code>, dispatched in parts, the global ids are offset by the start of each part.
+       */
+      SPLIT_LONG;
+
+      public static RangeKind of(Range _range) {
+         if (_range.isIndexed()) {
+            return (INDEXED);
+         } else if (_range.getGlobalSizeLong() > Integer.MAX_VALUE) {
+            return (SPLIT_LONG);
+         }
+         return (PLAIN);
+      }
+   }
+
    private static Logger logger = Logger.getLogger(Config.getLoggerName());
 
    private final List<ClassModel.ClassModelField> referencedClassModelFields = new ArrayList<ClassModel.ClassModelField>();
@@ -93,6 +120,18 @@ public class Entrypoint implements Cloneable {
    // Keep track of arrays whose length is taken via foo.length
    private final Set<String> arrayFieldArrayLengthUsed = new LinkedHashSet<String>();
 
+   // Arrays which are never read and have every element at getGlobalId() written by run()
+   private final Set<String> arrayFieldWriteOnly = new LinkedHashSet<String>();
+
+   // Arrays (including multi dimensional arrays) whose elements are never written
+   private final Set<String> arrayFieldReadOnly = new LinkedHashSet<String>();
+
+   // Arrays whose elements are only accessed by run() at the index getGlobalId()
+   private final Set<String> arrayFieldElementwise = new LinkedHashSet<String>();
+
+   // Arrays updated other than by atomicAdd(), by an element store or another atomic, so their copies can not be added together
+   private final Set<String> arrayFieldNonAddUpdates = new LinkedHashSet<String>();
+
    private final List<MethodModel> calledMethods = new ArrayList<MethodModel>();
 
    private final MethodModel methodModel;
@@ -114,6 +153,52 @@ public class Entrypoint implements Cloneable {
 
    private boolean usesAtomic64;
 
+   /**
+      True if the kernel calls {@link Kernel#reduce(float)}
+   */
+   private boolean usesReduce;
+
+   /**
+      The kind of range this entrypoint executes
+   */
+   private final RangeKind rangeKind;
+
+   /**
+      The OpenCL functions written for the work group collectives the kernel calls, such as <code>work_group_reduce_add_float</code>
+   */
+   private final Set<String> workGroupCollectives = new LinkedHashSet<String>();
+
+   /**
+      The OpenCL functions written for the array atomics the kernel calls, such as <code>atomicAdd_float</code>
+   */
+   private final Set<String> arrayAtomics = new LinkedHashSet<String>();
+
+   /**
+      The OpenCL functions written for the packed bit array intrinsics the kernel calls, such as <code>bits_atomic_set</code>
+   */
+   private final Set<String> bitArrayOps = new LinkedHashSet<String>();
+
+   /**
+      True if the kernel calls {@link Kernel#randomInt(long, long)} or {@link Kernel#randomFloat(long, long)}
+   */
+   private boolean usesRandom;
+
+   /**
+    * Pass a private field of {@link Kernel} to the generated OpenCL.
+    */
+   private void addKernelField(String _name) throws AparapiException {
+      if (referencedFieldNames.contains(_name)) {
+         throw new ClassParseException(ClassParseException.TYPE.OVERRIDENFIELD);
+      }
+      try {
+         referencedFields.add(Kernel.class.getDeclaredField(_name));
+      } catch (final NoSuchFieldException e) {
+         throw new ClassParseException(e);
+      }
+      referencedClassModelFields.add(ClassModel.createClassModel(Kernel.class).getField(_name));
+      referencedFieldNames.add(_name);
+   }
+
    public boolean requiresDoublePragma() {
       return usesDoubles;
    }
@@ -139,6 +224,41 @@ public class Entrypoint implements Cloneable {
       return usesAtomic64;
    }
 
+   public boolean requiresReduce() {
+      return usesReduce;
+   }
+
+   /**
+    * @return the kind of range the generated OpenCL executes
+    */
+   public RangeKind getRangeKind() {
+      return rangeKind;
+   }
+
+   public Set<String> getWorkGroupCollectives() {
+      return workGroupCollectives;
+   }
+
+   public Set<String> getArrayAtomics() {
+      return arrayAtomics;
+   }
+
+   public Set<String> getBitArrayOps() {
+      return bitArrayOps;
+   }
+
+   public boolean requiresRandom() {
+      return usesRandom;
+   }
+
+   /**
+    * @return true if the generated OpenCL exchanges values of a work group through the local memory {@link Kernel} keeps for 
+    *         {@link Kernel#reduce(float)} and the work group collectives
+    */
+   public boolean requiresWorkGroupScratch() {
+      return (usesReduce || !workGroupCollectives.isEmpty());
+   }
+
    public Object getKernelInstance() {
       return kernelInstance;
    }
@@ -451,9 +571,14 @@ public class Entrypoint implements Cloneable {
    }
 
    public Entrypoint(ClassModel _classModel, MethodModel _methodModel, Object _k) throws AparapiException {
+      this(_classModel, _methodModel, _k, RangeKind.PLAIN);
+   }
+
+   public Entrypoint(ClassModel _classModel, MethodModel _methodModel, Object _k, RangeKind _rangeKind) throws AparapiException {
       classModel = _classModel;
       methodModel = _methodModel;
       kernelInstance = _k;
+      rangeKind = _rangeKind;
 
       final Map<ClassModelMethod, MethodModel> methodMap = new LinkedHashMap<ClassModelMethod, MethodModel>();
 
@@ -559,6 +684,7 @@ public class Entrypoint implements Cloneable {
                   final FieldEntry field = getField.getConstantPoolFieldEntry();
                   final String assignedArrayFieldName = field.getNameAndTypeEntry().getNameUTF8Entry().getUTF8();
                   arrayFieldAssignments.add(assignedArrayFieldName);
+                  arrayFieldNonAddUpdates.add(assignedArrayFieldName);
                   referencedFieldNames.add(assignedArrayFieldName);
 
                }
@@ -672,20 +798,51 @@ public class Entrypoint implements Cloneable {
                }
                else {
                   final MethodEntry methodEntry = invokeInstruction.getConstantPoolMethodEntry();
+                  if ((invokeInstruction.getInstanceReference() instanceof I_ALOAD_0) && "reduce(F)V".equals(
+                        methodEntry.getNameAndTypeEntry().getNameUTF8Entry().getUTF8()
+                              + methodEntry.getNameAndTypeEntry().getDescriptorUTF8Entry().getUTF8())) {
+                     usesReduce = true;
+                  }
+                  if ((invokeInstruction.getInstanceReference() instanceof I_ALOAD_0) && "gridBarrier()V".equals(
+                        methodEntry.getNameAndTypeEntry().getNameUTF8Entry().getUTF8()
+                              + methodEntry.getNameAndTypeEntry().getDescriptorUTF8Entry().getUTF8())) {
+                     throw new ClassParseException(ClassParseException.TYPE.GRIDBARRIER);
+                  }
+                  final String mappedName = Kernel.getMappedMethodName(methodEntry);
+                  if ((mappedName != null) && mappedName.startsWith("work_group_")
+                        && (invokeInstruction.getInstanceReference() instanceof I_ALOAD_0)) {
+                     workGroupCollectives.add(mappedName + "_"
+                           + (methodEntry.getNameAndTypeEntry().getDescriptorUTF8Entry().getUTF8().endsWith("I") ? "int" : "float"));
+                  }
+                  if ("randomInt".equals(mappedName) || "randomFloat".equals(mappedName)) {
+                     usesRandom = true;
+                  }
                   if (Kernel.isMappedMethod(methodEntry)) { //only do this for intrinsics
 
                      if (Kernel.usesAtomic32(methodEntry)) {
                         setRequiresAtomics32Pragma(true);
                      }
+                     if (Kernel.usesAtomic64(methodEntry)) {
+                        setRequiresAtomics64Pragma(true);
+                     }
 
                      final Arg methodArgs[] = methodEntry.getArgs();
                      if ((methodArgs.length > 0) && methodArgs[0].isArray()) { //currently array arg can only take slot 0
+                        if ((mappedName != null) && mappedName.startsWith("atomic")) {
+                           arrayAtomics.add(mappedName);
+                        }
+                        if ((mappedName != null) && mappedName.startsWith("bits_")) {
+                           bitArrayOps.add(mappedName);
+                        }
                         final Instruction arrInstruction = invokeInstruction.getArg(0);
                         if (arrInstruction instanceof AccessField) {
                            final AccessField access = (AccessField) arrInstruction;
                            final FieldEntry field = access.getConstantPoolFieldEntry();
                            final String accessedFieldName = field.getNameAndTypeEntry().getNameUTF8Entry().getUTF8();
                            arrayFieldAssignments.add(accessedFieldName);
+                           if (!"atomicAdd".equals(methodEntry.getNameAndTypeEntry().getNameUTF8Entry().getUTF8())) {
+                              arrayFieldNonAddUpdates.add(accessedFieldName);
+                           }
                            referencedFieldNames.add(accessedFieldName);
                         }
                         else {
@@ -699,6 +856,8 @@ public class Entrypoint implements Cloneable {
          }
       }
 
+      inferArrayFieldDataFlow(methods);
+
       for (final String referencedFieldName : referencedFieldNames) {
 
          try {
@@ -715,6 +874,26 @@ public class Entrypoint implements Cloneable {
          }
       }
 
+      // the work group reductions and collectives read and write state which Kernel keeps for them
+      if (usesReduce) {
+         addKernelField("reduceOp");
+         addKernelField("reducePartials");
+         arrayFieldAssignments.add("reducePartials");
+      }
+      if (requiresWorkGroupScratch()) {
+         addKernelField("workGroupScratch");
+         arrayFieldAssignments.add("workGroupScratch");
+      }
+      // an indexed range reads the global ids from its indices, a split long range offsets them by the start of each dispatch
+      if (rangeKind == RangeKind.INDEXED) {
+         addKernelField("rangeIndices");
+         arrayFieldAccesses.add("rangeIndices");
+         arrayFieldReadOnly.add("rangeIndices");
+      } else if (rangeKind == RangeKind.SPLIT_LONG) {
+         addKernelField("rangeOffset");
+         addKernelField("rangeSize");
+      }
+
       // Build data needed for oop form transforms if necessary
       if (!objectArrayFieldsClasses.keySet().isEmpty()) {
 
@@ -842,6 +1021,420 @@ public class Entrypoint implements Cloneable {
       return (arrayFieldArrayLengthUsed);
    }
 
+   /**
+    * Arrays which are never read by the kernel and whose element at <code>getGlobalId()</code> is unconditionally written by <code>run()</code>.
+    * <p>
+    * Provided the range covers the whole array every element is written before the kernel completes, so such arrays need not be 
+    * copied to the device.
+    */
+   public Set<String> getArrayFieldWriteOnly() {
+      return (arrayFieldWriteOnly);
+   }
+
+   /**
+    * Array fields updated other than by <code>atomicAdd()</code>, by an element store or another atomic, which can therefore not be
+    * {@link com.aparapi.Kernel.Privatized}.
+    */
+   public Set<String> getArrayFieldNonAddUpdates() {
+      return (arrayFieldNonAddUpdates);
+   }
+
+   /**
+    * Arrays (including multi dimensional arrays) whose elements are never written by the kernel, so need not be copied back from the device.
+    */
+   public Set<String> getArrayFieldReadOnly() {
+      return (arrayFieldReadOnly);
+   }
+
+   /**
+    * One dimensional arrays whose elements are only read or written by <code>run()</code> itself, at the index <code>getGlobalId()</code> 
+    * (directly or via a local variable only ever assigned from <code>getGlobalId()</code>). A work item then only touches its own element, 
+    * which is what {@link com.aparapi.FusedKernel} relies upon to run several kernels one work item at a time.
+    */
+   public Set<String> getArrayFieldElementwise() {
+      return (arrayFieldElementwise);
+   }
+
+   /**
+    * The <code>__constant</code> address space every OpenCL device is guaranteed to provide, in bytes.
+    */
+   private static final int MIN_MAX_CONSTANT_BUFFER_SIZE = 64 * 1024;
+
+   /**
+    * The number of <code>__constant</code> kernel arguments every OpenCL device is guaranteed to accept.
+    */
+   private static final int MIN_MAX_CONSTANT_ARGS = 8;
+
+   /**
+    * Read only arrays small enough to be placed in the <code>__constant</code> address space without being annotated with 
+    * {@link Kernel.Constant}.
+    * <p>
+    * Only <code>final</code> one dimensional primitive array fields of the kernel instance are promoted, so the array (and hence its size) 
+    * can not change between executions. Promoted arrays, together with any explicitly constant arrays, must fit the limits which the 
+    * OpenCL specification guarantees for all devices, so no device query is needed.
+    * 
+    * @return the names of the promoted fields, in the order they are referenced, or an empty set if there is no kernel instance
+    */
+   public Set<String> getArrayFieldConstant() {
+      final Set<String> promoted = new LinkedHashSet<String>();
+      if (kernelInstance == null) {
+         return (promoted);
+      }
+
+      final List<Field> candidates = new ArrayList<Field>();
+      long bytes = 0;
+      int args = 0;
+      try {
+         for (final Field field : referencedFields) {
+            final Class<?> type = field.getType();
+            if (!type.isArray() || (field.getAnnotation(Kernel.Local.class) != null)
+                  || field.getName().endsWith(Kernel.LOCAL_SUFFIX)) {
+               continue;
+            }
+            final boolean isConstant = (field.getAnnotation(Kernel.Constant.class) != null)
+                  || field.getName().endsWith(Kernel.CONSTANT_SUFFIX);
+            if (isConstant) {
+               args++;
+               if (!type.getComponentType().isArray()) {
+                  bytes += getArrayFieldBytes(field);
+               }
+            } else if (type.getComponentType().isPrimitive() && Modifier.isFinal(field.getModifiers())
+                  && !Modifier.isStatic(field.getModifiers()) && arrayFieldReadOnly.contains(field.getName())
+                  && (field.getAnnotation(Kernel.Contiguous.class) == null) && (ClassModel.getPrivateMemorySizeFromField(field) == null)
+                  && (ClassModel.getPrivateMemorySizeFromFieldName(field.getName()) == null)) {
+               candidates.add(field);
+            }
+         }
+
+         for (final Field field : candidates) {
+            final long fieldBytes = getArrayFieldBytes(field);
+            if ((fieldBytes > 0) && (args < MIN_MAX_CONSTANT_ARGS) && ((bytes + fieldBytes) <= MIN_MAX_CONSTANT_BUFFER_SIZE)) {
+               promoted.add(field.getName());
+               bytes += fieldBytes;
+               args++;
+            }
+         }
+      } catch (final ClassParseException e) {
+         promoted.clear();
+      } catch (final IllegalAccessException e) {
+         promoted.clear();
+      }
+      return (promoted);
+   }
+
+   private long getArrayFieldBytes(Field _field) throws IllegalAccessException {
+      _field.setAccessible(true);
+      final Object array = _field.get(kernelInstance);
+      if (array == null) {
+         return (0);
+      }
+      final Class<?> componentType = array.getClass().getComponentType();
+      final int elementSize = ((componentType == long.class) || (componentType == double.class)) ? 8
+            : (((componentType == int.class) || (componentType == float.class)) ? 4
+                  : (((componentType == short.class) || (componentType == char.class)) ? 2 : 1));
+      return ((long) Array.getLength(array) * elementSize);
+   }
+
+   /**
+    * The values of the <code>final</code> scalar fields of the kernel instance which the kernel references. 
+    * <p>
+    * Java only allows <code>final</code> fields to be assigned by constructors, so these values can not change once the kernel 
+    * instance exists and may be written into the generated OpenCL as literals. Booleans and chars are left alone as they have no 
+    * literal form which maps directly to their OpenCL types.
+    * 
+    * @return the values keyed by field name, in the order the fields are referenced, or an empty map if there is no kernel instance
+    */
+   public Map<String, Object> getFinalFieldValues() {
+      final Map<String, Object> values = new LinkedHashMap<String, Object>();
+      if (kernelInstance == null) {
+         return (values);
+      }
+      try {
+         for (final Field field : referencedFields) {
+            final Class<?> type = field.getType();
+            if (type.isPrimitive() && (type != boolean.class) && (type != char.class) && Modifier.isFinal(field.getModifiers())
+                  && !Modifier.isStatic(field.getModifiers())) {
+               field.setAccessible(true);
+               values.put(field.getName(), field.get(kernelInstance));
+            }
+         }
+      } catch (final IllegalAccessException e) {
+         values.clear();
+      }
+      return (values);
+   }
+
+   /**
+    * The array fields the kernel references which currently hold the same java array as another referenced array field. Buffers are 
+    * created over the java arrays (<code>CL_MEM_USE_HOST_PTR</code>), so on CPU and integrated devices such fields share memory and 
+    * a store through one is seen by loads through the other.
+    * 
+    * @return the names of the aliased fields, in the order they are referenced, or of every referenced array field which has the type 
+    *         of another if there is no kernel instance to check
+    */
+   public Set<String> getArrayFieldAliases() {
+      final Set<String> aliases = new LinkedHashSet<String>();
+      final List<Field> arrayFields = new ArrayList<Field>();
+      for (final Field field : referencedFields) {
+         if (field.getType().isArray() && !Modifier.isStatic(field.getModifiers())) {
+            arrayFields.add(field);
+         }
+      }
+      try {
+         if (kernelInstance != null) {
+            final Map<Object, Field> holders = new IdentityHashMap<Object, Field>();
+            for (final Field field : arrayFields) {
+               field.setAccessible(true);
+               final Object array = field.get(kernelInstance);
+               final Field holder = (array == null) ? null : holders.put(array, field);
+               if (holder != null) {
+                  aliases.add(holder.getName());
+                  aliases.add(field.getName());
+               }
+            }
+            return (aliases);
+         }
+      } catch (final IllegalAccessException e) {
+         // assume the worst
+      }
+      for (final Field field : arrayFields) {
+         for (final Field other : arrayFields) {
+            if ((other != field) && (other.getType() == field.getType())) {
+               aliases.add(field.getName());
+            }
+         }
+      }
+      return (aliases);
+   }
+
+   /**
+    * The current values of the scalar fields of the kernel instance annotated with {@link Kernel.Specialize}, which the kernel 
+    * references.
+    * 
+    * @return the values keyed by field name, in the order the fields are referenced, or an empty map if there is no kernel instance
+    */
+   public Map<String, Object> getSpecializedFieldValues() {
+      final Map<String, Object> values = new LinkedHashMap<String, Object>();
+      if (kernelInstance == null) {
+         return (values);
+      }
+      try {
+         for (final Field field : referencedFields) {
+            if (field.getType().isPrimitive() && (field.getAnnotation(Kernel.Specialize.class) != null)
+                  && !Modifier.isStatic(field.getModifiers())) {
+               field.setAccessible(true);
+               values.put(field.getName(), field.get(kernelInstance));
+            }
+         }
+      } catch (final IllegalAccessException e) {
+         values.clear();
+      }
+      return (values);
+   }
+
+   /**
+    * Determine which array fields are only written or only read by <code>run()</code> and the methods it calls.
+    * <p>
+    * We are deliberately conservative. An array reference which escapes (is passed to a method, an intrinsic such as <code>atomicAdd()</code> 
+    * or assigned to a local) is considered to be both read and written, other than the array passed to <code>loadHalf()</code> (only read) 
+    * or <code>storeHalf()</code> (only written). If we encounter an array access we can not attribute to a field 
+    * we give up and infer nothing.
+    * <p>
+    * An array is only considered write only if it is never read and <code>run()</code> contains an assignment <code>array[getGlobalId()]=...</code> 
+    * (directly or via a local variable only ever assigned from <code>getGlobalId()</code>) which is not nested in any conditional or loop and 
+    * which is not preceded by a return. Otherwise elements which are not written would be copied back from an uninitialized device buffer 
+    * (see bugzilla issue 4859).
+    */
+   private void inferArrayFieldDataFlow(List<MethodModel> _methods) {
+      final Set<String> reads = new HashSet<String>();
+      final Set<String> writes = new HashSet<String>();
+      final Set<String> coveringWrites = new HashSet<String>();
+      final Set<String> nonElementwise = new HashSet<String>();
+      final Set<String> lengths = new HashSet<String>();
+      final Set<Integer> globalIdSlots = getGlobalIdLocalVariableSlots(methodModel);
+      boolean unresolvedReads = false;
+      boolean unresolvedWrites = false;
+
+      for (final MethodModel method : _methods) {
+         boolean returnSeen = false;
+         for (Instruction instruction = method.getPCHead(); instruction != null; instruction = instruction.getNextPC()) {
+            if (instruction instanceof AssignToArrayElement) {
+               final AssignToArrayElement assignment = (AssignToArrayElement) instruction;
+               final String name = getArrayFieldName(assignment.getArrayRef());
+               if (name == null) {
+                  unresolvedWrites = true;
+               } else {
+                  writes.add(name);
+                  final boolean elementwise = (method == methodModel) && (assignment.getArrayRef() instanceof AccessField)
+                        && isGlobalId(assignment.getArrayIndex(), globalIdSlots);
+                  if (elementwise && !returnSeen && (instruction.getParentExpr() == null)) {
+                     coveringWrites.add(name);
+                  } else if (!elementwise) {
+                     nonElementwise.add(name);
+                  }
+               }
+            } else if (instruction instanceof AccessArrayElement) {
+               if (!isArrayRefOfParent(instruction)) {
+                  ArrayAccess access = (AccessArrayElement) instruction;
+                  String name = getArrayFieldName(access.getArrayRef());
+                  if (name == null) {
+                     // compound assignments such as a[i]+=b read via a dup of the array reference of the enclosing assignment
+                     Instruction parent = instruction.getParentExpr();
+                     while ((parent != null) && !(parent instanceof AssignToArrayElement)) {
+                        parent = parent.getParentExpr();
+                     }
+                     if (parent != null) {
+                        access = (AssignToArrayElement) parent;
+                        name = getArrayFieldName(access.getArrayRef());
+                     }
+                  }
+                  if (name == null) {
+                     unresolvedReads = true;
+                  } else {
+                     reads.add(name);
+                     if ((method != methodModel) || !(access.getArrayRef() instanceof AccessField)
+                           || !isGlobalId(access.getArrayIndex(), globalIdSlots)) {
+                        nonElementwise.add(name);
+                     }
+                  }
+               }
+            } else if (instruction instanceof AccessField) {
+               final FieldEntry field = ((AccessField) instruction).getConstantPoolFieldEntry();
+               if (field.getNameAndTypeEntry().getDescriptorUTF8Entry().getUTF8().startsWith("[") && !isArrayRefOfParent(instruction)
+                     && !(instruction.getParentExpr() instanceof I_ARRAYLENGTH)) {
+                  final String name = field.getNameAndTypeEntry().getNameUTF8Entry().getUTF8();
+                  final String halfAccess = getHalfAccess(instruction);
+                  if (!"storeHalf".equals(halfAccess)) {
+                     reads.add(name);
+                  }
+                  if (!"loadHalf".equals(halfAccess)) {
+                     writes.add(name);
+                  }
+                  if ((halfAccess == null) || (method != methodModel)
+                        || !isGlobalId(((MethodCall) instruction.getParentExpr()).getArg(1), globalIdSlots)) {
+                     nonElementwise.add(name);
+                  }
+               } else if (instruction.getParentExpr() instanceof I_ARRAYLENGTH) {
+                  lengths.add(field.getNameAndTypeEntry().getNameUTF8Entry().getUTF8());
+               }
+            } else if (instruction instanceof Return) {
+               returnSeen = true;
+            }
+         }
+      }
+
+      if (!unresolvedReads) {
+         for (final String name : coveringWrites) {
+            if (!reads.contains(name)) {
+               arrayFieldWriteOnly.add(name);
+            }
+         }
+      }
+      if (!unresolvedWrites) {
+         for (final String name : reads) {
+            if (!writes.contains(name)) {
+               arrayFieldReadOnly.add(name);
+            }
+         }
+      }
+      if (!unresolvedReads && !unresolvedWrites) {
+         final Set<String> accessed = new LinkedHashSet<String>(reads);
+         accessed.addAll(writes);
+         accessed.addAll(lengths);
+         for (final String name : accessed) {
+            if (!nonElementwise.contains(name)) {
+               arrayFieldElementwise.add(name);
+            }
+         }
+      }
+      if (logger.isLoggable(Level.FINE)) {
+         logger.fine("write only arrays " + arrayFieldWriteOnly + ", read only arrays " + arrayFieldReadOnly);
+      }
+   }
+
+   /**
+    * @return <code>loadHalf</code> or <code>storeHalf</code> if the array reference is the array passed to that Kernel intrinsic, 
+    *         otherwise null
+    */
+   private static String getHalfAccess(Instruction _arrayRef) {
+      final Instruction parent = _arrayRef.getParentExpr();
+      // the intrinsics are final, so a call on this can not be to an override
+      if ((parent instanceof VirtualMethodCall) && (((VirtualMethodCall) parent).getInstanceReference() instanceof I_ALOAD_0)
+            && (((MethodCall) parent).getArg(0) == _arrayRef)) {
+         final MethodEntry methodEntry = ((MethodCall) parent).getConstantPoolMethodEntry();
+         final String signature = methodEntry.getNameAndTypeEntry().getNameUTF8Entry().getUTF8()
+               + methodEntry.getNameAndTypeEntry().getDescriptorUTF8Entry().getUTF8();
+         if (signature.equals("loadHalf([SI)F")) {
+            return ("loadHalf");
+         } else if (signature.equals("storeHalf([SIF)V")) {
+            return ("storeHalf");
+         }
+      }
+      return (null);
+   }
+
+   /**
+    * Follow a chain of <code>aaload</code>s back to the field holding the (possibly multi dimensional) array.
+    * 
+    * @return the name of the array field, or null if the array reference can not be attributed to a field 
+    */
+   private static String getArrayFieldName(Instruction _arrayRef) {
+      Instruction arrayRef = _arrayRef;
+      while (arrayRef instanceof I_AALOAD) {
+         arrayRef = ((I_AALOAD) arrayRef).getArrayRef();
+      }
+      if (arrayRef instanceof AccessField) {
+         return (((AccessField) arrayRef).getConstantPoolFieldEntry().getNameAndTypeEntry().getNameUTF8Entry().getUTF8());
+      }
+      return (null);
+   }
+
+   /**
+    * @return true if _instruction provides the array reference of its parent array access, for example the row of a 2D array
+    */
+   private static boolean isArrayRefOfParent(Instruction _instruction) {
+      final Instruction parent = _instruction.getParentExpr();
+      return ((parent instanceof ArrayAccess) && (((ArrayAccess) parent).getArrayRef() == _instruction));
+   }
+
+   private static boolean isGetGlobalIdCall(Instruction _instruction) {
+      if (_instruction instanceof I_INVOKEVIRTUAL) {
+         final MethodEntry methodEntry = ((I_INVOKEVIRTUAL) _instruction).getConstantPoolMethodEntry();
+         return (methodEntry.getNameAndTypeEntry().getNameUTF8Entry().getUTF8().equals("getGlobalId") && methodEntry
+               .getNameAndTypeEntry().getDescriptorUTF8Entry().getUTF8().equals("()I"));
+      }
+      return (false);
+   }
+
+   private static boolean isGlobalId(Instruction _instruction, Set<Integer> _globalIdSlots) {
+      if ((_instruction instanceof AccessLocalVariable) && !(_instruction instanceof AssignToLocalVariable)) {
+         return (_globalIdSlots.contains(((AccessLocalVariable) _instruction).getLocalVariableTableIndex()));
+      }
+      return (isGetGlobalIdCall(_instruction));
+   }
+
+   /**
+    * @return the local variable slots of _method which are only ever assigned the result of <code>getGlobalId()</code>
+    */
+   private static Set<Integer> getGlobalIdLocalVariableSlots(MethodModel _method) {
+      final Set<Integer> slots = new HashSet<Integer>();
+      final Set<Integer> otherSlots = new HashSet<Integer>();
+      for (Instruction instruction = _method.getPCHead(); instruction != null; instruction = instruction.getNextPC()) {
+         if (instruction instanceof AssignToLocalVariable) {
+            final int slot = ((AssignToLocalVariable) instruction).getLocalVariableTableIndex();
+            if (isGetGlobalIdCall(instruction.getFirstChild())) {
+               slots.add(slot);
+            } else {
+               otherSlots.add(slot);
+            }
+         } else if (instruction instanceof I_IINC) {
+            otherSlots.add(((I_IINC) instruction).getLocalVariableTableIndex());
+         }
+      }
+      slots.removeAll(otherSlots);
+      return (slots);
+   }
+
    public MethodModel getMethodModel() {
       return (methodModel);
    }
@@ -17,16 +17,23 @@ package com.aparapi.internal.model;
 
 final class EntrypointKey{
    public static EntrypointKey of(String entrypointName, String descriptor) {
-      return new EntrypointKey(entrypointName, descriptor);
+      return new EntrypointKey(entrypointName, descriptor, Entrypoint.RangeKind.PLAIN);
+   }
+
+   public static EntrypointKey of(String entrypointName, String descriptor, Entrypoint.RangeKind rangeKind) {
+      return new EntrypointKey(entrypointName, descriptor, rangeKind);
    }
 
    private String descriptor;
 
    private String entrypointName;
 
-   private EntrypointKey(String entrypointName, String descriptor) {
+   private Entrypoint.RangeKind rangeKind;
+
+   private EntrypointKey(String entrypointName, String descriptor, Entrypoint.RangeKind rangeKind) {
       this.entrypointName = entrypointName;
       this.descriptor = descriptor;
+      this.rangeKind = rangeKind;
    }
 
    String getDescriptor() {
@@ -37,16 +44,21 @@ final class EntrypointKey{
       return entrypointName;
    }
 
+   Entrypoint.RangeKind getRangeKind() {
+      return rangeKind;
+   }
+
    @Override public int hashCode() {
       final int prime = 31;
       int result = 1;
       result = prime * result + ((descriptor == null) ? 0 : descriptor.hashCode());
       result = prime * result + ((entrypointName == null) ? 0 : entrypointName.hashCode());
+      result = prime * result + ((rangeKind == null) ? 0 : rangeKind.hashCode());
       return result;
    }
 
    @Override public String toString() {
-      return "EntrypointKey [entrypointName=" + entrypointName + ", descriptor=" + descriptor + "]";
+      return "EntrypointKey [entrypointName=" + entrypointName + ", descriptor=" + descriptor + ", rangeKind=" + rangeKind + "]";
    }
 
    @Override public boolean equals(Object obj) {
@@ -67,6 +79,8 @@ final class EntrypointKey{
             return false;
       } else if (!entrypointName.equals(other.entrypointName))
          return false;
+      if (rangeKind != other.rangeKind)
+         return false;
       return true;
    }
 }
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.internal.util;
+
+/**
+ * Single precision approximations of the transcendental functions, used by the Java execution modes of kernels which ask for
+ * {@link com.aparapi.Kernel.MathPrecision#NATIVE} or {@link com.aparapi.Kernel.MathPrecision#HALF} math, in place of the
+ * <code>java.lang.Math</code> double precision round trip.
+ * <p>
+ * Like the OpenCL <code>native_</code> functions these are computed entirely in <code>float</code>, denormal results are
+ * flushed to zero and the trigonometric functions lose accuracy for arguments far from zero. The absolute error of
+ * <code>sin</code> and <code>cos</code> and the relative error of <code>exp</code> and <code>log</code> are within a few
+ * units of <code>1e-7</code> for arguments of moderate magnitude.
+ */
+public final class FastMath {
+
+   private static final float PI = (float) Math.PI;
+
+   private static final float HALF_PI = (float) (Math.PI / 2);
+
+   private static final float INV_TWO_PI = (float) (1 / (2 * Math.PI));
+
+   /** 2&pi; split into a short float, whose small multiples are exact, and the float nearest the remainder. */
+   private static final float TWO_PI_HI = 6.28125f;
+
+   private static final float TWO_PI_LO = (float) ((2 * Math.PI) - TWO_PI_HI);
+
+   private static final float LOG2_E = (float) (1 / Math.log(2));
+
+   /** ln 2 split in the same way. */
+   private static final float LN2_HI = 0.693145751953125f;
+
+   private static final float LN2_LO = (float) (Math.log(2) - LN2_HI);
+
+   private static final float EXP_MAX = 88.72283f;
+
+   private static final float EXP_MIN = -87.33654f;
+
+   private FastMath() {
+   }
+
+   public static float sin(float _f) {
+      final float k = Math.round(_f * INV_TWO_PI);
+      float x = (_f - (k * TWO_PI_HI)) - (k * TWO_PI_LO);
+      if (x > HALF_PI) {
+         x = PI - x;
+      } else if (x < -HALF_PI) {
+         x = -PI - x;
+      }
+      final float x2 = x * x;
+      return (x * (1f + (x2 * (-1.6666667e-1f + (x2 * (8.333333e-3f + (x2 * (-1.9841270e-4f + (x2 * (2.7557319e-6f + (x2
+            * -2.5052108e-8f)))))))))));
+   }
+
+   public static float cos(float _f) {
+      return (sin(_f + HALF_PI));
+   }
+
+   public static float tan(float _f) {
+      return (sin(_f) / cos(_f));
+   }
+
+   public static float exp(float _f) {
+      if (!(_f < EXP_MAX)) {
+         return ((_f != _f) ? _f : Float.POSITIVE_INFINITY);
+      } else if (_f < EXP_MIN) {
+         return (0f);
+      }
+      final int n = Math.round(_f * LOG2_E);
+      final float r = (_f - (n * LN2_HI)) - (n * LN2_LO);
+      final float p = 1f + (r * (1f + (r * (0.5f + (r * (1.6666667e-1f + (r * (4.1666668e-2f + (r * (8.333334e-3f + (r
+            * 1.3888889e-3f)))))))))));
+      if (n > 127) {
+         return ((p * 2f) * Float.intBitsToFloat(254 << 23));
+      }
+      return (p * Float.intBitsToFloat((n + 127) << 23));
+   }
+
+   public static float log(float _f) {
+      if (!(_f > 0f)) {
+         return ((_f == 0f) ? Float.NEGATIVE_INFINITY : Float.NaN);
+      } else if (_f == Float.POSITIVE_INFINITY) {
+         return (_f);
+      }
+      int bits = Float.floatToRawIntBits(_f);
+      int exponent = (bits >>> 23) - 127;
+      if (exponent == -127) {
+         // denormal, scale into the normal range first
+         bits = Float.floatToRawIntBits(_f * 8388608f);
+         exponent = (bits >>> 23) - 150;
+      }
+      float m = Float.intBitsToFloat((bits & 0x007fffff) | 0x3f800000);
+      if (m > 1.4142135f) {
+         m *= 0.5f;
+         exponent++;
+      }
+      final float t = (m - 1f) / (m + 1f);
+      final float t2 = t * t;
+      final float logM = 2f * t * (1f + (t2 * (3.3333334e-1f + (t2 * (0.2f + (t2 * (1.4285715e-1f + (t2 * 1.1111111e-1f))))))));
+      return ((exponent * LN2_HI) + ((exponent * LN2_LO) + logM));
+   }
+}
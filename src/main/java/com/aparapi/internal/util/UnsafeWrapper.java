@@ -55,6 +55,8 @@ package com.aparapi.internal.util;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.function.IntBinaryOperator;
+import java.util.function.LongBinaryOperator;
 
 /**
  * A wrapper around sun.misc.Unsafe for handling atomic operations, copies from fields to arrays and vice versa.
@@ -105,6 +107,10 @@ public class UnsafeWrapper{
 
    private static Method compareAndSwapIntMethod;
 
+   private static Method getLongVolatileMethod;
+
+   private static Method compareAndSwapLongMethod;
+
    static {
       try {
          final Class<?> uc = Class.forName("sun.misc.Unsafe");
@@ -129,6 +135,8 @@ public class UnsafeWrapper{
          putLongMethod = uc.getDeclaredMethod("putLong", Object.class, long.class, long.class);
          putByteMethod = uc.getDeclaredMethod("putByte", Object.class, long.class, byte.class);
          compareAndSwapIntMethod = uc.getDeclaredMethod("compareAndSwapInt", Object.class, long.class, int.class, int.class);
+         getLongVolatileMethod = uc.getDeclaredMethod("getLongVolatile", Object.class, long.class);
+         compareAndSwapLongMethod = uc.getDeclaredMethod("compareAndSwapLong", Object.class, long.class, long.class, long.class);
       } catch (final SecurityException e) {
          // TODO Auto-generated catch block
          e.printStackTrace();
@@ -177,6 +185,124 @@ public class UnsafeWrapper{
       }
    }
 
+   /**
+    * Atomically replaces an element of an <code>int[]</code>, or the bits of an element of a <code>float[]</code>, with the result of 
+    * <code>_op</code> applied to the element and <code>_value</code>, retrying until no other thread changed the element in between. 
+    * The element is not written when <code>_op</code> leaves it unchanged.
+    *
+    * @return the previous element, or its bits
+    */
+   public static int getAndAccumulateInt(Object _array, int _index, int _value, IntBinaryOperator _op) {
+      final long rawIndex = intElementOffset(_array, _index);
+      while (true) {
+         final int current = getIntVolatile(_array, rawIndex);
+         final int next = _op.applyAsInt(current, _value);
+         if ((next == current) || compareAndSwapInt(_array, rawIndex, current, next)) {
+            return (current);
+         }
+      }
+   }
+
+   /**
+    * As {@link #getAndAccumulateInt(Object, int, int, IntBinaryOperator)} for a <code>long[]</code>, or the bits of a 
+    * <code>double[]</code>.
+    */
+   public static long getAndAccumulateLong(Object _array, int _index, long _value, LongBinaryOperator _op) {
+      final long rawIndex = longElementOffset(_array, _index);
+      while (true) {
+         final long current = getLongVolatile(_array, rawIndex);
+         final long next = _op.applyAsLong(current, _value);
+         if ((next == current) || compareAndSwapLong(_array, rawIndex, current, next)) {
+            return (current);
+         }
+      }
+   }
+
+   /**
+    * Atomically replaces an element of an <code>int[]</code>, or the bits of an element of a <code>float[]</code>, with 
+    * <code>_new</code> if it is <code>_expected</code>.
+    *
+    * @return the previous element, or its bits, which is <code>_expected</code> if the element was replaced
+    */
+   public static int compareAndExchangeInt(Object _array, int _index, int _expected, int _new) {
+      final long rawIndex = intElementOffset(_array, _index);
+      while (true) {
+         final int current = getIntVolatile(_array, rawIndex);
+         if ((current != _expected) || compareAndSwapInt(_array, rawIndex, current, _new)) {
+            return (current);
+         }
+      }
+   }
+
+   /**
+    * As {@link #compareAndExchangeInt(Object, int, int, int)} for a <code>long[]</code>, or the bits of a <code>double[]</code>.
+    */
+   public static long compareAndExchangeLong(Object _array, int _index, long _expected, long _new) {
+      final long rawIndex = longElementOffset(_array, _index);
+      while (true) {
+         final long current = getLongVolatile(_array, rawIndex);
+         if ((current != _expected) || compareAndSwapLong(_array, rawIndex, current, _new)) {
+            return (current);
+         }
+      }
+   }
+
+   private static long intElementOffset(Object _array, int _index) {
+      if (_array instanceof int[]) {
+         checkIndex(((int[]) _array).length, _index);
+         return (intArrayBase + ((long) _index * intArrayScale));
+      }
+      checkIndex(((float[]) _array).length, _index);
+      return (floatArrayBase + ((long) _index * floatArrayScale));
+   }
+
+   private static long longElementOffset(Object _array, int _index) {
+      if (_array instanceof long[]) {
+         checkIndex(((long[]) _array).length, _index);
+         return (longArrayBase + ((long) _index * longArrayScale));
+      }
+      checkIndex(((double[]) _array).length, _index);
+      return (doubleArrayBase + ((long) _index * doubleArrayScale));
+   }
+
+   private static void checkIndex(int _length, int _index) {
+      if ((_index < 0) || (_index >= _length)) {
+         throw new IndexOutOfBoundsException("index " + _index);
+      }
+   }
+
+   private static int getIntVolatile(Object _array, long _rawIndex) {
+      try {
+         return ((Integer) getIntVolatileMethod.invoke(unsafe, _array, _rawIndex));
+      } catch (final IllegalAccessException | InvocationTargetException e) {
+         throw new IllegalStateException(e);
+      }
+   }
+
+   private static boolean compareAndSwapInt(Object _array, long _rawIndex, int _expected, int _new) {
+      try {
+         return ((Boolean) compareAndSwapIntMethod.invoke(unsafe, _array, _rawIndex, _expected, _new));
+      } catch (final IllegalAccessException | InvocationTargetException e) {
+         throw new IllegalStateException(e);
+      }
+   }
+
+   private static long getLongVolatile(Object _array, long _rawIndex) {
+      try {
+         return ((Long) getLongVolatileMethod.invoke(unsafe, _array, _rawIndex));
+      } catch (final IllegalAccessException | InvocationTargetException e) {
+         throw new IllegalStateException(e);
+      }
+   }
+
+   private static boolean compareAndSwapLong(Object _array, long _rawIndex, long _expected, long _new) {
+      try {
+         return ((Boolean) compareAndSwapLongMethod.invoke(unsafe, _array, _rawIndex, _expected, _new));
+      } catch (final IllegalAccessException | InvocationTargetException e) {
+         throw new IllegalStateException(e);
+      }
+   }
+
    public static int arrayBaseOffset(Class<?> _arrayClass) {
       int offset = 0;
 
@@ -217,6 +343,18 @@ public class UnsafeWrapper{
 
    private static int intArrayScale = arrayIndexScale(int[].class);
 
+   private static int floatArrayBase = arrayBaseOffset(float[].class);
+
+   private static int floatArrayScale = arrayIndexScale(float[].class);
+
+   private static int longArrayBase = arrayBaseOffset(long[].class);
+
+   private static int longArrayScale = arrayIndexScale(long[].class);
+
+   private static int doubleArrayBase = arrayBaseOffset(double[].class);
+
+   private static int doubleArrayScale = arrayIndexScale(double[].class);
+
    public static Object getObject(Object _object, long _offset) {
       Object object = null;
       try {
@@ -295,21 +295,37 @@ public abstract class BlockWriter{
          if (instruction instanceof CompositeInstruction) {
             writeComposite((CompositeInstruction) instruction);
          } else if (!instruction.getByteCode().equals(ByteCode.NONE)) {
-            newLine();
-            writeInstruction(instruction);
-            write(";");
-
+            instruction = writeStatements(instruction, _last);
          }
       }
 
    }
 
+   /**
+    * Write the statement <code>_first</code>, or a run of statements starting with it which can be written together.
+    *
+    * @return the last statement written
+    */
+   protected Instruction writeStatements(Instruction _first, Instruction _last) throws CodeGenException {
+      writeStatement(_first);
+      return (_first);
+   }
+
+   /**
+    * Write a statement which is not a composite instruction.
+    */
+   protected void writeStatement(Instruction _statement) throws CodeGenException {
+      newLine();
+      writeInstruction(_statement);
+      write(";");
+   }
+
    protected void writeGetterBlock(FieldEntry accessorVariableFieldEntry) {
       write("{");
       in();
       newLine();
-      write("return this->");
-      write(accessorVariableFieldEntry.getNameAndTypeEntry().getNameUTF8Entry().getUTF8());
+      write("return ");
+      writeThisMember(accessorVariableFieldEntry.getNameAndTypeEntry().getNameUTF8Entry().getUTF8());
       write(";");
       out();
       newLine();
@@ -482,7 +498,8 @@ public abstract class BlockWriter{
             NameAndTypeEntry nameAndTypeEntry = ((AccessField) load).getConstantPoolFieldEntry().getNameAndTypeEntry();
             if (isMultiDimensionalArray(nameAndTypeEntry)) {
                String arrayName = nameAndTypeEntry.getNameUTF8Entry().getUTF8();
-               write(" * this->" + arrayName + arrayDimMangleSuffix + dim);
+               write(" * ");
+               writeThisMember(arrayName + arrayDimMangleSuffix + dim);
             }
          }
 
@@ -502,11 +519,13 @@ public abstract class BlockWriter{
             if (!(accessInstanceField instanceof I_ALOAD_0)) {
                writeInstruction(accessInstanceField);
                write(".");
+               write(accessField.getConstantPoolFieldEntry().getNameAndTypeEntry().getNameUTF8Entry().getUTF8());
             } else {
-               writeThisRef();
+               writeThisMember(accessField.getConstantPoolFieldEntry().getNameAndTypeEntry().getNameUTF8Entry().getUTF8());
             }
+         } else {
+            write(accessField.getConstantPoolFieldEntry().getNameAndTypeEntry().getNameUTF8Entry().getUTF8());
          }
-         write(accessField.getConstantPoolFieldEntry().getNameAndTypeEntry().getNameUTF8Entry().getUTF8());
 
       } else if (_instruction instanceof I_ARRAYLENGTH) {
 
@@ -523,7 +542,7 @@ public abstract class BlockWriter{
          NameAndTypeEntry nameAndTypeEntry = ((AccessInstanceField) load).getConstantPoolFieldEntry().getNameAndTypeEntry();
          final String arrayName = nameAndTypeEntry.getNameUTF8Entry().getUTF8();
          String dimSuffix = isMultiDimensionalArray(nameAndTypeEntry) ? Integer.toString(dim) : "";
-         write("this->" + arrayName + arrayLengthMangleSuffix + dimSuffix);
+         writeThisMember(arrayName + arrayLengthMangleSuffix + dimSuffix);
       } else if (_instruction instanceof AssignToField) {
          final AssignToField assignedField = (AssignToField) _instruction;
 
@@ -533,50 +552,18 @@ public abstract class BlockWriter{
             if (!(accessInstanceField instanceof I_ALOAD_0)) {
                writeInstruction(accessInstanceField);
                write(".");
+               write(assignedField.getConstantPoolFieldEntry().getNameAndTypeEntry().getNameUTF8Entry().getUTF8());
             } else {
-               writeThisRef();
+               writeThisMember(assignedField.getConstantPoolFieldEntry().getNameAndTypeEntry().getNameUTF8Entry().getUTF8());
             }
+         } else {
+            write(assignedField.getConstantPoolFieldEntry().getNameAndTypeEntry().getNameUTF8Entry().getUTF8());
          }
-         write(assignedField.getConstantPoolFieldEntry().getNameAndTypeEntry().getNameUTF8Entry().getUTF8());
          write("=");
          writeInstruction(assignedField.getValueToAssign());
       } else if (_instruction instanceof Constant<?>) {
          final Constant<?> constantInstruction = (Constant<?>) _instruction;
-         final Object value = constantInstruction.getValue();
-
-         if (value instanceof Float) {
-
-            final Float f = (Float) value;
-            if (f.isNaN()) {
-               write("NAN");
-            } else if (f.isInfinite()) {
-               if (f < 0) {
-                  write("-");
-               }
-               write("INFINITY");
-            } else {
-               write(value.toString());
-               write("f");
-            }
-         } else if (value instanceof Double) {
-
-            final Double d = (Double) value;
-            if (d.isNaN()) {
-               write("NAN");
-            } else if (d.isInfinite()) {
-               if (d < 0) {
-                  write("-");
-               }
-               write("INFINITY");
-            } else {
-               write(value.toString());
-            }
-         } else {
-            write(value.toString());
-            if (value instanceof Long) {
-               write("L");
-            }
-         }
+         writeConstantValue(constantInstruction.getValue());
 
       } else if (_instruction instanceof AccessLocalVariable) {
          final AccessLocalVariable localVariableLoadInstruction = (AccessLocalVariable) _instruction;
@@ -749,7 +736,7 @@ public abstract class BlockWriter{
             writeConditionalBranch16((ConditionalBranch16) _instruction, true);
           else
             throw new CodeGenException(String.format("%s -> %04d", _instruction.getByteCode().toString().toLowerCase(), ((Branch) _instruction).getTarget().getThisPC()));
-      } else if (_instruction instanceof I_POP) {
+      } else if ((_instruction instanceof I_POP) || (_instruction instanceof I_POP2)) {
          //POP discarded void call return?
          writeInstruction(_instruction.getFirstChild());
       } else {
@@ -861,10 +848,55 @@ public abstract class BlockWriter{
 
    }
 
+   /**
+    * Write a literal int, long, float or double value.
+    */
+   public void writeConstantValue(Object _value) {
+      if (_value instanceof Float) {
+         final Float f = (Float) _value;
+         if (f.isNaN()) {
+            write("NAN");
+         } else if (f.isInfinite()) {
+            if (f < 0) {
+               write("-");
+            }
+            write("INFINITY");
+         } else {
+            write(_value.toString());
+            write("f");
+         }
+      } else if (_value instanceof Double) {
+         final Double d = (Double) _value;
+         if (d.isNaN()) {
+            write("NAN");
+         } else if (d.isInfinite()) {
+            if (d < 0) {
+               write("-");
+            }
+            write("INFINITY");
+         } else {
+            write(_value.toString());
+         }
+      } else {
+         write(_value.toString());
+         if (_value instanceof Long) {
+            write("L");
+         }
+      }
+   }
+
    public void writeThisRef() {
       write("this.");
    }
 
+   /**
+    * Write a reference to a member of the kernel instance, either a field or a hidden member such as the length of an array field.
+    */
+   public void writeThisMember(String _name) {
+      writeThisRef();
+      write(_name);
+   }
+
    public void writeMethodBody(MethodModel _methodModel) throws CodeGenException {
       if (_methodModel.isGetter() && !_methodModel.isNoCL()) {
          FieldEntry accessorVariableFieldEntry = _methodModel.getAccessorVariableFieldEntry();
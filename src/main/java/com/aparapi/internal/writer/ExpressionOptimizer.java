@@ -0,0 +1,394 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.internal.writer;
+
+import com.aparapi.internal.instruction.*;
+import com.aparapi.internal.instruction.InstructionSet.*;
+import com.aparapi.internal.model.*;
+import com.aparapi.internal.model.ClassModel.ConstantPool.*;
+
+import java.util.*;
+
+/**
+ * Expression level analysis used by {@link KernelWriter} when {@link com.aparapi.Config#enableExpressionOptimizations} is set.
+ * <p>
+ * Reads of <code>final</code> scalar fields of the kernel instance are replaced by their values and integer expressions whose operands 
+ * are all known are folded. Pure expressions which do not change inside a <code>for</code> loop, and pure expressions repeated within 
+ * a single statement, are found so that the writer can evaluate them once into a <code>const</code> local declared ahead of the loop 
+ * or statement.
+ * <p>
+ * An expression is only considered pure if it is built from constants, locals, scalar fields which no method assigns, array lengths, the 
+ * OpenCL id and size getters, casts and arithmetic other than division and remainder (which may trap, and must not be evaluated 
+ * speculatively). Array elements are never considered as they may be written through an alias.
+ */
+class ExpressionOptimizer{
+
+   private static final String HOISTED_PREFIX = "hoisted__";
+
+   private final Map<String, Object> finalFieldValues;
+
+   private final Set<String> assignedFields = new HashSet<String>();
+
+   /**
+    * The local each hoisted expression has been replaced by.
+    */
+   private final Map<Instruction, String> hoisted = new IdentityHashMap<Instruction, String>();
+
+   private int hoistedCount = 0;
+
+   ExpressionOptimizer(Entrypoint _entryPoint) {
+      finalFieldValues = _entryPoint.getFinalFieldValues();
+      final List<MethodModel> methods = new ArrayList<MethodModel>(_entryPoint.getCalledMethods());
+      methods.add(_entryPoint.getMethodModel());
+      for (final MethodModel method : methods) {
+         for (Instruction instruction = method.getPCHead(); instruction != null; instruction = instruction.getNextPC()) {
+            if (instruction instanceof AssignToField) {
+               assignedFields.add(getFieldName((FieldReference) instruction));
+            }
+         }
+      }
+   }
+
+   /**
+    * @return the name of the local which replaces the given instruction, or null if it has not been hoisted
+    */
+   String getHoisted(Instruction _instruction) {
+      return (hoisted.get(_instruction));
+   }
+
+   /**
+    * Replace the given instruction by a new local.
+    * 
+    * @return the name of the local
+    */
+   String hoist(Instruction _instruction) {
+      final String name = HOISTED_PREFIX + hoistedCount++;
+      hoisted.put(_instruction, name);
+      return (name);
+   }
+
+   /**
+    * Replace the given instruction by a local hoisted earlier.
+    */
+   void hoist(Instruction _instruction, String _name) {
+      hoisted.put(_instruction, _name);
+   }
+
+   /**
+    * @return true if the given instruction, or an expression containing it, has been hoisted
+    */
+   boolean isHoistedWithin(Instruction _instruction) {
+      for (Instruction instruction = _instruction; instruction != null; instruction = instruction.getParentExpr()) {
+         if (hoisted.containsKey(instruction)) {
+            return (true);
+         }
+      }
+      return (false);
+   }
+
+   /**
+    * @return the OpenCL type of the value the instruction produces, or null if it does not produce an int, long, float or double
+    */
+   String getTypeName(Instruction _instruction) {
+      switch (_instruction.getByteCode().getPush()) {
+         case I:
+            return ("int");
+         case L:
+            return ("long");
+         case F:
+            return ("float");
+         case D:
+            return ("double");
+         default:
+            return (null);
+      }
+   }
+
+   /**
+    * Determine whether the instruction can be written as a literal, either because it reads a <code>final</code> field of the kernel 
+    * instance or because it is an integer expression whose operands are all known. Plain constants are left to the writer.
+    * 
+    * @return the value, or null if the instruction is not a known value
+    */
+   Object getConstantValue(Instruction _instruction) {
+      if (_instruction instanceof AccessInstanceField) {
+         return (getFinalFieldValue(_instruction));
+      } else if ((_instruction instanceof BinaryOperator) || (_instruction instanceof UnaryOperator)) {
+         return (evaluate(_instruction));
+      }
+      return (null);
+   }
+
+   /**
+    * Find the maximal pure expressions inside a <code>for</code> loop which do not depend on anything the loop assigns.
+    * 
+    * @return the expressions in the order they are written
+    */
+   List<Instruction> getLoopInvariants(CompositeInstruction _loop) {
+      final Set<Integer> assignedLocals = getAssignedLocals(_loop.getFirstChild(), null);
+      Instruction first = _loop.getFirstChild();
+      if (first instanceof AssignToLocalVariable) {
+         // the initializer is only executed once
+         first = first.getNextExpr();
+      }
+      final List<Instruction> invariants = new ArrayList<Instruction>();
+      for (Instruction instruction = first; instruction != null; instruction = instruction.getNextExpr()) {
+         collect(instruction, assignedLocals, true, invariants);
+      }
+      return (invariants);
+   }
+
+   /**
+    * Find the pure expressions within a statement which do not depend on anything the statement assigns, outer expressions are returned 
+    * before the expressions they contain.
+    */
+   List<Instruction> getStatementExpressions(Instruction _statement) {
+      final List<Instruction> expressions = new ArrayList<Instruction>();
+      collect(_statement, getAssignedLocals(_statement, _statement.getNextExpr()), false, expressions);
+      return (expressions);
+   }
+
+   private void collect(Instruction _instruction, Set<Integer> _assignedLocals, boolean _maximalOnly, List<Instruction> _found) {
+      if (hoisted.containsKey(_instruction)) {
+         return;
+      }
+      final boolean candidate = (getTypeName(_instruction) != null) && isPure(_instruction, _assignedLocals)
+            && isWorthHoisting(_instruction) && (evaluate(_instruction) == null);
+      if (candidate) {
+         _found.add(_instruction);
+      }
+      if (!candidate || !_maximalOnly) {
+         for (Instruction child = _instruction.getFirstChild(); child != null; child = child.getNextExpr()) {
+            collect(child, _assignedLocals, _maximalOnly, _found);
+         }
+      }
+   }
+
+   /**
+    * Only arithmetic is worth a local, a cast or negation of arithmetic is hoisted with it.
+    */
+   private boolean isWorthHoisting(Instruction _instruction) {
+      if (_instruction instanceof BinaryOperator) {
+         return (true);
+      } else if (_instruction instanceof UnaryOperator) {
+         final Instruction unary = ((UnaryOperator) _instruction).getUnary();
+         return (!hoisted.containsKey(unary) && isWorthHoisting(unary));
+      }
+      return (false);
+   }
+
+   /**
+    * @return true if the expression is pure, assuming the locals it reads are not assigned between its evaluations
+    */
+   boolean isPure(Instruction _instruction) {
+      return (isPure(_instruction, Collections.<Integer> emptySet()));
+   }
+
+   private boolean isPure(Instruction _instruction, Set<Integer> _assignedLocals) {
+      if (hoisted.containsKey(_instruction) || (_instruction instanceof Constant<?>)) {
+         return (true);
+      } else if (_instruction instanceof AccessLocalVariable) {
+         return (!_assignedLocals.contains(((AccessLocalVariable) _instruction).getLocalVariableTableIndex()));
+      } else if (_instruction instanceof AccessInstanceField) {
+         final AccessInstanceField accessField = (AccessInstanceField) _instruction;
+         final String descriptor = accessField.getConstantPoolFieldEntry().getNameAndTypeEntry().getDescriptorUTF8Entry().getUTF8();
+         return (isThis(accessField.getInstance()) && (descriptor.length() == 1) && !assignedFields.contains(getFieldName(accessField)));
+      } else if (_instruction instanceof I_ARRAYLENGTH) {
+         final Instruction array = _instruction.getFirstChild();
+         return ((array instanceof AccessInstanceField) && isThis(((AccessInstanceField) array).getInstance())
+               && !assignedFields.contains(getFieldName((AccessInstanceField) array)));
+      } else if (_instruction instanceof BinaryOperator) {
+         final BinaryOperator binary = (BinaryOperator) _instruction;
+         return (isPureOperator(binary.getOperator()) && isPure(binary.getLhs(), _assignedLocals) && isPure(binary.getRhs(),
+               _assignedLocals));
+      } else if (_instruction instanceof UnaryOperator) {
+         final UnaryOperator unary = (UnaryOperator) _instruction;
+         return (((unary instanceof CastOperator) || unary.getOperator().equals(Operator.Neg)) && isPure(unary.getUnary(),
+               _assignedLocals));
+      } else if ((_instruction instanceof VirtualMethodCall) && isThis(((VirtualMethodCall) _instruction).getInstanceReference())) {
+         final MethodCall call = (MethodCall) _instruction;
+         final MethodEntry entry = call.getConstantPoolMethodEntry();
+         final String name = entry.getNameAndTypeEntry().getNameUTF8Entry().getUTF8();
+         if (!name.startsWith("get")
+               || !KernelWriter.javaToCLIdentifierMap.containsKey(name + entry.getNameAndTypeEntry().getDescriptorUTF8Entry().getUTF8())) {
+            return (false);
+         }
+         for (int arg = 0; arg < entry.getStackConsumeCount(); arg++) {
+            if (!isPure(call.getArg(arg), _assignedLocals)) {
+               return (false);
+            }
+         }
+         return (true);
+      }
+      return (false);
+   }
+
+   private static boolean isPureOperator(Operator _operator) {
+      switch (_operator) {
+         case Add:
+         case Sub:
+         case Mul:
+         case BitwiseAnd:
+         case BitwiseOr:
+         case BitwiseXor:
+         case LeftShift:
+         case LogicalRightShift:
+         case ArithmeticRightShift:
+            return (true);
+         default:
+            return (false);
+      }
+   }
+
+   /**
+    * Evaluate an int or long expression whose operands are constants or <code>final</code> fields, using Java's (wrapping) semantics.
+    * 
+    * @return the value as an Integer or Long, or null if the expression can not be evaluated
+    */
+   private Number evaluate(Instruction _instruction) {
+      if (_instruction instanceof Constant<?>) {
+         final Object constant = ((Constant<?>) _instruction).getValue();
+         return (((constant instanceof Integer) || (constant instanceof Long)) ? (Number) constant : null);
+      } else if (_instruction instanceof AccessInstanceField) {
+         final Object field = getFinalFieldValue(_instruction);
+         if (field instanceof Long) {
+            return ((Long) field);
+         }
+         return (((field instanceof Integer) || (field instanceof Short) || (field instanceof Byte)) ? (Number) Integer
+               .valueOf(((Number) field).intValue()) : null);
+      }
+
+      final PushSpec push = _instruction.getByteCode().getPush();
+      if ((push != PushSpec.I) && (push != PushSpec.L)) {
+         return (null);
+      }
+      Long value = null;
+      if (_instruction instanceof BinaryOperator) {
+         final BinaryOperator binary = (BinaryOperator) _instruction;
+         final Number lhs = evaluate(binary.getLhs());
+         final Number rhs = (lhs == null) ? null : evaluate(binary.getRhs());
+         if (rhs != null) {
+            value = evaluate(binary.getOperator(), lhs.longValue(), rhs.longValue(), push == PushSpec.L);
+         }
+      } else if (_instruction instanceof UnaryOperator) {
+         final UnaryOperator unary = (UnaryOperator) _instruction;
+         final Number operand = evaluate(unary.getUnary());
+         if (operand != null) {
+            switch (unary.getOperator()) {
+               case Neg:
+                  value = -operand.longValue();
+                  break;
+               case I2LCast:
+               case L2ICast:
+                  value = operand.longValue();
+                  break;
+               default:
+                  break;
+            }
+         }
+      }
+      if (value == null) {
+         return (null);
+      }
+      return ((push == PushSpec.L) ? (Number) value : (Number) Integer.valueOf(value.intValue()));
+   }
+
+   private static Long evaluate(Operator _operator, long _lhs, long _rhs, boolean _long) {
+      // shift distances are masked exactly as the JVM masks them
+      final int shift = (int) (_rhs & (_long ? 0x3f : 0x1f));
+      switch (_operator) {
+         case Add:
+            return (_lhs + _rhs);
+         case Sub:
+            return (_lhs - _rhs);
+         case Mul:
+            return (_lhs * _rhs);
+         case Div:
+            return ((_rhs == 0) ? null : (Long) (_long ? (_lhs / _rhs) : (long) ((int) _lhs / (int) _rhs)));
+         case Rem:
+            return ((_rhs == 0) ? null : (Long) (_long ? (_lhs % _rhs) : (long) ((int) _lhs % (int) _rhs)));
+         case BitwiseAnd:
+            return (_lhs & _rhs);
+         case BitwiseOr:
+            return (_lhs | _rhs);
+         case BitwiseXor:
+            return (_lhs ^ _rhs);
+         case LeftShift:
+            return (_lhs << shift);
+         case LogicalRightShift:
+            return (_long ? (_lhs >> shift) : (long) ((int) _lhs >> shift));
+         case ArithmeticRightShift:
+            return (_long ? (_lhs >>> shift) : (long) ((int) _lhs >>> shift));
+         default:
+            return (null);
+      }
+   }
+
+   private Object getFinalFieldValue(Instruction _instruction) {
+      final AccessInstanceField accessField = (AccessInstanceField) _instruction;
+      return (isThis(accessField.getInstance()) ? finalFieldValues.get(getFieldName(accessField)) : null);
+   }
+
+   /**
+    * Collect the locals assigned by the instructions from <code>_first</code> up to (but not including) <code>_last</code>, using the 
+    * bytecode they were folded from so that increments and assignments nested in expressions are found too.
+    */
+   private static Set<Integer> getAssignedLocals(Instruction _first, Instruction _last) {
+      int from = Integer.MAX_VALUE;
+      int to = Integer.MIN_VALUE;
+      for (Instruction instruction = _first; instruction != _last; instruction = instruction.getNextExpr()) {
+         from = Math.min(from, getFirstPC(instruction));
+         to = Math.max(to, getLastPC(instruction));
+      }
+
+      final Set<Integer> assigned = new HashSet<Integer>();
+      for (Instruction instruction = _first.getMethod().getPCHead(); instruction != null; instruction = instruction.getNextPC()) {
+         if ((instruction.getThisPC() < from) || (instruction.getThisPC() > to)) {
+            continue;
+         }
+         if (instruction instanceof AssignToLocalVariable) {
+            assigned.add(((AssignToLocalVariable) instruction).getLocalVariableTableIndex());
+         } else if (instruction instanceof I_IINC) {
+            assigned.add(((I_IINC) instruction).getLocalVariableTableIndex());
+         }
+      }
+      return (assigned);
+   }
+
+   private static int getFirstPC(Instruction _instruction) {
+      int pc = _instruction.getThisPC();
+      for (Instruction child = _instruction.getFirstChild(); child != null; child = child.getNextExpr()) {
+         pc = Math.min(pc, getFirstPC(child));
+      }
+      return (pc);
+   }
+
+   private static int getLastPC(Instruction _instruction) {
+      int pc = _instruction.getThisPC();
+      for (Instruction child = _instruction.getFirstChild(); child != null; child = child.getNextExpr()) {
+         pc = Math.max(pc, getLastPC(child));
+      }
+      return (pc);
+   }
+
+   private static String getFieldName(FieldReference _field) {
+      return (_field.getConstantPoolFieldEntry().getNameAndTypeEntry().getNameUTF8Entry().getUTF8());
+   }
+
+   private static boolean isThis(Instruction _instruction) {
+      return (_instruction instanceof I_ALOAD_0);
+   }
+}
@@ -117,6 +117,85 @@ public abstract class KernelWriter extends BlockWriter{
 
    private Entrypoint entryPoint = null;
 
+   /**
+    * When set kernel arguments are referenced directly and helper methods receive the members they use as parameters, rather than 
+    * everything being copied into a per work item <code>This</code> struct.
+    */
+   private boolean directFieldAccess = Config.enableDirectFieldAccess;
+
+   /**
+    * Declarations of the members of the kernel instance (fields, array lengths and dimensions and the pass id) in declaration order.
+    */
+   private Map<String, String> thisMemberDeclarations = new LinkedHashMap<String, String>();
+
+   /**
+    * The members each helper method (or the methods it calls) references, only used when {@link #directFieldAccess} is set.
+    */
+   private Map<MethodModel, List<String>> methodThisMembers = new HashMap<MethodModel, List<String>>();
+
+   /**
+    * Collects the members written while determining the members a helper method needs.
+    */
+   private Set<String> usedThisMembers = null;
+
+   /**
+    * When set <code>final</code> fields are replaced by their values and loop invariant and repeated expressions are hoisted into locals.
+    */
+   private boolean optimizeExpressions = Config.enableExpressionOptimizations;
+
+   /**
+    * Only created once we know the entrypoint, and only if {@link #optimizeExpressions} is set.
+    */
+   private ExpressionOptimizer optimizer = null;
+
+   /**
+    * The values of the fields annotated with {@link Kernel.Specialize}, which are written as macros rather than read from the kernel 
+    * instance.
+    */
+   private Map<String, Object> specializedFieldValues = Collections.emptyMap();
+
+   /**
+    * The array fields which may refer to the same java array as another array field, see {@link Entrypoint#getArrayFieldAliases()}.
+    */
+   private Set<String> arrayFieldAliases = Collections.emptySet();
+
+   /**
+    * The pragma requested by a call to {@link Kernel#unroll(int)}, to be written before the next loop.
+    */
+   private String loopPragma = null;
+
+   /**
+    * The pragma requested by the {@link Kernel.Unroll} annotation of the method being written, written before each of its loops.
+    */
+   private String methodLoopPragma = null;
+
+   /**
+    * The widths tried, widest first, when writing a run of stores to consecutive array elements as one <code>vstoreN</code>.
+    */
+   private static final int[] VECTOR_WIDTHS = new int[] {
+         16,
+         8,
+         4,
+         2
+   };
+
+   /**
+    * The math policy requested by the kernel class with {@link Kernel.Precision}.
+    */
+   private Kernel.MathPrecision mathPrecision = Kernel.MathPrecision.PRECISE;
+
+   /**
+    * The address space of each <code>short[]</code> field, which {@link Kernel#loadHalf(short[], int)} and 
+    * {@link Kernel#storeHalf(short[], int, float)} cast to a pointer to <code>half</code>.
+    */
+   private Map<String, String> halfArrayAddressSpaces = new HashMap<String, String>();
+
+   /**
+    * The built-ins which have <code>native_</code> and <code>half_</code> variants for float arguments.
+    */
+   private static final Set<String> relaxedMathFunctions = new HashSet<String>(Arrays.asList("sin", "cos", "tan", "exp", "exp2",
+         "exp10", "log", "log2", "log10", "sqrt", "rsqrt"));
+
    public final static Map<String, String> javaToCLIdentifierMap = new HashMap<String, String>();
    {
       javaToCLIdentifierMap.put("getGlobalId()I", "get_global_id(0)");
@@ -124,12 +203,14 @@ public abstract class KernelWriter extends BlockWriter{
       javaToCLIdentifierMap.put("getGlobalX()I", "get_global_id(0)");
       javaToCLIdentifierMap.put("getGlobalY()I", "get_global_id(1)");
       javaToCLIdentifierMap.put("getGlobalZ()I", "get_global_id(2)");
+      javaToCLIdentifierMap.put("getGlobalIdLong()J", "get_global_id(0)");
 
       javaToCLIdentifierMap.put("getGlobalSize()I", "get_global_size(0)");
       javaToCLIdentifierMap.put("getGlobalSize(I)I", "get_global_size"); // no parenthesis if we are conveying args
       javaToCLIdentifierMap.put("getGlobalWidth()I", "get_global_size(0)");
       javaToCLIdentifierMap.put("getGlobalHeight()I", "get_global_size(1)");
       javaToCLIdentifierMap.put("getGlobalDepth()I", "get_global_size(2)");
+      javaToCLIdentifierMap.put("getGlobalSizeLong()J", "get_global_size(0)");
 
       javaToCLIdentifierMap.put("getLocalId()I", "get_local_id(0)");
       javaToCLIdentifierMap.put("getLocalId(I)I", "get_local_id"); // no parenthesis if we are conveying args
@@ -208,6 +289,42 @@ public abstract class KernelWriter extends BlockWriter{
       }
    }
 
+   /**
+    * The getters of the global id of dimension 0, which in an indexed range is read from the indices of the range and in a split long
+    * range is offset by the start of the part being dispatched.
+    */
+   private static final Set<String> RANGE_GLOBAL_IDS = new HashSet<String>(Arrays.asList("getGlobalId()I", "getGlobalId(I)I",
+         "getGlobalX()I", "getGlobalIdLong()J"));
+
+   /**
+    * Write the global id of a work item of an indexed range, <code>rangeIndices[get_global_id(0)]</code>, or of a split long range, 
+    * <code>(rangeOffset + get_global_id(0))</code>. Both ranges are one dimensional, so <code>getGlobalId(_dim)</code> with a 
+    * dimension which is not known to be 0 selects between that and <code>get_global_id(_dim)</code>.
+    */
+   private void writeRangeGlobalId(MethodCall _methodCall, int _argc, boolean _long) throws CodeGenException {
+      final Instruction dim = (_argc > 0) ? _methodCall.getArg(0) : null;
+      final boolean dimZero = (dim == null)
+            || ((dim instanceof Constant<?>) && Integer.valueOf(0).equals(((Constant<?>) dim).getValue()));
+      if (!dimZero) {
+         write("((");
+         writeInstruction(dim);
+         write(") == 0 ? ");
+      }
+      if (entryPoint.getRangeKind() == Entrypoint.RangeKind.INDEXED) {
+         writeThisMember("rangeIndices");
+         write("[get_global_id(0)]");
+      } else {
+         write(_long ? "(" : "((int)(");
+         writeThisMember("rangeOffset");
+         write(_long ? " + get_global_id(0))" : " + get_global_id(0)))");
+      }
+      if (!dimZero) {
+         write(" : get_global_id(");
+         writeInstruction(dim);
+         write("))");
+      }
+   }
+
    @Override public void writeMethod(MethodCall _methodCall, MethodEntry _methodEntry) throws CodeGenException {
       final int argc = _methodEntry.getStackConsumeCount();
 
@@ -216,7 +333,28 @@ public abstract class KernelWriter extends BlockWriter{
 
       final String barrierAndGetterMappings = javaToCLIdentifierMap.get(methodName + methodSignature);
 
-      if (barrierAndGetterMappings != null) {
+      if (directFieldAccess && "getPassId()I".equals(methodName + methodSignature)) {
+         writeThisMember("passid");
+      } else if (("loadHalf([SI)F".equals(methodName + methodSignature) || "storeHalf([SIF)V".equals(methodName + methodSignature))
+            && (_methodCall instanceof VirtualMethodCall) && isThis(((VirtualMethodCall) _methodCall).getInstanceReference())) {
+         writeHalfAccess(_methodCall, methodName.equals("storeHalf"));
+      } else if ("reduce(F)V".equals(methodName + methodSignature) && (_methodCall instanceof VirtualMethodCall)
+            && isThis(((VirtualMethodCall) _methodCall).getInstanceReference())) {
+         write("reduce(");
+         writeThisMember("workGroupScratch");
+         write(", ");
+         writeThisMember("reducePartials");
+         write(", ");
+         writeThisMember("reduceOp");
+         write(", ");
+         writeInstruction(_methodCall.getArg(0));
+         write(")");
+      } else if ((entryPoint.getRangeKind() != Entrypoint.RangeKind.PLAIN) && RANGE_GLOBAL_IDS.contains(methodName + methodSignature)) {
+         writeRangeGlobalId(_methodCall, argc, methodSignature.endsWith("J"));
+      } else if ((entryPoint.getRangeKind() == Entrypoint.RangeKind.SPLIT_LONG)
+            && "getGlobalSizeLong()J".equals(methodName + methodSignature)) {
+         writeThisMember("rangeSize");
+      } else if (barrierAndGetterMappings != null) {
          // this is one of the OpenCL barrier or size getter methods
          // write the mapping and exit
          if (argc > 0) {
@@ -242,8 +380,7 @@ public abstract class KernelWriter extends BlockWriter{
          }
          if (getterField != null && isThis(_methodCall.getArg(0))) {
             String fieldName = getterField.getNameAndTypeEntry().getNameUTF8Entry().getUTF8();
-            write("this->");
-            write(fieldName);
+            writeThisMember(fieldName);
             return;
          }
          boolean noCL = _methodEntry.getOwnerClassModel().getNoCLMethods()
@@ -252,6 +389,18 @@ public abstract class KernelWriter extends BlockWriter{
             return;
          }
          final String intrinsicMapping = Kernel.getMappedMethodName(_methodEntry);
+         if ((intrinsicMapping != null) && intrinsicMapping.startsWith("work_group_") && (_methodCall instanceof VirtualMethodCall)
+               && isThis(((VirtualMethodCall) _methodCall).getInstanceReference())) {
+            // the collectives written by writeWorkGroupCollective() exchange values through the kernel's local scratch
+            write(intrinsicMapping + "_" + (methodSignature.endsWith("I") ? "int" : "float") + "(");
+            writeThisMember("workGroupScratch");
+            for (int arg = 0; arg < argc; arg++) {
+               write(", ");
+               writeInstruction(_methodCall.getArg(arg));
+            }
+            write(")");
+            return;
+         }
          // System.out.println("getMappedMethodName for " + methodName + " returned " + mapping);
          boolean isIntrinsic = false;
 
@@ -268,24 +417,35 @@ public abstract class KernelWriter extends BlockWriter{
                isIntrinsic = true;
             }
          } else {
-            write(intrinsicMapping);
+            write(getPrecisionMapping(intrinsicMapping, _methodEntry));
          }
 
          write("(");
 
-         if ((intrinsicMapping == null) && (_methodCall instanceof VirtualMethodCall) && (!isIntrinsic)) {
+         boolean hasInstanceArg = (intrinsicMapping == null) && (_methodCall instanceof VirtualMethodCall) && (!isIntrinsic);
+         if (hasInstanceArg) {
 
             final Instruction i = ((VirtualMethodCall) _methodCall).getInstanceReference();
 
             if (i instanceof I_ALOAD_0) {
-               write("this");
+               if (directFieldAccess) {
+                  List<String> members = methodThisMembers.get(m);
+                  if (members == null) {
+                     members = collectThisMembers(m);
+                     methodThisMembers.put(m, members);
+                  }
+                  hasInstanceArg = writeThisMembers(members);
+               } else {
+                  write("this");
+               }
             } else if (i instanceof AccessArrayElement) {
                final AccessArrayElement arrayAccess = (AccessArrayElement) ((VirtualMethodCall) _methodCall).getInstanceReference();
                final Instruction refAccess = arrayAccess.getArrayRef();
                //assert refAccess instanceof I_GETFIELD : "ref should come from getfield";
                final String fieldName = ((AccessField) refAccess).getConstantPoolFieldEntry().getNameAndTypeEntry()
                      .getNameUTF8Entry().getUTF8();
-               write(" &(this->" + fieldName);
+               write(" &(");
+               writeThisMember(fieldName);
                write("[");
                writeInstruction(arrayAccess.getArrayIndex());
                write("])");
@@ -294,7 +454,7 @@ public abstract class KernelWriter extends BlockWriter{
             }
          }
          for (int arg = 0; arg < argc; arg++) {
-            if (((intrinsicMapping == null) && (_methodCall instanceof VirtualMethodCall) && (!isIntrinsic)) || (arg != 0)) {
+            if (hasInstanceArg || (arg != 0)) {
                write(", ");
             }
 
@@ -313,6 +473,429 @@ public abstract class KernelWriter extends BlockWriter{
       return instruction instanceof I_ALOAD_0;
    }
 
+   /**
+    * Write a call to {@link Kernel#loadHalf(short[], int)} or {@link Kernel#storeHalf(short[], int, float)} as <code>vload_half()</code> 
+    * or <code>vstore_half()</code>, which take a pointer to <code>half</code> in the address space of the array.
+    */
+   private void writeHalfAccess(MethodCall _methodCall, boolean _store) throws CodeGenException {
+      final Instruction array = _methodCall.getArg(0);
+      String addressSpace = null;
+      if ((array instanceof AccessInstanceField) && isThis(((AccessInstanceField) array).getInstance())) {
+         addressSpace = halfArrayAddressSpaces.get(((AccessInstanceField) array).getConstantPoolFieldEntry().getNameAndTypeEntry()
+               .getNameUTF8Entry().getUTF8());
+      }
+      if (addressSpace == null) {
+         throw new CodeGenException("loadHalf() and storeHalf() can only access a short[] field of the kernel");
+      }
+
+      if (_store) {
+         write("vstore_half(");
+         writeInstruction(_methodCall.getArg(2));
+         write(", ");
+      } else {
+         write("vload_half(");
+      }
+      writeInstruction(_methodCall.getArg(1));
+      write(", (" + (_store ? "" : "const ") + addressSpace + " half *)");
+      writeInstruction(array);
+      write(")");
+   }
+
+   /**
+    * Write the work group reduction called for {@link Kernel#reduce(float)}. The values of the work group are combined pairwise in local 
+    * memory, halving the number of values at each step, and the first work item writes the result to the group's partial, which 
+    * {@link Kernel#executeReduce(Range, Kernel.ReduceOp)} combines on the host. The operator is the ordinal of the 
+    * {@link Kernel.ReduceOp}.
+    */
+   private void writeReduce() {
+      write("void reduce(__local float *_scratch, __global float *_partials, int _op, float _value){");
+      in();
+      newLine();
+      write("int lid = (((get_local_id(2) * get_local_size(1)) + get_local_id(1)) * get_local_size(0)) + get_local_id(0);");
+      newLine();
+      write("int width = get_local_size(0) * get_local_size(1) * get_local_size(2);");
+      newLine();
+      write("_scratch[lid] = _value;");
+      newLine();
+      write("barrier(CLK_LOCAL_MEM_FENCE);");
+      newLine();
+      write("while (width > 1){");
+      in();
+      newLine();
+      write("int half_width = (width + 1) >> 1;");
+      newLine();
+      write("if ((lid + half_width) < width){");
+      in();
+      newLine();
+      write("float a = _scratch[lid];");
+      newLine();
+      write("float b = _scratch[lid + half_width];");
+      newLine();
+      write("_scratch[lid] = (_op == 0) ? (a + b) : ((_op == 1) ? fmin(a, b) : fmax(a, b));");
+      out();
+      newLine();
+      write("}");
+      newLine();
+      write("barrier(CLK_LOCAL_MEM_FENCE);");
+      newLine();
+      write("width = half_width;");
+      out();
+      newLine();
+      write("}");
+      newLine();
+      write("if (lid == 0){");
+      in();
+      newLine();
+      write("_partials[(((get_group_id(2) * get_num_groups(1)) + get_group_id(1)) * get_num_groups(0)) + get_group_id(0)] = _scratch[0];");
+      out();
+      newLine();
+      write("}");
+      out();
+      newLine();
+      write("}");
+      newLine();
+   }
+
+   /**
+    * Write an array atomic, such as <code>atomicAdd_float</code>. Integer operations delegate to the <code>atomic_</code> (32 bit) or 
+    * <code>atom_</code> (64 bit) built-in, there are no float or double atomics, so those compare and swap the bits of the element in a loop 
+    * until no other work item changed it in between.
+    *
+    * @param _name the Java method, an underscore and the type of the elements
+    */
+   private void writeArrayAtomic(String _name) {
+      final String op = _name.substring("atomic".length(), _name.lastIndexOf('_'));
+      final String type = _name.substring(_name.lastIndexOf('_') + 1);
+      final boolean wide = type.equals("long") || type.equals("double");
+      final String bitsType = wide ? "long" : "int";
+      final String cmpxchg = wide ? "atom_cmpxchg" : "atomic_cmpxchg";
+      final String value = op.equals("CmpXchg") ? "_newVal" : "_val";
+
+      write(type + " " + _name + "(__global " + type + " *_arr, int _index, " + (op.equals("CmpXchg") ? type + " _expectedVal, " : "")
+            + type + " " + value + "){");
+      in();
+      newLine();
+      if (type.equals(bitsType)) {
+         final String builtIn = (wide ? "atom_" : "atomic_") + op.toLowerCase();
+         write("return " + builtIn + "(&_arr[_index], " + (op.equals("CmpXchg") ? "_expectedVal, " : "") + value + ");");
+      } else if (op.equals("CmpXchg")) {
+         write("return as_" + type + "(" + cmpxchg + "((volatile __global " + bitsType + " *)&_arr[_index], as_" + bitsType
+               + "(_expectedVal), as_" + bitsType + "(_newVal)));");
+      } else {
+         write("volatile __global " + bitsType + " *bits = (volatile __global " + bitsType + " *)&_arr[_index];");
+         newLine();
+         write(bitsType + " current = *bits;");
+         newLine();
+         write("for (;;){");
+         in();
+         newLine();
+         write(type + " previous = as_" + type + "(current);");
+         newLine();
+         if (op.equals("Add")) {
+            write(bitsType + " next = as_" + bitsType + "(previous + _val);");
+         } else {
+            write("if (!(_val " + (op.equals("Min") ? "<" : ">") + " previous)){");
+            in();
+            newLine();
+            write("return previous;");
+            out();
+            newLine();
+            write("}");
+            newLine();
+            write(bitsType + " next = as_" + bitsType + "(_val);");
+         }
+         newLine();
+         write(bitsType + " witness = " + cmpxchg + "(bits, current, next);");
+         newLine();
+         write("if (witness == current){");
+         in();
+         newLine();
+         write("return previous;");
+         out();
+         newLine();
+         write("}");
+         newLine();
+         write("current = witness;");
+         out();
+         newLine();
+         write("}");
+      }
+      out();
+      newLine();
+      write("}");
+      newLine();
+   }
+
+   /**
+    * Write a packed bit array intrinsic, such as <code>bits_atomic_set</code>, addressing bit <code>_index</code> as bit 
+    * <code>_index &amp; 63</code> of element <code>_index &gt;&gt; 6</code>, as {@link com.aparapi.util.Bits} does. The atomics delegate to 
+    * <code>atom_or()</code> and <code>atom_and()</code> and return the previous state of the bit.
+    *
+    * @param _name the mapped name of the Kernel method
+    */
+   private void writeBitArrayOp(String _name) {
+      final boolean get = _name.equals("bits_get") || _name.startsWith("bits_atomic_");
+      write((get ? "char " : "void ") + _name + "(__global long *_bits, long _index){");
+      in();
+      newLine();
+      if (_name.equals("bits_get")) {
+         write("return (char)((_bits[_index >> 6] >> (_index & 63)) & 1);");
+      } else if (_name.equals("bits_set")) {
+         write("_bits[_index >> 6] |= (1L << (_index & 63));");
+      } else if (_name.equals("bits_clear")) {
+         write("_bits[_index >> 6] &= ~(1L << (_index & 63));");
+      } else {
+         final boolean set = _name.equals("bits_atomic_set");
+         write("long mask = 1L << (_index & 63);");
+         newLine();
+         write("return (char)((" + (set ? "atom_or(&_bits[_index >> 6], mask)" : "atom_and(&_bits[_index >> 6], ~mask)")
+               + " & mask) != 0);");
+      }
+      out();
+      newLine();
+      write("}");
+      newLine();
+   }
+
+   /**
+    * Write the Philox4x32-10 generator behind {@link Kernel#randomInt(long, long)} and {@link Kernel#randomFloat(long, long)}, round for 
+    * round as {@link com.aparapi.util.Philox} computes it, so a kernel draws the same numbers in OpenCL as in Java.
+    */
+   private void writeRandom() {
+      write("uint philox4x32_10(ulong _key, ulong _counter){");
+      in();
+      newLine();
+      write("uint k0 = (uint)_key;");
+      newLine();
+      write("uint k1 = (uint)(_key >> 32);");
+      newLine();
+      write("uint c0 = (uint)_counter;");
+      newLine();
+      write("uint c1 = (uint)(_counter >> 32);");
+      newLine();
+      write("uint c2 = 0;");
+      newLine();
+      write("uint c3 = 0;");
+      newLine();
+      write("for (int round = 0; round < 10; round++){");
+      in();
+      newLine();
+      write("if (round > 0){");
+      in();
+      newLine();
+      write("k0 = k0 + 0x9E3779B9u;");
+      newLine();
+      write("k1 = k1 + 0xBB67AE85u;");
+      out();
+      newLine();
+      write("}");
+      newLine();
+      write("uint hi0 = mul_hi(0xD2511F53u, c0);");
+      newLine();
+      write("uint lo0 = 0xD2511F53u * c0;");
+      newLine();
+      write("uint hi1 = mul_hi(0xCD9E8D57u, c2);");
+      newLine();
+      write("uint lo1 = 0xCD9E8D57u * c2;");
+      newLine();
+      write("c0 = (hi1 ^ c1) ^ k0;");
+      newLine();
+      write("c1 = lo1;");
+      newLine();
+      write("c2 = (hi0 ^ c3) ^ k1;");
+      newLine();
+      write("c3 = lo0;");
+      out();
+      newLine();
+      write("}");
+      newLine();
+      write("return c0;");
+      out();
+      newLine();
+      write("}");
+      newLine();
+      write("int randomInt(long _key, long _counter){");
+      in();
+      newLine();
+      write("return (int)philox4x32_10((ulong)_key, (ulong)_counter);");
+      out();
+      newLine();
+      write("}");
+      newLine();
+      // the top 24 bits convert to float exactly, so the float is the same on every device
+      write("float randomFloat(long _key, long _counter){");
+      in();
+      newLine();
+      write("return (float)(philox4x32_10((ulong)_key, (ulong)_counter) >> 8) * 0x1p-24f;");
+      out();
+      newLine();
+      write("}");
+      newLine();
+   }
+
+   /**
+    * Write a work group collective, such as <code>work_group_reduce_add_float</code>, which calls the OpenCL 2.0 built-in when the 
+    * program is compiled as OpenCL C 2.0 or later, and otherwise exchanges the values of the work group through local memory. Reductions 
+    * combine pairs of values, halving the number of values at each step, scans add the value <code>offset</code> work items back for 
+    * doubling offsets.
+    *
+    * @param _name the built-in, an underscore and the type of the values
+    */
+   private void writeWorkGroupCollective(String _name) {
+      final String builtIn = _name.substring(0, _name.lastIndexOf('_'));
+      final String type = _name.substring(_name.lastIndexOf('_') + 1);
+      final boolean broadcast = builtIn.equals("work_group_broadcast");
+      final String op = builtIn.substring(builtIn.lastIndexOf('_') + 1);
+      final String combine;
+      if (op.equals("add")) {
+         combine = "a + b";
+      } else if (type.equals("int")) {
+         combine = op + "(a, b)";
+      } else {
+         combine = "f" + op + "(a, b)";
+      }
+
+      write(type + " " + _name + "(__local float *_scratch, " + type + " _value" + (broadcast ? ", int _localId" : "") + "){");
+      newLine();
+      write("#if __OPENCL_C_VERSION__ >= 200");
+      in();
+      newLine();
+      if (broadcast) {
+         write("if (get_work_dim() == 1){");
+         in();
+         newLine();
+         write("return work_group_broadcast(_value, (size_t)_localId);");
+         out();
+         newLine();
+         write("} else if (get_work_dim() == 2){");
+         in();
+         newLine();
+         write("return work_group_broadcast(_value, _localId % get_local_size(0), _localId / get_local_size(0));");
+         out();
+         newLine();
+         write("}");
+         newLine();
+         write("return work_group_broadcast(_value, _localId % get_local_size(0), (_localId / get_local_size(0)) % get_local_size(1), "
+               + "_localId / (get_local_size(0) * get_local_size(1)));");
+      } else {
+         write("return " + builtIn + "(_value);");
+      }
+      out();
+      newLine();
+      write("#else");
+      in();
+      newLine();
+      write("__local " + type + " *scratch = (__local " + type + " *)_scratch;");
+      newLine();
+      write("int lid = (((get_local_id(2) * get_local_size(1)) + get_local_id(1)) * get_local_size(0)) + get_local_id(0);");
+      newLine();
+      if (broadcast) {
+         write("if (lid == _localId){");
+         in();
+         newLine();
+         write("scratch[0] = _value;");
+         out();
+         newLine();
+         write("}");
+         newLine();
+         write("barrier(CLK_LOCAL_MEM_FENCE);");
+         newLine();
+         write(type + " result = scratch[0];");
+      } else if (builtIn.startsWith("work_group_reduce_")) {
+         write("int width = get_local_size(0) * get_local_size(1) * get_local_size(2);");
+         newLine();
+         write("scratch[lid] = _value;");
+         newLine();
+         write("barrier(CLK_LOCAL_MEM_FENCE);");
+         newLine();
+         write("while (width > 1){");
+         in();
+         newLine();
+         write("int half_width = (width + 1) >> 1;");
+         newLine();
+         write("if ((lid + half_width) < width){");
+         in();
+         newLine();
+         write(type + " a = scratch[lid];");
+         newLine();
+         write(type + " b = scratch[lid + half_width];");
+         newLine();
+         write("scratch[lid] = " + combine + ";");
+         out();
+         newLine();
+         write("}");
+         newLine();
+         write("barrier(CLK_LOCAL_MEM_FENCE);");
+         newLine();
+         write("width = half_width;");
+         out();
+         newLine();
+         write("}");
+         newLine();
+         write(type + " result = scratch[0];");
+      } else {
+         write("int size = get_local_size(0) * get_local_size(1) * get_local_size(2);");
+         newLine();
+         write(type + " result = _value;");
+         newLine();
+         write("scratch[lid] = result;");
+         newLine();
+         write("barrier(CLK_LOCAL_MEM_FENCE);");
+         newLine();
+         write("for (int offset = 1; offset < size; offset <<= 1){");
+         in();
+         newLine();
+         write("if (lid >= offset){");
+         in();
+         newLine();
+         write(type + " a = scratch[lid - offset];");
+         newLine();
+         write(type + " b = result;");
+         newLine();
+         write("result = " + combine + ";");
+         out();
+         newLine();
+         write("}");
+         newLine();
+         write("barrier(CLK_LOCAL_MEM_FENCE);");
+         newLine();
+         write("scratch[lid] = result;");
+         newLine();
+         write("barrier(CLK_LOCAL_MEM_FENCE);");
+         out();
+         newLine();
+         write("}");
+      }
+      if (!builtIn.startsWith("work_group_scan_")) {
+         // keep the next collective from overwriting the scratch before every work item has read the result
+         newLine();
+         write("barrier(CLK_LOCAL_MEM_FENCE);");
+      }
+      newLine();
+      write("return result;");
+      out();
+      newLine();
+      write("#endif");
+      newLine();
+      write("}");
+      newLine();
+   }
+
+   /**
+    * @return the built-in to call for the mapped method <code>_methodEntry</code> under the kernel's {@link Kernel.MathPrecision}
+    */
+   private String getPrecisionMapping(String _mapping, MethodEntry _methodEntry) {
+      if (mathPrecision == Kernel.MathPrecision.PRECISE) {
+         return (_mapping);
+      } else if (_mapping.equals("fma")) {
+         return ("mad");
+      } else if ((mathPrecision != Kernel.MathPrecision.RELAXED) && relaxedMathFunctions.contains(_mapping)
+            && _methodEntry.getNameAndTypeEntry().getDescriptorUTF8Entry().getUTF8().endsWith(")F")) {
+         return ((mathPrecision == Kernel.MathPrecision.HALF ? "half_" : "native_") + _mapping);
+      }
+      return (_mapping);
+   }
+
    public void writePragma(String _name, boolean _enable) {
       write("#pragma OPENCL EXTENSION " + _name + " : " + (_enable ? "en" : "dis") + "able");
       newLine();
@@ -328,15 +911,39 @@ public abstract class KernelWriter extends BlockWriter{
 
    public final static String LOCAL_ANNOTATION_NAME = "L" + com.aparapi.Kernel.Local.class.getName().replace('.', '/') + ";";
 
-   public final static String CONSTANT_ANNOTATION_NAME = "L" + com.aparapi.Kernel.Constant.class.getName().replace('.', '/')
-         + ";";
+   public final static String CONSTANT_ANNOTATION_NAME = "L" + com.aparapi.Kernel.Constant.class.getName().replace('.', '/')
+         + ";";
+
+   public final static String CONTIGUOUS_ANNOTATION_NAME = "L" + com.aparapi.Kernel.Contiguous.class.getName().replace('.', '/')
+         + ";";
+
+   /**
+    * Size of the header at the start of a buffer holding a {@link com.aparapi.Kernel.Contiguous} array.
+    * <p>
+    * The header is read as ints: <code>[length0, length1, length2, dimension0, dimension1, dimension2, 0, 0]</code>, the elements follow it.
+    */
+   public final static int CONTIGUOUS_HEADER_BYTES = 32;
+
+   public final static int CONTIGUOUS_HEADER_DIMENSION_OFFSET = 3;
+
+   /**
+    * Appended to the name of a {@link Kernel.Specialize} field to form the name of the macro holding its value.
+    */
+   public final static String SPECIALIZED_SUFFIX = "__specialized";
 
    @Override public void write(Entrypoint _entryPoint) throws CodeGenException {
       final List<String> thisStruct = new ArrayList<String>();
       final List<String> argLines = new ArrayList<String>();
       final List<String> assigns = new ArrayList<String>();
+      final List<String> directPrologue = new ArrayList<String>();
 
       entryPoint = _entryPoint;
+      if (optimizeExpressions) {
+         optimizer = new ExpressionOptimizer(_entryPoint);
+      }
+
+      final Set<String> promotedToConstant = _entryPoint.getArrayFieldConstant();
+      arrayFieldAliases = _entryPoint.getArrayFieldAliases();
 
       for (final ClassModelField field : _entryPoint.getReferencedClassModelFields()) {
          // Field field = _entryPoint.getClassModel().getField(f.getName());
@@ -365,6 +972,7 @@ public abstract class KernelWriter extends BlockWriter{
             type = __private;
          }
          final RuntimeAnnotationsEntry visibleAnnotations = field.getAttributePool().getRuntimeVisibleAnnotationsEntry();
+         boolean contiguous = false;
 
          if (visibleAnnotations != null) {
             for (final AnnotationInfo ai : visibleAnnotations) {
@@ -373,19 +981,36 @@ public abstract class KernelWriter extends BlockWriter{
                   type = __local;
                } else if (typeDescriptor.equals(CONSTANT_ANNOTATION_NAME)) {
                   type = __constant;
+               } else if (typeDescriptor.equals(CONTIGUOUS_ANNOTATION_NAME)) {
+                  contiguous = true;
                }
             }
          }
 
+         if (__global.equals(type) && promotedToConstant.contains(field.getName())) {
+            type = __constant;
+         }
+
+         // the device compiler may cache and reorder loads from a global array the kernel never writes, but buffers are created over the
+         // java arrays so restrict only holds if no other field refers to the same java array
+         final String elementSignature = signature.substring(signature.lastIndexOf('[') + 1);
+         final boolean readOnly = __global.equals(type) && !contiguous && !elementSignature.startsWith("L")
+               && _entryPoint.getArrayFieldReadOnly().contains(field.getName());
+         final boolean restrict = readOnly && !arrayFieldAliases.contains(field.getName());
+
          String argType = (__private.equals(type)) ? __constant : type;
 
+         if (signature.equals("[S")) {
+            halfArrayAddressSpaces.put(field.getName(), type);
+         }
+
          //if we have a an array we want to mark the object as a pointer
          //if we have a multiple dimensional array we want to remember the number of dimensions
          while (signature.startsWith("[")) {
             if (isPointer == false) {
-               argLine.append(argType + " ");
+               argLine.append((readOnly ? "const " : "") + argType + " ");
                if (!(type.equals(__private) && IMPLICIT_PRIVATE_FIELDS)) {
-                  thisStructLine.append(type + " ");
+                  thisStructLine.append((readOnly ? "const " : "") + type + " ");
                }
             }
             isPointer = true;
@@ -393,6 +1018,10 @@ public abstract class KernelWriter extends BlockWriter{
             signature = signature.substring(1);
          }
 
+         // a contiguous array arrives as one buffer whose header holds the lengths and dimensions, see KernelRunner
+         contiguous = contiguous && (numDimensions > 1) && __global.equals(type) && !signature.startsWith("L") && !signature.startsWith("Z");
+         final String headerRef = "((__global int *)" + field.getName() + ")[";
+
          // If it is a converted array of objects, emit the struct param
          String className = null;
          if ("Ljava/util/concurrent/atomic/AtomicInteger;".equals(signature)) {
@@ -415,17 +1044,20 @@ public abstract class KernelWriter extends BlockWriter{
          thisStructLine.append(" ");
 
          if (isPointer) {
-            argLine.append("*");
+            argLine.append(restrict ? "*restrict " : "*");
             if (privateMemorySize == null) {
                thisStructLine.append("*");
             }
          }
 
+         final String contiguousOffset = contiguous
+               ? (" + " + (CONTIGUOUS_HEADER_BYTES / InstructionSet.TypeSpec.valueOf(signature).getSize())) : "";
          if (privateMemorySize == null) {
             assignLine.append("this->");
             assignLine.append(field.getName());
             assignLine.append(" = ");
             assignLine.append(field.getName());
+            assignLine.append(contiguousOffset);
          }
 
          argLine.append(field.getName());
@@ -438,6 +1070,10 @@ public abstract class KernelWriter extends BlockWriter{
             thisStructLine.append("[").append(privateMemorySize).append("]");
          }
          thisStruct.add(thisStructLine.toString());
+         thisMemberDeclarations.put(field.getName(), thisStructLine.toString());
+         if (privateMemorySize != null) {
+            directPrologue.add(thisStructLine.toString());
+         }
 
          // Add int field into "this" struct for supporting java arraylength op
          // named like foo__javaArrayLength
@@ -456,13 +1092,19 @@ public abstract class KernelWriter extends BlockWriter{
                lenAssignLine.append("this->");
                lenAssignLine.append(lenName);
                lenAssignLine.append(" = ");
-               lenAssignLine.append(lenName);
+               lenAssignLine.append(contiguous ? headerRef + i + "]" : lenName);
 
                lenArgLine.append("int " + lenName);
 
                assigns.add(lenAssignLine.toString());
-               argLines.add(lenArgLine.toString());
+               if (!contiguous) {
+                  argLines.add(lenArgLine.toString());
+               }
                thisStruct.add(lenStructLine.toString());
+               thisMemberDeclarations.put(lenName, lenStructLine.toString());
+               if (contiguous) {
+                  directPrologue.add(lenStructLine + " = " + headerRef + i + "]");
+               }
 
                if (numDimensions > 1) {
                   final StringBuilder dimStructLine = new StringBuilder();
@@ -475,17 +1117,35 @@ public abstract class KernelWriter extends BlockWriter{
                   dimAssignLine.append("this->");
                   dimAssignLine.append(dimName);
                   dimAssignLine.append(" = ");
-                  dimAssignLine.append(dimName);
+                  dimAssignLine.append(contiguous ? headerRef + (CONTIGUOUS_HEADER_DIMENSION_OFFSET + i) + "]" : dimName);
 
                   dimArgLine.append("int " + dimName);
 
                   assigns.add(dimAssignLine.toString());
-                  argLines.add(dimArgLine.toString());
+                  if (!contiguous) {
+                     argLines.add(dimArgLine.toString());
+                  }
                   thisStruct.add(dimStructLine.toString());
+                  thisMemberDeclarations.put(dimName, dimStructLine.toString());
+                  if (contiguous) {
+                     directPrologue.add(dimStructLine + " = " + headerRef + (CONTIGUOUS_HEADER_DIMENSION_OFFSET + i) + "]");
+                  }
                }
             }
          }
+
+         if (contiguous) {
+            directPrologue.add(field.getName() + " = " + field.getName() + contiguousOffset);
+         }
       }
+      thisMemberDeclarations.put("passid", "int passid");
+
+      // helper methods receive members by value, so kernels which assign fields from helper methods (or use objects) keep the struct, 
+      // as do kernels declaring a local named like a member, which would hide the kernel argument
+      directFieldAccess = directFieldAccess && _entryPoint.getObjectArrayFieldsClasses().isEmpty()
+            && !assignsInstanceFields(_entryPoint.getCalledMethods())
+            && !declaresMemberName(_entryPoint.getMethodModel(), thisMemberDeclarations.keySet())
+            && !declaresMemberName(_entryPoint.getCalledMethods(), thisMemberDeclarations.keySet());
 
       if (Config.enableByteWrites || _entryPoint.requiresByteAddressableStorePragma()) {
          // Starting with OpenCL 1.1 (which is as far back as we support)
@@ -536,6 +1196,35 @@ public abstract class KernelWriter extends BlockWriter{
          newLine();
       }
 
+      mathPrecision = Kernel.getMathPrecision(_entryPoint.getClassModel().getClassWeAreModelling());
+      if (mathPrecision != Kernel.MathPrecision.PRECISE) {
+         write("#pragma OPENCL FP_CONTRACT ON");
+         newLine();
+      }
+
+      specializedFieldValues = _entryPoint.getSpecializedFieldValues();
+      for (final Map.Entry<String, Object> specialized : specializedFieldValues.entrySet()) {
+         write("#define " + specialized.getKey() + SPECIALIZED_SUFFIX + " ");
+         writeLiteral(specialized.getValue());
+         newLine();
+      }
+
+      if (_entryPoint.requiresReduce()) {
+         writeReduce();
+      }
+      for (final String collective : _entryPoint.getWorkGroupCollectives()) {
+         writeWorkGroupCollective(collective);
+      }
+      for (final String atomic : _entryPoint.getArrayAtomics()) {
+         writeArrayAtomic(atomic);
+      }
+      for (final String bitArrayOp : _entryPoint.getBitArrayOps()) {
+         writeBitArrayOp(bitArrayOp);
+      }
+      if (_entryPoint.requiresRandom()) {
+         writeRandom();
+      }
+
       // Emit structs for oop transformation accessors
       for (final ClassModel cm : _entryPoint.getObjectArrayFieldsClasses().values()) {
          final ArrayList<FieldEntry> fieldSet = cm.getStructMembers();
@@ -588,31 +1277,33 @@ public abstract class KernelWriter extends BlockWriter{
          }
       }
 
-      write("typedef struct This_s{");
+      if (!directFieldAccess) {
+         write("typedef struct This_s{");
 
-      in();
-      newLine();
-      for (final String line : thisStruct) {
-         write(line);
-         writeln(";");
-      }
-      write("int passid");
-      out();
-      writeln(";");
-      // out();
-      // newLine();
-      write("}This;");
-      newLine();
-      write("int get_pass_id(This *this){");
-      in();
-      {
+         in();
          newLine();
-         write("return this->passid;");
+         for (final String line : thisStruct) {
+            write(line);
+            writeln(";");
+         }
+         write("int passid");
          out();
+         writeln(";");
+         // out();
+         // newLine();
+         write("}This;");
+         newLine();
+         write("int get_pass_id(This *this){");
+         in();
+         {
+            newLine();
+            write("return this->passid;");
+            out();
+            newLine();
+         }
+         write("}");
          newLine();
       }
-      write("}");
-      newLine();
 
       for (final MethodModel mm : _entryPoint.getCalledMethods()) {
          // write declaration :)
@@ -629,10 +1320,17 @@ public abstract class KernelWriter extends BlockWriter{
 
          write(mm.getName() + "(");
 
+         boolean alreadyHasFirstArg = !mm.getMethod().isStatic();
          if (!mm.getMethod().isStatic()) {
             if ((mm.getMethod().getClassModel() == _entryPoint.getClassModel())
                   || mm.getMethod().getClassModel().isSuperClass(_entryPoint.getClassModel().getClassWeAreModelling())) {
-               write("This *this");
+               if (directFieldAccess) {
+                  final List<String> members = collectThisMembers(mm);
+                  methodThisMembers.put(mm, members);
+                  alreadyHasFirstArg = writeThisMemberDeclarations(members);
+               } else {
+                  write("This *this");
+               }
             } else {
                // Call to an object member or superclass of member
                for (final ClassModel c : _entryPoint.getObjectArrayFieldsClasses().values()) {
@@ -648,8 +1346,6 @@ public abstract class KernelWriter extends BlockWriter{
             }
          }
 
-         boolean alreadyHasFirstArg = !mm.getMethod().isStatic();
-
          final RuntimeParameterAnnotationsEntry parameterAnnotations = 
         		 	mm.getMethod().getAttributePool().getRuntimeVisibleParameterAnnotationsEntry();
          final LocalVariableTableEntry<LocalVariableInfo> lvte = mm.getLocalVariableTableEntry();
@@ -698,7 +1394,16 @@ public abstract class KernelWriter extends BlockWriter{
          newLine();
       }
 
-      write("__kernel void " + _entryPoint.getMethodModel().getSimpleName() + "(");
+      write("__kernel ");
+      final Kernel.WorkGroupSize workGroupSize = _entryPoint.getMethodModel().getMethod().getAnnotation(Kernel.WorkGroupSize.class);
+      if (workGroupSize != null) {
+         write("__attribute__((reqd_work_group_size(" + workGroupSize.x() + ", " + workGroupSize.y() + ", " + workGroupSize.z() + "))) ");
+      }
+      final Kernel.VecTypeHint vecTypeHint = _entryPoint.getMethodModel().getMethod().getAnnotation(Kernel.VecTypeHint.class);
+      if (vecTypeHint != null) {
+         write("__attribute__((vec_type_hint(" + vecTypeHint.value() + "))) ");
+      }
+      write("void " + _entryPoint.getMethodModel().getSimpleName() + "(");
 
       in();
       boolean first = true;
@@ -726,14 +1431,21 @@ public abstract class KernelWriter extends BlockWriter{
       write("){");
       in();
       newLine();
-      writeln("This thisStruct;");
-      writeln("This* this=&thisStruct;");
-      for (final String line : assigns) {
-         write(line);
+      if (directFieldAccess) {
+         for (final String line : directPrologue) {
+            write(line);
+            writeln(";");
+         }
+      } else {
+         writeln("This thisStruct;");
+         writeln("This* this=&thisStruct;");
+         for (final String line : assigns) {
+            write(line);
+            writeln(";");
+         }
+         write("this->passid = passid");
          writeln(";");
       }
-      write("this->passid = passid");
-      writeln(";");
 
       writeMethodBody(_entryPoint.getMethodModel());
       out();
@@ -746,8 +1458,516 @@ public abstract class KernelWriter extends BlockWriter{
       write("this->");
    }
 
+   @Override public void writeThisMember(String _name) {
+      if (directFieldAccess) {
+         if (usedThisMembers != null) {
+            usedThisMembers.add(_name);
+         }
+         write(_name);
+      } else {
+         super.writeThisMember(_name);
+      }
+   }
+
+   /**
+    * Pass the given members of the kernel instance to a helper method.
+    * 
+    * @return true if any members were written
+    */
+   private boolean writeThisMembers(List<String> _members) {
+      boolean first = true;
+      for (final String member : _members) {
+         if (!first) {
+            write(", ");
+         }
+         writeThisMember(member);
+         first = false;
+      }
+      return (!first);
+   }
+
+   /**
+    * Declare the given members of the kernel instance as parameters of a helper method.
+    * 
+    * @return true if any members were written
+    */
+   private boolean writeThisMemberDeclarations(List<String> _members) {
+      boolean first = true;
+      for (final String member : _members) {
+         if (!first) {
+            write(", ");
+         }
+         write(thisMemberDeclarations.get(member));
+         first = false;
+      }
+      return (!first);
+   }
+
+   /**
+    * Determine the members of the kernel instance a helper method references, including those it passes to the methods it calls, by
+    * writing its body to a writer which discards the output.
+    * 
+    * @return the members in declaration order
+    */
+   private List<String> collectThisMembers(MethodModel _methodModel) throws CodeGenException {
+      final KernelWriter collector = new KernelWriter(){
+         @Override public void write(String _string) {
+            // only the members referenced are of interest
+         }
+      };
+      collector.entryPoint = entryPoint;
+      collector.directFieldAccess = true;
+      collector.thisMemberDeclarations = thisMemberDeclarations;
+      collector.methodThisMembers = methodThisMembers;
+      collector.usedThisMembers = new HashSet<String>();
+      collector.specializedFieldValues = specializedFieldValues;
+      collector.halfArrayAddressSpaces = halfArrayAddressSpaces;
+      collector.writeMethodBody(_methodModel);
+
+      final List<String> members = new ArrayList<String>();
+      for (final String member : thisMemberDeclarations.keySet()) {
+         if (collector.usedThisMembers.contains(member)) {
+            members.add(member);
+         }
+      }
+      return (members);
+   }
+
+   /**
+    * @return true if a parameter or local variable of one of the methods has one of the names in <code>_members</code>
+    */
+   private static boolean declaresMemberName(List<MethodModel> _methods, Set<String> _members) {
+      for (final MethodModel method : _methods) {
+         if (declaresMemberName(method, _members)) {
+            return (true);
+         }
+      }
+      return (false);
+   }
+
+   private static boolean declaresMemberName(MethodModel _method, Set<String> _members) {
+      final LocalVariableTableEntry<LocalVariableInfo> lvte = _method.getLocalVariableTableEntry();
+      if (lvte != null) {
+         for (final LocalVariableInfo lvi : lvte) {
+            if (_members.contains(lvi.getVariableName())) {
+               return (true);
+            }
+         }
+      }
+      return (false);
+   }
+
+   private static boolean assignsInstanceFields(List<MethodModel> _methods) {
+      for (final MethodModel method : _methods) {
+         for (Instruction instruction = method.getPCHead(); instruction != null; instruction = instruction.getNextPC()) {
+            if (instruction instanceof AssignToInstanceField) {
+               return (true);
+            }
+         }
+      }
+      return (false);
+   }
+
+   @Override public void writeComposite(CompositeInstruction _instruction) throws CodeGenException {
+      final boolean isLoop = (_instruction instanceof CompositeForSunInstruction)
+            || (_instruction instanceof CompositeForEclipseInstruction) || (_instruction instanceof CompositeWhileInstruction)
+            || (_instruction instanceof CompositeDoWhileInstruction) || (_instruction instanceof CompositeEmptyLoopInstruction);
+      if (!isLoop && (loopPragma != null)) {
+         throw new CodeGenException("unroll() must immediately precede a loop");
+      }
+      if ((optimizer != null)
+            && ((_instruction instanceof CompositeForSunInstruction) || (_instruction instanceof CompositeForEclipseInstruction))) {
+         final Map<String, String> names = new HashMap<String, String>();
+         for (final Instruction invariant : optimizer.getLoopInvariants(_instruction)) {
+            final String expression = writeToString(invariant);
+            final String name = names.get(expression);
+            if (name == null) {
+               names.put(expression, writeHoistedDeclaration(invariant, expression));
+            } else {
+               optimizer.hoist(invariant, name);
+            }
+         }
+      }
+      if (isLoop && ((loopPragma != null) || (methodLoopPragma != null))) {
+         newLine();
+         write((loopPragma != null) ? loopPragma : methodLoopPragma);
+         loopPragma = null;
+      }
+      super.writeComposite(_instruction);
+   }
+
+   @Override protected void writeStatement(Instruction _statement) throws CodeGenException {
+      final String unroll = getUnrollPragma(_statement);
+      if (unroll != null) {
+         // the pragma is written once we reach the loop, after any expressions hoisted out of the loop
+         loopPragma = unroll;
+      } else if (loopPragma != null) {
+         throw new CodeGenException("unroll() must immediately precede a loop");
+      } else {
+         writeCommonExpressions(_statement);
+         super.writeStatement(_statement);
+      }
+   }
+
+   @Override protected Instruction writeStatements(Instruction _first, Instruction _last) throws CodeGenException {
+      if ((optimizer != null) && (loopPragma == null)) {
+         final List<AssignToArrayElement> stores = getVectorStores(_first, _last);
+         if (stores != null) {
+            writeVectorStore(stores);
+            return (stores.get(stores.size() - 1));
+         }
+      }
+      return (super.writeStatements(_first, _last));
+   }
+
+   /**
+    * Find the run of statements starting at <code>_first</code> which store to consecutive elements of one array, each computing the 
+    * value stored by the first statement from the elements one further along the arrays it reads, so that the run can be written as 
+    * a single <code>vstoreN</code> of vector arithmetic on <code>vloadN</code>s.
+    * 
+    * @return the statements, as many as the widest vector that fits, or null if fewer than two statements qualify
+    */
+   private List<AssignToArrayElement> getVectorStores(Instruction _first, Instruction _last) throws CodeGenException {
+      if (!(_first instanceof AssignToArrayElement) || (getVectorElementType(_first) == null)) {
+         return (null);
+      }
+      final AssignToArrayElement first = (AssignToArrayElement) _first;
+      final List<AccessArrayElement> loads = new ArrayList<AccessArrayElement>();
+      if (!collectVectorLoads(first.getValue(), getVectorElementType(first), loads) || loads.isEmpty()) {
+         return (null);
+      }
+
+      // the statements are reordered, so an element of the stored array must only be read by the statement storing it, every array
+      // read has the type of the stored array so may be the same java array if another field refers to the stored one
+      final String arrayRef = writeToString(first.getArrayRef());
+      final boolean aliased = arrayFieldAliases.contains(((AccessInstanceField) first.getArrayRef()).getConstantPoolFieldEntry()
+            .getNameAndTypeEntry().getNameUTF8Entry().getUTF8());
+      final String indexBase = getIndexBase(first.getArrayIndex());
+      final int indexOffset = getIndexOffset(first.getArrayIndex());
+      for (final AccessArrayElement load : loads) {
+         if ((aliased || writeToString(load.getArrayRef()).equals(arrayRef))
+               && (!getIndexBase(load.getArrayIndex()).equals(indexBase) || (getIndexOffset(load.getArrayIndex()) != indexOffset))) {
+            return (null);
+         }
+      }
+
+      final List<AssignToArrayElement> stores = new ArrayList<AssignToArrayElement>();
+      stores.add(first);
+      for (Instruction next = _first.getNextExpr(); (next != _last) && (next != null) && (next.getClass() == _first.getClass())
+            && (stores.size() < VECTOR_WIDTHS[0]); next = next.getNextExpr()) {
+         final AssignToArrayElement store = (AssignToArrayElement) next;
+         if (!writeToString(store.getArrayRef()).equals(arrayRef)
+               || !isShiftedIndex(first.getArrayIndex(), store.getArrayIndex(), stores.size())
+               || !isShifted(first.getValue(), store.getValue(), stores.size())) {
+            break;
+         }
+         stores.add(store);
+      }
+      for (final int width : VECTOR_WIDTHS) {
+         if (stores.size() >= width) {
+            return (stores.subList(0, width));
+         }
+      }
+      return (null);
+   }
+
+   /**
+    * Collect the array elements read by an expression which can be evaluated element wise on vectors: arithmetic on elements of the 
+    * same type as the stored array, read from one dimensional array fields at pure indices, and pure scalars, which are broadcast.
+    * Java's <code>&gt;&gt;&gt;</code> is written as a shift of the operand cast to a scalar unsigned type, which a vector can not be cast 
+    * to, so it is not vectorized.
+    * 
+    * @return false if the expression cannot be evaluated on vectors
+    */
+   private boolean collectVectorLoads(Instruction _instruction, String _elementType, List<AccessArrayElement> _loads) {
+      if (_instruction instanceof AccessArrayElement) {
+         if (_elementType.equals(getVectorElementType(_instruction))
+               && optimizer.isPure(((AccessArrayElement) _instruction).getArrayIndex())) {
+            _loads.add((AccessArrayElement) _instruction);
+            return (true);
+         }
+         return (false);
+      } else if (_instruction instanceof BinaryOperator) {
+         final BinaryOperator binary = (BinaryOperator) _instruction;
+         switch (binary.getOperator()) {
+            case Add:
+            case Sub:
+            case Mul:
+            case Div:
+            case BitwiseAnd:
+            case BitwiseOr:
+            case BitwiseXor:
+            case LeftShift:
+               return (collectVectorLoads(binary.getLhs(), _elementType, _loads) && collectVectorLoads(binary.getRhs(), _elementType,
+                     _loads));
+            default:
+               return (false);
+         }
+      } else if ((_instruction instanceof UnaryOperator) && ((UnaryOperator) _instruction).getOperator().equals(Operator.Neg)) {
+         return (collectVectorLoads(((UnaryOperator) _instruction).getUnary(), _elementType, _loads));
+      }
+      return (optimizer.isPure(_instruction));
+   }
+
+   /**
+    * @return the descriptor of the element type if the instruction reads or writes an int, long, float or double element of a one 
+    *         dimensional array field, otherwise null
+    */
+   private String getVectorElementType(Instruction _instruction) {
+      if ((_instruction instanceof ArrayAccess) && (((ArrayAccess) _instruction).getArrayRef() instanceof AccessInstanceField)) {
+         final AccessInstanceField arrayRef = (AccessInstanceField) ((ArrayAccess) _instruction).getArrayRef();
+         final String descriptor = arrayRef.getConstantPoolFieldEntry().getNameAndTypeEntry().getDescriptorUTF8Entry().getUTF8();
+         if (isThis(arrayRef.getInstance()) && (descriptor.length() == 2) && (descriptor.charAt(0) == '[')
+               && ("IJFD".indexOf(descriptor.charAt(1)) >= 0)) {
+            return (descriptor.substring(1));
+         }
+      }
+      return (null);
+   }
+
+   /**
+    * @return true if <code>_shifted</code> is <code>_expression</code> with the index of every array element read advanced by 
+    *         <code>_delta</code>
+    */
+   private boolean isShifted(Instruction _expression, Instruction _shifted, int _delta) throws CodeGenException {
+      if (_expression.getClass() != _shifted.getClass()) {
+         return (false);
+      } else if (_expression instanceof AccessArrayElement) {
+         final AccessArrayElement load = (AccessArrayElement) _expression;
+         final AccessArrayElement shiftedLoad = (AccessArrayElement) _shifted;
+         return (writeToString(load.getArrayRef()).equals(writeToString(shiftedLoad.getArrayRef())) && isShiftedIndex(
+               load.getArrayIndex(), shiftedLoad.getArrayIndex(), _delta));
+      } else if (_expression instanceof BinaryOperator) {
+         return (isShifted(((BinaryOperator) _expression).getLhs(), ((BinaryOperator) _shifted).getLhs(), _delta) && isShifted(
+               ((BinaryOperator) _expression).getRhs(), ((BinaryOperator) _shifted).getRhs(), _delta));
+      } else if (_expression instanceof UnaryOperator) {
+         return (isShifted(((UnaryOperator) _expression).getUnary(), ((UnaryOperator) _shifted).getUnary(), _delta));
+      }
+      return (writeToString(_expression).equals(writeToString(_shifted)));
+   }
+
+   private boolean isShiftedIndex(Instruction _index, Instruction _shifted, int _delta) throws CodeGenException {
+      return (getIndexBase(_index).equals(getIndexBase(_shifted)) && ((getIndexOffset(_index) + _delta) == getIndexOffset(_shifted)));
+   }
+
+   /**
+    * @return the text of an array index without any constant added to it
+    */
+   private String getIndexBase(Instruction _index) throws CodeGenException {
+      if (getIntValue(_index) != null) {
+         return ("");
+      } else if (((_index instanceof I_IADD) || (_index instanceof I_ISUB)) && (getIntValue(((BinaryOperator) _index).getRhs()) != null)) {
+         return (writeToString(((BinaryOperator) _index).getLhs()));
+      }
+      return (writeToString(_index));
+   }
+
+   /**
+    * @return the constant added to an array index
+    */
+   private int getIndexOffset(Instruction _index) {
+      final Integer value = getIntValue(_index);
+      if (value != null) {
+         return (value);
+      } else if (((_index instanceof I_IADD) || (_index instanceof I_ISUB)) && (getIntValue(((BinaryOperator) _index).getRhs()) != null)) {
+         final int offset = getIntValue(((BinaryOperator) _index).getRhs());
+         return ((_index instanceof I_IADD) ? offset : -offset);
+      }
+      return (0);
+   }
+
+   private Integer getIntValue(Instruction _instruction) {
+      final Object value = (_instruction instanceof Constant<?>) ? ((Constant<?>) _instruction).getValue() : optimizer
+            .getConstantValue(_instruction);
+      return ((value instanceof Integer) ? (Integer) value : null);
+   }
+
+   /**
+    * Write the statements found by {@link #getVectorStores(Instruction, Instruction)} as one <code>vstoreN</code>.
+    */
+   private void writeVectorStore(List<AssignToArrayElement> _stores) throws CodeGenException {
+      final AssignToArrayElement first = _stores.get(0);
+      final String width = Integer.toString(_stores.size());
+      final List<AccessArrayElement> loads = new ArrayList<AccessArrayElement>();
+      collectVectorLoads(first.getValue(), getVectorElementType(first), loads);
+      final List<String> loadTexts = new ArrayList<String>();
+      for (final AccessArrayElement load : loads) {
+         loadTexts.add(writeToString(load));
+      }
+      for (int i = 0; i < loads.size(); i++) {
+         optimizer.hoist(loads.get(i), "vload" + width + "(0, &" + loadTexts.get(i) + ")");
+      }
+
+      newLine();
+      write("vstore" + width + "(");
+      writeInstruction(first.getValue());
+      write(", 0, &");
+      writeInstruction(first.getArrayRef());
+      write("[");
+      writeInstruction(first.getArrayIndex());
+      write("]);");
+   }
+
+   /**
+    * @return the pragma to write if the statement is a call to {@link Kernel#unroll(int)} or {@link Kernel#unroll()}, otherwise null
+    */
+   private String getUnrollPragma(Instruction _statement) throws CodeGenException {
+      if ((_statement instanceof VirtualMethodCall) && isThis(((VirtualMethodCall) _statement).getInstanceReference())) {
+         final MethodEntry methodEntry = ((MethodCall) _statement).getConstantPoolMethodEntry();
+         final String signature = methodEntry.getNameAndTypeEntry().getNameUTF8Entry().getUTF8()
+               + methodEntry.getNameAndTypeEntry().getDescriptorUTF8Entry().getUTF8();
+         if ("unroll()V".equals(signature)) {
+            return ("#pragma unroll");
+         } else if ("unroll(I)V".equals(signature)) {
+            return ("#pragma unroll " + writeToString(((MethodCall) _statement).getArg(0)));
+         }
+      }
+      return (null);
+   }
+
+   /**
+    * @return the pragma which the {@link Kernel.Unroll} annotation of the method asks for, or null if the method is not annotated
+    */
+   private static String getUnrollPragma(MethodModel _methodModel) {
+      final Kernel.Unroll unroll = _methodModel.getMethod().getAnnotation(Kernel.Unroll.class);
+      if (unroll == null) {
+         return (null);
+      }
+      return ((unroll.value() > 0) ? ("#pragma unroll " + unroll.value()) : "#pragma unroll");
+   }
+
+   @Override public void writeMethodBody(MethodModel _methodModel) throws CodeGenException {
+      methodLoopPragma = getUnrollPragma(_methodModel);
+      super.writeMethodBody(_methodModel);
+      if (loopPragma != null) {
+         throw new CodeGenException("unroll() must immediately precede a loop");
+      }
+   }
+
+   /**
+    * Evaluate expressions which appear more than once in the statement into locals before the statement.
+    */
+   private void writeCommonExpressions(Instruction _statement) throws CodeGenException {
+      if (optimizer != null) {
+         final List<Instruction> expressions = optimizer.getStatementExpressions(_statement);
+         final List<String> written = new ArrayList<String>();
+         final Map<String, Integer> counts = new HashMap<String, Integer>();
+         for (final Instruction expression : expressions) {
+            final String text = writeToString(expression);
+            written.add(text);
+            counts.put(text, counts.containsKey(text) ? (counts.get(text) + 1) : 1);
+         }
+
+         final Map<String, String> names = new HashMap<String, String>();
+         for (int i = 0; i < expressions.size(); i++) {
+            final Instruction expression = expressions.get(i);
+            final String text = written.get(i);
+            if ((counts.get(text) > 1) && !optimizer.isHoistedWithin(expression)) {
+               final String name = names.get(text);
+               if (name == null) {
+                  names.put(text, writeHoistedDeclaration(expression, text));
+               } else {
+                  optimizer.hoist(expression, name);
+               }
+            }
+         }
+      }
+   }
+
+   /**
+    * Declare a <code>const</code> local holding the value of the expression and replace the expression by it.
+    * 
+    * @return the name of the local
+    */
+   private String writeHoistedDeclaration(Instruction _expression, String _text) {
+      final String name = optimizer.hoist(_expression);
+      newLine();
+      write("const " + optimizer.getTypeName(_expression) + " " + name + " = " + _text + ";");
+      return (name);
+   }
+
+   /**
+    * @return the name of the macro holding the value of the {@link Kernel.Specialize} field the instruction reads, or null
+    */
+   private String getSpecializedMacro(Instruction _instruction) {
+      if ((_instruction instanceof AccessInstanceField) && isThis(((AccessInstanceField) _instruction).getInstance())) {
+         final String name = ((AccessInstanceField) _instruction).getConstantPoolFieldEntry().getNameAndTypeEntry().getNameUTF8Entry()
+               .getUTF8();
+         if (specializedFieldValues.containsKey(name)) {
+            return (name + SPECIALIZED_SUFFIX);
+         }
+      }
+      return (null);
+   }
+
+   /**
+    * Write a value as a literal which can appear anywhere in an expression, booleans become 1 or 0 and chars their code.
+    */
+   private void writeLiteral(Object _value) {
+      if (_value instanceof Boolean) {
+         write(((Boolean) _value) ? "1" : "0");
+      } else if (_value instanceof Character) {
+         write(Integer.toString((Character) _value));
+      } else if (_value.toString().startsWith("-")) {
+         write("(");
+         writeConstantValue(_value);
+         write(")");
+      } else {
+         writeConstantValue(_value);
+      }
+   }
+
+   /**
+    * Write the expression as it would appear at its current position.
+    */
+   private String writeToString(Instruction _instruction) throws CodeGenException {
+      final StringBuilder text = new StringBuilder();
+      final KernelWriter writer = new KernelWriter(){
+         @Override public void write(String _string) {
+            text.append(_string);
+         }
+      };
+      writer.entryPoint = entryPoint;
+      writer.directFieldAccess = directFieldAccess;
+      writer.thisMemberDeclarations = thisMemberDeclarations;
+      writer.methodThisMembers = methodThisMembers;
+      writer.usedThisMembers = usedThisMembers;
+      writer.optimizer = optimizer;
+      writer.specializedFieldValues = specializedFieldValues;
+      writer.mathPrecision = mathPrecision;
+      writer.halfArrayAddressSpaces = halfArrayAddressSpaces;
+      writer.writeInstruction(_instruction);
+
+      // whether an expression is parenthesized depends upon where it appears, so strip any outer parentheses to compare expressions
+      while ((text.length() > 1) && (text.charAt(0) == '(') && (getClosingParenthesis(text) == (text.length() - 1))) {
+         text.deleteCharAt(text.length() - 1).deleteCharAt(0);
+      }
+      return (text.toString());
+   }
+
+   private static int getClosingParenthesis(CharSequence _text) {
+      int depth = 0;
+      for (int i = 0; i < _text.length(); i++) {
+         if (_text.charAt(i) == '(') {
+            depth++;
+         } else if ((_text.charAt(i) == ')') && (--depth == 0)) {
+            return (i);
+         }
+      }
+      return (-1);
+   }
+
    @Override public void writeInstruction(Instruction _instruction) throws CodeGenException {
-      if ((_instruction instanceof I_IUSHR) || (_instruction instanceof I_LUSHR)) {
+      final String hoisted = (optimizer != null) ? optimizer.getHoisted(_instruction) : null;
+      final Object value = (optimizer != null) ? optimizer.getConstantValue(_instruction) : null;
+      final String specialized = getSpecializedMacro(_instruction);
+      if (hoisted != null) {
+         write(hoisted);
+      } else if (specialized != null) {
+         write(specialized);
+      } else if (value != null) {
+         writeLiteral(value);
+      } else if ((_instruction instanceof I_IUSHR) || (_instruction instanceof I_LUSHR)) {
          final BinaryOperator binaryInstruction = (BinaryOperator) _instruction;
          final Instruction parent = binaryInstruction.getParentExpr();
          boolean needsParenthesis = true;
@@ -782,12 +2002,33 @@ public abstract class KernelWriter extends BlockWriter{
    }
 
    public static String writeToString(Entrypoint _entrypoint) throws CodeGenException {
+      return (writeToString(_entrypoint, Config.enableDirectFieldAccess, Config.enableExpressionOptimizations));
+   }
+
+   /**
+    * @param _directFieldAccess reference kernel arguments directly rather than through a per work item <code>This</code> struct
+    * @see Config#enableDirectFieldAccess
+    */
+   public static String writeToString(Entrypoint _entrypoint, boolean _directFieldAccess) throws CodeGenException {
+      return (writeToString(_entrypoint, _directFieldAccess, Config.enableExpressionOptimizations));
+   }
+
+   /**
+    * @param _directFieldAccess reference kernel arguments directly rather than through a per work item <code>This</code> struct
+    * @param _optimizeExpressions fold <code>final</code> fields and hoist loop invariant and repeated expressions
+    * @see Config#enableDirectFieldAccess
+    * @see Config#enableExpressionOptimizations
+    */
+   public static String writeToString(Entrypoint _entrypoint, boolean _directFieldAccess, boolean _optimizeExpressions)
+         throws CodeGenException {
       final StringBuilder openCLStringBuilder = new StringBuilder();
       final KernelWriter openCLWriter = new KernelWriter(){
          @Override public void write(String _string) {
             openCLStringBuilder.append(_string);
          }
       };
+      openCLWriter.directFieldAccess = _directFieldAccess;
+      openCLWriter.optimizeExpressions = _optimizeExpressions;
       try {
          openCLWriter.write(_entrypoint);
       } catch (final CodeGenException codeGenException) {
@@ -0,0 +1,208 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.primitives;
+
+import com.aparapi.Kernel;
+import com.aparapi.device.Device;
+
+/**
+ * Stream compaction, which gathers the elements of an int array selected by a predicate into the front of another, keeping their order.
+ * <p>
+ * The predicate is evaluated beforehand, typically by a kernel which writes a flag per element, so it can be any condition a kernel 
+ * can compute:
+ * <pre><code>
+ *  Compact compact = new Compact(device);
+ *  int kept = compact.compact(ids, flags, keptIds);
+ * </code></pre>
+ * <p>
+ * In {@link Kernel.EXECUTION_MODE#JTP} each thread counts the flags of a chunk of the array, and then copies the selected elements of 
+ * the chunk after those of the chunks before it. On an OpenCL device the flags are turned into output positions by a {@link Scan}, and 
+ * each work item moves its element to its position.
+ */
+public class Compact extends Primitive {
+
+   private final Scan scan;
+
+   private final ChunkKernel chunkKernel;
+
+   private final FlagKernel flagKernel;
+
+   private final ScatterKernel scatterKernel;
+
+   /**
+    * @param _device the device to compact on, or null for the best device
+    */
+   public Compact(Device _device) {
+      this(_device, isOpenCL(_device));
+   }
+
+   Compact(Device _device, boolean _workGroups) {
+      super(_device, _workGroups);
+      scan = new Scan(device, _workGroups);
+      chunkKernel = register(new ChunkKernel());
+      flagKernel = register(new FlagKernel());
+      scatterKernel = register(new ScatterKernel());
+   }
+
+   /**
+    * Copy the elements of <code>_in</code> whose flag is not 0, in order, to the start of <code>_out</code>. The rest of 
+    * <code>_out</code> is left as it was.
+    *
+    * @param _in the elements
+    * @param _flags the flag of each element, not 0 to keep it
+    * @param _out the kept elements, an array other than <code>_in</code> large enough to hold them
+    * @return the number of elements kept
+    */
+   public int compact(int[] _in, int[] _flags, int[] _out) {
+      final int length = _in.length;
+      if (_flags.length < length) {
+         throw new IllegalArgumentException("there are " + _flags.length + " flags for " + length + " elements");
+      } else if (_in == _out) {
+         throw new IllegalArgumentException("can not compact in place");
+      }
+      if (length == 0) {
+         return (0);
+      }
+      if (workGroups) {
+         final int[] positions = new int[length];
+         flagKernel.flags = _flags;
+         flagKernel.positions = positions;
+         flagKernel.length = length;
+         flagKernel.execute(itemRange(length));
+         final boolean lastKept = positions[length - 1] != 0;
+         scan.exclusive(positions, positions);
+         final int kept = positions[length - 1] + (lastKept ? 1 : 0);
+         checkOutput(kept, _out);
+         scatterKernel.in = _in;
+         scatterKernel.flags = _flags;
+         scatterKernel.positions = positions;
+         scatterKernel.out = _out;
+         scatterKernel.length = length;
+         scatterKernel.execute(itemRange(length));
+         return (kept);
+      }
+      chunkKernel.in = _in;
+      chunkKernel.flags = _flags;
+      chunkKernel.out = _out;
+      chunkKernel.chunkCounts = new int[chunkCount(length)];
+      chunkKernel.length = length;
+      chunkKernel.chunkSize = chunkSize(length);
+      chunkKernel.copy = false;
+      chunkKernel.execute(chunkRange(length));
+      int kept = 0;
+      for (final int count : chunkKernel.chunkCounts) {
+         kept += count;
+      }
+      checkOutput(kept, _out);
+      // the elements are only copied once the counts are known to fit
+      chunkKernel.copy = true;
+      chunkKernel.execute(chunkRange(length));
+      return (kept);
+   }
+
+   @Override
+   public void dispose() {
+      scan.dispose();
+      super.dispose();
+   }
+
+   private static void checkOutput(int _kept, int[] _out) {
+      if (_out.length < _kept) {
+         throw new IllegalArgumentException(_kept + " elements are kept, the output holds " + _out.length);
+      }
+   }
+
+   static class ChunkKernel extends Kernel {
+      int[] in;
+
+      int[] flags;
+
+      int[] out;
+
+      int[] chunkCounts;
+
+      int length;
+
+      int chunkSize;
+
+      /**
+       * False to count the kept elements of each chunk, true to copy them.
+       */
+      boolean copy;
+
+      @Override
+      public void run() {
+         final int chunk = getGlobalId();
+         final int from = chunk * chunkSize;
+         final int to = min(from + chunkSize, length);
+         int count = 0;
+         if (!copy) {
+            for (int i = from; i < to; i++) {
+               if (flags[i] != 0) {
+                  count++;
+               }
+            }
+            chunkCounts[chunk] = count;
+         } else {
+            for (int c = 0; c < chunk; c++) {
+               count += chunkCounts[c];
+            }
+            for (int i = from; i < to; i++) {
+               if (flags[i] != 0) {
+                  out[count] = in[i];
+                  count++;
+               }
+            }
+         }
+      }
+   }
+
+   static class FlagKernel extends Kernel {
+      int[] flags;
+
+      int[] positions;
+
+      int length;
+
+      @Override
+      public void run() {
+         final int gid = getGlobalId();
+         if (gid < length) {
+            positions[gid] = (flags[gid] != 0) ? 1 : 0;
+         }
+      }
+   }
+
+   static class ScatterKernel extends Kernel {
+      int[] in;
+
+      int[] flags;
+
+      int[] positions;
+
+      int[] out;
+
+      int length;
+
+      @Override
+      public void run() {
+         final int gid = getGlobalId();
+         if ((gid < length) && (flags[gid] != 0)) {
+            out[positions[gid]] = in[gid];
+         }
+      }
+   }
+}
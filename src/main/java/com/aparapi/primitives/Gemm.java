@@ -0,0 +1,212 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.primitives;
+
+import com.aparapi.Kernel;
+import com.aparapi.Range;
+import com.aparapi.device.Device;
+
+/**
+ * Single precision general matrix multiply, <code>C = alpha * A * B + beta * C</code>, of row major matrices.
+ * <p>
+ * <pre><code>
+ *  Gemm gemm = new Gemm(device);
+ *  gemm.multiply(m, n, k, a, b, c);
+ * </code></pre>
+ * <p>
+ * In {@link Kernel.EXECUTION_MODE#JTP} each work item computes a block of C, accumulating the products of blocks of A and B which stay 
+ * in cache while they are reused, and walking rows of B and C in the innermost loop. On an OpenCL device each work group computes a 
+ * tile of C, copying a tile of A and a tile of B at a time to local memory, so each element is read from global memory once per tile 
+ * rather than once per product. The tile size suits the work group size and local memory of the device.
+ */
+public class Gemm extends Primitive {
+
+   private final BlockKernel blockKernel;
+
+   private final TileKernel tileKernel;
+
+   /**
+    * @param _device the device to multiply on, or null for the best device
+    */
+   public Gemm(Device _device) {
+      this(_device, isOpenCL(_device));
+   }
+
+   Gemm(Device _device, boolean _workGroups) {
+      super(_device, _workGroups);
+      blockKernel = register(new BlockKernel());
+      tileKernel = register(new TileKernel(tileSize(2)));
+   }
+
+   /**
+    * Set <code>_c</code> to <code>_a * _b</code>.
+    *
+    * @see #multiply(int, int, int, float, float[], float[], float, float[])
+    */
+   public void multiply(int _m, int _n, int _k, float[] _a, float[] _b, float[] _c) {
+      multiply(_m, _n, _k, 1f, _a, _b, 0f, _c);
+   }
+
+   /**
+    * Set <code>_c</code> to <code>_alpha * _a * _b + _beta * _c</code>. As in BLAS, <code>_c</code> is not read if <code>_beta</code> 
+    * is 0, so it may hold NaNs.
+    *
+    * @param _m the number of rows of A and C
+    * @param _n the number of columns of B and C
+    * @param _k the number of columns of A and rows of B
+    * @param _alpha the scale of the product
+    * @param _a the <code>_m x _k</code> matrix A, row by row
+    * @param _b the <code>_k x _n</code> matrix B, row by row
+    * @param _beta the scale of C
+    * @param _c the <code>_m x _n</code> matrix C, row by row
+    */
+   public void multiply(int _m, int _n, int _k, float _alpha, float[] _a, float[] _b, float _beta, float[] _c) {
+      checkMatrix("A", _a, _m, _k);
+      checkMatrix("B", _b, _k, _n);
+      checkMatrix("C", _c, _m, _n);
+      if ((_m == 0) || (_n == 0)) {
+         return;
+      }
+      if (workGroups) {
+         final int tile = tileKernel.tile;
+         tileKernel.a = _a;
+         tileKernel.b = _b;
+         tileKernel.c = _c;
+         tileKernel.m = _m;
+         tileKernel.n = _n;
+         tileKernel.k = _k;
+         tileKernel.alpha = _alpha;
+         tileKernel.beta = _beta;
+         tileKernel.execute(Range.create2D(device, roundUp(_n, tile), roundUp(_m, tile), tile, tile));
+      } else {
+         blockKernel.a = _a;
+         blockKernel.b = _b;
+         blockKernel.c = _c;
+         blockKernel.m = _m;
+         blockKernel.n = _n;
+         blockKernel.k = _k;
+         blockKernel.alpha = _alpha;
+         blockKernel.beta = _beta;
+         blockKernel.columnBlocks = (_n + CACHE_BLOCK_SIZE - 1) / CACHE_BLOCK_SIZE;
+         blockKernel.blocks = ((_m + CACHE_BLOCK_SIZE - 1) / CACHE_BLOCK_SIZE) * blockKernel.columnBlocks;
+         blockKernel.execute(itemRange(blockKernel.blocks));
+      }
+   }
+
+   static class BlockKernel extends Kernel {
+      float[] a;
+
+      float[] b;
+
+      float[] c;
+
+      int m;
+
+      int n;
+
+      int k;
+
+      float alpha;
+
+      float beta;
+
+      int columnBlocks;
+
+      int blocks;
+
+      @Override
+      public void run() {
+         final int block = getGlobalId();
+         if (block >= blocks) {
+            return;
+         }
+         final int rowFrom = (block / columnBlocks) * CACHE_BLOCK_SIZE;
+         final int rowTo = min(rowFrom + CACHE_BLOCK_SIZE, m);
+         final int columnFrom = (block % columnBlocks) * CACHE_BLOCK_SIZE;
+         final int columnTo = min(columnFrom + CACHE_BLOCK_SIZE, n);
+         for (int row = rowFrom; row < rowTo; row++) {
+            for (int column = columnFrom; column < columnTo; column++) {
+               c[(row * n) + column] = (beta == 0f) ? 0f : (beta * c[(row * n) + column]);
+            }
+         }
+         for (int innerFrom = 0; innerFrom < k; innerFrom += CACHE_BLOCK_SIZE) {
+            final int innerTo = min(innerFrom + CACHE_BLOCK_SIZE, k);
+            for (int row = rowFrom; row < rowTo; row++) {
+               for (int inner = innerFrom; inner < innerTo; inner++) {
+                  final float scaled = alpha * a[(row * k) + inner];
+                  for (int column = columnFrom; column < columnTo; column++) {
+                     c[(row * n) + column] += scaled * b[(inner * n) + column];
+                  }
+               }
+            }
+         }
+      }
+   }
+
+   static class TileKernel extends Kernel {
+      final int tile;
+
+      float[] a;
+
+      float[] b;
+
+      float[] c;
+
+      int m;
+
+      int n;
+
+      int k;
+
+      float alpha;
+
+      float beta;
+
+      @Local final float[] tileA;
+
+      @Local final float[] tileB;
+
+      TileKernel(int _tile) {
+         tile = _tile;
+         tileA = new float[_tile * _tile];
+         tileB = new float[_tile * _tile];
+      }
+
+      @Override
+      public void run() {
+         final int column = getGlobalId(0);
+         final int row = getGlobalId(1);
+         final int localColumn = getLocalId(0);
+         final int localRow = getLocalId(1);
+         float sum = 0f;
+         for (int inner = 0; inner < k; inner += tile) {
+            // the work items past the edges of the matrices load zeros, as they must still reach the barriers
+            final int aColumn = inner + localColumn;
+            final int bRow = inner + localRow;
+            tileA[(localRow * tile) + localColumn] = ((row < m) && (aColumn < k)) ? a[(row * k) + aColumn] : 0f;
+            tileB[(localRow * tile) + localColumn] = ((bRow < k) && (column < n)) ? b[(bRow * n) + column] : 0f;
+            localBarrier();
+            for (int i = 0; i < tile; i++) {
+               sum += tileA[(localRow * tile) + i] * tileB[(i * tile) + localColumn];
+            }
+            localBarrier();
+         }
+         if ((row < m) && (column < n)) {
+            c[(row * n) + column] = (beta == 0f) ? (alpha * sum) : ((alpha * sum) + (beta * c[(row * n) + column]));
+         }
+      }
+   }
+}
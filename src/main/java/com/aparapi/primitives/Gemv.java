@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.primitives;
+
+import com.aparapi.Kernel;
+import com.aparapi.device.Device;
+
+/**
+ * Single precision general matrix vector multiply, <code>y = alpha * A * x + beta * y</code>, of a row major matrix.
+ * <p>
+ * <pre><code>
+ *  Gemv gemv = new Gemv(device);
+ *  gemv.multiply(m, n, a, x, y);
+ * </code></pre>
+ * <p>
+ * In {@link Kernel.EXECUTION_MODE#JTP} each work item computes an element of y, walking a row of A. On an OpenCL device each work 
+ * group computes an element of y, its work items striding through the row so that neighbouring work items read neighbouring elements, 
+ * and combining their sums with {@link Kernel#workGroupReduceAdd(float)}.
+ */
+public class Gemv extends Primitive {
+
+   private final RowKernel rowKernel;
+
+   private final GroupKernel groupKernel;
+
+   /**
+    * @param _device the device to multiply on, or null for the best device
+    */
+   public Gemv(Device _device) {
+      this(_device, isOpenCL(_device));
+   }
+
+   Gemv(Device _device, boolean _workGroups) {
+      super(_device, _workGroups);
+      rowKernel = register(new RowKernel());
+      groupKernel = register(new GroupKernel());
+   }
+
+   /**
+    * Set <code>_y</code> to <code>_a * _x</code>.
+    *
+    * @see #multiply(int, int, float, float[], float[], float, float[])
+    */
+   public void multiply(int _m, int _n, float[] _a, float[] _x, float[] _y) {
+      multiply(_m, _n, 1f, _a, _x, 0f, _y);
+   }
+
+   /**
+    * Set <code>_y</code> to <code>_alpha * _a * _x + _beta * _y</code>. As in BLAS, <code>_y</code> is not read if <code>_beta</code> 
+    * is 0.
+    *
+    * @param _m the number of rows of A, and elements of y
+    * @param _n the number of columns of A, and elements of x
+    * @param _alpha the scale of the product
+    * @param _a the <code>_m x _n</code> matrix A, row by row
+    * @param _x the vector x
+    * @param _beta the scale of y
+    * @param _y the vector y
+    */
+   public void multiply(int _m, int _n, float _alpha, float[] _a, float[] _x, float _beta, float[] _y) {
+      checkMatrix("A", _a, _m, _n);
+      checkMatrix("x", _x, _n, 1);
+      checkMatrix("y", _y, _m, 1);
+      if (_m == 0) {
+         return;
+      }
+      if (workGroups) {
+         groupKernel.a = _a;
+         groupKernel.x = _x;
+         groupKernel.y = _y;
+         groupKernel.n = _n;
+         groupKernel.alpha = _alpha;
+         groupKernel.beta = _beta;
+         groupKernel.execute(groupRange(_m));
+      } else {
+         rowKernel.a = _a;
+         rowKernel.x = _x;
+         rowKernel.y = _y;
+         rowKernel.m = _m;
+         rowKernel.n = _n;
+         rowKernel.alpha = _alpha;
+         rowKernel.beta = _beta;
+         rowKernel.execute(itemRange(_m));
+      }
+   }
+
+   static class RowKernel extends Kernel {
+      float[] a;
+
+      float[] x;
+
+      float[] y;
+
+      int m;
+
+      int n;
+
+      float alpha;
+
+      float beta;
+
+      @Override
+      public void run() {
+         final int row = getGlobalId();
+         if (row >= m) {
+            return;
+         }
+         final int offset = row * n;
+         float sum = 0f;
+         for (int column = 0; column < n; column++) {
+            sum += a[offset + column] * x[column];
+         }
+         y[row] = (beta == 0f) ? (alpha * sum) : ((alpha * sum) + (beta * y[row]));
+      }
+   }
+
+   static class GroupKernel extends Kernel {
+      float[] a;
+
+      float[] x;
+
+      float[] y;
+
+      int n;
+
+      float alpha;
+
+      float beta;
+
+      @Override
+      public void run() {
+         final int row = getGroupId();
+         final int offset = row * n;
+         final int stride = getLocalSize();
+         float sum = 0f;
+         for (int column = getLocalId(); column < n; column += stride) {
+            sum += a[offset + column] * x[column];
+         }
+         sum = workGroupReduceAdd(sum);
+         if (getLocalId() == 0) {
+            y[row] = (beta == 0f) ? (alpha * sum) : ((alpha * sum) + (beta * y[row]));
+         }
+      }
+   }
+}
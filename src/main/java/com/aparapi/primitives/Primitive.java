@@ -0,0 +1,182 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.primitives;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.aparapi.Kernel;
+import com.aparapi.Range;
+import com.aparapi.device.Device;
+import com.aparapi.device.OpenCLDevice;
+import com.aparapi.internal.kernel.KernelManager;
+
+/**
+ * The device a primitive executes on, and the kernels it executes there.
+ * <p>
+ * Every primitive has two implementations. On an OpenCL device the work is spread over many small work groups which cooperate through 
+ * local memory, as a GPU needs thousands of work items to be busy. In {@link Kernel.EXECUTION_MODE#JTP} a work item is a thread, so 
+ * the array is instead split into one contiguous chunk per core, which each thread walks sequentially, and the chunks only exchange a 
+ * handful of totals.
+ */
+abstract class Primitive {
+
+   /**
+    * The largest work group the OpenCL implementations use.
+    */
+   private static final int MAX_GROUP_SIZE = 256;
+
+   /**
+    * The widest square tile the tiled OpenCL implementations use.
+    */
+   private static final int MAX_TILE_SIZE = 32;
+
+   /**
+    * The width of the square blocks the Java implementations of matrix operations work on: three blocks of 64 x 64 floats take 48KB, 
+    * which stays in the level 2 cache of current cores while a block is reused.
+    */
+   static final int CACHE_BLOCK_SIZE = 64;
+
+   final Device device;
+
+   /**
+    * True to use the work group implementation, rather than the chunked one.
+    */
+   final boolean workGroups;
+
+   private final List<Kernel> kernels = new ArrayList<Kernel>();
+
+   Primitive(Device _device, boolean _workGroups) {
+      device = (_device != null) ? _device : KernelManager.instance().bestDevice();
+      workGroups = _workGroups;
+   }
+
+   /**
+    * @return true if the work group implementation suits <code>_device</code>, or the best device if it is null
+    */
+   static boolean isOpenCL(Device _device) {
+      return (((_device != null) ? _device : KernelManager.instance().bestDevice()) instanceof OpenCLDevice);
+   }
+
+   /**
+    * Release the resources of the kernels of this primitive, which can not be used afterwards.
+    */
+   public void dispose() {
+      for (final Kernel kernel : kernels) {
+         kernel.dispose();
+      }
+      kernels.clear();
+   }
+
+   /**
+    * Keep a kernel to be disposed of with this primitive.
+    */
+   <T extends Kernel> T register(T _kernel) {
+      kernels.add(_kernel);
+      return (_kernel);
+   }
+
+   /**
+    * @return the size of the chunks to split <code>_length</code> elements into, so there is one per core unless there are fewer 
+    *         elements, the last chunk may be shorter
+    */
+   static int chunkSize(int _length) {
+      final int cores = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), _length));
+      return ((_length + cores - 1) / cores);
+   }
+
+   /**
+    * @return the number of chunks <code>_length</code> elements are split into
+    */
+   static int chunkCount(int _length) {
+      return ((_length == 0) ? 0 : ((_length + chunkSize(_length) - 1) / chunkSize(_length)));
+   }
+
+   /**
+    * @return a range of one work item per chunk of <code>_length</code> elements, in one work group so each chunk gets its own thread
+    */
+   Range chunkRange(int _length) {
+      return (Range.create(device, chunkCount(_length), chunkCount(_length)));
+   }
+
+   /**
+    * @return a range of whole work groups holding at least <code>_items</code> work items, the kernels skip the work items past 
+    *         <code>_items</code>
+    */
+   Range itemRange(int _items) {
+      // the Java thread pool drops the work items of a partial work group, so the range is rounded up
+      final int local = workGroups ? groupSize() : Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), _items));
+      return (Range.create(device, ((_items + local - 1) / local) * local, local));
+   }
+
+   /**
+    * @return the work group size of the work group implementations, a power of two
+    */
+   int groupSize() {
+      int size = MAX_GROUP_SIZE;
+      if (device instanceof OpenCLDevice) {
+         while (size > device.getMaxWorkGroupSize()) {
+            size >>= 1;
+         }
+      }
+      return (size);
+   }
+
+   /**
+    * @return the width of the square tiles of the tiled work group implementations, the largest power of two up to 32 for which a work 
+    *         group holds a work item per element of a tile, and local memory holds <code>_tiles</code> tiles of floats, each row padded 
+    *         by an element
+    */
+   int tileSize(int _tiles) {
+      int size = MAX_TILE_SIZE;
+      while ((size * size) > groupSize()) {
+         size >>= 1;
+      }
+      if (device instanceof OpenCLDevice) {
+         final OpenCLDevice openCLDevice = (OpenCLDevice) device;
+         while ((size > 1) && ((size > openCLDevice.getMaxWorkItemSize()[1])
+               || ((_tiles * (size + 1L) * size * 4) > openCLDevice.getLocalMemSize()))) {
+            size >>= 1;
+         }
+      }
+      return (size);
+   }
+
+   /**
+    * @return a range of <code>_groups</code> work groups
+    */
+   Range groupRange(int _groups) {
+      return (Range.create(device, _groups * groupSize(), groupSize()));
+   }
+
+   /**
+    * @throws IllegalArgumentException if <code>_matrix</code> can not hold a <code>_rows x _columns</code> matrix
+    */
+   static void checkMatrix(String _name, float[] _matrix, int _rows, int _columns) {
+      if ((_rows < 0) || (_columns < 0)) {
+         throw new IllegalArgumentException(_name + " can not be " + _rows + " x " + _columns);
+      } else if (_matrix.length < ((long) _rows * _columns)) {
+         throw new IllegalArgumentException(_name + " holds " + _matrix.length + " elements, not " + _rows + " x " + _columns);
+      }
+   }
+
+   /**
+    * @return <code>_value</code> rounded up to a multiple of <code>_multiple</code>
+    */
+   static int roundUp(int _value, int _multiple) {
+      return (((_value + _multiple - 1) / _multiple) * _multiple);
+   }
+}
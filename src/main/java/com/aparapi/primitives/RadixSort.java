@@ -0,0 +1,338 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.primitives;
+
+import com.aparapi.Kernel;
+import com.aparapi.device.Device;
+
+/**
+ * Stable least significant digit radix sort of int or float keys, optionally carrying an int payload, such as the original index, 
+ * along with each key.
+ * <p>
+ * <pre><code>
+ *  RadixSort sort = new RadixSort(device);
+ *  sort.sort(distances, ids);
+ * </code></pre>
+ * <p>
+ * In {@link Kernel.EXECUTION_MODE#JTP} the keys are sorted 8 bits at a time. Each thread counts the digits of a chunk of the keys, the 
+ * counts, laid out digit by digit and chunk by chunk, are turned into output positions by a {@link Scan}, and each thread then moves 
+ * the keys of its chunk in order. Digits which are the same for every key are skipped. On an OpenCL device the keys are split 1 bit 
+ * at a time, the keys with a 0 bit moving, in order, to positions given by a {@link Scan} of the 0 bits, and the others following them.
+ */
+public class RadixSort extends Primitive {
+
+   private static final int RADIX_BITS = 8;
+
+   private static final int RADIX = 1 << RADIX_BITS;
+
+   private final Scan scan;
+
+   private final ChunkKernel chunkKernel;
+
+   private final ZeroBitKernel zeroBitKernel;
+
+   private final SplitKernel splitKernel;
+
+   /**
+    * @param _device the device to sort on, or null for the best device
+    */
+   public RadixSort(Device _device) {
+      this(_device, isOpenCL(_device));
+   }
+
+   RadixSort(Device _device, boolean _workGroups) {
+      super(_device, _workGroups);
+      scan = new Scan(device, _workGroups);
+      chunkKernel = register(new ChunkKernel());
+      zeroBitKernel = register(new ZeroBitKernel());
+      splitKernel = register(new SplitKernel());
+   }
+
+   /**
+    * Sort <code>_keys</code> into ascending order, applying the same permutation to <code>_values</code>. Equal keys keep their order.
+    *
+    * @param _keys the keys
+    * @param _values the payload of each key, or null
+    */
+   public void sort(int[] _keys, int[] _values) {
+      sort(_keys, _values, false);
+   }
+
+   /**
+    * Sort <code>_keys</code> into the ascending order of {@link java.util.Arrays#sort(float[])}, applying the same permutation to 
+    * <code>_values</code>. Equal keys keep their order. The keys are ordered by their bits, so <code>-0.0f</code> is less than 
+    * <code>0.0f</code>, and NaNs with the sign bit set come first.
+    *
+    * @param _keys the keys
+    * @param _values the payload of each key, or null
+    */
+   public void sort(float[] _keys, int[] _values) {
+      // kernels can not reinterpret a float as an int, so the bits are taken on the host
+      final int[] bits = new int[_keys.length];
+      for (int i = 0; i < bits.length; i++) {
+         bits[i] = Float.floatToRawIntBits(_keys[i]);
+      }
+      sort(bits, _values, true);
+      for (int i = 0; i < bits.length; i++) {
+         _keys[i] = Float.intBitsToFloat(bits[i]);
+      }
+   }
+
+   @Override
+   public void dispose() {
+      scan.dispose();
+      super.dispose();
+   }
+
+   private void sort(int[] _keys, int[] _values, boolean _floatOrder) {
+      final int length = _keys.length;
+      if ((_values != null) && (_values.length < length)) {
+         throw new IllegalArgumentException("there are " + _values.length + " values for " + length + " keys");
+      }
+      if (length < 2) {
+         return;
+      }
+      final boolean hasValues = _values != null;
+      int[] keysIn = _keys;
+      int[] keysOut = new int[length];
+      // the kernels need an array even without values
+      int[] valuesIn = hasValues ? _values : new int[1];
+      int[] valuesOut = new int[hasValues ? length : 1];
+
+      if (workGroups) {
+         final int[] positions = new int[length];
+         for (int bit = 0; bit < 32; bit++) {
+            zeroBitKernel.keys = keysIn;
+            zeroBitKernel.zeros = positions;
+            zeroBitKernel.bit = bit;
+            zeroBitKernel.floatOrder = _floatOrder;
+            zeroBitKernel.length = length;
+            zeroBitKernel.execute(itemRange(length));
+            final int lastZero = positions[length - 1];
+            scan.exclusive(positions, positions);
+            final int zeros = positions[length - 1] + lastZero;
+            if ((zeros == 0) || (zeros == length)) {
+               // every key has the same bit, so none moves
+               continue;
+            }
+            splitKernel.keysIn = keysIn;
+            splitKernel.keysOut = keysOut;
+            splitKernel.valuesIn = valuesIn;
+            splitKernel.valuesOut = valuesOut;
+            splitKernel.positions = positions;
+            splitKernel.zeros = zeros;
+            splitKernel.bit = bit;
+            splitKernel.floatOrder = _floatOrder;
+            splitKernel.hasValues = hasValues;
+            splitKernel.length = length;
+            splitKernel.execute(itemRange(length));
+            final int[] keys = keysIn;
+            keysIn = keysOut;
+            keysOut = keys;
+            final int[] values = valuesIn;
+            valuesIn = valuesOut;
+            valuesOut = values;
+         }
+      } else {
+         final int chunks = chunkCount(length);
+         final int[] counts = new int[RADIX * chunks];
+         chunkKernel.counts = counts;
+         chunkKernel.length = length;
+         chunkKernel.chunkSize = chunkSize(length);
+         chunkKernel.chunks = chunks;
+         chunkKernel.floatOrder = _floatOrder;
+         chunkKernel.hasValues = hasValues;
+         for (int shift = 0; shift < 32; shift += RADIX_BITS) {
+            chunkKernel.keysIn = keysIn;
+            chunkKernel.keysOut = keysOut;
+            chunkKernel.valuesIn = valuesIn;
+            chunkKernel.valuesOut = valuesOut;
+            chunkKernel.shift = shift;
+            chunkKernel.move = false;
+            chunkKernel.execute(chunkRange(length));
+            if (isSingleDigit(counts, chunks, length)) {
+               continue;
+            }
+            scan.exclusive(counts, counts);
+            chunkKernel.move = true;
+            chunkKernel.execute(chunkRange(length));
+            final int[] keys = keysIn;
+            keysIn = keysOut;
+            keysOut = keys;
+            final int[] values = valuesIn;
+            valuesIn = valuesOut;
+            valuesOut = values;
+         }
+      }
+
+      if (keysIn != _keys) {
+         System.arraycopy(keysIn, 0, _keys, 0, length);
+         if (hasValues) {
+            System.arraycopy(valuesIn, 0, _values, 0, length);
+         }
+      }
+   }
+
+   /**
+    * @return true if every key has the same digit, according to the counts of the digits of each chunk
+    */
+   private static boolean isSingleDigit(int[] _counts, int _chunks, int _length) {
+      for (int digit = 0; digit < RADIX; digit++) {
+         int count = 0;
+         for (int chunk = 0; chunk < _chunks; chunk++) {
+            count += _counts[(digit * _chunks) + chunk];
+         }
+         if (count != 0) {
+            return (count == _length);
+         }
+      }
+      return (false);
+   }
+
+   static class ChunkKernel extends Kernel {
+      int[] keysIn;
+
+      int[] keysOut;
+
+      int[] valuesIn;
+
+      int[] valuesOut;
+
+      /**
+       * The number of keys of each chunk with each digit, digit by digit, and then the position of the next such key.
+       */
+      int[] counts;
+
+      int length;
+
+      int chunkSize;
+
+      int chunks;
+
+      int shift;
+
+      boolean floatOrder;
+
+      boolean hasValues;
+
+      /**
+       * False to count the digits of each chunk, true to move its keys.
+       */
+      boolean move;
+
+      @Override
+      public void run() {
+         final int chunk = getGlobalId();
+         final int from = chunk * chunkSize;
+         final int to = min(from + chunkSize, length);
+         if (!move) {
+            for (int digit = 0; digit < RADIX; digit++) {
+               counts[(digit * chunks) + chunk] = 0;
+            }
+            for (int i = from; i < to; i++) {
+               final int slot = (digit(keysIn[i]) * chunks) + chunk;
+               counts[slot]++;
+            }
+         } else {
+            for (int i = from; i < to; i++) {
+               final int key = keysIn[i];
+               final int slot = (digit(key) * chunks) + chunk;
+               final int position = counts[slot];
+               counts[slot] = position + 1;
+               keysOut[position] = key;
+               if (hasValues) {
+                  valuesOut[position] = valuesIn[i];
+               }
+            }
+         }
+      }
+
+      private int digit(int _key) {
+         // flip the sign bit of ints, and every bit of negative floats, so the keys order as unsigned ints
+         final int ordered = floatOrder ? (_key ^ ((_key >> 31) | 0x80000000)) : (_key ^ 0x80000000);
+         return ((ordered >>> shift) & (RADIX - 1));
+      }
+   }
+
+   static class ZeroBitKernel extends Kernel {
+      int[] keys;
+
+      int[] zeros;
+
+      int bit;
+
+      boolean floatOrder;
+
+      int length;
+
+      @Override
+      public void run() {
+         final int gid = getGlobalId();
+         if (gid < length) {
+            zeros[gid] = 1 - bit(keys[gid]);
+         }
+      }
+
+      private int bit(int _key) {
+         final int ordered = floatOrder ? (_key ^ ((_key >> 31) | 0x80000000)) : (_key ^ 0x80000000);
+         return ((ordered >>> bit) & 1);
+      }
+   }
+
+   static class SplitKernel extends Kernel {
+      int[] keysIn;
+
+      int[] keysOut;
+
+      int[] valuesIn;
+
+      int[] valuesOut;
+
+      /**
+       * The number of keys before each key with a 0 bit.
+       */
+      int[] positions;
+
+      /**
+       * The number of keys with a 0 bit.
+       */
+      int zeros;
+
+      int bit;
+
+      boolean floatOrder;
+
+      boolean hasValues;
+
+      int length;
+
+      @Override
+      public void run() {
+         final int gid = getGlobalId();
+         if (gid >= length) {
+            return;
+         }
+         final int key = keysIn[gid];
+         final int ordered = floatOrder ? (key ^ ((key >> 31) | 0x80000000)) : (key ^ 0x80000000);
+         final int zerosBefore = positions[gid];
+         final int position = (((ordered >>> bit) & 1) == 0) ? zerosBefore : (zeros + (gid - zerosBefore));
+         keysOut[position] = key;
+         if (hasValues) {
+            valuesOut[position] = valuesIn[gid];
+         }
+      }
+   }
+}
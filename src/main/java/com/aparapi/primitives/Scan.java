@@ -0,0 +1,203 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.primitives;
+
+import com.aparapi.Kernel;
+import com.aparapi.device.Device;
+
+/**
+ * Prefix sums of int arrays.
+ * <p>
+ * <pre><code>
+ *  Scan scan = new Scan(device);
+ *  scan.exclusive(counts, offsets);
+ * </code></pre>
+ * <p>
+ * In {@link Kernel.EXECUTION_MODE#JTP} each thread sums a chunk of the array, and then scans it starting from the sum of the chunks 
+ * before it. On an OpenCL device each work group scans a block with {@link Kernel#workGroupScanInclusiveAdd(int)}, the totals of the 
+ * blocks are scanned in the same way, and added to the blocks after the first.
+ * <p>
+ * The sums wrap around on overflow, like Java int arithmetic.
+ */
+public class Scan extends Primitive {
+
+   private final ChunkKernel chunkKernel;
+
+   private final GroupKernel groupKernel;
+
+   private final AddKernel addKernel;
+
+   /**
+    * @param _device the device to scan on, or null for the best device
+    */
+   public Scan(Device _device) {
+      this(_device, isOpenCL(_device));
+   }
+
+   Scan(Device _device, boolean _workGroups) {
+      super(_device, _workGroups);
+      chunkKernel = register(new ChunkKernel());
+      groupKernel = register(new GroupKernel());
+      addKernel = register(new AddKernel());
+   }
+
+   /**
+    * Set each element of <code>_out</code> to the sum of the elements of <code>_in</code> before it, so the first element is 0.
+    *
+    * @param _in the values, which may be the same array as <code>_out</code>
+    * @param _out the sums, at least as long as <code>_in</code>
+    */
+   public void exclusive(int[] _in, int[] _out) {
+      scan(_in, _out, _in.length, false);
+   }
+
+   /**
+    * Set each element of <code>_out</code> to the sum of the elements of <code>_in</code> up to and including it.
+    *
+    * @param _in the values, which may be the same array as <code>_out</code>
+    * @param _out the sums, at least as long as <code>_in</code>
+    */
+   public void inclusive(int[] _in, int[] _out) {
+      scan(_in, _out, _in.length, true);
+   }
+
+   /**
+    * Scan the first <code>_length</code> elements of <code>_in</code> into <code>_out</code>.
+    */
+   void scan(int[] _in, int[] _out, int _length, boolean _inclusive) {
+      if (_out.length < _length) {
+         throw new IllegalArgumentException("the output holds " + _out.length + " elements, the input " + _length);
+      }
+      if (_length == 0) {
+         return;
+      }
+      if (workGroups) {
+         scanGroups(_in, _out, _length, _inclusive);
+      } else {
+         chunkKernel.in = _in;
+         chunkKernel.out = _out;
+         chunkKernel.chunkSums = new int[chunkCount(_length)];
+         chunkKernel.length = _length;
+         chunkKernel.chunkSize = chunkSize(_length);
+         chunkKernel.inclusive = _inclusive;
+         // pass 0 sums the chunks, pass 1 scans them
+         chunkKernel.execute(chunkRange(_length), 2);
+      }
+   }
+
+   private void scanGroups(int[] _in, int[] _out, int _length, boolean _inclusive) {
+      final int groupSize = groupSize();
+      final int groups = (_length + groupSize - 1) / groupSize;
+      final int[] groupSums = new int[groups];
+      groupKernel.in = _in;
+      groupKernel.out = _out;
+      groupKernel.groupSums = groupSums;
+      groupKernel.length = _length;
+      groupKernel.inclusive = _inclusive;
+      groupKernel.execute(groupRange(groups));
+      if (groups > 1) {
+         scanGroups(groupSums, groupSums, groups, false);
+         addKernel.values = _out;
+         addKernel.offsets = groupSums;
+         addKernel.length = _length;
+         addKernel.execute(groupRange(groups));
+      }
+   }
+
+   static class ChunkKernel extends Kernel {
+      int[] in;
+
+      int[] out;
+
+      int[] chunkSums;
+
+      int length;
+
+      int chunkSize;
+
+      boolean inclusive;
+
+      @Override
+      public void run() {
+         final int chunk = getGlobalId();
+         final int from = chunk * chunkSize;
+         final int to = min(from + chunkSize, length);
+         int sum = 0;
+         if (getPassId() == 0) {
+            for (int i = from; i < to; i++) {
+               sum += in[i];
+            }
+            chunkSums[chunk] = sum;
+         } else {
+            for (int c = 0; c < chunk; c++) {
+               sum += chunkSums[c];
+            }
+            for (int i = from; i < to; i++) {
+               final int value = in[i];
+               if (inclusive) {
+                  sum += value;
+                  out[i] = sum;
+               } else {
+                  out[i] = sum;
+                  sum += value;
+               }
+            }
+         }
+      }
+   }
+
+   static class GroupKernel extends Kernel {
+      int[] in;
+
+      int[] out;
+
+      int[] groupSums;
+
+      int length;
+
+      boolean inclusive;
+
+      @Override
+      public void run() {
+         final int gid = getGlobalId();
+         // every work item takes part in the collective, those beyond the end contribute 0
+         final int value = (gid < length) ? in[gid] : 0;
+         final int sum = workGroupScanInclusiveAdd(value);
+         if (gid < length) {
+            out[gid] = inclusive ? sum : (sum - value);
+         }
+         if (getLocalId() == (getLocalSize() - 1)) {
+            groupSums[getGroupId()] = sum;
+         }
+      }
+   }
+
+   static class AddKernel extends Kernel {
+      int[] values;
+
+      int[] offsets;
+
+      int length;
+
+      @Override
+      public void run() {
+         final int gid = getGlobalId();
+         if (gid < length) {
+            values[gid] += offsets[getGroupId()];
+         }
+      }
+   }
+}
@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.primitives;
+
+import com.aparapi.Kernel;
+import com.aparapi.Kernel.ReduceOp;
+import com.aparapi.device.Device;
+
+/**
+ * Reduction of each segment of a float array, the segments being given by their offsets, as in a compressed sparse row matrix.
+ * <p>
+ * <pre><code>
+ *  SegmentedReduce reduce = new SegmentedReduce(device);
+ *  reduce.reduce(ReduceOp.SUM, values, rowOffsets, rowSums);
+ * </code></pre>
+ * <p>
+ * In {@link Kernel.EXECUTION_MODE#JTP} a work item reduces a whole segment sequentially, and the thread pool hands each thread a 
+ * contiguous run of segments. On an OpenCL device a work group reduces each segment, its work items striding through the segment 
+ * so that neighbouring work items read neighbouring values, and combining their results with 
+ * {@link Kernel#workGroupReduceAdd(float)} or its min or max counterparts.
+ */
+public class SegmentedReduce extends Primitive {
+
+   private final SegmentKernel segmentKernel;
+
+   private final GroupKernel groupKernel;
+
+   /**
+    * @param _device the device to reduce on, or null for the best device
+    */
+   public SegmentedReduce(Device _device) {
+      this(_device, isOpenCL(_device));
+   }
+
+   SegmentedReduce(Device _device, boolean _workGroups) {
+      super(_device, _workGroups);
+      segmentKernel = register(new SegmentKernel());
+      groupKernel = register(new GroupKernel());
+   }
+
+   /**
+    * Reduce the values of each segment, segment <code>s</code> holding the values from <code>_offsets[s]</code> up to but excluding 
+    * <code>_offsets[s + 1]</code>. An empty segment reduces to the {@link ReduceOp#identity()} of the operator.
+    *
+    * @param _op the operator to combine the values with
+    * @param _values the values
+    * @param _offsets the offsets of the segments, one more than there are segments, in ascending order
+    * @param _results the result of each segment
+    */
+   public void reduce(ReduceOp _op, float[] _values, int[] _offsets, float[] _results) {
+      final int segments = _offsets.length - 1;
+      if (segments < 1) {
+         return;
+      } else if (_results.length < segments) {
+         throw new IllegalArgumentException("there are " + segments + " segments, the results hold " + _results.length);
+      } else if ((_offsets[0] < 0) || (_offsets[segments] > _values.length)) {
+         throw new IllegalArgumentException("the segments do not lie within the " + _values.length + " values");
+      }
+      if (workGroups) {
+         groupKernel.values = _values;
+         groupKernel.offsets = _offsets;
+         groupKernel.results = _results;
+         groupKernel.op = _op.ordinal();
+         groupKernel.identity = _op.identity();
+         groupKernel.execute(groupRange(segments));
+      } else {
+         segmentKernel.values = _values;
+         segmentKernel.offsets = _offsets;
+         segmentKernel.results = _results;
+         segmentKernel.op = _op.ordinal();
+         segmentKernel.identity = _op.identity();
+         segmentKernel.segments = segments;
+         segmentKernel.execute(itemRange(segments));
+      }
+   }
+
+   static class SegmentKernel extends Kernel {
+      float[] values;
+
+      int[] offsets;
+
+      float[] results;
+
+      /**
+       * The ordinal of the {@link ReduceOp}.
+       */
+      int op;
+
+      float identity;
+
+      int segments;
+
+      @Override
+      public void run() {
+         final int segment = getGlobalId();
+         if (segment >= segments) {
+            return;
+         }
+         final int to = offsets[segment + 1];
+         float result = identity;
+         for (int i = offsets[segment]; i < to; i++) {
+            final float value = values[i];
+            if (op == 0) {
+               result += value;
+            } else if (op == 1) {
+               result = min(result, value);
+            } else {
+               result = max(result, value);
+            }
+         }
+         results[segment] = result;
+      }
+   }
+
+   static class GroupKernel extends Kernel {
+      float[] values;
+
+      int[] offsets;
+
+      float[] results;
+
+      int op;
+
+      float identity;
+
+      @Override
+      public void run() {
+         final int segment = getGroupId();
+         final int to = offsets[segment + 1];
+         final int stride = getLocalSize();
+         float result = identity;
+         for (int i = offsets[segment] + getLocalId(); i < to; i += stride) {
+            final float value = values[i];
+            if (op == 0) {
+               result += value;
+            } else if (op == 1) {
+               result = min(result, value);
+            } else {
+               result = max(result, value);
+            }
+         }
+         // the operator is the same for every work item, so they all reach the same collective
+         if (op == 0) {
+            result = workGroupReduceAdd(result);
+         } else if (op == 1) {
+            result = workGroupReduceMin(result);
+         } else {
+            result = workGroupReduceMax(result);
+         }
+         if (getLocalId() == 0) {
+            results[segment] = result;
+         }
+      }
+   }
+}
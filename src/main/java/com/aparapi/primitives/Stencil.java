@@ -0,0 +1,274 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.primitives;
+
+import com.aparapi.Kernel;
+import com.aparapi.Range;
+import com.aparapi.device.Device;
+import com.aparapi.device.OpenCLDevice;
+import com.aparapi.internal.kernel.KernelManager;
+
+/**
+ * A kernel which computes each point of a 2D grid of floats from the neighbourhood of the point, such as a convolution, a blur or a 
+ * finite difference step. A subclass implements {@link #compute(int, int)}, reading the neighbours through {@link #at(int, int)}, 
+ * which handles the edges of the grid according to a {@link Boundary} policy, so the computation needs no bounds checks.
+ * <p>
+ * <pre><code>
+ *  class Laplacian extends Stencil {
+ *     Laplacian() {
+ *        super(1, Boundary.CLAMP);
+ *     }
+ *
+ *     protected float compute(int x, int y) {
+ *        return at(x - 1, y) + at(x + 1, y) + at(x, y - 1) + at(x, y + 1) - 4 * at(x, y);
+ *     }
+ *  }
+ *
+ *  new Laplacian().apply(device, grid, result, width, height);
+ * </code></pre>
+ * <p>
+ * Each point is read by every point in its neighbourhood, so the grid is first copied, with a halo of <code>radius</code> points 
+ * around it, to memory close to the work items, the boundary policy being applied only while copying the halo. On an OpenCL device 
+ * each work group copies a tile to local memory. In {@link Kernel.EXECUTION_MODE#JTP} each work item copies a strip of rows which fits 
+ * in cache to a buffer of its thread, and computes the strip row by row.
+ */
+public abstract class Stencil extends Kernel {
+
+   /**
+    * How {@link Stencil#at(int, int)} reads points beyond the edges of the grid.
+    */
+   public enum Boundary {
+      /**
+       * A point beyond the edge reads the nearest point on the edge.
+       */
+      CLAMP,
+      /**
+       * The grid repeats, a point beyond one edge reads the point as far in from the opposite edge.
+       */
+      WRAP,
+      /**
+       * A point beyond the edge reads 0.
+       */
+      ZERO
+   }
+
+   /**
+    * The width and height of the work groups of the tiled implementation.
+    */
+   private static final int TILE_SIZE = 16;
+
+   /**
+    * The number of floats a strip of the Java implementation holds at most, 64KB of them.
+    */
+   private static final int STRIP_FLOATS = 16 * 1024;
+
+   /*
+    * The fields are not private, as the generated OpenCL only passes the non private fields of a superclass of the kernel, and are 
+    * prefixed so those of a subclass do not hide them.
+    */
+
+   final int stencilRadius;
+
+   final int stencilBoundary;
+
+   float[] stencilIn;
+
+   float[] stencilOut;
+
+   int stencilWidth;
+
+   int stencilHeight;
+
+   /**
+    * True if the work groups copy tiles to local memory, false if the work items copy strips to their thread's part of 
+    * <code>stencilStrips</code>.
+    */
+   boolean stencilTiled;
+
+   /**
+    * The width of a tile, or a strip, including the halo.
+    */
+   int stencilStride;
+
+   /**
+    * The number of rows of a strip, without the halo.
+    */
+   int stencilStripRows;
+
+   float[] stencilStrips = new float[1];
+
+   @Local final float[] stencilTile;
+
+   /**
+    * @param _radius the largest distance from a point, in x or y, of the neighbours the stencil reads
+    * @param _boundary how points beyond the edges of the grid read
+    */
+   protected Stencil(int _radius, Boundary _boundary) {
+      if (_radius < 0) {
+         throw new IllegalArgumentException("the radius can not be " + _radius);
+      }
+      stencilRadius = _radius;
+      stencilBoundary = _boundary.ordinal();
+      stencilTile = new float[(TILE_SIZE + (2 * _radius)) * (TILE_SIZE + (2 * _radius))];
+   }
+
+   /**
+    * Compute a point of the result.
+    *
+    * @param _x the column of the point
+    * @param _y the row of the point
+    * @return the value of the point
+    */
+   protected abstract float compute(int _x, int _y);
+
+   /**
+    * Read a point of the grid, which must lie within the radius of the point being computed.
+    *
+    * @param _x the column of the point, which may lie beyond the edges of the grid
+    * @param _y the row of the point, which may lie beyond the edges of the grid
+    * @return the value of the point, or the value the boundary policy gives
+    */
+   protected final float at(int _x, int _y) {
+      if (stencilTiled) {
+         final int tileX = (_x - (getGroupId(0) * TILE_SIZE)) + stencilRadius;
+         final int tileY = (_y - (getGroupId(1) * TILE_SIZE)) + stencilRadius;
+         return (stencilTile[(tileY * stencilStride) + tileX]);
+      }
+      final int stripY = (_y - (getGlobalId() * stencilStripRows)) + stencilRadius;
+      final int base = getLocalId() * stencilStride * (stencilStripRows + (2 * stencilRadius));
+      return (stencilStrips[base + (stripY * stencilStride) + _x + stencilRadius]);
+   }
+
+   /**
+    * Compute every point of a grid.
+    *
+    * @param _device the device to compute on, or null for the best device
+    * @param _in the grid, row by row
+    * @param _out the result, row by row, an array other than <code>_in</code>
+    * @param _width the number of columns of the grid
+    * @param _height the number of rows of the grid
+    */
+   public void apply(Device _device, float[] _in, float[] _out, int _width, int _height) {
+      final Device device = (_device != null) ? _device : KernelManager.instance().bestDevice();
+      apply(device, _in, _out, _width, _height, device instanceof OpenCLDevice);
+   }
+
+   void apply(Device _device, float[] _in, float[] _out, int _width, int _height, boolean _tiled) {
+      Primitive.checkMatrix("the grid", _in, _height, _width);
+      Primitive.checkMatrix("the result", _out, _height, _width);
+      if (_in == _out) {
+         throw new IllegalArgumentException("can not compute a stencil in place");
+      }
+      if ((_width == 0) || (_height == 0)) {
+         return;
+      }
+      stencilIn = _in;
+      stencilOut = _out;
+      stencilWidth = _width;
+      stencilHeight = _height;
+      stencilTiled = _tiled;
+      if (_tiled) {
+         stencilStride = TILE_SIZE + (2 * stencilRadius);
+         execute(Range.create2D(_device, Primitive.roundUp(_width, TILE_SIZE), Primitive.roundUp(_height, TILE_SIZE), TILE_SIZE,
+               TILE_SIZE));
+      } else {
+         stencilStride = _width + (2 * stencilRadius);
+         stencilStripRows = Math.max(1, (STRIP_FLOATS / stencilStride) - (2 * stencilRadius));
+         final int stripCount = (_height + stencilStripRows - 1) / stencilStripRows;
+         final int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), stripCount));
+         final int stripLength = stencilStride * (stencilStripRows + (2 * stencilRadius));
+         if (stencilStrips.length < (threads * stripLength)) {
+            stencilStrips = new float[threads * stripLength];
+         }
+         execute(Range.create(_device, Primitive.roundUp(stripCount, threads), threads));
+      }
+   }
+
+   @Override
+   public final void run() {
+      if (stencilTiled) {
+         computeTile();
+      } else {
+         computeStrip();
+      }
+   }
+
+   private void computeTile() {
+      // the work items copy the tile and its halo together, and then each computes its point
+      final int originX = (getGroupId(0) * TILE_SIZE) - stencilRadius;
+      final int originY = (getGroupId(1) * TILE_SIZE) - stencilRadius;
+      final int area = stencilStride * stencilStride;
+      for (int i = (getLocalId(1) * TILE_SIZE) + getLocalId(0); i < area; i += TILE_SIZE * TILE_SIZE) {
+         stencilTile[i] = sample(originX + (i % stencilStride), originY + (i / stencilStride));
+      }
+      localBarrier();
+      final int x = getGlobalId(0);
+      final int y = getGlobalId(1);
+      if ((x < stencilWidth) && (y < stencilHeight)) {
+         stencilOut[(y * stencilWidth) + x] = compute(x, y);
+      }
+      // in JTP the threads go on to copy the tile of the next work group
+      localBarrier();
+   }
+
+   private void computeStrip() {
+      final int rowFrom = getGlobalId() * stencilStripRows;
+      if (rowFrom >= stencilHeight) {
+         return;
+      }
+      final int rowTo = min(rowFrom + stencilStripRows, stencilHeight);
+      final int base = getLocalId() * stencilStride * (stencilStripRows + (2 * stencilRadius));
+      for (int y = rowFrom - stencilRadius; y < (rowTo + stencilRadius); y++) {
+         final int offset = base + ((y - rowFrom) + stencilRadius) * stencilStride;
+         if ((y >= 0) && (y < stencilHeight)) {
+            // only the halo columns need the boundary policy
+            for (int x = -stencilRadius; x < 0; x++) {
+               stencilStrips[offset + x + stencilRadius] = sample(x, y);
+            }
+            for (int x = 0; x < stencilWidth; x++) {
+               stencilStrips[offset + x + stencilRadius] = stencilIn[(y * stencilWidth) + x];
+            }
+            for (int x = stencilWidth; x < (stencilWidth + stencilRadius); x++) {
+               stencilStrips[offset + x + stencilRadius] = sample(x, y);
+            }
+         } else {
+            for (int x = -stencilRadius; x < (stencilWidth + stencilRadius); x++) {
+               stencilStrips[offset + x + stencilRadius] = sample(x, y);
+            }
+         }
+      }
+      for (int y = rowFrom; y < rowTo; y++) {
+         for (int x = 0; x < stencilWidth; x++) {
+            stencilOut[(y * stencilWidth) + x] = compute(x, y);
+         }
+      }
+   }
+
+   /**
+    * @return the point of the grid at <code>(_x, _y)</code>, applying the boundary policy if it lies beyond the edges
+    */
+   private float sample(int _x, int _y) {
+      if ((_x >= 0) && (_x < stencilWidth) && (_y >= 0) && (_y < stencilHeight)) {
+         return (stencilIn[(_y * stencilWidth) + _x]);
+      } else if (stencilBoundary == 0) {
+         return (stencilIn[(min(max(_y, 0), stencilHeight - 1) * stencilWidth) + min(max(_x, 0), stencilWidth - 1)]);
+      } else if (stencilBoundary == 1) {
+         final int wrappedY = ((_y % stencilHeight) + stencilHeight) % stencilHeight;
+         return (stencilIn[(wrappedY * stencilWidth) + (((_x % stencilWidth) + stencilWidth) % stencilWidth)]);
+      }
+      return (0f);
+   }
+}
@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.primitives;
+
+import com.aparapi.Kernel;
+import com.aparapi.Range;
+import com.aparapi.device.Device;
+
+/**
+ * Transposition of a row major float matrix into another.
+ * <p>
+ * <pre><code>
+ *  Transpose transpose = new Transpose(device);
+ *  transpose.transpose(rows, columns, matrix, transposed);
+ * </code></pre>
+ * <p>
+ * Reading a matrix by rows writes its transpose by columns, so both implementations work on square blocks. In 
+ * {@link Kernel.EXECUTION_MODE#JTP} each work item transposes a block small enough for its rows and columns to stay in cache. On an 
+ * OpenCL device each work group reads a tile into local memory row by row, and writes it out column by column, so that both global 
+ * memory accesses are coalesced. The rows of the tile are padded by an element so the work items reading a column of the tile hit 
+ * different local memory banks.
+ */
+public class Transpose extends Primitive {
+
+   /**
+    * The width of the blocks of the Java implementation, 32 x 32 floats being 4KB.
+    */
+   private static final int BLOCK_SIZE = 32;
+
+   private final BlockKernel blockKernel;
+
+   private final TileKernel tileKernel;
+
+   /**
+    * @param _device the device to transpose on, or null for the best device
+    */
+   public Transpose(Device _device) {
+      this(_device, isOpenCL(_device));
+   }
+
+   Transpose(Device _device, boolean _workGroups) {
+      super(_device, _workGroups);
+      blockKernel = register(new BlockKernel());
+      tileKernel = register(new TileKernel(tileSize(1)));
+   }
+
+   /**
+    * Set <code>_out</code> to the transpose of <code>_in</code>.
+    *
+    * @param _rows the number of rows of <code>_in</code>
+    * @param _columns the number of columns of <code>_in</code>
+    * @param _in the <code>_rows x _columns</code> matrix, row by row
+    * @param _out the <code>_columns x _rows</code> transpose, row by row, an array other than <code>_in</code>
+    */
+   public void transpose(int _rows, int _columns, float[] _in, float[] _out) {
+      checkMatrix("the matrix", _in, _rows, _columns);
+      checkMatrix("the transpose", _out, _columns, _rows);
+      if (_in == _out) {
+         throw new IllegalArgumentException("can not transpose in place");
+      }
+      if ((_rows == 0) || (_columns == 0)) {
+         return;
+      }
+      if (workGroups) {
+         final int tile = tileKernel.tile;
+         tileKernel.in = _in;
+         tileKernel.out = _out;
+         tileKernel.rows = _rows;
+         tileKernel.columns = _columns;
+         tileKernel.execute(Range.create2D(device, roundUp(_columns, tile), roundUp(_rows, tile), tile, tile));
+      } else {
+         blockKernel.in = _in;
+         blockKernel.out = _out;
+         blockKernel.rows = _rows;
+         blockKernel.columns = _columns;
+         blockKernel.columnBlocks = (_columns + BLOCK_SIZE - 1) / BLOCK_SIZE;
+         blockKernel.blocks = ((_rows + BLOCK_SIZE - 1) / BLOCK_SIZE) * blockKernel.columnBlocks;
+         blockKernel.execute(itemRange(blockKernel.blocks));
+      }
+   }
+
+   static class BlockKernel extends Kernel {
+      float[] in;
+
+      float[] out;
+
+      int rows;
+
+      int columns;
+
+      int columnBlocks;
+
+      int blocks;
+
+      @Override
+      public void run() {
+         final int block = getGlobalId();
+         if (block >= blocks) {
+            return;
+         }
+         final int rowFrom = (block / columnBlocks) * BLOCK_SIZE;
+         final int rowTo = min(rowFrom + BLOCK_SIZE, rows);
+         final int columnFrom = (block % columnBlocks) * BLOCK_SIZE;
+         final int columnTo = min(columnFrom + BLOCK_SIZE, columns);
+         for (int column = columnFrom; column < columnTo; column++) {
+            for (int row = rowFrom; row < rowTo; row++) {
+               out[(column * rows) + row] = in[(row * columns) + column];
+            }
+         }
+      }
+   }
+
+   static class TileKernel extends Kernel {
+      final int tile;
+
+      float[] in;
+
+      float[] out;
+
+      int rows;
+
+      int columns;
+
+      @Local final float[] tileElements;
+
+      TileKernel(int _tile) {
+         tile = _tile;
+         tileElements = new float[(_tile + 1) * _tile];
+      }
+
+      @Override
+      public void run() {
+         final int localColumn = getLocalId(0);
+         final int localRow = getLocalId(1);
+         final int column = getGlobalId(0);
+         final int row = getGlobalId(1);
+         if ((row < rows) && (column < columns)) {
+            tileElements[(localRow * (tile + 1)) + localColumn] = in[(row * columns) + column];
+         }
+         localBarrier();
+         // the work group now writes the rows of the transpose which are the columns of its tile
+         final int outColumn = (getGroupId(1) * tile) + localColumn;
+         final int outRow = (getGroupId(0) * tile) + localRow;
+         if ((outRow < columns) && (outColumn < rows)) {
+            out[(outRow * rows) + outColumn] = tileElements[(localColumn * (tile + 1)) + localRow];
+         }
+         // in JTP the threads go on to load the tile of the next work group
+         localBarrier();
+      }
+   }
+}
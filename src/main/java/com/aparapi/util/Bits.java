@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.util;
+
+import com.aparapi.Kernel;
+
+/**
+ * Host side access to packed bit arrays, which hold 64 flags in each <code>long</code>, bit <code>i</code> being bit 
+ * <code>i % 64</code> of element <code>i / 64</code>. This is the layout read and written by {@link Kernel#getBit(long[], long)}, 
+ * {@link Kernel#setBit(long[], long)} and {@link Kernel#atomicSetBit(long[], long)}, so a bitmap takes an eighth of the memory, and of 
+ * the transfers to and from a device, of a <code>boolean[]</code>.
+ */
+public final class Bits {
+
+   private Bits() {
+   }
+
+   /**
+    * @return a new array holding <code>_bits</code> bits, all clear
+    */
+   public static long[] allocate(long _bits) {
+      if ((_bits < 0) || (((_bits + 63) >>> 6) > Integer.MAX_VALUE)) {
+         throw new IllegalArgumentException("can not allocate " + _bits + " bits");
+      }
+      return (new long[(int) ((_bits + 63) >>> 6)]);
+   }
+
+   /**
+    * @return true if bit <code>_index</code> of <code>_bits</code> is set
+    */
+   public static boolean get(long[] _bits, long _index) {
+      return ((_bits[(int) (_index >>> 6)] & (1L << _index)) != 0);
+   }
+
+   /**
+    * Set bit <code>_index</code> of <code>_bits</code>.
+    */
+   public static void set(long[] _bits, long _index) {
+      _bits[(int) (_index >>> 6)] |= (1L << _index);
+   }
+
+   /**
+    * Clear bit <code>_index</code> of <code>_bits</code>.
+    */
+   public static void clear(long[] _bits, long _index) {
+      _bits[(int) (_index >>> 6)] &= ~(1L << _index);
+   }
+
+   /**
+    * @return the number of bits set in <code>_bits</code>
+    */
+   public static long count(long[] _bits) {
+      long count = 0;
+      for (final long word : _bits) {
+         count += Long.bitCount(word);
+      }
+      return (count);
+   }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.util;
+
+import com.aparapi.Kernel;
+
+/**
+ * Conversions between <code>float</code> and IEEE 754 half precision (16 bit) floats held in a <code>short</code>, the storage format
+ * read and written by {@link Kernel#loadHalf(short[], int)} and {@link Kernel#storeHalf(short[], int, float)}.
+ * <p>
+ * Conversion to half precision rounds to nearest even, as <code>vstore_half()</code> does in OpenCL, so a kernel produces the same
+ * halves whichever device executes it.
+ */
+public final class Half {
+
+   private Half() {
+   }
+
+   /**
+    * @return the float holding the same value as the half precision float <code>_half</code>
+    */
+   public static float toFloat(short _half) {
+      final int sign = (_half & 0x8000) << 16;
+      final int exponent = (_half >>> 10) & 0x1f;
+      final int mantissa = _half & 0x3ff;
+      if (exponent == 0x1f) {
+         // infinity or NaN
+         return (Float.intBitsToFloat(sign | 0x7f800000 | (mantissa << 13)));
+      } else if (exponent == 0) {
+         // zero or subnormal, mantissa * 2^-24
+         final float value = mantissa * 0x1p-24f;
+         return ((sign == 0) ? value : -value);
+      }
+      return (Float.intBitsToFloat(sign | ((exponent + (127 - 15)) << 23) | (mantissa << 13)));
+   }
+
+   /**
+    * @return the half precision float nearest to <code>_float</code>, values beyond the half precision range become infinite
+    */
+   public static short fromFloat(float _float) {
+      final int bits = Float.floatToRawIntBits(_float);
+      final int sign = (bits >>> 16) & 0x8000;
+      final int abs = bits & 0x7fffffff;
+      if (abs >= 0x7f800000) {
+         // infinity, or NaN which stays quiet
+         return ((short) (sign | 0x7c00 | ((abs > 0x7f800000) ? (0x200 | ((abs >>> 13) & 0x3ff)) : 0)));
+      } else if (abs >= 0x47800000) {
+         // 65536 and above
+         return ((short) (sign | 0x7c00));
+      } else if (abs < 0x38800000) {
+         // below the smallest normal half, scale to units of 2^-24 (exactly) and round to nearest even
+         return ((short) (sign | (int) Math.rint(Float.intBitsToFloat(abs) * 0x1p24f)));
+      }
+      // rebias the exponent and round the mantissa to 10 bits, a carry correctly increments the exponent
+      int half = (abs - ((127 - 15) << 23)) >>> 13;
+      final int remainder = abs & 0x1fff;
+      if ((remainder > 0x1000) || ((remainder == 0x1000) && ((half & 1) != 0))) {
+         half++;
+      }
+      return ((short) (sign | half));
+   }
+
+   /**
+    * @return a new array holding the half precision floats nearest to the elements of <code>_floats</code>
+    */
+   public static short[] fromFloats(float[] _floats) {
+      final short[] halves = new short[_floats.length];
+      for (int i = 0; i < _floats.length; i++) {
+         halves[i] = fromFloat(_floats[i]);
+      }
+      return (halves);
+   }
+
+   /**
+    * @return a new array holding the values of the half precision floats in <code>_halves</code>
+    */
+   public static float[] toFloats(short[] _halves) {
+      final float[] floats = new float[_halves.length];
+      for (int i = 0; i < _halves.length; i++) {
+         floats[i] = toFloat(_halves[i]);
+      }
+      return (floats);
+   }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.util;
+
+import com.aparapi.Kernel;
+
+/**
+ * The Philox4x32-10 counter based random number generator of Salmon et al, "Parallel Random Numbers: As Easy as 1, 2, 3", which 
+ * {@link Kernel#randomInt(long, long)} and {@link Kernel#randomFloat(long, long)} use.
+ * <p>
+ * A counter based generator has no state: the random number is a function of a key, such as a seed chosen per run, and a counter, such 
+ * as the global id combined with an iteration. Each work item can therefore draw its own numbers without seed arrays, and the numbers 
+ * are the same whichever device executes the kernel, as the OpenCL written for a kernel computes the same function.
+ */
+public final class Philox {
+
+   private static final int M0 = 0xD2511F53;
+
+   private static final int M1 = 0xCD9E8D57;
+
+   private static final int W0 = 0x9E3779B9;
+
+   private static final int W1 = 0xBB67AE85;
+
+   private static final int ROUNDS = 10;
+
+   private Philox() {
+   }
+
+   /**
+    * @return the first word of the Philox4x32-10 block for the key <code>_key</code> and the counter <code>{low word of _counter, 
+    *         high word of _counter, 0, 0}</code>
+    */
+   public static int randomInt(long _key, long _counter) {
+      return (philox(_key, (int) _counter, (int) (_counter >>> 32), 0, 0, null));
+   }
+
+   /**
+    * @return the top 24 bits of {@link #randomInt(long, long)} as a float in <code>[0, 1)</code>, every value of which is an exact 
+    *         multiple of <code>2^-24</code>
+    */
+   public static float randomFloat(long _key, long _counter) {
+      return ((randomInt(_key, _counter) >>> 8) * 0x1p-24f);
+   }
+
+   /**
+    * @param _key the two key words, the low word first
+    * @param _counter the four counter words
+    * @return a new array holding the four words of the Philox4x32-10 block
+    */
+   public static int[] philox4x32(long _key, int[] _counter) {
+      final int[] block = new int[4];
+      philox(_key, _counter[0], _counter[1], _counter[2], _counter[3], block);
+      return (block);
+   }
+
+   private static int philox(long _key, int _c0, int _c1, int _c2, int _c3, int[] _block) {
+      int k0 = (int) _key;
+      int k1 = (int) (_key >>> 32);
+      int c0 = _c0;
+      int c1 = _c1;
+      int c2 = _c2;
+      int c3 = _c3;
+      for (int round = 0; round < ROUNDS; round++) {
+         if (round > 0) {
+            k0 += W0;
+            k1 += W1;
+         }
+         final long product0 = (M0 & 0xffffffffL) * (c0 & 0xffffffffL);
+         final long product1 = (M1 & 0xffffffffL) * (c2 & 0xffffffffL);
+         c0 = ((int) (product1 >>> 32)) ^ c1 ^ k0;
+         c1 = (int) product1;
+         c2 = ((int) (product0 >>> 32)) ^ c3 ^ k1;
+         c3 = (int) product0;
+      }
+      if (_block != null) {
+         _block[0] = c0;
+         _block[1] = c1;
+         _block[2] = c2;
+         _block[3] = c3;
+      }
+      return (c0);
+   }
+}
@@ -66,6 +66,21 @@ import com.aparapi.internal.writer.KernelWriter;
 public class CodeGenJUnitBase {
 
    protected void test(Class<?> _class, Class<? extends AparapiException> _expectedExceptionType, String[] expectedOpenCL) {
+      test(_class, _expectedExceptionType, expectedOpenCL, false);
+   }
+
+   protected void test(Class<?> _class, Class<? extends AparapiException> _expectedExceptionType, String[] expectedOpenCL,
+         boolean _directFieldAccess) {
+      test(_class, _expectedExceptionType, expectedOpenCL, _directFieldAccess, false);
+   }
+
+   protected void test(Class<?> _class, Class<? extends AparapiException> _expectedExceptionType, String[] expectedOpenCL,
+         boolean _directFieldAccess, boolean _optimizeExpressions) {
+      test(_class, _expectedExceptionType, expectedOpenCL, _directFieldAccess, _optimizeExpressions, Entrypoint.RangeKind.PLAIN);
+   }
+
+   protected void test(Class<?> _class, Class<? extends AparapiException> _expectedExceptionType, String[] expectedOpenCL,
+         boolean _directFieldAccess, boolean _optimizeExpressions, Entrypoint.RangeKind _rangeKind) {
       try {
          // Source source = new Source(_class, new File("src/java"));
          // System.out.println("opencl\n"+source.getOpenCL());
@@ -78,8 +93,9 @@ public class CodeGenJUnitBase {
          // we assume the specified class will have a null constructor
          Object kernelInstance = _class.getConstructor((Class<?>[]) null).newInstance();
 
-         Entrypoint entrypoint = classModel.getEntrypoint("run", kernelInstance instanceof Kernel ? kernelInstance : null);
-         String actual = KernelWriter.writeToString(entrypoint);
+         Entrypoint entrypoint = classModel.getEntrypoint("run", kernelInstance instanceof Kernel ? kernelInstance : null,
+               _rangeKind);
+         String actual = KernelWriter.writeToString(entrypoint, _directFieldAccess, _optimizeExpressions);
 
          if (_expectedExceptionType == null) {
             int matched = 0;
@@ -19,7 +19,7 @@ import org.junit.Test;
 
 public class Access2DIntArrayTest extends com.aparapi.codegen.CodeGenJUnitBase {
     private static final String[] expectedOpenCL = {"typedef struct This_s{\n" +
-        "   __global int *ints;\n" +
+        "   const __global int *ints;\n" +
         "   int ints__javaArrayLength0;\n" +
         "   int ints__javaArrayDimension0;\n" +
         "   int ints__javaArrayLength1;\n" +
@@ -30,7 +30,7 @@ public class Access2DIntArrayTest extends com.aparapi.codegen.CodeGenJUnitBase {
         "   return this->passid;\n" +
         "}\n" +
         "__kernel void run(\n" +
-        "   __global int *ints, \n" +
+        "   const __global int *restrict ints, \n" +
         "   int ints__javaArrayLength0, \n" +
         "   int ints__javaArrayDimension0, \n" +
         "   int ints__javaArrayLength1, \n" +
@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import com.aparapi.Kernel;
+
+public class AccessContiguous2DFloatArray extends Kernel {
+    @Contiguous float[][] matrix = new float[1024][1024];
+
+    public void run() {
+        int gid = getGlobalId();
+        matrix[gid][0] = matrix[gid][1] + matrix[gid].length;
+    }
+}
+/**{OpenCL{
+ typedef struct This_s{
+ __global float *matrix;
+ int matrix__javaArrayLength0;
+ int matrix__javaArrayDimension0;
+ int matrix__javaArrayLength1;
+ int matrix__javaArrayDimension1;
+ int passid;
+ }This;
+ int get_pass_id(This *this){
+ return this->passid;
+ }
+ __kernel void run(
+ __global float *matrix,
+ int passid
+ ){
+ This thisStruct;
+ This* this=&thisStruct;
+ this->matrix = matrix + 8;
+ this->matrix__javaArrayLength0 = ((__global int *)matrix)[0];
+ this->matrix__javaArrayDimension0 = ((__global int *)matrix)[3];
+ this->matrix__javaArrayLength1 = ((__global int *)matrix)[1];
+ this->matrix__javaArrayDimension1 = ((__global int *)matrix)[4];
+ this->passid = passid;
+ {
+ int gid = get_global_id(0);
+ (&this->matrix[gid * this->matrix__javaArrayDimension0])[0]  = (&this->matrix[gid * this->matrix__javaArrayDimension0])[1] + (float)this->matrix__javaArrayLength1;
+ return;
+ }
+ }
+ }OpenCL}**/
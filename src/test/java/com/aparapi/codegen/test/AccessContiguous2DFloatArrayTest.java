@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import org.junit.Test;
+
+public class AccessContiguous2DFloatArrayTest extends com.aparapi.codegen.CodeGenJUnitBase {
+    private static final String[] expectedOpenCL = {
+        "typedef struct This_s{\n" +
+        "   __global float *matrix;\n" +
+        "   int matrix__javaArrayLength0;\n" +
+        "   int matrix__javaArrayDimension0;\n" +
+        "   int matrix__javaArrayLength1;\n" +
+        "   int matrix__javaArrayDimension1;\n" +
+        "   int passid;\n" +
+        "}This;\n" +
+        "int get_pass_id(This *this){\n" +
+        "   return this->passid;\n" +
+        "}\n" +
+        "__kernel void run(\n" +
+        "   __global float *matrix, \n" +
+        "   int passid\n" +
+        "){\n" +
+        "   This thisStruct;\n" +
+        "   This* this=&thisStruct;\n" +
+        "   this->matrix = matrix + 8;\n" +
+        "   this->matrix__javaArrayLength0 = ((__global int *)matrix)[0];\n" +
+        "   this->matrix__javaArrayDimension0 = ((__global int *)matrix)[3];\n" +
+        "   this->matrix__javaArrayLength1 = ((__global int *)matrix)[1];\n" +
+        "   this->matrix__javaArrayDimension1 = ((__global int *)matrix)[4];\n" +
+        "   this->passid = passid;\n" +
+        "   {\n" +
+        "      int gid = get_global_id(0);\n" +
+        "      (&this->matrix[gid * this->matrix__javaArrayDimension0])[0]  = (&this->matrix[gid * this->matrix__javaArrayDimension0])[1] + (float)this->matrix__javaArrayLength1;\n" +
+        "      return;\n" +
+        "   }\n" +
+        "}\n"};
+    private static final Class<? extends com.aparapi.internal.exception.AparapiException> expectedException = null;
+
+    @Test
+    public void AccessContiguous2DFloatArrayTest() {
+        test(com.aparapi.codegen.test.AccessContiguous2DFloatArray.class, expectedException, expectedOpenCL);
+    }
+
+    @Test
+    public void AccessContiguous2DFloatArrayTestWorksWithCaching() {
+        test(com.aparapi.codegen.test.AccessContiguous2DFloatArray.class, expectedException, expectedOpenCL);
+    }
+}
@@ -19,24 +19,24 @@ import org.junit.Test;
 
 public class AccessNested2DIntArrayTest extends com.aparapi.codegen.CodeGenJUnitBase {
     private static final String[] expectedOpenCL = {"typedef struct This_s{\n" +
-        "   __global int *ints;\n" +
+        "   const __global int *ints;\n" +
         "   int ints__javaArrayLength0;\n" +
         "   int ints__javaArrayDimension0;\n" +
         "   int ints__javaArrayLength1;\n" +
         "   int ints__javaArrayDimension1;\n" +
-        "   __global int *indices;\n" +
+        "   const __global int *indices;\n" +
         "   int passid;\n" +
         "}This;\n" +
         "int get_pass_id(This *this){\n" +
         "   return this->passid;\n" +
         "}\n" +
         "__kernel void run(\n" +
-        "   __global int *ints, \n" +
+        "   const __global int *restrict ints, \n" +
         "   int ints__javaArrayLength0, \n" +
         "   int ints__javaArrayDimension0, \n" +
         "   int ints__javaArrayLength1, \n" +
         "   int ints__javaArrayDimension1, \n" +
-        "   __global int *indices, \n" +
+        "   const __global int *restrict indices, \n" +
         "   int passid\n" +
         "){\n" +
         "   This thisStruct;\n" +
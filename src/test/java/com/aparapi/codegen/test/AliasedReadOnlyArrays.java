@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import com.aparapi.Kernel;
+
+public class AliasedReadOnlyArrays extends Kernel {
+    float[] in = new float[1024];
+
+    float[] sameIn = in;
+
+    float[] other = new float[1024];
+
+    final float[] out = new float[1024];
+
+    public void run() {
+        int gid = getGlobalId();
+        out[gid] = in[gid] + sameIn[gid] + other[gid];
+    }
+}
+/**{OpenCL{
+ typedef struct This_s{
+ __global float *out;
+ const __global float *in;
+ const __global float *sameIn;
+ const __global float *other;
+ int passid;
+ }This;
+ int get_pass_id(This *this){
+ return this->passid;
+ }
+ __kernel void run(
+ __global float *out,
+ const __global float *in,
+ const __global float *sameIn,
+ const __global float *restrict other,
+ int passid
+ ){
+ This thisStruct;
+ This* this=&thisStruct;
+ this->out = out;
+ this->in = in;
+ this->sameIn = sameIn;
+ this->other = other;
+ this->passid = passid;
+ {
+ int gid = get_global_id(0);
+ this->out[gid]  = (this->in[gid] + this->sameIn[gid]) + this->other[gid];
+ return;
+ }
+ }
+ }OpenCL}**/
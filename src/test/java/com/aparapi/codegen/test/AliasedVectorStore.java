@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import com.aparapi.Kernel;
+
+public class AliasedVectorStore extends Kernel {
+    float[] in = new float[1024];
+    float[] out = in;
+    float[] other = new float[1024];
+    float[] result = new float[1024];
+    float scale = 2f;
+
+    public void run() {
+        int i = getGlobalId() * 4;
+
+        // out refers to the array in, so each statement reads the element the previous one stored
+        out[i + 1] = in[i + 0] * scale;
+        out[i + 2] = in[i + 1] * scale;
+        out[i + 3] = in[i + 2] * scale;
+        out[i + 4] = in[i + 3] * scale;
+
+        result[i + 0] = other[i + 1] * scale;
+        result[i + 1] = other[i + 2] * scale;
+        result[i + 2] = other[i + 3] * scale;
+        result[i + 3] = other[i + 4] * scale;
+    }
+}
+/**{OpenCL{
+ typedef struct This_s{
+ __global float *out;
+ const __global float *in;
+ float scale;
+ __global float *result;
+ const __global float *other;
+ int passid;
+ }This;
+ int get_pass_id(This *this){
+ return this->passid;
+ }
+ __kernel void run(
+ __global float *out,
+ const __global float *in,
+ float scale,
+ __global float *result,
+ const __global float *restrict other,
+ int passid
+ ){
+ This thisStruct;
+ This* this=&thisStruct;
+ this->out = out;
+ this->in = in;
+ this->scale = scale;
+ this->result = result;
+ this->other = other;
+ this->passid = passid;
+ {
+ int i = get_global_id(0) * 4;
+ this->out[i + 1]  = this->in[(i + 0)] * this->scale;
+ this->out[i + 2]  = this->in[(i + 1)] * this->scale;
+ this->out[i + 3]  = this->in[(i + 2)] * this->scale;
+ this->out[i + 4]  = this->in[(i + 3)] * this->scale;
+ vstore4(vload4(0, &this->other[(i + 1)]) * this->scale, 0, &this->result[i + 0]);
+ return;
+ }
+ }
+ }OpenCL}**/
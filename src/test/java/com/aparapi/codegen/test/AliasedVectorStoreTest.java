@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import org.junit.Test;
+
+public class AliasedVectorStoreTest extends com.aparapi.codegen.CodeGenJUnitBase {
+    private static final String[] expectedOpenCL = {
+        "typedef struct This_s{\n" +
+        "   __global float *out;\n" +
+        "   const __global float *in;\n" +
+        "   float scale;\n" +
+        "   __global float *result;\n" +
+        "   const __global float *other;\n" +
+        "   int passid;\n" +
+        "}This;\n" +
+        "int get_pass_id(This *this){\n" +
+        "   return this->passid;\n" +
+        "}\n" +
+        "__kernel void run(\n" +
+        "   __global float *out, \n" +
+        "   const __global float *in, \n" +
+        "   float scale, \n" +
+        "   __global float *result, \n" +
+        "   const __global float *restrict other, \n" +
+        "   int passid\n" +
+        "){\n" +
+        "   This thisStruct;\n" +
+        "   This* this=&thisStruct;\n" +
+        "   this->out = out;\n" +
+        "   this->in = in;\n" +
+        "   this->scale = scale;\n" +
+        "   this->result = result;\n" +
+        "   this->other = other;\n" +
+        "   this->passid = passid;\n" +
+        "   {\n" +
+        "      int i = get_global_id(0) * 4;\n" +
+        "      this->out[i + 1]  = this->in[(i + 0)] * this->scale;\n" +
+        "      this->out[i + 2]  = this->in[(i + 1)] * this->scale;\n" +
+        "      this->out[i + 3]  = this->in[(i + 2)] * this->scale;\n" +
+        "      this->out[i + 4]  = this->in[(i + 3)] * this->scale;\n" +
+        "      vstore4(vload4(0, &this->other[(i + 1)]) * this->scale, 0, &this->result[i + 0]);\n" +
+        "      return;\n" +
+        "   }\n" +
+        "}\n"};
+    private static final Class<? extends com.aparapi.internal.exception.AparapiException> expectedException = null;
+
+    @Test
+    public void AliasedVectorStoreTest() {
+        test(com.aparapi.codegen.test.AliasedVectorStore.class, expectedException, expectedOpenCL, false, true);
+    }
+
+    @Test
+    public void AliasedVectorStoreTestWorksWithCaching() {
+        test(com.aparapi.codegen.test.AliasedVectorStore.class, expectedException, expectedOpenCL, false, true);
+    }
+}
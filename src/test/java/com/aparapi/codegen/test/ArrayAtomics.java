@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import com.aparapi.Kernel;
+
+public class ArrayAtomics extends Kernel {
+    float[] sums = new float[16];
+    int[] maxima = new int[16];
+    long[] locks = new long[16];
+    double[] minima = new double[16];
+    float[] values = new float[1024];
+
+    public void run() {
+        int gid = getGlobalId();
+        int bin = gid & 15;
+        atomicAdd(sums, bin, values[gid]);
+        atomicMax(maxima, bin, gid);
+        atomicCmpXchg(locks, bin, 0L, gid);
+        atomicMin(minima, bin, values[gid]);
+    }
+}
+/**{OpenCL{
+ #pragma OPENCL EXTENSION cl_khr_global_int32_base_atomics : enable
+ #pragma OPENCL EXTENSION cl_khr_global_int32_extended_atomics : enable
+ #pragma OPENCL EXTENSION cl_khr_local_int32_base_atomics : enable
+ #pragma OPENCL EXTENSION cl_khr_local_int32_extended_atomics : enable
+ #pragma OPENCL EXTENSION cl_khr_int64_base_atomics : enable
+ #pragma OPENCL EXTENSION cl_khr_int64_extended_atomics : enable
+ #define atomicGet(p) (*p)
+ #define atomicSet(p, val) (*p=val)
+ int atomicAdd(__global int *_arr, int _index, int _delta){
+ return atomic_add(&_arr[_index], _delta);
+ }
+ #pragma OPENCL EXTENSION cl_khr_fp64 : enable
+ 
+ float atomicAdd_float(__global float *_arr, int _index, float _val){
+ volatile __global int *bits = (volatile __global int *)&_arr[_index];
+ int current = *bits;
+ for (;;){
+ float previous = as_float(current);
+ int next = as_int(previous + _val);
+ int witness = atomic_cmpxchg(bits, current, next);
+ if (witness == current){
+ return previous;
+ }
+ current = witness;
+ }
+ }
+ int atomicMax_int(__global int *_arr, int _index, int _val){
+ return atomic_max(&_arr[_index], _val);
+ }
+ long atomicCmpXchg_long(__global long *_arr, int _index, long _expectedVal, long _newVal){
+ return atom_cmpxchg(&_arr[_index], _expectedVal, _newVal);
+ }
+ double atomicMin_double(__global double *_arr, int _index, double _val){
+ volatile __global long *bits = (volatile __global long *)&_arr[_index];
+ long current = *bits;
+ for (;;){
+ double previous = as_double(current);
+ if (!(_val < previous)){
+ return previous;
+ }
+ long next = as_long(_val);
+ long witness = atom_cmpxchg(bits, current, next);
+ if (witness == current){
+ return previous;
+ }
+ current = witness;
+ }
+ }
+ typedef struct This_s{
+ __global float *sums;
+ const __global float *values;
+ __global int *maxima;
+ __global long *locks;
+ __global double *minima;
+ int passid;
+ }This;
+ int get_pass_id(This *this){
+ return this->passid;
+ }
+ __kernel void run(
+ __global float *sums,
+ const __global float *restrict values,
+ __global int *maxima,
+ __global long *locks,
+ __global double *minima,
+ int passid
+ ){
+ This thisStruct;
+ This* this=&thisStruct;
+ this->sums = sums;
+ this->values = values;
+ this->maxima = maxima;
+ this->locks = locks;
+ this->minima = minima;
+ this->passid = passid;
+ {
+ int gid = get_global_id(0);
+ int bin = gid & 15;
+ atomicAdd_float(this->sums, bin, this->values[gid]);
+ atomicMax_int(this->maxima, bin, gid);
+ atomicCmpXchg_long(this->locks, bin, 0L, (long)gid);
+ atomicMin_double(this->minima, bin, (double)this->values[gid]);
+ return;
+ }
+ }
+ }OpenCL}**/
@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import org.junit.Test;
+
+public class ArrayAtomicsTest extends com.aparapi.codegen.CodeGenJUnitBase {
+    private static final String[] expectedOpenCL = {
+        "#pragma OPENCL EXTENSION cl_khr_global_int32_base_atomics : enable\n" +
+        "#pragma OPENCL EXTENSION cl_khr_global_int32_extended_atomics : enable\n" +
+        "#pragma OPENCL EXTENSION cl_khr_local_int32_base_atomics : enable\n" +
+        "#pragma OPENCL EXTENSION cl_khr_local_int32_extended_atomics : enable\n" +
+        "#pragma OPENCL EXTENSION cl_khr_int64_base_atomics : enable\n" +
+        "#pragma OPENCL EXTENSION cl_khr_int64_extended_atomics : enable\n" +
+        "#define atomicGet(p) (*p)\n" +
+        "#define atomicSet(p, val) (*p=val)\n" +
+        "int atomicAdd(__global int *_arr, int _index, int _delta){\n" +
+        "   return atomic_add(&_arr[_index], _delta);\n" +
+        "}\n" +
+        "#pragma OPENCL EXTENSION cl_khr_fp64 : enable\n" +
+        "\n" +
+        "float atomicAdd_float(__global float *_arr, int _index, float _val){\n" +
+        "   volatile __global int *bits = (volatile __global int *)&_arr[_index];\n" +
+        "   int current = *bits;\n" +
+        "   for (;;){\n" +
+        "      float previous = as_float(current);\n" +
+        "      int next = as_int(previous + _val);\n" +
+        "      int witness = atomic_cmpxchg(bits, current, next);\n" +
+        "      if (witness == current){\n" +
+        "         return previous;\n" +
+        "      }\n" +
+        "      current = witness;\n" +
+        "   }\n" +
+        "}\n" +
+        "int atomicMax_int(__global int *_arr, int _index, int _val){\n" +
+        "   return atomic_max(&_arr[_index], _val);\n" +
+        "}\n" +
+        "long atomicCmpXchg_long(__global long *_arr, int _index, long _expectedVal, long _newVal){\n" +
+        "   return atom_cmpxchg(&_arr[_index], _expectedVal, _newVal);\n" +
+        "}\n" +
+        "double atomicMin_double(__global double *_arr, int _index, double _val){\n" +
+        "   volatile __global long *bits = (volatile __global long *)&_arr[_index];\n" +
+        "   long current = *bits;\n" +
+        "   for (;;){\n" +
+        "      double previous = as_double(current);\n" +
+        "      if (!(_val < previous)){\n" +
+        "         return previous;\n" +
+        "      }\n" +
+        "      long next = as_long(_val);\n" +
+        "      long witness = atom_cmpxchg(bits, current, next);\n" +
+        "      if (witness == current){\n" +
+        "         return previous;\n" +
+        "      }\n" +
+        "      current = witness;\n" +
+        "   }\n" +
+        "}\n" +
+        "typedef struct This_s{\n" +
+        "   __global float *sums;\n" +
+        "   const __global float *values;\n" +
+        "   __global int *maxima;\n" +
+        "   __global long *locks;\n" +
+        "   __global double *minima;\n" +
+        "   int passid;\n" +
+        "}This;\n" +
+        "int get_pass_id(This *this){\n" +
+        "   return this->passid;\n" +
+        "}\n" +
+        "__kernel void run(\n" +
+        "   __global float *sums, \n" +
+        "   const __global float *restrict values, \n" +
+        "   __global int *maxima, \n" +
+        "   __global long *locks, \n" +
+        "   __global double *minima, \n" +
+        "   int passid\n" +
+        "){\n" +
+        "   This thisStruct;\n" +
+        "   This* this=&thisStruct;\n" +
+        "   this->sums = sums;\n" +
+        "   this->values = values;\n" +
+        "   this->maxima = maxima;\n" +
+        "   this->locks = locks;\n" +
+        "   this->minima = minima;\n" +
+        "   this->passid = passid;\n" +
+        "   {\n" +
+        "      int gid = get_global_id(0);\n" +
+        "      int bin = gid & 15;\n" +
+        "      atomicAdd_float(this->sums, bin, this->values[gid]);\n" +
+        "      atomicMax_int(this->maxima, bin, gid);\n" +
+        "      atomicCmpXchg_long(this->locks, bin, 0L, (long)gid);\n" +
+        "      atomicMin_double(this->minima, bin, (double)this->values[gid]);\n" +
+        "      return;\n" +
+        "   }\n" +
+        "}\n"};
+    private static final Class<? extends com.aparapi.internal.exception.AparapiException> expectedException = null;
+
+    @Test
+    public void ArrayAtomicsTest() {
+        test(com.aparapi.codegen.test.ArrayAtomics.class, expectedException, expectedOpenCL);
+    }
+
+    @Test
+    public void ArrayAtomicsTestWorksWithCaching() {
+        test(com.aparapi.codegen.test.ArrayAtomics.class, expectedException, expectedOpenCL);
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import com.aparapi.Kernel;
+
+public class BitArrays extends Kernel {
+    long[] frontier = new long[16];
+    long[] visited = new long[16];
+    long[] next = new long[16];
+    int[] claimed = new int[1024];
+
+    public void run() {
+        int gid = getGlobalId();
+        if (getBit(frontier, gid)) {
+            clearBit(next, gid);
+            if (!atomicSetBit(visited, gid + 1)) {
+                setBit(next, gid + 1);
+                claimed[gid] = 1;
+            }
+        }
+    }
+}
+/**{OpenCL{
+ #pragma OPENCL EXTENSION cl_khr_int64_base_atomics : enable
+ #pragma OPENCL EXTENSION cl_khr_int64_extended_atomics : enable
+ #define atomicGet(p) (*p)
+ #define atomicSet(p, val) (*p=val)
+ int atomicAdd(__global int *_arr, int _index, int _delta){
+ return atomic_add(&_arr[_index], _delta);
+ }
+ char bits_get(__global long *_bits, long _index){
+ return (char)((_bits[_index >> 6] >> (_index & 63)) & 1);
+ }
+ void bits_clear(__global long *_bits, long _index){
+ _bits[_index >> 6] &= ~(1L << (_index & 63));
+ }
+ char bits_atomic_set(__global long *_bits, long _index){
+ long mask = 1L << (_index & 63);
+ return (char)((atom_or(&_bits[_index >> 6], mask) & mask) != 0);
+ }
+ void bits_set(__global long *_bits, long _index){
+ _bits[_index >> 6] |= (1L << (_index & 63));
+ }
+ typedef struct This_s{
+ __global long *frontier;
+ __global long *next;
+ __global long *visited;
+ __global int *claimed;
+ int passid;
+ }This;
+ int get_pass_id(This *this){
+ return this->passid;
+ }
+ __kernel void run(
+ __global long *frontier,
+ __global long *next,
+ __global long *visited,
+ __global int *claimed,
+ int passid
+ ){
+ This thisStruct;
+ This* this=&thisStruct;
+ this->frontier = frontier;
+ this->next = next;
+ this->visited = visited;
+ this->claimed = claimed;
+ this->passid = passid;
+ {
+ int gid = get_global_id(0);
+ if (bits_get(this->frontier, (long)gid)!=0){
+ bits_clear(this->next, (long)gid);
+ if (bits_atomic_set(this->visited, (long)(gid + 1))==0){
+ bits_set(this->next, (long)(gid + 1));
+ this->claimed[gid]  = 1;
+ }
+ }
+ return;
+ }
+ }
+ }OpenCL}**/
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import org.junit.Test;
+
+public class BitArraysTest extends com.aparapi.codegen.CodeGenJUnitBase {
+    private static final String[] expectedOpenCL = {
+        "#pragma OPENCL EXTENSION cl_khr_int64_base_atomics : enable\n" +
+        "#pragma OPENCL EXTENSION cl_khr_int64_extended_atomics : enable\n" +
+        "#define atomicGet(p) (*p)\n" +
+        "#define atomicSet(p, val) (*p=val)\n" +
+        "int atomicAdd(__global int *_arr, int _index, int _delta){\n" +
+        "   return atomic_add(&_arr[_index], _delta);\n" +
+        "}\n" +
+        "char bits_get(__global long *_bits, long _index){\n" +
+        "   return (char)((_bits[_index >> 6] >> (_index & 63)) & 1);\n" +
+        "}\n" +
+        "void bits_clear(__global long *_bits, long _index){\n" +
+        "   _bits[_index >> 6] &= ~(1L << (_index & 63));\n" +
+        "}\n" +
+        "char bits_atomic_set(__global long *_bits, long _index){\n" +
+        "   long mask = 1L << (_index & 63);\n" +
+        "   return (char)((atom_or(&_bits[_index >> 6], mask) & mask) != 0);\n" +
+        "}\n" +
+        "void bits_set(__global long *_bits, long _index){\n" +
+        "   _bits[_index >> 6] |= (1L << (_index & 63));\n" +
+        "}\n" +
+        "typedef struct This_s{\n" +
+        "   __global long *frontier;\n" +
+        "   __global long *next;\n" +
+        "   __global long *visited;\n" +
+        "   __global int *claimed;\n" +
+        "   int passid;\n" +
+        "}This;\n" +
+        "int get_pass_id(This *this){\n" +
+        "   return this->passid;\n" +
+        "}\n" +
+        "__kernel void run(\n" +
+        "   __global long *frontier, \n" +
+        "   __global long *next, \n" +
+        "   __global long *visited, \n" +
+        "   __global int *claimed, \n" +
+        "   int passid\n" +
+        "){\n" +
+        "   This thisStruct;\n" +
+        "   This* this=&thisStruct;\n" +
+        "   this->frontier = frontier;\n" +
+        "   this->next = next;\n" +
+        "   this->visited = visited;\n" +
+        "   this->claimed = claimed;\n" +
+        "   this->passid = passid;\n" +
+        "   {\n" +
+        "      int gid = get_global_id(0);\n" +
+        "      if (bits_get(this->frontier, (long)gid)!=0){\n" +
+        "         bits_clear(this->next, (long)gid);\n" +
+        "         if (bits_atomic_set(this->visited, (long)(gid + 1))==0){\n" +
+        "            bits_set(this->next, (long)(gid + 1));\n" +
+        "            this->claimed[gid]  = 1;\n" +
+        "         }\n" +
+        "      }\n" +
+        "      return;\n" +
+        "   }\n" +
+        "}\n"};
+    private static final Class<? extends com.aparapi.internal.exception.AparapiException> expectedException = null;
+
+    @Test
+    public void BitArraysTest() {
+        test(com.aparapi.codegen.test.BitArrays.class, expectedException, expectedOpenCL);
+    }
+
+    @Test
+    public void BitArraysTestWorksWithCaching() {
+        test(com.aparapi.codegen.test.BitArrays.class, expectedException, expectedOpenCL);
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import com.aparapi.Kernel;
+
+public class DirectFieldAccess extends Kernel {
+    float[] in = new float[1024];
+
+    float[] out = new float[1024];
+
+    float scale = 2f;
+
+    int[][] offsets = new int[32][32];
+
+    float scaled(int i) {
+        return in[i % in.length] * scale;
+    }
+
+    float shifted(int i) {
+        return scaled(i) + offsets[i % 32][getPassId()];
+    }
+
+    float one() {
+        return 1f;
+    }
+
+    public void run() {
+        int gid = getGlobalId();
+        out[gid] = shifted(gid) + one();
+    }
+}
+/**{OpenCL{
+ float com_aparapi_codegen_test_DirectFieldAccess__scaled(const __global float *in, int in__javaArrayLength, float scale, int i){
+ return((in[(i % in__javaArrayLength)] * scale));
+ }
+ float com_aparapi_codegen_test_DirectFieldAccess__one(){
+ return(1.0f);
+ }
+ float com_aparapi_codegen_test_DirectFieldAccess__shifted(const __global float *in, int in__javaArrayLength, float scale, const __global int *offsets, int offsets__javaArrayDimension0, int passid, int i){
+ return((com_aparapi_codegen_test_DirectFieldAccess__scaled(in, in__javaArrayLength, scale, i) + (float)(&offsets[(i % 32) * offsets__javaArrayDimension0])[passid]));
+ }
+ __kernel void run(
+ const __global float *restrict in,
+ int in__javaArrayLength,
+ float scale,
+ const __global int *restrict offsets,
+ int offsets__javaArrayLength0,
+ int offsets__javaArrayDimension0,
+ int offsets__javaArrayLength1,
+ int offsets__javaArrayDimension1,
+ __global float *out,
+ int passid
+ ){
+ {
+ int gid = get_global_id(0);
+ out[gid]  = com_aparapi_codegen_test_DirectFieldAccess__shifted(in, in__javaArrayLength, scale, offsets, offsets__javaArrayDimension0, passid, gid) + com_aparapi_codegen_test_DirectFieldAccess__one();
+ return;
+ }
+ }
+ }OpenCL}**/
@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import com.aparapi.Kernel;
+
+public class DirectFieldAccessShadowed extends Kernel {
+    float[] out = new float[1024];
+
+    float scale = 2f;
+
+    public void run() {
+        int gid = getGlobalId();
+        // a local named like a field would hide the kernel argument, so the This struct is kept
+        float scale = this.scale * 2f;
+        out[gid] = scale;
+    }
+}
+/**{OpenCL{
+ typedef struct This_s{
+ float scale;
+ __global float *out;
+ int passid;
+ }This;
+ int get_pass_id(This *this){
+ return this->passid;
+ }
+ __kernel void run(
+ float scale,
+ __global float *out,
+ int passid
+ ){
+ This thisStruct;
+ This* this=&thisStruct;
+ this->scale = scale;
+ this->out = out;
+ this->passid = passid;
+ {
+ int gid = get_global_id(0);
+ float scale = this->scale * 2.0f;
+ this->out[gid]  = scale;
+ return;
+ }
+ }
+ }OpenCL}**/
@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import org.junit.Test;
+
+public class DirectFieldAccessShadowedTest extends com.aparapi.codegen.CodeGenJUnitBase {
+    private static final String[] expectedOpenCL = {
+        "typedef struct This_s{\n" +
+        "   float scale;\n" +
+        "   __global float *out;\n" +
+        "   int passid;\n" +
+        "}This;\n" +
+        "int get_pass_id(This *this){\n" +
+        "   return this->passid;\n" +
+        "}\n" +
+        "__kernel void run(\n" +
+        "   float scale, \n" +
+        "   __global float *out, \n" +
+        "   int passid\n" +
+        "){\n" +
+        "   This thisStruct;\n" +
+        "   This* this=&thisStruct;\n" +
+        "   this->scale = scale;\n" +
+        "   this->out = out;\n" +
+        "   this->passid = passid;\n" +
+        "   {\n" +
+        "      int gid = get_global_id(0);\n" +
+        "      float scale = this->scale * 2.0f;\n" +
+        "      this->out[gid]  = scale;\n" +
+        "      return;\n" +
+        "   }\n" +
+        "}\n"};
+    private static final Class<? extends com.aparapi.internal.exception.AparapiException> expectedException = null;
+
+    @Test
+    public void DirectFieldAccessShadowedTest() {
+        test(com.aparapi.codegen.test.DirectFieldAccessShadowed.class, expectedException, expectedOpenCL, true);
+    }
+
+    @Test
+    public void DirectFieldAccessShadowedTestWorksWithCaching() {
+        test(com.aparapi.codegen.test.DirectFieldAccessShadowed.class, expectedException, expectedOpenCL, true);
+    }
+}
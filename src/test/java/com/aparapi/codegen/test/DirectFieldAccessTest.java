@@ -0,0 +1,60 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import org.junit.Test;
+
+public class DirectFieldAccessTest extends com.aparapi.codegen.CodeGenJUnitBase {
+    private static final String[] expectedOpenCL = {
+        "float com_aparapi_codegen_test_DirectFieldAccess__scaled(const __global float *in, int in__javaArrayLength, float scale, int i){\n" +
+        "   return((in[(i % in__javaArrayLength)] * scale));\n" +
+        "}\n" +
+        "float com_aparapi_codegen_test_DirectFieldAccess__one(){\n" +
+        "   return(1.0f);\n" +
+        "}\n" +
+        "float com_aparapi_codegen_test_DirectFieldAccess__shifted(const __global float *in, int in__javaArrayLength, float scale, const __global int *offsets, int offsets__javaArrayDimension0, int passid, int i){\n" +
+        "   return((com_aparapi_codegen_test_DirectFieldAccess__scaled(in, in__javaArrayLength, scale, i) + (float)(&offsets[(i % 32) * offsets__javaArrayDimension0])[passid]));\n" +
+        "}\n" +
+        "__kernel void run(\n" +
+        "   const __global float *restrict in, \n" +
+        "   int in__javaArrayLength, \n" +
+        "   float scale, \n" +
+        "   const __global int *restrict offsets, \n" +
+        "   int offsets__javaArrayLength0, \n" +
+        "   int offsets__javaArrayDimension0, \n" +
+        "   int offsets__javaArrayLength1, \n" +
+        "   int offsets__javaArrayDimension1, \n" +
+        "   __global float *out, \n" +
+        "   int passid\n" +
+        "){\n" +
+        "   {\n" +
+        "      int gid = get_global_id(0);\n" +
+        "      out[gid]  = com_aparapi_codegen_test_DirectFieldAccess__shifted(in, in__javaArrayLength, scale, offsets, offsets__javaArrayDimension0, passid, gid) + com_aparapi_codegen_test_DirectFieldAccess__one();\n" +
+        "      return;\n" +
+        "   }\n" +
+        "}\n"};
+    private static final Class<? extends com.aparapi.internal.exception.AparapiException> expectedException = null;
+
+    @Test
+    public void DirectFieldAccessTest() {
+        test(com.aparapi.codegen.test.DirectFieldAccess.class, expectedException, expectedOpenCL, true);
+    }
+
+    @Test
+    public void DirectFieldAccessTestWorksWithCaching() {
+        test(com.aparapi.codegen.test.DirectFieldAccess.class, expectedException, expectedOpenCL, true);
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import com.aparapi.Kernel;
+
+public class ExpressionOptimizations extends Kernel {
+    final int width;
+    final int height;
+    final float scale;
+    int taps = 4;
+    float[] in = new float[64 * 32];
+    float[] out = new float[64 * 32];
+
+    public ExpressionOptimizations() {
+        width = 64;
+        height = 32;
+        scale = 0.5f;
+    }
+
+    public void run() {
+        int x = getGlobalId(0);
+        int y = getGlobalId(1);
+        float sum = 0f;
+        for (int i = 0; i < taps * 2; i++) {
+            sum += in[(y * width + x + i) % (width * height)] * scale;
+        }
+        out[y * width + x] = sum + in[y * width + x];
+    }
+}
+/**{OpenCL{
+ typedef struct This_s{
+ int taps;
+ const __global float *in;
+ int width;
+ int height;
+ float scale;
+ __global float *out;
+ int passid;
+ }This;
+ int get_pass_id(This *this){
+ return this->passid;
+ }
+ __kernel void run(
+ int taps,
+ const __global float *restrict in,
+ int width,
+ int height,
+ float scale,
+ __global float *out,
+ int passid
+ ){
+ This thisStruct;
+ This* this=&thisStruct;
+ this->taps = taps;
+ this->in = in;
+ this->width = width;
+ this->height = height;
+ this->scale = scale;
+ this->out = out;
+ this->passid = passid;
+ {
+ int x = get_global_id(0);
+ int y = get_global_id(1);
+ float sum = 0.0f;
+ const int hoisted__0 = this->taps * 2;
+ const int hoisted__1 = (y * 64) + x;
+ for (int i = 0; i<hoisted__0; i++){
+ sum = sum + (this->in[((hoisted__1 + i) % 2048)] * 0.5f);
+ }
+ const int hoisted__2 = (y * 64) + x;
+ this->out[hoisted__2]  = sum + this->in[hoisted__2];
+ return;
+ }
+ }
+ }OpenCL}**/
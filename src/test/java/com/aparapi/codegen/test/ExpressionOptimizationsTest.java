@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import org.junit.Test;
+
+public class ExpressionOptimizationsTest extends com.aparapi.codegen.CodeGenJUnitBase {
+    private static final String[] expectedOpenCL = {
+        "typedef struct This_s{\n" +
+        "   int taps;\n" +
+        "   const __global float *in;\n" +
+        "   int width;\n" +
+        "   int height;\n" +
+        "   float scale;\n" +
+        "   __global float *out;\n" +
+        "   int passid;\n" +
+        "}This;\n" +
+        "int get_pass_id(This *this){\n" +
+        "   return this->passid;\n" +
+        "}\n" +
+        "__kernel void run(\n" +
+        "   int taps, \n" +
+        "   const __global float *restrict in, \n" +
+        "   int width, \n" +
+        "   int height, \n" +
+        "   float scale, \n" +
+        "   __global float *out, \n" +
+        "   int passid\n" +
+        "){\n" +
+        "   This thisStruct;\n" +
+        "   This* this=&thisStruct;\n" +
+        "   this->taps = taps;\n" +
+        "   this->in = in;\n" +
+        "   this->width = width;\n" +
+        "   this->height = height;\n" +
+        "   this->scale = scale;\n" +
+        "   this->out = out;\n" +
+        "   this->passid = passid;\n" +
+        "   {\n" +
+        "      int x = get_global_id(0);\n" +
+        "      int y = get_global_id(1);\n" +
+        "      float sum = 0.0f;\n" +
+        "      const int hoisted__0 = this->taps * 2;\n" +
+        "      const int hoisted__1 = (y * 64) + x;\n" +
+        "      for (int i = 0; i<hoisted__0; i++){\n" +
+        "         sum = sum + (this->in[((hoisted__1 + i) % 2048)] * 0.5f);\n" +
+        "      }\n" +
+        "      const int hoisted__2 = (y * 64) + x;\n" +
+        "      this->out[hoisted__2]  = sum + this->in[hoisted__2];\n" +
+        "      return;\n" +
+        "   }\n" +
+        "}\n"};
+    private static final Class<? extends com.aparapi.internal.exception.AparapiException> expectedException = null;
+
+    @Test
+    public void ExpressionOptimizationsTest() {
+        test(com.aparapi.codegen.test.ExpressionOptimizations.class, expectedException, expectedOpenCL, false, true);
+    }
+
+    @Test
+    public void ExpressionOptimizationsTestWorksWithCaching() {
+        test(com.aparapi.codegen.test.ExpressionOptimizations.class, expectedException, expectedOpenCL, false, true);
+    }
+}
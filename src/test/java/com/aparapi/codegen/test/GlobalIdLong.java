@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import com.aparapi.Kernel;
+
+public class GlobalIdLong extends Kernel {
+
+    final long[] values = new long[1024];
+
+    @Override
+    public void run() {
+        final long id = getGlobalIdLong();
+        values[(int) (id % values.length)] = getGlobalSizeLong() - id;
+    }
+}
+/**{OpenCL{
+ typedef struct This_s{
+ __global long *values;
+ int values__javaArrayLength;
+ int passid;
+ }This;
+ int get_pass_id(This *this){
+ return this->passid;
+ }
+ __kernel void run(
+ __global long *values,
+ int values__javaArrayLength,
+ int passid
+ ){
+ This thisStruct;
+ This* this=&thisStruct;
+ this->values = values;
+ this->values__javaArrayLength = values__javaArrayLength;
+ this->passid = passid;
+ {
+ long id = get_global_id(0);
+ this->values[(int)(id % (long)this->values__javaArrayLength)]  = get_global_size(0) - id;
+ return;
+ }
+ }
+ }OpenCL}**/
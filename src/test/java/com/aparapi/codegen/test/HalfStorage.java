@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import com.aparapi.Kernel;
+
+public class HalfStorage extends Kernel {
+    short[] in = new short[1024];
+    short[] out = new short[1024];
+    float scale = 0.5f;
+
+    public void run() {
+        int gid = getGlobalId();
+        storeHalf(out, gid, loadHalf(in, gid) * scale);
+    }
+}
+/**{OpenCL{
+ typedef struct This_s{
+ __global short *out;
+ const __global short *in;
+ float scale;
+ int passid;
+ }This;
+ int get_pass_id(This *this){
+ return this->passid;
+ }
+ __kernel void run(
+ __global short *out,
+ const __global short *restrict in,
+ float scale,
+ int passid
+ ){
+ This thisStruct;
+ This* this=&thisStruct;
+ this->out = out;
+ this->in = in;
+ this->scale = scale;
+ this->passid = passid;
+ {
+ int gid = get_global_id(0);
+ vstore_half((vload_half(gid, (const __global half *)this->in) * this->scale), gid, (__global half *)this->out);
+ return;
+ }
+ }
+ }OpenCL}**/
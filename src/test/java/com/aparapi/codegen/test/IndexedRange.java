@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import com.aparapi.Kernel;
+
+public class IndexedRange extends Kernel {
+    int[] in = new int[1024];
+    int[] out = new int[1024];
+
+    int neighbour(int dim) {
+        return in[getGlobalId(dim) + 1];
+    }
+
+    public void run() {
+        int gid = getGlobalId();
+        out[gid] = in[getGlobalId(0)] + neighbour(0) + getGlobalSize();
+    }
+}
+/**{OpenCL{
+ typedef struct This_s{
+ const __global int *in;
+ __global int *out;
+ const __global int *rangeIndices;
+ int passid;
+ }This;
+ int get_pass_id(This *this){
+ return this->passid;
+ }
+ int com_aparapi_codegen_test_IndexedRange__neighbour(This *this, int dim){
+ return(this->in[(((dim) == 0 ? this->rangeIndices[get_global_id(0)] : get_global_id(dim)) + 1)]);
+ }
+ __kernel void run(
+ const __global int *restrict in,
+ __global int *out,
+ const __global int *restrict rangeIndices,
+ int passid
+ ){
+ This thisStruct;
+ This* this=&thisStruct;
+ this->in = in;
+ this->out = out;
+ this->rangeIndices = rangeIndices;
+ this->passid = passid;
+ {
+ int gid = this->rangeIndices[get_global_id(0)];
+ this->out[gid]  = (this->in[this->rangeIndices[get_global_id(0)]] + com_aparapi_codegen_test_IndexedRange__neighbour(this, 0)) + get_global_size(0);
+ return;
+ }
+ }
+ }OpenCL}**/
@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import org.junit.Test;
+
+public class IndexedRangeTest extends com.aparapi.codegen.CodeGenJUnitBase {
+    private static final String[] expectedOpenCL = {
+        "typedef struct This_s{\n" +
+        "   const __global int *in;\n" +
+        "   __global int *out;\n" +
+        "   const __global int *rangeIndices;\n" +
+        "   int passid;\n" +
+        "}This;\n" +
+        "int get_pass_id(This *this){\n" +
+        "   return this->passid;\n" +
+        "}\n" +
+        "int com_aparapi_codegen_test_IndexedRange__neighbour(This *this, int dim){\n" +
+        "   return(this->in[(((dim) == 0 ? this->rangeIndices[get_global_id(0)] : get_global_id(dim)) + 1)]);\n" +
+        "}\n" +
+        "__kernel void run(\n" +
+        "   const __global int *restrict in, \n" +
+        "   __global int *out, \n" +
+        "   const __global int *restrict rangeIndices, \n" +
+        "   int passid\n" +
+        "){\n" +
+        "   This thisStruct;\n" +
+        "   This* this=&thisStruct;\n" +
+        "   this->in = in;\n" +
+        "   this->out = out;\n" +
+        "   this->rangeIndices = rangeIndices;\n" +
+        "   this->passid = passid;\n" +
+        "   {\n" +
+        "      int gid = this->rangeIndices[get_global_id(0)];\n" +
+        "      this->out[gid]  = (this->in[this->rangeIndices[get_global_id(0)]] + com_aparapi_codegen_test_IndexedRange__neighbour(this, 0)) + get_global_size(0);\n" +
+        "      return;\n" +
+        "   }\n" +
+        "}\n"};
+    private static final Class<? extends com.aparapi.internal.exception.AparapiException> expectedException = null;
+
+    @Test
+    public void IndexedRangeTest() {
+        test(com.aparapi.codegen.test.IndexedRange.class, expectedException, expectedOpenCL, false, false,
+                com.aparapi.internal.model.Entrypoint.RangeKind.INDEXED);
+    }
+
+    @Test
+    public void IndexedRangeTestWorksWithCaching() {
+        test(com.aparapi.codegen.test.IndexedRange.class, expectedException, expectedOpenCL, false, false,
+                com.aparapi.internal.model.Entrypoint.RangeKind.INDEXED);
+    }
+}
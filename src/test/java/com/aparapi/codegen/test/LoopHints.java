@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import com.aparapi.Kernel;
+
+public class LoopHints extends Kernel {
+    float[] in = new float[1024];
+    float[] out = new float[1024];
+
+    @Unroll(2)
+    float sum(int base) {
+        float s = 0f;
+        for (int i = 0; i < 4; i++) {
+            s += in[base + i];
+        }
+        return s;
+    }
+
+    @WorkGroupSize(x = 64)
+    @VecTypeHint("float4")
+    public void run() {
+        int gid = getGlobalId();
+        float acc = 0f;
+        unroll(8);
+        for (int i = 0; i < 16; i++) {
+            acc += in[(gid + i) % 1024];
+        }
+        unroll();
+        for (int j = 0; j < 4; j++) {
+            acc *= 0.5f;
+        }
+        out[gid] = acc + sum(gid);
+    }
+}
+/**{OpenCL{
+ typedef struct This_s{
+ const __global float *in;
+ __global float *out;
+ int passid;
+ }This;
+ int get_pass_id(This *this){
+ return this->passid;
+ }
+ float com_aparapi_codegen_test_LoopHints__sum(This *this, int base){
+ float s = 0.0f;
+ #pragma unroll 2
+ for (int i = 0; i<4; i++){
+ s = s + this->in[(base + i)];
+ }
+ return(s);
+ }
+ __kernel __attribute__((reqd_work_group_size(64, 1, 1))) __attribute__((vec_type_hint(float4))) void run(
+ const __global float *restrict in,
+ __global float *out,
+ int passid
+ ){
+ This thisStruct;
+ This* this=&thisStruct;
+ this->in = in;
+ this->out = out;
+ this->passid = passid;
+ {
+ int gid = get_global_id(0);
+ float acc = 0.0f;
+ #pragma unroll 8
+ for (int i = 0; i<16; i++){
+ acc = acc + this->in[((gid + i) % 1024)];
+ }
+ #pragma unroll
+ for (int j = 0; j<4; j++){
+ acc = acc * 0.5f;
+ }
+ this->out[gid]  = acc + com_aparapi_codegen_test_LoopHints__sum(this, gid);
+ return;
+ }
+ }
+ }OpenCL}**/
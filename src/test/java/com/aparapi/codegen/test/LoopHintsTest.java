@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import org.junit.Test;
+
+public class LoopHintsTest extends com.aparapi.codegen.CodeGenJUnitBase {
+    private static final String[] expectedOpenCL = {
+        "typedef struct This_s{\n" +
+        "   const __global float *in;\n" +
+        "   __global float *out;\n" +
+        "   int passid;\n" +
+        "}This;\n" +
+        "int get_pass_id(This *this){\n" +
+        "   return this->passid;\n" +
+        "}\n" +
+        "float com_aparapi_codegen_test_LoopHints__sum(This *this, int base){\n" +
+        "   float s = 0.0f;\n" +
+        "   #pragma unroll 2\n" +
+        "   for (int i = 0; i<4; i++){\n" +
+        "      s = s + this->in[(base + i)];\n" +
+        "   }\n" +
+        "   return(s);\n" +
+        "}\n" +
+        "__kernel __attribute__((reqd_work_group_size(64, 1, 1))) __attribute__((vec_type_hint(float4))) void run(\n" +
+        "   const __global float *restrict in, \n" +
+        "   __global float *out, \n" +
+        "   int passid\n" +
+        "){\n" +
+        "   This thisStruct;\n" +
+        "   This* this=&thisStruct;\n" +
+        "   this->in = in;\n" +
+        "   this->out = out;\n" +
+        "   this->passid = passid;\n" +
+        "   {\n" +
+        "      int gid = get_global_id(0);\n" +
+        "      float acc = 0.0f;\n" +
+        "      #pragma unroll 8\n" +
+        "      for (int i = 0; i<16; i++){\n" +
+        "         acc = acc + this->in[((gid + i) % 1024)];\n" +
+        "      }\n" +
+        "      #pragma unroll\n" +
+        "      for (int j = 0; j<4; j++){\n" +
+        "         acc = acc * 0.5f;\n" +
+        "      }\n" +
+        "      this->out[gid]  = acc + com_aparapi_codegen_test_LoopHints__sum(this, gid);\n" +
+        "      return;\n" +
+        "   }\n" +
+        "}\n"};
+    private static final Class<? extends com.aparapi.internal.exception.AparapiException> expectedException = null;
+
+    @Test
+    public void LoopHintsTest() {
+        test(com.aparapi.codegen.test.LoopHints.class, expectedException, expectedOpenCL);
+    }
+
+    @Test
+    public void LoopHintsTestWorksWithCaching() {
+        test(com.aparapi.codegen.test.LoopHints.class, expectedException, expectedOpenCL);
+    }
+}
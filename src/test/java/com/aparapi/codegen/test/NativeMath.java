@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import com.aparapi.Kernel;
+
+@Kernel.Precision(Kernel.MathPrecision.NATIVE)
+public class NativeMath extends Kernel {
+    float[] in = new float[1024];
+    float[] out = new float[1024];
+
+    public void run() {
+        int gid = getGlobalId();
+        float x = in[gid];
+        out[gid] = fma(sin(x), exp(x), sqrt(x)) + pow(x, 2f) + abs(x);
+    }
+}
+/**{OpenCL{
+ #pragma OPENCL FP_CONTRACT ON
+ typedef struct This_s{
+ const __global float *in;
+ __global float *out;
+ int passid;
+ }This;
+ int get_pass_id(This *this){
+ return this->passid;
+ }
+ __kernel void run(
+ const __global float *restrict in,
+ __global float *out,
+ int passid
+ ){
+ This thisStruct;
+ This* this=&thisStruct;
+ this->in = in;
+ this->out = out;
+ this->passid = passid;
+ {
+ int gid = get_global_id(0);
+ float x = this->in[gid];
+ this->out[gid]  = (mad(native_sin(x), native_exp(x), native_sqrt(x)) + pow(x, 2.0f)) + fabs(x);
+ return;
+ }
+ }
+ }OpenCL}**/
@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import org.junit.Test;
+
+public class NativeMathTest extends com.aparapi.codegen.CodeGenJUnitBase {
+    private static final String[] expectedOpenCL = {
+        "#pragma OPENCL FP_CONTRACT ON\n" +
+        "typedef struct This_s{\n" +
+        "   const __global float *in;\n" +
+        "   __global float *out;\n" +
+        "   int passid;\n" +
+        "}This;\n" +
+        "int get_pass_id(This *this){\n" +
+        "   return this->passid;\n" +
+        "}\n" +
+        "__kernel void run(\n" +
+        "   const __global float *restrict in, \n" +
+        "   __global float *out, \n" +
+        "   int passid\n" +
+        "){\n" +
+        "   This thisStruct;\n" +
+        "   This* this=&thisStruct;\n" +
+        "   this->in = in;\n" +
+        "   this->out = out;\n" +
+        "   this->passid = passid;\n" +
+        "   {\n" +
+        "      int gid = get_global_id(0);\n" +
+        "      float x = this->in[gid];\n" +
+        "      this->out[gid]  = (mad(native_sin(x), native_exp(x), native_sqrt(x)) + pow(x, 2.0f)) + fabs(x);\n" +
+        "      return;\n" +
+        "   }\n" +
+        "}\n"};
+    private static final Class<? extends com.aparapi.internal.exception.AparapiException> expectedException = null;
+
+    @Test
+    public void NativeMathTest() {
+        test(com.aparapi.codegen.test.NativeMath.class, expectedException, expectedOpenCL);
+    }
+
+    @Test
+    public void NativeMathTestWorksWithCaching() {
+        test(com.aparapi.codegen.test.NativeMath.class, expectedException, expectedOpenCL);
+    }
+}
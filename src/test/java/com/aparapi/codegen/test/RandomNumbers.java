@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import com.aparapi.Kernel;
+
+public class RandomNumbers extends Kernel {
+    float[] uniform = new float[1024];
+    int[] bits = new int[1024];
+    long seed;
+
+    public void run() {
+        int gid = getGlobalId();
+        uniform[gid] = randomFloat(seed, gid);
+        bits[gid] = randomInt(seed, ((long) getPassId() << 32) | gid);
+    }
+}
+/**{OpenCL{
+ uint philox4x32_10(ulong _key, ulong _counter){
+ uint k0 = (uint)_key;
+ uint k1 = (uint)(_key >> 32);
+ uint c0 = (uint)_counter;
+ uint c1 = (uint)(_counter >> 32);
+ uint c2 = 0;
+ uint c3 = 0;
+ for (int round = 0; round < 10; round++){
+ if (round > 0){
+ k0 = k0 + 0x9E3779B9u;
+ k1 = k1 + 0xBB67AE85u;
+ }
+ uint hi0 = mul_hi(0xD2511F53u, c0);
+ uint lo0 = 0xD2511F53u * c0;
+ uint hi1 = mul_hi(0xCD9E8D57u, c2);
+ uint lo1 = 0xCD9E8D57u * c2;
+ c0 = (hi1 ^ c1) ^ k0;
+ c1 = lo1;
+ c2 = (hi0 ^ c3) ^ k1;
+ c3 = lo0;
+ }
+ return c0;
+ }
+ int randomInt(long _key, long _counter){
+ return (int)philox4x32_10((ulong)_key, (ulong)_counter);
+ }
+ float randomFloat(long _key, long _counter){
+ return (float)(philox4x32_10((ulong)_key, (ulong)_counter) >> 8) * 0x1p-24f;
+ }
+ typedef struct This_s{
+ __global float *uniform;
+ long seed;
+ __global int *bits;
+ int passid;
+ }This;
+ int get_pass_id(This *this){
+ return this->passid;
+ }
+ __kernel void run(
+ __global float *uniform,
+ long seed,
+ __global int *bits,
+ int passid
+ ){
+ This thisStruct;
+ This* this=&thisStruct;
+ this->uniform = uniform;
+ this->seed = seed;
+ this->bits = bits;
+ this->passid = passid;
+ {
+ int gid = get_global_id(0);
+ this->uniform[gid]  = randomFloat(this->seed, (long)gid);
+ this->bits[gid]  = randomInt(this->seed, (((long)get_pass_id(this) << 32) | (long)gid));
+ return;
+ }
+ }
+ }OpenCL}**/
@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import org.junit.Test;
+
+public class RandomNumbersTest extends com.aparapi.codegen.CodeGenJUnitBase {
+    private static final String[] expectedOpenCL = {
+        "uint philox4x32_10(ulong _key, ulong _counter){\n" +
+        "   uint k0 = (uint)_key;\n" +
+        "   uint k1 = (uint)(_key >> 32);\n" +
+        "   uint c0 = (uint)_counter;\n" +
+        "   uint c1 = (uint)(_counter >> 32);\n" +
+        "   uint c2 = 0;\n" +
+        "   uint c3 = 0;\n" +
+        "   for (int round = 0; round < 10; round++){\n" +
+        "      if (round > 0){\n" +
+        "         k0 = k0 + 0x9E3779B9u;\n" +
+        "         k1 = k1 + 0xBB67AE85u;\n" +
+        "      }\n" +
+        "      uint hi0 = mul_hi(0xD2511F53u, c0);\n" +
+        "      uint lo0 = 0xD2511F53u * c0;\n" +
+        "      uint hi1 = mul_hi(0xCD9E8D57u, c2);\n" +
+        "      uint lo1 = 0xCD9E8D57u * c2;\n" +
+        "      c0 = (hi1 ^ c1) ^ k0;\n" +
+        "      c1 = lo1;\n" +
+        "      c2 = (hi0 ^ c3) ^ k1;\n" +
+        "      c3 = lo0;\n" +
+        "   }\n" +
+        "   return c0;\n" +
+        "}\n" +
+        "int randomInt(long _key, long _counter){\n" +
+        "   return (int)philox4x32_10((ulong)_key, (ulong)_counter);\n" +
+        "}\n" +
+        "float randomFloat(long _key, long _counter){\n" +
+        "   return (float)(philox4x32_10((ulong)_key, (ulong)_counter) >> 8) * 0x1p-24f;\n" +
+        "}\n" +
+        "typedef struct This_s{\n" +
+        "   __global float *uniform;\n" +
+        "   long seed;\n" +
+        "   __global int *bits;\n" +
+        "   int passid;\n" +
+        "}This;\n" +
+        "int get_pass_id(This *this){\n" +
+        "   return this->passid;\n" +
+        "}\n" +
+        "__kernel void run(\n" +
+        "   __global float *uniform, \n" +
+        "   long seed, \n" +
+        "   __global int *bits, \n" +
+        "   int passid\n" +
+        "){\n" +
+        "   This thisStruct;\n" +
+        "   This* this=&thisStruct;\n" +
+        "   this->uniform = uniform;\n" +
+        "   this->seed = seed;\n" +
+        "   this->bits = bits;\n" +
+        "   this->passid = passid;\n" +
+        "   {\n" +
+        "      int gid = get_global_id(0);\n" +
+        "      this->uniform[gid]  = randomFloat(this->seed, (long)gid);\n" +
+        "      this->bits[gid]  = randomInt(this->seed, (((long)get_pass_id(this) << 32) | (long)gid));\n" +
+        "      return;\n" +
+        "   }\n" +
+        "}\n"};
+    private static final Class<? extends com.aparapi.internal.exception.AparapiException> expectedException = null;
+
+    @Test
+    public void RandomNumbersTest() {
+        test(com.aparapi.codegen.test.RandomNumbers.class, expectedException, expectedOpenCL);
+    }
+
+    @Test
+    public void RandomNumbersTestWorksWithCaching() {
+        test(com.aparapi.codegen.test.RandomNumbers.class, expectedException, expectedOpenCL);
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import com.aparapi.Kernel;
+
+public class ReadOnlyArrayQualifiers extends Kernel {
+    final float[] weights = new float[16];
+
+    final float[] samples = new float[1024 * 1024];
+
+    float[] in = new float[16];
+
+    final float[] out = new float[1024];
+
+    public void run() {
+        int gid = getGlobalId();
+        out[gid] = (in[gid] * weights[gid % 16]) + samples[gid];
+    }
+}
+/**{OpenCL{
+ typedef struct This_s{
+ __global float *out;
+ const __global float *in;
+ __constant float *weights;
+ const __global float *samples;
+ int passid;
+ }This;
+ int get_pass_id(This *this){
+ return this->passid;
+ }
+ __kernel void run(
+ __global float *out,
+ const __global float *restrict in,
+ __constant float *weights,
+ const __global float *restrict samples,
+ int passid
+ ){
+ This thisStruct;
+ This* this=&thisStruct;
+ this->out = out;
+ this->in = in;
+ this->weights = weights;
+ this->samples = samples;
+ this->passid = passid;
+ {
+ int gid = get_global_id(0);
+ this->out[gid]  = (this->in[gid] * this->weights[(gid % 16)]) + this->samples[gid];
+ return;
+ }
+ }
+ }OpenCL}**/
@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import com.aparapi.Kernel;
+
+public class SpecializedFields extends Kernel {
+    @Specialize int radius = 2;
+    @Specialize boolean clamp = true;
+    float[] in = new float[1024];
+    float[] out = new float[1024];
+
+    public void run() {
+        int gid = getGlobalId();
+        float sum = 0f;
+        for (int i = -radius; i <= radius; i++) {
+            int j = gid + i;
+            if (clamp) {
+                j = max(0, min(j, in.length - 1));
+            }
+            sum += in[j];
+        }
+        out[gid] = sum / (2 * radius + 1);
+    }
+}
+/**{OpenCL{
+ #define radius__specialized 2
+ #define clamp__specialized 1
+ typedef struct This_s{
+ int radius;
+ char  clamp;
+ const __global float *in;
+ int in__javaArrayLength;
+ __global float *out;
+ int passid;
+ }This;
+ int get_pass_id(This *this){
+ return this->passid;
+ }
+ __kernel void run(
+ int radius,
+ char  clamp,
+ const __global float *restrict in,
+ int in__javaArrayLength,
+ __global float *out,
+ int passid
+ ){
+ This thisStruct;
+ This* this=&thisStruct;
+ this->radius = radius;
+ this->clamp = clamp;
+ this->in = in;
+ this->in__javaArrayLength = in__javaArrayLength;
+ this->out = out;
+ this->passid = passid;
+ {
+ int gid = get_global_id(0);
+ float sum = 0.0f;
+ for (int i = -radius__specialized; i<=radius__specialized; i++){
+ {
+ int j = gid + i;
+ if (clamp__specialized!=0){
+ j = max(0, min(j, (this->in__javaArrayLength - 1)));
+ }
+ sum = sum + this->in[j];
+ }
+ }
+ this->out[gid]  = sum / (float)((2 * radius__specialized) + 1);
+ return;
+ }
+ }
+ }OpenCL}**/
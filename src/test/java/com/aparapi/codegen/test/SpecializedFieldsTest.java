@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import org.junit.Test;
+
+public class SpecializedFieldsTest extends com.aparapi.codegen.CodeGenJUnitBase {
+    private static final String[] expectedOpenCL = {
+        "#define radius__specialized 2\n" +
+        "#define clamp__specialized 1\n" +
+        "typedef struct This_s{\n" +
+        "   int radius;\n" +
+        "   char  clamp;\n" +
+        "   const __global float *in;\n" +
+        "   int in__javaArrayLength;\n" +
+        "   __global float *out;\n" +
+        "   int passid;\n" +
+        "}This;\n" +
+        "int get_pass_id(This *this){\n" +
+        "   return this->passid;\n" +
+        "}\n" +
+        "__kernel void run(\n" +
+        "   int radius, \n" +
+        "   char  clamp, \n" +
+        "   const __global float *restrict in, \n" +
+        "   int in__javaArrayLength, \n" +
+        "   __global float *out, \n" +
+        "   int passid\n" +
+        "){\n" +
+        "   This thisStruct;\n" +
+        "   This* this=&thisStruct;\n" +
+        "   this->radius = radius;\n" +
+        "   this->clamp = clamp;\n" +
+        "   this->in = in;\n" +
+        "   this->in__javaArrayLength = in__javaArrayLength;\n" +
+        "   this->out = out;\n" +
+        "   this->passid = passid;\n" +
+        "   {\n" +
+        "      int gid = get_global_id(0);\n" +
+        "      float sum = 0.0f;\n" +
+        "      for (int i = -radius__specialized; i<=radius__specialized; i++){\n" +
+        "         {\n" +
+        "            int j = gid + i;\n" +
+        "            if (clamp__specialized!=0){\n" +
+        "               j = max(0, min(j, (this->in__javaArrayLength - 1)));\n" +
+        "            }\n" +
+        "            sum = sum + this->in[j];\n" +
+        "         }\n" +
+        "      }\n" +
+        "      this->out[gid]  = sum / (float)((2 * radius__specialized) + 1);\n" +
+        "      return;\n" +
+        "   }\n" +
+        "}\n"};
+    private static final Class<? extends com.aparapi.internal.exception.AparapiException> expectedException = null;
+
+    @Test
+    public void SpecializedFieldsTest() {
+        test(com.aparapi.codegen.test.SpecializedFields.class, expectedException, expectedOpenCL);
+    }
+
+    @Test
+    public void SpecializedFieldsTestWorksWithCaching() {
+        test(com.aparapi.codegen.test.SpecializedFields.class, expectedException, expectedOpenCL);
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import com.aparapi.Kernel;
+
+public class SplitLongRange extends Kernel {
+    byte[] flags = new byte[1024];
+    int[] ids = new int[1024];
+
+    public void run() {
+        long id = getGlobalIdLong();
+        flags[(int) (id % 1024)] = (byte) (id * 1024 / getGlobalSizeLong());
+        if (id < 1024) {
+            ids[getGlobalId()] = getGlobalId(0);
+        }
+    }
+}
+/**{OpenCL{
+ typedef struct This_s{
+ __global char  *flags;
+ __global int *ids;
+ long rangeOffset;
+ long rangeSize;
+ int passid;
+ }This;
+ int get_pass_id(This *this){
+ return this->passid;
+ }
+ __kernel void run(
+ __global char  *flags,
+ __global int *ids,
+ long rangeOffset,
+ long rangeSize,
+ int passid
+ ){
+ This thisStruct;
+ This* this=&thisStruct;
+ this->flags = flags;
+ this->ids = ids;
+ this->rangeOffset = rangeOffset;
+ this->rangeSize = rangeSize;
+ this->passid = passid;
+ {
+ long id = (this->rangeOffset + get_global_id(0));
+ this->flags[(int)(id % 1024L)]  = (char )(int)((id * 1024L) / this->rangeSize);
+ if ((id - 1024L)<0){
+ this->ids[((int)(this->rangeOffset + get_global_id(0)))]  = ((int)(this->rangeOffset + get_global_id(0)));
+ }
+ return;
+ }
+ }
+ }OpenCL}**/
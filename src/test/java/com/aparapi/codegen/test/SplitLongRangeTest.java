@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import org.junit.Test;
+
+public class SplitLongRangeTest extends com.aparapi.codegen.CodeGenJUnitBase {
+    private static final String[] expectedOpenCL = {
+        "typedef struct This_s{\n" +
+        "   __global char  *flags;\n" +
+        "   __global int *ids;\n" +
+        "   long rangeOffset;\n" +
+        "   long rangeSize;\n" +
+        "   int passid;\n" +
+        "}This;\n" +
+        "int get_pass_id(This *this){\n" +
+        "   return this->passid;\n" +
+        "}\n" +
+        "__kernel void run(\n" +
+        "   __global char  *flags, \n" +
+        "   __global int *ids, \n" +
+        "   long rangeOffset, \n" +
+        "   long rangeSize, \n" +
+        "   int passid\n" +
+        "){\n" +
+        "   This thisStruct;\n" +
+        "   This* this=&thisStruct;\n" +
+        "   this->flags = flags;\n" +
+        "   this->ids = ids;\n" +
+        "   this->rangeOffset = rangeOffset;\n" +
+        "   this->rangeSize = rangeSize;\n" +
+        "   this->passid = passid;\n" +
+        "   {\n" +
+        "      long id = (this->rangeOffset + get_global_id(0));\n" +
+        "      this->flags[(int)(id % 1024L)]  = (char )(int)((id * 1024L) / this->rangeSize);\n" +
+        "      if ((id - 1024L)<0){\n" +
+        "         this->ids[((int)(this->rangeOffset + get_global_id(0)))]  = ((int)(this->rangeOffset + get_global_id(0)));\n" +
+        "      }\n" +
+        "      return;\n" +
+        "   }\n" +
+        "}\n"};
+    private static final Class<? extends com.aparapi.internal.exception.AparapiException> expectedException = null;
+
+    @Test
+    public void SplitLongRangeTest() {
+        test(com.aparapi.codegen.test.SplitLongRange.class, expectedException, expectedOpenCL, false, false,
+                com.aparapi.internal.model.Entrypoint.RangeKind.SPLIT_LONG);
+    }
+
+    @Test
+    public void SplitLongRangeTestWorksWithCaching() {
+        test(com.aparapi.codegen.test.SplitLongRange.class, expectedException, expectedOpenCL, false, false,
+                com.aparapi.internal.model.Entrypoint.RangeKind.SPLIT_LONG);
+    }
+}
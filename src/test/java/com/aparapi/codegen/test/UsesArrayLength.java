@@ -54,7 +54,7 @@ public class UsesArrayLength extends Kernel {
 }
 /**{OpenCL{
  typedef struct This_s{
- __global char  *values;
+ const __global char  *values;
  int values__javaArrayLength;
  __global char  *results;
  int results__javaArrayLength;
@@ -72,7 +72,7 @@ public class UsesArrayLength extends Kernel {
  return(((this->results__javaArrayLength - x)>0)?1:0);
  }
  __kernel void run(
- __global char  *values,
+ const __global char  *restrict values,
  int values__javaArrayLength,
  __global char  *results,
  int results__javaArrayLength,
@@ -99,7 +99,7 @@ public class UsesArrayLength extends Kernel {
 
 /**{OpenCL{
  typedef struct This_s{
- __global char  *values;
+ const __global char  *values;
  int values__javaArrayLength;
  __global char  *results;
  int results__javaArrayLength;
@@ -119,7 +119,7 @@ public class UsesArrayLength extends Kernel {
  return(0);
  }
  __kernel void run(
- __global char  *values,
+ const __global char  *restrict values,
  int values__javaArrayLength,
  __global char  *results,
  int results__javaArrayLength,
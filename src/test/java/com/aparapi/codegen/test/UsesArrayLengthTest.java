@@ -21,7 +21,7 @@ public class UsesArrayLengthTest extends com.aparapi.codegen.CodeGenJUnitBase {
 
     private static final String[] expectedOpenCL = {
         "typedef struct This_s{\n"
-        + "   __global char  *values;\n"
+        + "   const __global char  *values;\n"
         + "   int values__javaArrayLength;\n"
         + "   __global char  *results;\n"
         + "   int results__javaArrayLength;\n"
@@ -38,7 +38,7 @@ public class UsesArrayLengthTest extends com.aparapi.codegen.CodeGenJUnitBase {
         + "   return((((this->results__javaArrayLength - x)>0)?1:0));\n"
         + "}\n"
         + "__kernel void run(\n"
-        + "   __global char  *values, \n"
+        + "   const __global char  *restrict values, \n"
         + "   int values__javaArrayLength, \n"
         + "   __global char  *results, \n"
         + "   int results__javaArrayLength, \n"
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import com.aparapi.Kernel;
+
+public class VectorLoadStore extends Kernel {
+    float[] in = new float[1024];
+    float[] out = new float[1024];
+    int[] counts = new int[2048];
+    int[] shifted = new int[2048];
+    float scale = 2f;
+
+    public void run() {
+        int i = getGlobalId() * 4;
+        out[i + 0] = in[i + 0] * scale + 1f;
+        out[i + 1] = in[i + 1] * scale + 1f;
+        out[i + 2] = in[i + 2] * scale + 1f;
+        out[i + 3] = in[i + 3] * scale + 1f;
+
+        int j = getGlobalId() * 8;
+        counts[j] = -counts[j] + i;
+        counts[j + 1] = -counts[j + 1] + i;
+        counts[j + 2] = -counts[j + 2] + i;
+        counts[j + 3] = -counts[j + 3] + i;
+        counts[j + 4] = -counts[j + 4] + i;
+        counts[j + 5] = -counts[j + 5] + i;
+        counts[j + 6] = -counts[j + 6] + i;
+        counts[j + 7] = -counts[j + 7] + i;
+
+        // >>> casts to unsigned, which has no vector form, so these stay scalar
+        shifted[j] = counts[j] >>> 3;
+        shifted[j + 1] = counts[j + 1] >>> 3;
+        shifted[j + 2] = counts[j + 2] >>> 3;
+        shifted[j + 3] = counts[j + 3] >>> 3;
+
+        // each statement reads the element the previous one stored
+        in[i + 1] = in[i] * scale;
+        in[i + 2] = in[i + 1] * scale;
+    }
+}
+/**{OpenCL{
+ typedef struct This_s{
+ __global float *out;
+ __global float *in;
+ float scale;
+ __global int *counts;
+ __global int *shifted;
+ int passid;
+ }This;
+ int get_pass_id(This *this){
+ return this->passid;
+ }
+ __kernel void run(
+ __global float *out,
+ __global float *in,
+ float scale,
+ __global int *counts,
+ __global int *shifted,
+ int passid
+ ){
+ This thisStruct;
+ This* this=&thisStruct;
+ this->out = out;
+ this->in = in;
+ this->scale = scale;
+ this->counts = counts;
+ this->shifted = shifted;
+ this->passid = passid;
+ {
+ int i = get_global_id(0) * 4;
+ vstore4((vload4(0, &this->in[(i + 0)]) * this->scale) + 1.0f, 0, &this->out[i + 0]);
+ int j = get_global_id(0) * 8;
+ vstore8(-vload8(0, &this->counts[j]) + i, 0, &this->counts[j]);
+ this->shifted[j]  = ((unsigned int)this->counts[j]) >> 3;
+ const int hoisted__0 = j + 1;
+ this->shifted[hoisted__0]  = ((unsigned int)this->counts[hoisted__0]) >> 3;
+ const int hoisted__1 = j + 2;
+ this->shifted[hoisted__1]  = ((unsigned int)this->counts[hoisted__1]) >> 3;
+ const int hoisted__2 = j + 3;
+ this->shifted[hoisted__2]  = ((unsigned int)this->counts[hoisted__2]) >> 3;
+ this->in[i + 1]  = this->in[i] * this->scale;
+ this->in[i + 2]  = this->in[(i + 1)] * this->scale;
+ return;
+ }
+ }
+ }OpenCL}**/
@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import org.junit.Test;
+
+public class VectorLoadStoreTest extends com.aparapi.codegen.CodeGenJUnitBase {
+    private static final String[] expectedOpenCL = {
+        "typedef struct This_s{\n" +
+        "   __global float *out;\n" +
+        "   __global float *in;\n" +
+        "   float scale;\n" +
+        "   __global int *counts;\n" +
+        "   __global int *shifted;\n" +
+        "   int passid;\n" +
+        "}This;\n" +
+        "int get_pass_id(This *this){\n" +
+        "   return this->passid;\n" +
+        "}\n" +
+        "__kernel void run(\n" +
+        "   __global float *out, \n" +
+        "   __global float *in, \n" +
+        "   float scale, \n" +
+        "   __global int *counts, \n" +
+        "   __global int *shifted, \n" +
+        "   int passid\n" +
+        "){\n" +
+        "   This thisStruct;\n" +
+        "   This* this=&thisStruct;\n" +
+        "   this->out = out;\n" +
+        "   this->in = in;\n" +
+        "   this->scale = scale;\n" +
+        "   this->counts = counts;\n" +
+        "   this->shifted = shifted;\n" +
+        "   this->passid = passid;\n" +
+        "   {\n" +
+        "      int i = get_global_id(0) * 4;\n" +
+        "      vstore4((vload4(0, &this->in[(i + 0)]) * this->scale) + 1.0f, 0, &this->out[i + 0]);\n" +
+        "      int j = get_global_id(0) * 8;\n" +
+        "      vstore8(-vload8(0, &this->counts[j]) + i, 0, &this->counts[j]);\n" +
+        "      this->shifted[j]  = ((unsigned int)this->counts[j]) >> 3;\n" +
+        "      const int hoisted__0 = j + 1;\n" +
+        "      this->shifted[hoisted__0]  = ((unsigned int)this->counts[hoisted__0]) >> 3;\n" +
+        "      const int hoisted__1 = j + 2;\n" +
+        "      this->shifted[hoisted__1]  = ((unsigned int)this->counts[hoisted__1]) >> 3;\n" +
+        "      const int hoisted__2 = j + 3;\n" +
+        "      this->shifted[hoisted__2]  = ((unsigned int)this->counts[hoisted__2]) >> 3;\n" +
+        "      this->in[i + 1]  = this->in[i] * this->scale;\n" +
+        "      this->in[i + 2]  = this->in[(i + 1)] * this->scale;\n" +
+        "      return;\n" +
+        "   }\n" +
+        "}\n"};
+    private static final Class<? extends com.aparapi.internal.exception.AparapiException> expectedException = null;
+
+    @Test
+    public void VectorLoadStoreTest() {
+        test(com.aparapi.codegen.test.VectorLoadStore.class, expectedException, expectedOpenCL, false, true);
+    }
+
+    @Test
+    public void VectorLoadStoreTestWorksWithCaching() {
+        test(com.aparapi.codegen.test.VectorLoadStore.class, expectedException, expectedOpenCL, false, true);
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import com.aparapi.Kernel;
+
+public class WorkGroupCollectives extends Kernel {
+    float[] values = new float[1024];
+    int[] offsets = new int[1024];
+
+    public void run() {
+        int gid = getGlobalId();
+        float total = workGroupReduceAdd(values[gid]);
+        int offset = workGroupScanInclusiveAdd(offsets[gid]);
+        values[gid] = workGroupBroadcast(total, 0) + offset;
+    }
+}
+/**{OpenCL{
+ float work_group_reduce_add_float(__local float *_scratch, float _value){
+ #if __OPENCL_C_VERSION__ >= 200
+ return work_group_reduce_add(_value);
+ #else
+ __local float *scratch = (__local float *)_scratch;
+ int lid = (((get_local_id(2) * get_local_size(1)) + get_local_id(1)) * get_local_size(0)) + get_local_id(0);
+ int width = get_local_size(0) * get_local_size(1) * get_local_size(2);
+ scratch[lid] = _value;
+ barrier(CLK_LOCAL_MEM_FENCE);
+ while (width > 1){
+ int half_width = (width + 1) >> 1;
+ if ((lid + half_width) < width){
+ float a = scratch[lid];
+ float b = scratch[lid + half_width];
+ scratch[lid] = a + b;
+ }
+ barrier(CLK_LOCAL_MEM_FENCE);
+ width = half_width;
+ }
+ float result = scratch[0];
+ barrier(CLK_LOCAL_MEM_FENCE);
+ return result;
+ #endif
+ }
+ int work_group_scan_inclusive_add_int(__local float *_scratch, int _value){
+ #if __OPENCL_C_VERSION__ >= 200
+ return work_group_scan_inclusive_add(_value);
+ #else
+ __local int *scratch = (__local int *)_scratch;
+ int lid = (((get_local_id(2) * get_local_size(1)) + get_local_id(1)) * get_local_size(0)) + get_local_id(0);
+ int size = get_local_size(0) * get_local_size(1) * get_local_size(2);
+ int result = _value;
+ scratch[lid] = result;
+ barrier(CLK_LOCAL_MEM_FENCE);
+ for (int offset = 1; offset < size; offset <<= 1){
+ if (lid >= offset){
+ int a = scratch[lid - offset];
+ int b = result;
+ result = a + b;
+ }
+ barrier(CLK_LOCAL_MEM_FENCE);
+ scratch[lid] = result;
+ barrier(CLK_LOCAL_MEM_FENCE);
+ }
+ return result;
+ #endif
+ }
+ float work_group_broadcast_float(__local float *_scratch, float _value, int _localId){
+ #if __OPENCL_C_VERSION__ >= 200
+ if (get_work_dim() == 1){
+ return work_group_broadcast(_value, (size_t)_localId);
+ } else if (get_work_dim() == 2){
+ return work_group_broadcast(_value, _localId % get_local_size(0), _localId / get_local_size(0));
+ }
+ return work_group_broadcast(_value, _localId % get_local_size(0), (_localId / get_local_size(0)) % get_local_size(1), _localId / (get_local_size(0) * get_local_size(1)));
+ #else
+ __local float *scratch = (__local float *)_scratch;
+ int lid = (((get_local_id(2) * get_local_size(1)) + get_local_id(1)) * get_local_size(0)) + get_local_id(0);
+ if (lid == _localId){
+ scratch[0] = _value;
+ }
+ barrier(CLK_LOCAL_MEM_FENCE);
+ float result = scratch[0];
+ barrier(CLK_LOCAL_MEM_FENCE);
+ return result;
+ #endif
+ }
+ typedef struct This_s{
+ __global float *values;
+ const __global int *offsets;
+ __local float *workGroupScratch;
+ int passid;
+ }This;
+ int get_pass_id(This *this){
+ return this->passid;
+ }
+ __kernel void run(
+ __global float *values,
+ const __global int *restrict offsets,
+ __local float *workGroupScratch,
+ int passid
+ ){
+ This thisStruct;
+ This* this=&thisStruct;
+ this->values = values;
+ this->offsets = offsets;
+ this->workGroupScratch = workGroupScratch;
+ this->passid = passid;
+ {
+ int gid = get_global_id(0);
+ float total = work_group_reduce_add_float(this->workGroupScratch, this->values[gid]);
+ int offset = work_group_scan_inclusive_add_int(this->workGroupScratch, this->offsets[gid]);
+ this->values[gid]  = work_group_broadcast_float(this->workGroupScratch, total, 0) + (float)offset;
+ return;
+ }
+ }
+ }OpenCL}**/
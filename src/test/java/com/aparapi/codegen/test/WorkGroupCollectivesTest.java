@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import org.junit.Test;
+
+public class WorkGroupCollectivesTest extends com.aparapi.codegen.CodeGenJUnitBase {
+    private static final String[] expectedOpenCL = {
+        "float work_group_reduce_add_float(__local float *_scratch, float _value){\n" +
+        "#if __OPENCL_C_VERSION__ >= 200\n" +
+        "   return work_group_reduce_add(_value);\n" +
+        "#else\n" +
+        "   __local float *scratch = (__local float *)_scratch;\n" +
+        "   int lid = (((get_local_id(2) * get_local_size(1)) + get_local_id(1)) * get_local_size(0)) + get_local_id(0);\n" +
+        "   int width = get_local_size(0) * get_local_size(1) * get_local_size(2);\n" +
+        "   scratch[lid] = _value;\n" +
+        "   barrier(CLK_LOCAL_MEM_FENCE);\n" +
+        "   while (width > 1){\n" +
+        "      int half_width = (width + 1) >> 1;\n" +
+        "      if ((lid + half_width) < width){\n" +
+        "         float a = scratch[lid];\n" +
+        "         float b = scratch[lid + half_width];\n" +
+        "         scratch[lid] = a + b;\n" +
+        "      }\n" +
+        "      barrier(CLK_LOCAL_MEM_FENCE);\n" +
+        "      width = half_width;\n" +
+        "   }\n" +
+        "   float result = scratch[0];\n" +
+        "   barrier(CLK_LOCAL_MEM_FENCE);\n" +
+        "   return result;\n" +
+        "#endif\n" +
+        "}\n" +
+        "int work_group_scan_inclusive_add_int(__local float *_scratch, int _value){\n" +
+        "#if __OPENCL_C_VERSION__ >= 200\n" +
+        "   return work_group_scan_inclusive_add(_value);\n" +
+        "#else\n" +
+        "   __local int *scratch = (__local int *)_scratch;\n" +
+        "   int lid = (((get_local_id(2) * get_local_size(1)) + get_local_id(1)) * get_local_size(0)) + get_local_id(0);\n" +
+        "   int size = get_local_size(0) * get_local_size(1) * get_local_size(2);\n" +
+        "   int result = _value;\n" +
+        "   scratch[lid] = result;\n" +
+        "   barrier(CLK_LOCAL_MEM_FENCE);\n" +
+        "   for (int offset = 1; offset < size; offset <<= 1){\n" +
+        "      if (lid >= offset){\n" +
+        "         int a = scratch[lid - offset];\n" +
+        "         int b = result;\n" +
+        "         result = a + b;\n" +
+        "      }\n" +
+        "      barrier(CLK_LOCAL_MEM_FENCE);\n" +
+        "      scratch[lid] = result;\n" +
+        "      barrier(CLK_LOCAL_MEM_FENCE);\n" +
+        "   }\n" +
+        "   return result;\n" +
+        "#endif\n" +
+        "}\n" +
+        "float work_group_broadcast_float(__local float *_scratch, float _value, int _localId){\n" +
+        "#if __OPENCL_C_VERSION__ >= 200\n" +
+        "   if (get_work_dim() == 1){\n" +
+        "      return work_group_broadcast(_value, (size_t)_localId);\n" +
+        "   } else if (get_work_dim() == 2){\n" +
+        "      return work_group_broadcast(_value, _localId % get_local_size(0), _localId / get_local_size(0));\n" +
+        "   }\n" +
+        "   return work_group_broadcast(_value, _localId % get_local_size(0), (_localId / get_local_size(0)) % get_local_size(1), _localId / (get_local_size(0) * get_local_size(1)));\n" +
+        "#else\n" +
+        "   __local float *scratch = (__local float *)_scratch;\n" +
+        "   int lid = (((get_local_id(2) * get_local_size(1)) + get_local_id(1)) * get_local_size(0)) + get_local_id(0);\n" +
+        "   if (lid == _localId){\n" +
+        "      scratch[0] = _value;\n" +
+        "   }\n" +
+        "   barrier(CLK_LOCAL_MEM_FENCE);\n" +
+        "   float result = scratch[0];\n" +
+        "   barrier(CLK_LOCAL_MEM_FENCE);\n" +
+        "   return result;\n" +
+        "#endif\n" +
+        "}\n" +
+        "typedef struct This_s{\n" +
+        "   __global float *values;\n" +
+        "   const __global int *offsets;\n" +
+        "   __local float *workGroupScratch;\n" +
+        "   int passid;\n" +
+        "}This;\n" +
+        "int get_pass_id(This *this){\n" +
+        "   return this->passid;\n" +
+        "}\n" +
+        "__kernel void run(\n" +
+        "   __global float *values, \n" +
+        "   const __global int *restrict offsets, \n" +
+        "   __local float *workGroupScratch, \n" +
+        "   int passid\n" +
+        "){\n" +
+        "   This thisStruct;\n" +
+        "   This* this=&thisStruct;\n" +
+        "   this->values = values;\n" +
+        "   this->offsets = offsets;\n" +
+        "   this->workGroupScratch = workGroupScratch;\n" +
+        "   this->passid = passid;\n" +
+        "   {\n" +
+        "      int gid = get_global_id(0);\n" +
+        "      float total = work_group_reduce_add_float(this->workGroupScratch, this->values[gid]);\n" +
+        "      int offset = work_group_scan_inclusive_add_int(this->workGroupScratch, this->offsets[gid]);\n" +
+        "      this->values[gid]  = work_group_broadcast_float(this->workGroupScratch, total, 0) + (float)offset;\n" +
+        "      return;\n" +
+        "   }\n" +
+        "}\n"};
+    private static final Class<? extends com.aparapi.internal.exception.AparapiException> expectedException = null;
+
+    @Test
+    public void WorkGroupCollectivesTest() {
+        test(com.aparapi.codegen.test.WorkGroupCollectives.class, expectedException, expectedOpenCL);
+    }
+
+    @Test
+    public void WorkGroupCollectivesTestWorksWithCaching() {
+        test(com.aparapi.codegen.test.WorkGroupCollectives.class, expectedException, expectedOpenCL);
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import com.aparapi.Kernel;
+
+public class WorkGroupReduce extends Kernel {
+    float[] values = new float[1024];
+
+    public void run() {
+        int gid = getGlobalId();
+        reduce(values[gid] * values[gid]);
+    }
+}
+/**{OpenCL{
+ void reduce(__local float *_scratch, __global float *_partials, int _op, float _value){
+ int lid = (((get_local_id(2) * get_local_size(1)) + get_local_id(1)) * get_local_size(0)) + get_local_id(0);
+ int width = get_local_size(0) * get_local_size(1) * get_local_size(2);
+ _scratch[lid] = _value;
+ barrier(CLK_LOCAL_MEM_FENCE);
+ while (width > 1){
+ int half_width = (width + 1) >> 1;
+ if ((lid + half_width) < width){
+ float a = _scratch[lid];
+ float b = _scratch[lid + half_width];
+ _scratch[lid] = (_op == 0) ? (a + b) : ((_op == 1) ? fmin(a, b) : fmax(a, b));
+ }
+ barrier(CLK_LOCAL_MEM_FENCE);
+ width = half_width;
+ }
+ if (lid == 0){
+ _partials[(((get_group_id(2) * get_num_groups(1)) + get_group_id(1)) * get_num_groups(0)) + get_group_id(0)] = _scratch[0];
+ }
+ }
+ typedef struct This_s{
+ const __global float *values;
+ int reduceOp;
+ __global float *reducePartials;
+ __local float *workGroupScratch;
+ int passid;
+ }This;
+ int get_pass_id(This *this){
+ return this->passid;
+ }
+ __kernel void run(
+ const __global float *restrict values,
+ int reduceOp,
+ __global float *reducePartials,
+ __local float *workGroupScratch,
+ int passid
+ ){
+ This thisStruct;
+ This* this=&thisStruct;
+ this->values = values;
+ this->reduceOp = reduceOp;
+ this->reducePartials = reducePartials;
+ this->workGroupScratch = workGroupScratch;
+ this->passid = passid;
+ {
+ int gid = get_global_id(0);
+ reduce(this->workGroupScratch, this->reducePartials, this->reduceOp, (this->values[gid] * this->values[gid]));
+ return;
+ }
+ }
+ }OpenCL}**/
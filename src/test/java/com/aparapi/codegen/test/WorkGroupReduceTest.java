@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.codegen.test;
+
+import org.junit.Test;
+
+public class WorkGroupReduceTest extends com.aparapi.codegen.CodeGenJUnitBase {
+    private static final String[] expectedOpenCL = {
+        "void reduce(__local float *_scratch, __global float *_partials, int _op, float _value){\n" +
+        "   int lid = (((get_local_id(2) * get_local_size(1)) + get_local_id(1)) * get_local_size(0)) + get_local_id(0);\n" +
+        "   int width = get_local_size(0) * get_local_size(1) * get_local_size(2);\n" +
+        "   _scratch[lid] = _value;\n" +
+        "   barrier(CLK_LOCAL_MEM_FENCE);\n" +
+        "   while (width > 1){\n" +
+        "      int half_width = (width + 1) >> 1;\n" +
+        "      if ((lid + half_width) < width){\n" +
+        "         float a = _scratch[lid];\n" +
+        "         float b = _scratch[lid + half_width];\n" +
+        "         _scratch[lid] = (_op == 0) ? (a + b) : ((_op == 1) ? fmin(a, b) : fmax(a, b));\n" +
+        "      }\n" +
+        "      barrier(CLK_LOCAL_MEM_FENCE);\n" +
+        "      width = half_width;\n" +
+        "   }\n" +
+        "   if (lid == 0){\n" +
+        "      _partials[(((get_group_id(2) * get_num_groups(1)) + get_group_id(1)) * get_num_groups(0)) + get_group_id(0)] = _scratch[0];\n" +
+        "   }\n" +
+        "}\n" +
+        "typedef struct This_s{\n" +
+        "   const __global float *values;\n" +
+        "   int reduceOp;\n" +
+        "   __global float *reducePartials;\n" +
+        "   __local float *workGroupScratch;\n" +
+        "   int passid;\n" +
+        "}This;\n" +
+        "int get_pass_id(This *this){\n" +
+        "   return this->passid;\n" +
+        "}\n" +
+        "__kernel void run(\n" +
+        "   const __global float *restrict values, \n" +
+        "   int reduceOp, \n" +
+        "   __global float *reducePartials, \n" +
+        "   __local float *workGroupScratch, \n" +
+        "   int passid\n" +
+        "){\n" +
+        "   This thisStruct;\n" +
+        "   This* this=&thisStruct;\n" +
+        "   this->values = values;\n" +
+        "   this->reduceOp = reduceOp;\n" +
+        "   this->reducePartials = reducePartials;\n" +
+        "   this->workGroupScratch = workGroupScratch;\n" +
+        "   this->passid = passid;\n" +
+        "   {\n" +
+        "      int gid = get_global_id(0);\n" +
+        "      reduce(this->workGroupScratch, this->reducePartials, this->reduceOp, (this->values[gid] * this->values[gid]));\n" +
+        "      return;\n" +
+        "   }\n" +
+        "}\n"};
+    private static final Class<? extends com.aparapi.internal.exception.AparapiException> expectedException = null;
+
+    @Test
+    public void WorkGroupReduceTest() {
+        test(com.aparapi.codegen.test.WorkGroupReduce.class, expectedException, expectedOpenCL);
+    }
+
+    @Test
+    public void WorkGroupReduceTestWorksWithCaching() {
+        test(com.aparapi.codegen.test.WorkGroupReduce.class, expectedException, expectedOpenCL);
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.primitives;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.aparapi.device.JavaDevice;
+import com.aparapi.runtime.Util;
+
+public class CompactTest {
+
+    @After
+    public void teardown() {
+        Util.resetKernelManager();
+    }
+
+    @Test
+    public void testChunks() {
+        testCompact(false);
+    }
+
+    @Test
+    public void testWorkGroups() {
+        testCompact(true);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOutputTooSmall() {
+        final Compact compact = new Compact(JavaDevice.THREAD_POOL);
+        try {
+            compact.compact(new int[] {1, 2, 3}, new int[] {1, 0, 1}, new int[1]);
+        } finally {
+            compact.dispose();
+        }
+    }
+
+    private void testCompact(boolean _workGroups) {
+        final Compact compact = new Compact(JavaDevice.THREAD_POOL, _workGroups);
+        try {
+            for (final int length : new int[] {1, 5, 256, 1000, 40000}) {
+                final Random random = new Random(length);
+                final int[] in = new int[length];
+                final int[] flags = new int[length];
+                final int[] expected = new int[length];
+                int kept = 0;
+                for (int i = 0; i < length; i++) {
+                    in[i] = random.nextInt();
+                    // any value other than 0 keeps the element
+                    flags[i] = (random.nextInt(3) == 0) ? 0 : random.nextInt(5) + 1;
+                    if (flags[i] != 0) {
+                        expected[kept++] = in[i];
+                    }
+                }
+                final int[] out = new int[length];
+                assertEquals(kept, compact.compact(in, flags, out));
+                assertArrayEquals(expected, out);
+            }
+        } finally {
+            compact.dispose();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.primitives;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.aparapi.device.JavaDevice;
+import com.aparapi.runtime.Util;
+
+public class GemmTest {
+
+    @After
+    public void teardown() {
+        Util.resetKernelManager();
+    }
+
+    @Test
+    public void testBlocks() {
+        testMultiply(false);
+    }
+
+    @Test
+    public void testTiles() {
+        testMultiply(true);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMatrixTooSmall() {
+        final Gemm gemm = new Gemm(JavaDevice.THREAD_POOL);
+        try {
+            gemm.multiply(4, 4, 4, new float[16], new float[15], new float[16]);
+        } finally {
+            gemm.dispose();
+        }
+    }
+
+    private void testMultiply(boolean _workGroups) {
+        final Gemm gemm = new Gemm(JavaDevice.THREAD_POOL, _workGroups);
+        try {
+            // sizes which are not multiples of the blocks or tiles, and larger than a block
+            for (final int[] size : new int[][] {{1, 1, 1}, {37, 53, 29}, {130, 70, 90}}) {
+                final int m = size[0];
+                final int n = size[1];
+                final int k = size[2];
+                final float[] a = randomMatrix(m, k);
+                final float[] b = randomMatrix(k, n);
+                final float[] c = randomMatrix(m, n);
+                final float[] expected = new float[m * n];
+                for (int row = 0; row < m; row++) {
+                    for (int column = 0; column < n; column++) {
+                        double sum = 0;
+                        for (int inner = 0; inner < k; inner++) {
+                            sum += (double) a[(row * k) + inner] * b[(inner * n) + column];
+                        }
+                        expected[(row * n) + column] = (float) ((2 * sum) - (0.5 * c[(row * n) + column]));
+                    }
+                }
+                gemm.multiply(m, n, k, 2f, a, b, -0.5f, c);
+                for (int i = 0; i < (m * n); i++) {
+                    assertEquals(m + "x" + n + "x" + k + " c[" + i + "]", expected[i], c[i], 1e-3f);
+                }
+            }
+        } finally {
+            gemm.dispose();
+        }
+    }
+
+    static float[] randomMatrix(int _rows, int _columns) {
+        final Random random = new Random((_rows * 31) + _columns);
+        final float[] matrix = new float[_rows * _columns];
+        for (int i = 0; i < matrix.length; i++) {
+            matrix[i] = random.nextFloat() - 0.5f;
+        }
+        return (matrix);
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.primitives;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.aparapi.device.JavaDevice;
+import com.aparapi.runtime.Util;
+
+public class GemvTest {
+
+    @After
+    public void teardown() {
+        Util.resetKernelManager();
+    }
+
+    @Test
+    public void testRows() {
+        testMultiply(false);
+    }
+
+    @Test
+    public void testWorkGroups() {
+        testMultiply(true);
+    }
+
+    private void testMultiply(boolean _workGroups) {
+        final Gemv gemv = new Gemv(JavaDevice.THREAD_POOL, _workGroups);
+        try {
+            for (final int[] size : new int[][] {{1, 1}, {45, 1000}, {300, 7}}) {
+                final int m = size[0];
+                final int n = size[1];
+                final float[] a = GemmTest.randomMatrix(m, n);
+                final float[] x = GemmTest.randomMatrix(n, 1);
+                final float[] y = GemmTest.randomMatrix(m, 1);
+                final float[] expected = new float[m];
+                for (int row = 0; row < m; row++) {
+                    double sum = 0;
+                    for (int column = 0; column < n; column++) {
+                        sum += (double) a[(row * n) + column] * x[column];
+                    }
+                    expected[row] = (float) (sum + (3 * y[row]));
+                }
+                gemv.multiply(m, n, 1f, a, x, 3f, y);
+                for (int row = 0; row < m; row++) {
+                    assertEquals(m + "x" + n + " y[" + row + "]", expected[row], y[row], 1e-3f);
+                }
+            }
+        } finally {
+            gemv.dispose();
+        }
+    }
+}
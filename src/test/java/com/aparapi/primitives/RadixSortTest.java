@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.primitives;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.aparapi.device.JavaDevice;
+import com.aparapi.runtime.Util;
+
+public class RadixSortTest {
+
+    @After
+    public void teardown() {
+        Util.resetKernelManager();
+    }
+
+    @Test
+    public void testIntKeysChunks() {
+        testIntKeys(false);
+    }
+
+    @Test
+    public void testIntKeysWorkGroups() {
+        testIntKeys(true);
+    }
+
+    @Test
+    public void testFloatKeysChunks() {
+        testFloatKeys(false);
+    }
+
+    @Test
+    public void testFloatKeysWorkGroups() {
+        testFloatKeys(true);
+    }
+
+    @Test
+    public void testWithoutValues() {
+        final int[] keys = new Random(1).ints(5000).toArray();
+        final int[] expected = keys.clone();
+        Arrays.sort(expected);
+        final RadixSort sort = new RadixSort(JavaDevice.THREAD_POOL);
+        try {
+            sort.sort(keys, null);
+        } finally {
+            sort.dispose();
+        }
+        assertArrayEquals(expected, keys);
+    }
+
+    private void testIntKeys(boolean _workGroups) {
+        final RadixSort sort = new RadixSort(JavaDevice.THREAD_POOL, _workGroups);
+        try {
+            for (final int length : new int[] {1, 2, 7, 1000, 20000}) {
+                // few distinct keys, so the payloads show whether the sort is stable
+                final Random random = new Random(length);
+                final int[] keys = new int[length];
+                final int[] values = new int[length];
+                for (int i = 0; i < length; i++) {
+                    keys[i] = (random.nextInt(64) - 32) * 0x01010101;
+                    values[i] = i;
+                }
+                final int[] original = keys.clone();
+                sort.sort(keys, values);
+                for (int i = 0; i < length; i++) {
+                    assertEquals(original[values[i]], keys[i]);
+                    if (i > 0) {
+                        assertEquals(true, (keys[i - 1] < keys[i]) || ((keys[i - 1] == keys[i]) && (values[i - 1] < values[i])));
+                    }
+                }
+            }
+        } finally {
+            sort.dispose();
+        }
+    }
+
+    private void testFloatKeys(boolean _workGroups) {
+        final Random random = new Random(42);
+        final float[] keys = new float[3000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = (float) random.nextGaussian() * 1e3f;
+        }
+        keys[0] = -0f;
+        keys[1] = 0f;
+        keys[2] = Float.NEGATIVE_INFINITY;
+        keys[3] = Float.POSITIVE_INFINITY;
+        keys[4] = Float.NaN;
+        keys[5] = Float.MIN_VALUE;
+        final float[] expected = keys.clone();
+        Arrays.sort(expected);
+        final int[] values = new int[keys.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+        }
+        final float[] original = keys.clone();
+
+        final RadixSort sort = new RadixSort(JavaDevice.THREAD_POOL, _workGroups);
+        try {
+            sort.sort(keys, values);
+        } finally {
+            sort.dispose();
+        }
+        assertArrayEquals(expected, keys, 0f);
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(Float.floatToIntBits(original[values[i]]), Float.floatToIntBits(keys[i]));
+        }
+    }
+}
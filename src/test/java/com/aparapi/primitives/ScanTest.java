@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.primitives;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.aparapi.device.JavaDevice;
+import com.aparapi.runtime.Util;
+
+public class ScanTest {
+
+    @After
+    public void teardown() {
+        Util.resetKernelManager();
+    }
+
+    @Test
+    public void testChunks() {
+        testScans(false);
+    }
+
+    @Test
+    public void testWorkGroups() {
+        testScans(true);
+    }
+
+    @Test
+    public void testInPlace() {
+        final int[] values = randomValues(1000);
+        final int[] expected = exclusive(values);
+        final Scan scan = new Scan(JavaDevice.THREAD_POOL);
+        try {
+            scan.exclusive(values, values);
+        } finally {
+            scan.dispose();
+        }
+        assertArrayEquals(expected, values);
+    }
+
+    private void testScans(boolean _workGroups) {
+        final Scan scan = new Scan(JavaDevice.THREAD_POOL, _workGroups);
+        try {
+            // lengths around the chunk and work group sizes, and a second level of work groups
+            for (final int length : new int[] {1, 3, 255, 256, 257, 1000, 70000}) {
+                final int[] values = randomValues(length);
+                final int[] out = new int[length];
+                scan.exclusive(values, out);
+                assertArrayEquals("exclusive " + length, exclusive(values), out);
+                scan.inclusive(values, out);
+                final int[] expected = exclusive(values);
+                for (int i = 0; i < length; i++) {
+                    expected[i] += values[i];
+                }
+                assertArrayEquals("inclusive " + length, expected, out);
+            }
+        } finally {
+            scan.dispose();
+        }
+    }
+
+    private static int[] randomValues(int _length) {
+        final Random random = new Random(_length);
+        final int[] values = new int[_length];
+        for (int i = 0; i < _length; i++) {
+            values[i] = random.nextInt(100) - 20;
+        }
+        return (values);
+    }
+
+    private static int[] exclusive(int[] _values) {
+        final int[] sums = new int[_values.length];
+        int sum = 0;
+        for (int i = 0; i < _values.length; i++) {
+            sums[i] = sum;
+            sum += _values[i];
+        }
+        return (sums);
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.primitives;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.aparapi.Kernel.ReduceOp;
+import com.aparapi.device.JavaDevice;
+import com.aparapi.runtime.Util;
+
+public class SegmentedReduceTest {
+
+    @After
+    public void teardown() {
+        Util.resetKernelManager();
+    }
+
+    @Test
+    public void testChunks() {
+        testReduce(false);
+    }
+
+    @Test
+    public void testWorkGroups() {
+        testReduce(true);
+    }
+
+    private void testReduce(boolean _workGroups) {
+        // segments shorter and longer than a work group, and empty ones
+        final Random random = new Random(7);
+        final int segments = 200;
+        final int[] offsets = new int[segments + 1];
+        for (int s = 0; s < segments; s++) {
+            offsets[s + 1] = offsets[s] + ((s % 10 == 0) ? 0 : random.nextInt(600));
+        }
+        // small integers, whose sums are exact in any order
+        final float[] values = new float[offsets[segments]];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(200) - 100;
+        }
+
+        final SegmentedReduce reduce = new SegmentedReduce(JavaDevice.THREAD_POOL, _workGroups);
+        try {
+            for (final ReduceOp op : ReduceOp.values()) {
+                final float[] expected = new float[segments];
+                for (int s = 0; s < segments; s++) {
+                    expected[s] = op.identity();
+                    for (int i = offsets[s]; i < offsets[s + 1]; i++) {
+                        expected[s] = op.apply(expected[s], values[i]);
+                    }
+                }
+                final float[] results = new float[segments];
+                reduce.reduce(op, values, offsets, results);
+                assertArrayEquals(op.name(), expected, results, 0f);
+            }
+        } finally {
+            reduce.dispose();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.primitives;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.aparapi.device.JavaDevice;
+import com.aparapi.primitives.Stencil.Boundary;
+import com.aparapi.runtime.Util;
+
+public class StencilTest {
+
+    @After
+    public void teardown() {
+        Util.resetKernelManager();
+    }
+
+    @Test
+    public void testStrips() {
+        testStencils(false);
+    }
+
+    @Test
+    public void testTiles() {
+        testStencils(true);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInPlace() {
+        final float[] grid = new float[16];
+        new Laplacian(Boundary.ZERO).apply(JavaDevice.THREAD_POOL, grid, grid, 4, 4);
+    }
+
+    private void testStencils(boolean _tiled) {
+        // sizes which are not multiples of the tiles, a single row, and for strips more rows than a strip holds
+        final int[][] sizes = _tiled ? new int[][] {{1, 1}, {37, 21}, {50, 1}} : new int[][] {{1, 1}, {37, 21}, {50, 1}, {300, 250}};
+        for (final int[] size : sizes) {
+            final int width = size[0];
+            final int height = size[1];
+            final float[] grid = GemmTest.randomMatrix(height, width);
+            for (final Boundary boundary : Boundary.values()) {
+                testStencil(new Laplacian(boundary), grid, width, height, _tiled);
+                testStencil(new Box(boundary), grid, width, height, _tiled);
+            }
+        }
+    }
+
+    private void testStencil(ReferenceStencil _stencil, float[] _grid, int _width, int _height, boolean _tiled) {
+        final float[] result = new float[_grid.length];
+        try {
+            _stencil.apply(JavaDevice.THREAD_POOL, _grid, result, _width, _height, _tiled);
+        } finally {
+            _stencil.dispose();
+        }
+        for (int y = 0; y < _height; y++) {
+            for (int x = 0; x < _width; x++) {
+                final String point = _stencil.getClass().getSimpleName() + " " + _stencil.policy + " " + _width + "x" + _height + " ("
+                        + x + ", " + y + ")";
+                assertEquals(point, _stencil.reference(_grid, _width, _height, x, y), result[(y * _width) + x], 1e-5f);
+            }
+        }
+    }
+
+    private static abstract class ReferenceStencil extends Stencil {
+        final Boundary policy;
+
+        ReferenceStencil(int _radius, Boundary _boundary) {
+            super(_radius, _boundary);
+            policy = _boundary;
+        }
+
+        abstract float reference(float[] _grid, int _width, int _height, int _x, int _y);
+
+        float read(float[] _grid, int _width, int _height, int _x, int _y) {
+            if ((_x < 0) || (_x >= _width) || (_y < 0) || (_y >= _height)) {
+                if (policy == Boundary.ZERO) {
+                    return (0f);
+                } else if (policy == Boundary.CLAMP) {
+                    _x = Math.min(Math.max(_x, 0), _width - 1);
+                    _y = Math.min(Math.max(_y, 0), _height - 1);
+                } else {
+                    _x = Math.floorMod(_x, _width);
+                    _y = Math.floorMod(_y, _height);
+                }
+            }
+            return (_grid[(_y * _width) + _x]);
+        }
+    }
+
+    private static class Laplacian extends ReferenceStencil {
+        Laplacian(Boundary _boundary) {
+            super(1, _boundary);
+        }
+
+        @Override
+        protected float compute(int x, int y) {
+            return (((at(x - 1, y) + at(x + 1, y)) + (at(x, y - 1) + at(x, y + 1))) - (4 * at(x, y)));
+        }
+
+        @Override
+        float reference(float[] _grid, int _width, int _height, int _x, int _y) {
+            return (((read(_grid, _width, _height, _x - 1, _y) + read(_grid, _width, _height, _x + 1, _y))
+                    + (read(_grid, _width, _height, _x, _y - 1) + read(_grid, _width, _height, _x, _y + 1)))
+                    - (4 * read(_grid, _width, _height, _x, _y)));
+        }
+    }
+
+    private static class Box extends ReferenceStencil {
+        Box(Boundary _boundary) {
+            super(2, _boundary);
+        }
+
+        @Override
+        protected float compute(int x, int y) {
+            float sum = 0f;
+            for (int dy = -2; dy <= 2; dy++) {
+                for (int dx = -2; dx <= 2; dx++) {
+                    sum += at(x + dx, y + dy);
+                }
+            }
+            return (sum / 25);
+        }
+
+        @Override
+        float reference(float[] _grid, int _width, int _height, int _x, int _y) {
+            float sum = 0f;
+            for (int dy = -2; dy <= 2; dy++) {
+                for (int dx = -2; dx <= 2; dx++) {
+                    sum += read(_grid, _width, _height, _x + dx, _y + dy);
+                }
+            }
+            return (sum / 25);
+        }
+    }
+}
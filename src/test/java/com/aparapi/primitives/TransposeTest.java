@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.primitives;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.aparapi.device.JavaDevice;
+import com.aparapi.runtime.Util;
+
+public class TransposeTest {
+
+    @After
+    public void teardown() {
+        Util.resetKernelManager();
+    }
+
+    @Test
+    public void testBlocks() {
+        testTranspose(false);
+    }
+
+    @Test
+    public void testTiles() {
+        testTranspose(true);
+    }
+
+    private void testTranspose(boolean _workGroups) {
+        final Transpose transpose = new Transpose(JavaDevice.THREAD_POOL, _workGroups);
+        try {
+            for (final int[] size : new int[][] {{1, 1}, {1, 40}, {33, 17}, {100, 65}}) {
+                final int rows = size[0];
+                final int columns = size[1];
+                final float[] in = GemmTest.randomMatrix(rows, columns);
+                final float[] out = new float[rows * columns];
+                transpose.transpose(rows, columns, in, out);
+                for (int row = 0; row < rows; row++) {
+                    for (int column = 0; column < columns; column++) {
+                        assertEquals(in[(row * columns) + column], out[(column * rows) + row], 0f);
+                    }
+                }
+            }
+        } finally {
+            transpose.dispose();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.runtime;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.aparapi.Kernel;
+import com.aparapi.Range;
+import com.aparapi.device.JavaDevice;
+
+public class ArrayAtomicsTest {
+
+    private static final int SIZE = 4096;
+
+    private static final int BINS = 16;
+
+    @After
+    public void teardown() {
+        Util.resetKernelManager();
+    }
+
+    @Test
+    public void testAdd() {
+        final AddKernel kernel = new AddKernel();
+        kernel.execute(Range.create(JavaDevice.THREAD_POOL, SIZE, 64));
+        for (int bin = 0; bin < BINS; bin++) {
+            assertEquals(SIZE / BINS, kernel.floats[bin], 0f);
+            // bin + (bin + BINS) + ... over SIZE / BINS terms
+            assertEquals(((long) bin * (SIZE / BINS)) + ((long) BINS * (SIZE / BINS) * ((SIZE / BINS) - 1) / 2), kernel.longs[bin]);
+            assertEquals(SIZE / BINS / 2.0, kernel.doubles[bin], 0.0);
+        }
+    }
+
+    @Test
+    public void testMinMax() {
+        final MinMaxKernel kernel = new MinMaxKernel();
+        kernel.execute(Range.create(JavaDevice.THREAD_POOL, SIZE, 64));
+        for (int bin = 0; bin < BINS; bin++) {
+            assertEquals(bin, kernel.intMin[bin]);
+            assertEquals(SIZE - BINS + bin, kernel.intMax[bin]);
+            assertEquals(-(SIZE - BINS + bin), kernel.longMin[bin]);
+            assertEquals(-bin, kernel.longMax[bin]);
+            assertEquals(bin * 0.25f, kernel.floatMin[bin], 0f);
+            assertEquals((SIZE - BINS + bin) * 0.25, kernel.doubleMax[bin], 0.0);
+        }
+    }
+
+    @Test
+    public void testMinIgnoresNaN() {
+        final NaNKernel kernel = new NaNKernel();
+        kernel.execute(Range.create(JavaDevice.SEQUENTIAL, 2, 1));
+        assertEquals(1f, kernel.min[0], 0f);
+        assertEquals(Float.NaN, kernel.min[1], 0f);
+    }
+
+    @Test
+    public void testCmpXchgHasOneWinner() {
+        final CmpXchgKernel kernel = new CmpXchgKernel();
+        kernel.execute(Range.create(JavaDevice.THREAD_POOL, SIZE, 64));
+        for (int bin = 0; bin < BINS; bin++) {
+            assertEquals(1, kernel.wins[bin]);
+            assertEquals(kernel.winners[bin] % BINS, bin);
+            assertEquals(kernel.winners[bin], kernel.longWinners[bin]);
+        }
+    }
+
+    @Test
+    public void testCmpXchgComparesBits() {
+        final BitsKernel kernel = new BitsKernel();
+        kernel.execute(Range.create(JavaDevice.SEQUENTIAL, 1, 1));
+        assertArrayEquals(new float[] {0f, 2f}, kernel.floats, 0f);
+        assertArrayEquals(new float[] {0f, 0f}, kernel.previous, 0f);
+        assertArrayEquals(new double[] {3.0}, kernel.doubles, 0.0);
+    }
+
+    public static class AddKernel extends Kernel {
+        final float[] floats = new float[BINS];
+        final long[] longs = new long[BINS];
+        final double[] doubles = new double[BINS];
+
+        @Override
+        public void run() {
+            final int gid = getGlobalId();
+            atomicAdd(floats, gid % BINS, 1f);
+            atomicAdd(longs, gid % BINS, gid);
+            atomicAdd(doubles, gid % BINS, 0.5);
+        }
+    }
+
+    public static class MinMaxKernel extends Kernel {
+        final int[] intMin = new int[BINS];
+        final int[] intMax = new int[BINS];
+        final long[] longMin = new long[BINS];
+        final long[] longMax = new long[BINS];
+        final float[] floatMin = new float[BINS];
+        final double[] doubleMax = new double[BINS];
+
+        public MinMaxKernel() {
+            Arrays.fill(intMin, Integer.MAX_VALUE);
+            Arrays.fill(intMax, Integer.MIN_VALUE);
+            Arrays.fill(longMin, Long.MAX_VALUE);
+            Arrays.fill(longMax, Long.MIN_VALUE);
+            Arrays.fill(floatMin, Float.POSITIVE_INFINITY);
+            Arrays.fill(doubleMax, Double.NEGATIVE_INFINITY);
+        }
+
+        @Override
+        public void run() {
+            final int gid = getGlobalId();
+            final int bin = gid % BINS;
+            atomicMin(intMin, bin, gid);
+            atomicMax(intMax, bin, gid);
+            atomicMin(longMin, bin, -gid);
+            atomicMax(longMax, bin, -gid);
+            atomicMin(floatMin, bin, gid * 0.25f);
+            atomicMax(doubleMax, bin, gid * 0.25);
+        }
+    }
+
+    public static class CmpXchgKernel extends Kernel {
+        final int[] winners = new int[BINS];
+        final long[] longWinners = new long[BINS];
+        final int[] wins = new int[BINS];
+
+        public CmpXchgKernel() {
+            Arrays.fill(winners, -1);
+            Arrays.fill(longWinners, -1);
+        }
+
+        @Override
+        public void run() {
+            final int gid = getGlobalId();
+            final int bin = gid % BINS;
+            if (atomicCmpXchg(winners, bin, -1, gid) == -1) {
+                atomicAdd(wins, bin, 1);
+                atomicCmpXchg(longWinners, bin, -1L, gid);
+            }
+        }
+    }
+
+    public static class NaNKernel extends Kernel {
+        final float[] min = {1f, Float.NaN};
+
+        @Override
+        public void run() {
+            atomicMin(min, getGlobalId(), (getGlobalId() == 0) ? Float.NaN : 0f);
+        }
+    }
+
+    public static class BitsKernel extends Kernel {
+        final float[] floats = {0f, 0f};
+        final double[] doubles = {Double.NaN};
+        final float[] previous = new float[2];
+
+        @Override
+        public void run() {
+            previous[0] = atomicCmpXchg(floats, 0, -0f, 1f);
+            previous[1] = atomicCmpXchg(floats, 1, 0f, 2f);
+            atomicCmpXchg(doubles, 0, Double.NaN, 3.0);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.aparapi.Kernel;
+import com.aparapi.internal.model.ClassModel;
+import com.aparapi.internal.model.Entrypoint;
+
+public class ArrayDataFlowTest {
+
+    @Test
+    public void testMapKernel() throws Exception {
+        final Entrypoint entrypoint = getEntrypoint(new MapKernel());
+        assertEquals(set("out"), entrypoint.getArrayFieldWriteOnly());
+        assertEquals(set("in"), entrypoint.getArrayFieldReadOnly());
+    }
+
+    @Test
+    public void testCompoundAssignmentIsNotWriteOnly() throws Exception {
+        final Entrypoint entrypoint = getEntrypoint(new CompoundKernel());
+        assertEquals(set(), entrypoint.getArrayFieldWriteOnly());
+        assertEquals(set(), entrypoint.getArrayFieldReadOnly());
+    }
+
+    @Test
+    public void testConditionalWriteIsNotWriteOnly() throws Exception {
+        final Entrypoint entrypoint = getEntrypoint(new ConditionalKernel());
+        assertEquals(set(), entrypoint.getArrayFieldWriteOnly());
+    }
+
+    @Test
+    public void testWriteAfterReturnIsNotWriteOnly() throws Exception {
+        final Entrypoint entrypoint = getEntrypoint(new EarlyReturnKernel());
+        assertEquals(set(), entrypoint.getArrayFieldWriteOnly());
+    }
+
+    @Test
+    public void testReadInCalledMethodIsNotWriteOnly() throws Exception {
+        final Entrypoint entrypoint = getEntrypoint(new CalledMethodKernel());
+        assertEquals(set(), entrypoint.getArrayFieldWriteOnly());
+    }
+
+    @Test
+    public void testAtomicArrayIsReadWrite() throws Exception {
+        final Entrypoint entrypoint = getEntrypoint(new AtomicKernel());
+        assertEquals(set(), entrypoint.getArrayFieldWriteOnly());
+        assertEquals(set(), entrypoint.getArrayFieldReadOnly());
+    }
+
+    @Test
+    public void testHalfLoadIsReadOnly() throws Exception {
+        final Entrypoint entrypoint = getEntrypoint(new HalfKernel());
+        assertEquals(set("in"), entrypoint.getArrayFieldReadOnly());
+        assertEquals(set(), entrypoint.getArrayFieldWriteOnly());
+    }
+
+    @Test
+    public void testElementwiseArrays() throws Exception {
+        assertEquals(set("in", "out"), getEntrypoint(new MapKernel()).getArrayFieldElementwise());
+        assertEquals(set("out"), getEntrypoint(new CompoundKernel()).getArrayFieldElementwise());
+        assertEquals(set("in", "out"), getEntrypoint(new HalfKernel()).getArrayFieldElementwise());
+        assertEquals(set(), getEntrypoint(new CalledMethodKernel()).getArrayFieldElementwise());
+        assertEquals(set("out"), getEntrypoint(new MultiDimensionalKernel()).getArrayFieldElementwise());
+    }
+
+    @Test
+    public void testMultiDimensionalReadOnly() throws Exception {
+        final Entrypoint entrypoint = getEntrypoint(new MultiDimensionalKernel());
+        assertEquals(set("out"), entrypoint.getArrayFieldWriteOnly());
+        assertEquals(set("matrix"), entrypoint.getArrayFieldReadOnly());
+    }
+
+    @Test
+    public void testSmallFinalReadOnlyArraysArePromotedToConstant() throws Exception {
+        final Entrypoint entrypoint = getEntrypoint(new ConstantCandidatesKernel());
+        assertEquals(set("small"), entrypoint.getArrayFieldConstant());
+        assertEquals(set("in"), getEntrypoint(new MapKernel()).getArrayFieldConstant());
+    }
+
+    private static Entrypoint getEntrypoint(Kernel kernel) throws Exception {
+        final ClassModel classModel = ClassModel.createClassModel(kernel.getClass());
+        return classModel.getEntrypoint("run", kernel);
+    }
+
+    private static Set<String> set(String... names) {
+        return new HashSet<String>(Arrays.asList(names));
+    }
+
+    private static class MapKernel extends Kernel {
+        final int[] in = new int[16];
+        final int[] out = new int[16];
+
+        @Override
+        public void run() {
+            final int gid = getGlobalId();
+            out[gid] = in[gid] * 2;
+        }
+    }
+
+    private static class CompoundKernel extends Kernel {
+        final int[] out = new int[16];
+
+        @Override
+        public void run() {
+            out[getGlobalId()] += 1;
+        }
+    }
+
+    private static class ConditionalKernel extends Kernel {
+        final int[] out = new int[16];
+
+        @Override
+        public void run() {
+            final int gid = getGlobalId();
+            if (gid % 2 == 0) {
+                out[gid] = 1;
+            }
+        }
+    }
+
+    private static class EarlyReturnKernel extends Kernel {
+        final int[] out = new int[16];
+
+        @Override
+        public void run() {
+            final int gid = getGlobalId();
+            if (gid > 8) {
+                return;
+            }
+            out[gid] = 1;
+        }
+    }
+
+    private static class CalledMethodKernel extends Kernel {
+        final int[] out = new int[16];
+
+        @Override
+        public void run() {
+            final int gid = getGlobalId();
+            out[gid] = 1;
+            sum(gid);
+        }
+
+        int sum(int gid) {
+            return out[gid] + 1;
+        }
+    }
+
+    private static class AtomicKernel extends Kernel {
+        final int[] counts = new int[16];
+
+        @Override
+        public void run() {
+            counts[getGlobalId()] = 0;
+            atomicAdd(counts, 0, 1);
+        }
+    }
+
+    private static class HalfKernel extends Kernel {
+        final short[] in = new short[16];
+        final short[] out = new short[16];
+
+        @Override
+        public void run() {
+            final int gid = getGlobalId();
+            storeHalf(out, gid, loadHalf(in, gid));
+        }
+    }
+
+    private static class ConstantCandidatesKernel extends Kernel {
+        final int[] small = new int[16];
+        int[] notFinal = new int[16];
+        final int[] large = new int[64 * 1024];
+        final int[] out = new int[16];
+
+        @Override
+        public void run() {
+            final int gid = getGlobalId();
+            out[gid] = small[gid] + notFinal[gid] + large[gid];
+        }
+    }
+
+    private static class MultiDimensionalKernel extends Kernel {
+        final int[][] matrix = new int[16][16];
+        final int[] out = new int[16];
+
+        @Override
+        public void run() {
+            final int gid = getGlobalId();
+            out[gid] = matrix[gid][0] + matrix.length;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.runtime;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.aparapi.Kernel;
+import com.aparapi.Range;
+import com.aparapi.device.Device;
+import com.aparapi.device.JavaDevice;
+import com.aparapi.internal.kernel.TransferStatistics;
+
+public class AutoTransferTest {
+
+    private static final int SIZE = 256;
+
+    @After
+    public void teardown() {
+        Util.resetKernelManager();
+    }
+
+    @Test
+    public void testAutoTransferFlag() {
+        final ScaleKernel kernel = new ScaleKernel();
+        try {
+            assertFalse(kernel.isAutoTransfer());
+            kernel.setAutoTransfer(true);
+            assertTrue(kernel.isAutoTransfer());
+            kernel.setAutoTransfer(false);
+            assertFalse(kernel.isAutoTransfer());
+        } finally {
+            kernel.dispose();
+        }
+    }
+
+    /**
+     * Java execution never transfers, so results must be unaffected by auto transfers and no transfers recorded.
+     */
+    @Test
+    public void testAutoTransferInJava() {
+        final Device device = JavaDevice.THREAD_POOL;
+        final ScaleKernel kernel = new ScaleKernel();
+        try {
+            kernel.setAutoTransfer(true);
+            kernel.execute(Range.create(device, SIZE));
+            for (int i = 0; i < SIZE; i++) {
+                kernel.in[i] = -i;
+            }
+            assertTrue(kernel == kernel.markDirty(kernel.in));
+            kernel.execute(Range.create(device, SIZE));
+
+            final int[] expected = new int[SIZE];
+            for (int i = 0; i < SIZE; i++) {
+                expected[i] = -2 * i;
+            }
+            assertArrayEquals(expected, kernel.out);
+
+            final TransferStatistics statistics = kernel.getTransferStatistics();
+            assertEquals(0, statistics.getUploads());
+            assertEquals(0, statistics.getSkippedUploads());
+            assertEquals(0, statistics.getDownloads());
+        } finally {
+            kernel.dispose();
+        }
+    }
+
+    private static class ScaleKernel extends Kernel {
+        final int[] in = new int[SIZE];
+        final int[] out = new int[SIZE];
+
+        ScaleKernel() {
+            for (int i = 0; i < SIZE; i++) {
+                in[i] = i;
+            }
+        }
+
+        @Override
+        public void run() {
+            final int gid = getGlobalId();
+            out[gid] = in[gid] * 2;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.runtime;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.aparapi.Kernel;
+import com.aparapi.Range;
+import com.aparapi.device.JavaDevice;
+import com.aparapi.exception.AparapiKernelFailedException;
+import com.aparapi.util.Bits;
+
+public class BitArraysTest {
+
+    private static final int SIZE = 4096;
+
+    private static final int CONTENDERS = 4;
+
+    @After
+    public void teardown() {
+        Util.resetKernelManager();
+    }
+
+    @Test
+    public void testHostBits() {
+        final long[] bits = Bits.allocate(130);
+        assertEquals(3, bits.length);
+        for (final long index : new long[] {0, 63, 64, 129}) {
+            assertFalse(Bits.get(bits, index));
+            Bits.set(bits, index);
+            assertTrue(Bits.get(bits, index));
+        }
+        assertArrayEquals(new long[] {0x8000000000000001L, 1L, 2L}, bits);
+        assertEquals(4, Bits.count(bits));
+        Bits.clear(bits, 63);
+        assertFalse(Bits.get(bits, 63));
+        assertEquals(3, Bits.count(bits));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAllocateTooMany() {
+        Bits.allocate(Long.MAX_VALUE);
+    }
+
+    @Test
+    public void testAtomicSetBitHasOneWinner() {
+        final ClaimKernel kernel = new ClaimKernel();
+        try {
+            kernel.execute(Range.create(JavaDevice.THREAD_POOL, SIZE));
+        } finally {
+            kernel.dispose();
+        }
+
+        final int[] winners = new int[SIZE / CONTENDERS];
+        for (int i = 0; i < SIZE; i++) {
+            winners[i % winners.length] += kernel.claimed[i];
+        }
+        for (int i = 0; i < winners.length; i++) {
+            assertEquals("winners of bit " + i, 1, winners[i]);
+            assertTrue(Bits.get(kernel.visited, i));
+        }
+        assertEquals(winners.length, Bits.count(kernel.visited));
+    }
+
+    @Test
+    public void testAtomicClearBit() {
+        final ClaimKernel kernel = new ClaimKernel();
+        for (int i = 0; i < SIZE / CONTENDERS; i++) {
+            Bits.set(kernel.visited, i);
+        }
+        kernel.release = true;
+        try {
+            kernel.execute(Range.create(JavaDevice.THREAD_POOL, SIZE));
+        } finally {
+            kernel.dispose();
+        }
+
+        int released = 0;
+        for (final int claimed : kernel.claimed) {
+            released += claimed;
+        }
+        assertEquals(SIZE / CONTENDERS, released);
+        assertEquals(0, Bits.count(kernel.visited));
+    }
+
+    @Test
+    public void testPrivatizedBitsRejected() {
+        for (final boolean release : new boolean[] {false, true}) {
+            final PrivatizedClaimKernel kernel = new PrivatizedClaimKernel();
+            kernel.release = release;
+            try {
+                kernel.execute(Range.create(JavaDevice.THREAD_POOL, 64, 4));
+                fail("expected a privatized bit array to be rejected");
+            } catch (final IllegalStateException e) {
+                assertTrue(e.getMessage().contains("atomicAdd()"));
+            } catch (final AparapiKernelFailedException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            } finally {
+                kernel.dispose();
+            }
+            assertEquals(1L, kernel.bits[0]);
+        }
+    }
+
+    @Test
+    public void testGetSetClearBit() {
+        final CopyKernel kernel = new CopyKernel();
+        for (int i = 0; i < SIZE; i += 3) {
+            Bits.set(kernel.in, i);
+        }
+        for (int i = 0; i < SIZE; i += 5) {
+            Bits.set(kernel.out, i);
+        }
+        try {
+            kernel.execute(Range.create(JavaDevice.THREAD_POOL, SIZE / 64));
+        } finally {
+            kernel.dispose();
+        }
+
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals("bit " + i, (i % 3) == 0, Bits.get(kernel.out, i));
+        }
+    }
+
+    private static class ClaimKernel extends Kernel {
+        final long[] visited = Bits.allocate(SIZE / CONTENDERS);
+        final int[] claimed = new int[SIZE];
+        boolean release;
+
+        @Override
+        public void run() {
+            final int gid = getGlobalId();
+            final int vertex = gid % (SIZE / CONTENDERS);
+            if (release) {
+                claimed[gid] = atomicClearBit(visited, vertex) ? 1 : 0;
+            } else {
+                claimed[gid] = atomicSetBit(visited, vertex) ? 0 : 1;
+            }
+        }
+    }
+
+    private static class PrivatizedClaimKernel extends Kernel {
+        @Privatized final long[] bits = new long[] {1L};
+        boolean release;
+
+        @Override
+        public void run() {
+            if (release) {
+                atomicClearBit(bits, 0L);
+            } else {
+                atomicSetBit(bits, 1L);
+            }
+        }
+    }
+
+    /**
+     * Each work item copies the 64 bits of one element, so no two work items update the same element.
+     */
+    private static class CopyKernel extends Kernel {
+        final long[] in = Bits.allocate(SIZE);
+        final long[] out = Bits.allocate(SIZE);
+
+        @Override
+        public void run() {
+            final long first = getGlobalId() * 64L;
+            for (long i = first; i < first + 64; i++) {
+                if (getBit(in, i)) {
+                    setBit(out, i);
+                } else {
+                    clearBit(out, i);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.runtime;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.aparapi.Kernel;
+import com.aparapi.Range;
+import com.aparapi.device.JavaDevice;
+import com.aparapi.internal.kernel.ContiguousArray;
+
+public class ContiguousArrayTest {
+
+    @After
+    public void teardown() {
+        Util.resetKernelManager();
+    }
+
+    @Test
+    public void testGatherScatter2D() {
+        final int[][] matrix = new int[300][301];
+        for (int i = 0; i < matrix.length; i++) {
+            for (int j = 0; j < matrix[i].length; j++) {
+                matrix[i][j] = (i * 1000) + j;
+            }
+        }
+
+        final int[] buffer = (int[]) ContiguousArray.gather(matrix, null, ForkJoinPool.commonPool());
+        final int offset = ContiguousArray.getHeaderElements(int.class);
+        assertEquals(offset + (300 * 301), buffer.length);
+        assertArrayEquals(new int[] {300, 301, 0, 301, 1}, Arrays.copyOf(buffer, 5));
+        assertEquals(299 * 1000 + 7, buffer[offset + (299 * 301) + 7]);
+
+        for (int i = offset; i < buffer.length; i++) {
+            buffer[i] = -buffer[i];
+        }
+        ContiguousArray.scatter(buffer, matrix, ForkJoinPool.commonPool());
+        for (int i = 0; i < matrix.length; i++) {
+            for (int j = 0; j < matrix[i].length; j++) {
+                assertEquals(-((i * 1000) + j), matrix[i][j]);
+            }
+        }
+    }
+
+    @Test
+    public void testGatherScatter3DDouble() {
+        final double[][][] cube = new double[4][5][6];
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 5; j++) {
+                for (int k = 0; k < 6; k++) {
+                    cube[i][j][k] = (i * 100) + (j * 10) + k;
+                }
+            }
+        }
+
+        final double[] buffer = (double[]) ContiguousArray.gather(cube, null, null);
+        final int offset = ContiguousArray.getHeaderElements(double.class);
+        final ByteBuffer header = ByteBuffer.allocate(offset * 8).order(ByteOrder.nativeOrder());
+        header.asDoubleBuffer().put(buffer, 0, offset);
+        final int[] ints = new int[6];
+        header.asIntBuffer().get(ints);
+        assertArrayEquals(new int[] {4, 5, 6, 30, 6, 1}, ints);
+        assertEquals(321.0, buffer[offset + (3 * 30) + (2 * 6) + 1], 0.0);
+
+        buffer[offset + (3 * 30) + (2 * 6) + 1] = -1.0;
+        ContiguousArray.scatter(buffer, cube, null);
+        assertEquals(-1.0, cube[3][2][1], 0.0);
+        assertEquals(320.0, cube[3][2][0], 0.0);
+    }
+
+    @Test
+    public void testGatherReusesBuffer() {
+        final short[][] matrix = new short[8][8];
+        final Object buffer = ContiguousArray.gather(matrix, null, null);
+        assertTrue(buffer == ContiguousArray.gather(matrix, buffer, null));
+        assertTrue(buffer != ContiguousArray.gather(new short[8][9], buffer, null));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testJaggedArrayIsRejected() {
+        final float[][] jagged = new float[][] {new float[4], new float[3]};
+        ContiguousArray.gather(jagged, null, null);
+    }
+
+    @Test
+    public void testContiguousFieldInJava() {
+        final int size = 64;
+        final ContiguousKernel kernel = new ContiguousKernel(size);
+        try {
+            kernel.execute(Range.create(JavaDevice.THREAD_POOL, size));
+        } finally {
+            kernel.dispose();
+        }
+        for (int i = 0; i < size; i++) {
+            assertEquals(i + 1, kernel.matrix[i][1], 0.0f);
+        }
+    }
+
+    private static class ContiguousKernel extends Kernel {
+        @Contiguous
+        final float[][] matrix;
+
+        ContiguousKernel(int size) {
+            matrix = new float[size][2];
+            for (int i = 0; i < size; i++) {
+                matrix[i][0] = i;
+            }
+        }
+
+        @Override
+        public void run() {
+            final int gid = getGlobalId();
+            matrix[gid][1] = matrix[gid][0] + 1;
+        }
+    }
+}
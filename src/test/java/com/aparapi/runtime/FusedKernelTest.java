@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.aparapi.FusedKernel;
+import com.aparapi.Kernel;
+import com.aparapi.Range;
+import com.aparapi.device.JavaDevice;
+
+public class FusedKernelTest {
+
+    private static final int SIZE = 1024;
+
+    @After
+    public void teardown() {
+        Util.resetKernelManager();
+    }
+
+    @Test
+    public void testFusedThreadPool() {
+        testFused(JavaDevice.THREAD_POOL);
+    }
+
+    @Test
+    public void testFusedSequential() {
+        testFused(JavaDevice.SEQUENTIAL);
+    }
+
+    @Test
+    public void testStagesSeeCurrentFieldValues() {
+        final float[] data = new float[SIZE];
+        Arrays.fill(data, 1f);
+        final ScaleKernel scale = new ScaleKernel(data, data);
+        final FusedKernel fused = new FusedKernel(scale, new OffsetKernel(data, data));
+        try {
+            scale.factor = 3f;
+            fused.execute(Range.create(JavaDevice.THREAD_POOL, SIZE));
+        } finally {
+            fused.dispose();
+        }
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(4f, data[i], 0f);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNeighbourReadIsRefused() {
+        final float[] data = new float[SIZE];
+        new FusedKernel(new ScaleKernel(data, data), new NeighbourKernel(data, new float[SIZE]));
+    }
+
+    @Test
+    public void testNeighbourReadOfUnsharedArrayIsAllowed() {
+        final float[] data = new float[SIZE];
+        new FusedKernel(new ScaleKernel(data, data), new NeighbourKernel(new float[SIZE], new float[SIZE]));
+    }
+
+    private void testFused(JavaDevice device) {
+        final float[] in = new float[SIZE];
+        final float[] tmp = new float[SIZE];
+        final float[] out = new float[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            in[i] = i;
+        }
+        final FusedKernel fused = new FusedKernel(new ScaleKernel(in, tmp), new OffsetKernel(tmp, out));
+        try {
+            fused.execute(Range.create(device, SIZE));
+        } finally {
+            fused.dispose();
+        }
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals("out[" + i + "]", (i * 2f) + 1f, out[i], 0f);
+        }
+    }
+
+    private static class ScaleKernel extends Kernel {
+        final float[] in;
+        final float[] out;
+        float factor = 2f;
+
+        ScaleKernel(float[] in, float[] out) {
+            this.in = in;
+            this.out = out;
+        }
+
+        @Override
+        public void run() {
+            final int gid = getGlobalId();
+            out[gid] = in[gid] * factor;
+        }
+    }
+
+    private static class OffsetKernel extends Kernel {
+        final float[] in;
+        final float[] out;
+
+        OffsetKernel(float[] in, float[] out) {
+            this.in = in;
+            this.out = out;
+        }
+
+        @Override
+        public void run() {
+            final int gid = getGlobalId();
+            if (gid < out.length) {
+                out[gid] = in[gid] + 1f;
+            }
+        }
+    }
+
+    private static class NeighbourKernel extends Kernel {
+        final float[] in;
+        final float[] out;
+
+        NeighbourKernel(float[] in, float[] out) {
+            this.in = in;
+            this.out = out;
+        }
+
+        @Override
+        public void run() {
+            final int gid = getGlobalId();
+            out[gid] = in[(gid + 1) % in.length];
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.runtime;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.aparapi.Kernel;
+import com.aparapi.Range;
+import com.aparapi.device.JavaDevice;
+import com.aparapi.internal.exception.ClassParseException;
+import com.aparapi.internal.model.ClassModel;
+
+public class GridBarrierTest {
+
+    private static final int SIZE = 64;
+
+    @After
+    public void teardown() {
+        Util.resetKernelManager();
+    }
+
+    @Test
+    public void testScanAcrossWorkGroups() {
+        final ScanKernel kernel = new ScanKernel();
+        for (int i = 0; i < SIZE; i++) {
+            kernel.values[i] = i + 1;
+        }
+        kernel.execute(Range.create(JavaDevice.THREAD_POOL, SIZE, 8));
+        final int[] expected = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            expected[i] = (i + 1) * (i + 2) / 2;
+        }
+        assertArrayEquals(expected, kernel.values);
+    }
+
+    @Test
+    public void testManyStepsInOneExecution() {
+        final StepKernel kernel = new StepKernel();
+        kernel.execute(Range.create2D(JavaDevice.THREAD_POOL, 8, 4, 4, 2));
+        assertEquals(0, kernel.mismatches[0]);
+        for (final int step : kernel.steps) {
+            assertEquals(StepKernel.STEPS - 1, step);
+        }
+    }
+
+    @Test
+    public void testLocalBarrierWithinResidentGroups() {
+        final LocalKernel kernel = new LocalKernel();
+        kernel.execute(Range.create(JavaDevice.THREAD_POOL, SIZE, 8));
+        for (int i = 0; i < SIZE; i++) {
+            // the sum of the global ids of the work group, written by each of its work items
+            final int first = (i / 8) * 8;
+            assertEquals((8 * first) + 28, kernel.sums[i]);
+        }
+    }
+
+    @Test(expected = ClassParseException.class)
+    public void testNotConvertedToOpenCL() throws Exception {
+        ClassModel.createClassModel(ScanKernel.class).getEntrypoint("run", new ScanKernel());
+    }
+
+    public static class ScanKernel extends Kernel {
+        final int[] values = new int[SIZE];
+
+        @Override
+        public void run() {
+            final int gid = getGlobalId();
+            for (int offset = 1; offset < SIZE; offset <<= 1) {
+                final int add = (gid >= offset) ? values[gid - offset] : 0;
+                gridBarrier();
+                values[gid] += add;
+                gridBarrier();
+            }
+        }
+    }
+
+    public static class StepKernel extends Kernel {
+        static final int STEPS = 200;
+
+        final int[] steps = new int[32];
+        final int[] mismatches = new int[1];
+
+        @Override
+        public void run() {
+            final int gid = getGlobalId(0) + (getGlobalId(1) * getGlobalSize(0));
+            for (int step = 0; step < STEPS; step++) {
+                steps[gid] = step;
+                gridBarrier();
+                for (int i = 0; i < steps.length; i++) {
+                    if (steps[i] != step) {
+                        atomicAdd(mismatches, 0, 1);
+                    }
+                }
+                gridBarrier();
+            }
+        }
+    }
+
+    public static class LocalKernel extends Kernel {
+        final int[] sums = new int[SIZE];
+
+        @Override
+        public void run() {
+            gridBarrier();
+            sums[getGlobalId()] = workGroupReduceAdd(getGlobalId());
+        }
+    }
+}
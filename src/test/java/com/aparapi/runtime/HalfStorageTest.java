@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.aparapi.Kernel;
+import com.aparapi.Range;
+import com.aparapi.device.JavaDevice;
+import com.aparapi.util.Half;
+
+public class HalfStorageTest {
+
+    private static final int SIZE = 1024;
+
+    @After
+    public void teardown() {
+        Util.resetKernelManager();
+    }
+
+    @Test
+    public void testRoundTripOfEveryHalf() {
+        for (int bits = 0; bits < 0x10000; bits++) {
+            final short half = (short) bits;
+            final float value = Half.toFloat(half);
+            if (Float.isNaN(value)) {
+                assertTrue(Float.isNaN(Half.toFloat(Half.fromFloat(value))));
+            } else {
+                assertEquals(Integer.toHexString(bits), half, Half.fromFloat(value));
+            }
+        }
+    }
+
+    @Test
+    public void testKnownValues() {
+        assertEquals(1f, Half.toFloat((short) 0x3c00), 0f);
+        assertEquals(-2f, Half.toFloat((short) 0xc000), 0f);
+        assertEquals(65504f, Half.toFloat((short) 0x7bff), 0f);
+        assertEquals(0x1p-24f, Half.toFloat((short) 0x0001), 0f);
+        assertEquals((short) 0x7c00, Half.fromFloat(65520f));
+        assertEquals((short) 0x7bff, Half.fromFloat(65519f));
+        assertEquals((short) 0x0000, Half.fromFloat(0x1p-25f));
+        assertEquals((short) 0x0001, Half.fromFloat(0x1.8p-25f));
+        assertEquals((short) 0x8000, Half.fromFloat(-0f));
+    }
+
+    @Test
+    public void testRoundsToNearestEven() {
+        // halves near 1 are 2^-10 apart
+        assertEquals((short) 0x3c00, Half.fromFloat(1f + 0x1p-11f));
+        assertEquals((short) 0x3c02, Half.fromFloat(1f + 0x3p-11f));
+        assertEquals((short) 0x3c01, Half.fromFloat(1f + 0x1.1p-11f));
+    }
+
+    @Test
+    public void testKernelThreadPool() {
+        final float[] values = new float[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            values[i] = (i - (SIZE / 2)) * 0.25f;
+        }
+        final ScaleKernel kernel = new ScaleKernel(Half.fromFloats(values));
+        try {
+            kernel.execute(Range.create(JavaDevice.THREAD_POOL, SIZE));
+        } finally {
+            kernel.dispose();
+        }
+
+        final float[] scaled = Half.toFloats(kernel.out);
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals("out[" + i + "]", values[i] * 0.5f, scaled[i], 0f);
+        }
+    }
+
+    private static class ScaleKernel extends Kernel {
+        final short[] in;
+        final short[] out = new short[SIZE];
+
+        ScaleKernel(short[] in) {
+            this.in = in;
+        }
+
+        @Override
+        public void run() {
+            final int gid = getGlobalId();
+            storeHalf(out, gid, loadHalf(in, gid) * 0.5f);
+        }
+    }
+}
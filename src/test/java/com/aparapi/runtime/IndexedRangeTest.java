@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.aparapi.Kernel;
+import com.aparapi.Range;
+import com.aparapi.device.Device;
+import com.aparapi.device.JavaDevice;
+
+public class IndexedRangeTest {
+
+    private static final int SIZE = 1024;
+
+    @After
+    public void teardown() {
+        Util.resetKernelManager();
+    }
+
+    @Test
+    public void testIndexedRangeThreadPool() {
+        testIndexedRange(JavaDevice.THREAD_POOL);
+    }
+
+    @Test
+    public void testIndexedRangeSequential() {
+        testIndexedRange(JavaDevice.SEQUENTIAL);
+    }
+
+    @Test
+    public void testIndexedRangeDefaultDevice() {
+        testIndexedRange(null);
+    }
+
+    @Test
+    public void testEmptyIndexedRange() {
+        final int[] data = new int[SIZE];
+        final IndexedKernel kernel = new IndexedKernel(data);
+        try {
+            kernel.execute(Range.create(JavaDevice.THREAD_POOL, new int[0]));
+        } finally {
+            kernel.dispose();
+        }
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals("data[" + i + "] was touched", 0, data[i]);
+        }
+    }
+
+    @Test
+    public void testIndexedRangeProperties() {
+        final int[] indices = new int[] {7, 3, 11};
+        final Range range = Range.create(indices);
+        assertTrue(range.isIndexed());
+        assertEquals(1, range.getDims());
+        assertEquals(indices.length, range.getGlobalSize(0));
+        assertTrue(indices == range.getIndices());
+        assertTrue(!Range.create(indices.length).isIndexed());
+    }
+
+    private void testIndexedRange(Device device) {
+        final int[] data = new int[SIZE];
+        // every third element, in reverse order, odd count so the split across threads is uneven
+        final int[] indices = new int[(SIZE / 3) | 1];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = SIZE - 1 - (i * 3);
+        }
+
+        final IndexedKernel kernel = new IndexedKernel(data);
+        try {
+            final Range range = device == null ? Range.create(indices) : Range.create(device, indices);
+            kernel.execute(range, 2);
+        } finally {
+            kernel.dispose();
+        }
+
+        final int[] expected = new int[SIZE];
+        for (int index : indices) {
+            expected[index] = 2 * (index + 1);
+        }
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals("data[" + i + "]", expected[i], data[i]);
+        }
+    }
+
+    private static class IndexedKernel extends Kernel {
+        private final int[] data;
+
+        IndexedKernel(int[] data) {
+            this.data = data;
+        }
+
+        @Override
+        public void run() {
+            final int id = getGlobalId();
+            data[id] += id + 1;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.aparapi.Kernel;
+import com.aparapi.Range;
+import com.aparapi.device.Device;
+import com.aparapi.device.JavaDevice;
+import com.aparapi.exception.AparapiKernelFailedException;
+
+public class LongRangeTest {
+
+    private static final int SIZE = 1001;
+
+    @After
+    public void teardown() {
+        Util.resetKernelManager();
+    }
+
+    @Test
+    public void testLongRangeThreadPool() {
+        testLongRange(JavaDevice.THREAD_POOL);
+    }
+
+    @Test
+    public void testLongRangeSequential() {
+        testLongRange(JavaDevice.SEQUENTIAL);
+    }
+
+    @Test
+    public void testLongRangeDefaultDevice() {
+        testLongRange(null);
+    }
+
+    @Test
+    public void testLongRangeBeyondIntLimit() {
+        final long size = Integer.MAX_VALUE + 10L;
+        final Range range = Range.createLong(JavaDevice.THREAD_POOL, size);
+        assertTrue(range.isLong());
+        assertTrue(range.isValid());
+        assertEquals(size, range.getGlobalSizeLong());
+        assertEquals(Integer.MAX_VALUE, range.getGlobalSize(0));
+    }
+
+    @Test
+    public void testGlobalSizeBeyondIntLimitRejected() {
+        final int[] sizes = new int[1];
+        final Kernel kernel = new Kernel() {
+            @Override
+            public void run() {
+                sizes[0] = getGlobalSize();
+            }
+        };
+        try {
+            kernel.execute(Range.createLong(JavaDevice.THREAD_POOL, Integer.MAX_VALUE + 10L));
+            fail("expected getGlobalSize() to reject a global size beyond the int limit");
+        } catch (final AparapiKernelFailedException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        } finally {
+            kernel.dispose();
+        }
+        assertEquals(0, sizes[0]);
+    }
+
+    @Test
+    public void testIntRangeGlobalSizeLong() {
+        final Range range = Range.create(SIZE);
+        assertFalse(range.isLong());
+        assertEquals(SIZE, range.getGlobalSizeLong());
+    }
+
+    private void testLongRange(Device device) {
+        final long[] ids = new long[SIZE];
+        final long[] sizes = new long[SIZE];
+
+        final Kernel kernel = new Kernel() {
+            @Override
+            public void run() {
+                final long id = getGlobalIdLong();
+                ids[(int) id] = id;
+                sizes[(int) id] = getGlobalSizeLong();
+            }
+        };
+        try {
+            final Range range = device == null ? Range.createLong(SIZE) : Range.createLong(device, SIZE);
+            kernel.execute(range);
+        } finally {
+            kernel.dispose();
+        }
+
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals("ids[" + i + "]", i, ids[i]);
+            assertEquals("sizes[" + i + "]", SIZE, sizes[i]);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.aparapi.Kernel;
+import com.aparapi.Range;
+import com.aparapi.device.JavaDevice;
+import com.aparapi.internal.util.FastMath;
+
+public class MathPrecisionTest {
+
+    private static final int SIZE = 4096;
+
+    @After
+    public void teardown() {
+        Util.resetKernelManager();
+    }
+
+    @Test
+    public void testNativeKernelThreadPool() {
+        final float[] in = new float[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            in[i] = (i - (SIZE / 2)) / 64f;
+        }
+        final NativeKernel kernel = new NativeKernel(in);
+        try {
+            kernel.execute(Range.create(JavaDevice.THREAD_POOL, SIZE));
+        } finally {
+            kernel.dispose();
+        }
+
+        for (int i = 0; i < SIZE; i++) {
+            final double x = in[i];
+            assertEquals("sin(" + x + ")", Math.sin(x), kernel.sin[i], 1e-6);
+            assertEquals("cos(" + x + ")", Math.cos(x), kernel.cos[i], 1e-6);
+            assertEquals("exp(" + x + ")", 1.0, kernel.exp[i] / Math.exp(x), 1e-6);
+            if (x > 0) {
+                assertEquals("log(" + x + ")", Math.log(x), kernel.log[i], 1e-6);
+            }
+        }
+    }
+
+    @Test
+    public void testPreciseByDefault() {
+        assertEquals(Kernel.MathPrecision.PRECISE, Kernel.getMathPrecision(Kernel.class));
+        assertEquals(Kernel.MathPrecision.NATIVE, Kernel.getMathPrecision(NativeKernel.class));
+    }
+
+    @Test
+    public void testFastMathSpecialValues() {
+        assertTrue(Float.isNaN(FastMath.exp(Float.NaN)));
+        assertEquals(Float.POSITIVE_INFINITY, FastMath.exp(100f), 0f);
+        assertEquals(0f, FastMath.exp(-100f), 0f);
+        assertEquals(1.0, FastMath.exp(88.7f) / Math.exp(88.7f), 1e-6);
+        assertTrue(Float.isNaN(FastMath.log(-1f)));
+        assertEquals(Float.NEGATIVE_INFINITY, FastMath.log(0f), 0f);
+        assertEquals(Float.POSITIVE_INFINITY, FastMath.log(Float.POSITIVE_INFINITY), 0f);
+        assertEquals(Math.log(Float.MIN_VALUE), FastMath.log(Float.MIN_VALUE), 1e-4);
+        assertEquals(Math.log(Float.MAX_VALUE), FastMath.log(Float.MAX_VALUE), 1e-4);
+    }
+
+    @Kernel.Precision(Kernel.MathPrecision.NATIVE)
+    private static class NativeKernel extends Kernel {
+        final float[] in;
+        final float[] sin = new float[SIZE];
+        final float[] cos = new float[SIZE];
+        final float[] exp = new float[SIZE];
+        final float[] log = new float[SIZE];
+
+        NativeKernel(float[] in) {
+            this.in = in;
+        }
+
+        @Override
+        public void run() {
+            final int gid = getGlobalId();
+            final float x = in[gid];
+            sin[gid] = sin(x);
+            cos[gid] = cos(x);
+            exp[gid] = exp(x);
+            log[gid] = log(x);
+        }
+    }
+}
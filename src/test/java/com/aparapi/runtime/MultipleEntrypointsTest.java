@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.aparapi.Kernel;
+import com.aparapi.Range;
+import com.aparapi.internal.model.ClassModel;
+import com.aparapi.internal.writer.KernelWriter;
+
+public class MultipleEntrypointsTest {
+
+    @After
+    public void teardown() {
+        Util.resetKernelManager();
+    }
+
+    @Test
+    public void testEachEntrypointHasItsOwnKernel() throws Exception {
+        final StepReduceKernel kernel = new StepReduceKernel();
+        final ClassModel classModel = ClassModel.createClassModel(kernel.getClass());
+
+        final String step = KernelWriter.writeToString(classModel.getEntrypoint("step", kernel));
+        assertTrue(step, step.contains("void step("));
+        assertFalse(step, step.contains("void run("));
+        assertFalse(step, step.contains("sum"));
+
+        final String run = KernelWriter.writeToString(classModel.getEntrypoint("run", kernel));
+        assertTrue(run, run.contains("void run("));
+        assertFalse(run, run.contains("void step("));
+        assertTrue(run, run.contains("sum"));
+    }
+
+    @Test
+    public void testAlternateEntrypointsExplicitly() {
+        final StepReduceKernel kernel = new StepReduceKernel();
+        kernel.setExplicit(true);
+        try {
+            float expected = 0f;
+            for (int i = 0; i < kernel.values.length; i++) {
+                kernel.values[i] = i;
+                expected += i;
+            }
+            kernel.put(kernel.values);
+            for (int round = 0; round < 3; round++) {
+                kernel.execute(Range.create(kernel.values.length));
+                kernel.get(kernel.sum);
+                assertEquals("sum of round " + round, expected, kernel.sum[0], 0f);
+
+                kernel.execute("step", Range.create(kernel.values.length));
+                kernel.get(kernel.values);
+                expected *= 0.5f;
+
+                // the caller's own change, put before the next entrypoint, must not be overwritten by the device copy of step
+                kernel.values[0] += 1f;
+                expected += 1f;
+                kernel.put(kernel.values);
+            }
+            kernel.execute(Range.create(kernel.values.length));
+            kernel.get(kernel.sum);
+            assertEquals(expected, kernel.sum[0], 0f);
+        } finally {
+            kernel.dispose();
+        }
+    }
+
+    public static class StepReduceKernel extends Kernel {
+        final float[] values = new float[64];
+
+        final float[] sum = new float[1];
+
+        @Override
+        public void run() {
+            if (getGlobalId() == 0) {
+                float total = 0f;
+                for (int i = 0; i < values.length; i++) {
+                    total += values[i];
+                }
+                sum[0] = total;
+            }
+        }
+
+        public void step() {
+            values[getGlobalId()] = values[getGlobalId()] * 0.5f;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.aparapi.Kernel;
+import com.aparapi.Range;
+import com.aparapi.device.JavaDevice;
+import com.aparapi.exception.AparapiKernelFailedException;
+
+public class PrivatizedAtomicsTest {
+
+    private static final int SIZE = 4096;
+
+    private static final int BINS = 200;
+
+    @After
+    public void teardown() {
+        Util.resetKernelManager();
+    }
+
+    @Test
+    public void testHistogramThreadPool() {
+        final HistogramKernel kernel = new HistogramKernel();
+        kernel.execute(Range.create(JavaDevice.THREAD_POOL, SIZE, 64));
+        assertHistogram(kernel, 1);
+    }
+
+    @Test
+    public void testHistogramSequential() {
+        final HistogramKernel kernel = new HistogramKernel();
+        kernel.execute(Range.create(JavaDevice.SEQUENTIAL, SIZE));
+        assertHistogram(kernel, 1);
+    }
+
+    @Test
+    public void testCopiesMergedAfterEachPass() {
+        final HistogramKernel kernel = new HistogramKernel();
+        kernel.execute(Range.create(JavaDevice.THREAD_POOL, SIZE, 64), 3);
+        assertHistogram(kernel, 3);
+        kernel.execute(Range.create(JavaDevice.THREAD_POOL, SIZE, 32));
+        assertHistogram(kernel, 4);
+    }
+
+    @Test
+    public void testTwoDimensionalRange() {
+        final HistogramKernel kernel = new HistogramKernel();
+        kernel.execute(Range.create2D(JavaDevice.THREAD_POOL, 64, SIZE / 64, 8, 8));
+        assertHistogram(kernel, 1);
+    }
+
+    @Test
+    public void testIndexedRange() {
+        final int[] indices = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            indices[i] = SIZE - 1 - i;
+        }
+        final HistogramKernel kernel = new HistogramKernel();
+        kernel.execute(Range.create(JavaDevice.THREAD_POOL, indices));
+        assertHistogram(kernel, 1);
+    }
+
+    @Test
+    public void testThreadsAddIntoOwnCopies() {
+        final CounterKernel kernel = new CounterKernel();
+        kernel.execute(Range.create(JavaDevice.THREAD_POOL, SIZE, 64));
+        // each of the 64 threads counts the SIZE / 64 work items it executes
+        int max = 0;
+        for (final int previous : kernel.previous) {
+            max = Math.max(max, previous);
+        }
+        assertEquals((SIZE / 64) - 1, max);
+        assertEquals(SIZE, kernel.counter[0]);
+    }
+
+    private static void assertHistogram(HistogramKernel _kernel, int _executions) {
+        final int[] expected = new int[BINS];
+        for (int i = 0; i < SIZE; i++) {
+            expected[i % BINS] += _executions;
+        }
+        for (int bin = 0; bin < BINS; bin++) {
+            assertEquals(expected[bin], _kernel.counts[bin]);
+            assertEquals(expected[bin], _kernel.longCounts[bin]);
+            assertEquals(expected[bin] * 0.5f, _kernel.weights[bin], 0f);
+            assertEquals(expected[bin] * 0.25, _kernel.doubleWeights[bin], 0.0);
+        }
+    }
+
+    @Test
+    public void testNonAdditiveUpdatesRejected() {
+        for (final Kernel kernel : new Kernel[] {new MaxKernel(), new StoreKernel()}) {
+            try {
+                kernel.execute(Range.create(JavaDevice.THREAD_POOL, SIZE, 64));
+                fail("expected " + kernel.getClass().getSimpleName() + " to be rejected");
+            } catch (final IllegalStateException e) {
+                assertTrue(e.getMessage().contains("atomicAdd()"));
+            } catch (final AparapiKernelFailedException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            } finally {
+                kernel.dispose();
+            }
+        }
+    }
+
+    public static class HistogramKernel extends Kernel {
+        @Privatized final int[] counts = new int[BINS];
+        @Privatized final long[] longCounts = new long[BINS];
+        @Privatized final float[] weights = new float[BINS];
+        @Privatized final double[] doubleWeights = new double[BINS];
+
+        @Override
+        public void run() {
+            final int bin = getGlobalId(0) + (getGlobalId(1) * getGlobalSize(0));
+            atomicAdd(counts, bin % BINS, 1);
+            atomicAdd(longCounts, bin % BINS, 1L);
+            atomicAdd(weights, bin % BINS, 0.5f);
+            atomicAdd(doubleWeights, bin % BINS, 0.25);
+        }
+    }
+
+    public static class CounterKernel extends Kernel {
+        @Privatized final int[] counter = new int[1];
+        final int[] previous = new int[SIZE];
+
+        @Override
+        public void run() {
+            previous[getGlobalId()] = atomicAdd(counter, 0, 1);
+        }
+    }
+
+    public static class MaxKernel extends Kernel {
+        @Privatized final int[] max = new int[1];
+
+        @Override
+        public void run() {
+            atomicMax(max, 0, getGlobalId());
+        }
+    }
+
+    public static class StoreKernel extends Kernel {
+        @Privatized final int[] bins = new int[BINS];
+
+        @Override
+        public void run() {
+            bins[getGlobalId() % BINS] = getGlobalId();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.runtime;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.aparapi.Kernel;
+import com.aparapi.Range;
+import com.aparapi.device.JavaDevice;
+import com.aparapi.util.Philox;
+
+public class RandomTest {
+
+    private static final int SIZE = 4096;
+
+    private static final long SEED = 0x0123456789abcdefL;
+
+    @After
+    public void teardown() {
+        Util.resetKernelManager();
+    }
+
+    @Test
+    public void testKnownAnswers() {
+        // the known answer vectors of the Random123 reference implementation
+        assertArrayEquals(new int[] {0x6627e8d5, 0xe169c58d, 0xbc57ac4c, 0x9b00dbd8}, Philox.philox4x32(0L, new int[4]));
+        assertArrayEquals(new int[] {0x408f276d, 0x41c83b0e, 0xa20bc7c6, 0x6d5451fd},
+              Philox.philox4x32(-1L, new int[] {-1, -1, -1, -1}));
+        assertEquals(0x6627e8d5, Philox.randomInt(0L, 0L));
+    }
+
+    @Test
+    public void testFloatsAreUniform() {
+        final int[] buckets = new int[16];
+        for (int i = 0; i < SIZE; i++) {
+            final float value = Philox.randomFloat(SEED, i);
+            assertTrue(value >= 0f && value < 1f);
+            buckets[(int) (value * 16)]++;
+        }
+        for (final int bucket : buckets) {
+            assertTrue("bucket of " + bucket, Math.abs(bucket - (SIZE / 16)) < (SIZE / 32));
+        }
+    }
+
+    @Test
+    public void testKernelThreadPool() {
+        final RandomKernel kernel = new RandomKernel();
+        try {
+            kernel.execute(Range.create(JavaDevice.THREAD_POOL, SIZE), 2);
+        } finally {
+            kernel.dispose();
+        }
+
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals("uniform[" + i + "]", Philox.randomFloat(SEED, i), kernel.uniform[i], 0f);
+            assertEquals("bits[" + i + "]", Philox.randomInt(SEED, (1L << 32) | i), kernel.bits[i]);
+        }
+    }
+
+    private static class RandomKernel extends Kernel {
+        final float[] uniform = new float[SIZE];
+        final int[] bits = new int[SIZE];
+        final long seed = SEED;
+
+        @Override
+        public void run() {
+            final int gid = getGlobalId();
+            uniform[gid] = randomFloat(seed, gid);
+            bits[gid] = randomInt(seed, ((long) getPassId() << 32) | gid);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.aparapi.Kernel;
+import com.aparapi.Range;
+import com.aparapi.device.JavaDevice;
+
+public class ReduceTest {
+
+    private static final int SIZE = 1000;
+
+    @After
+    public void teardown() {
+        Util.resetKernelManager();
+    }
+
+    @Test
+    public void testSumThreadPool() {
+        final float sum = newKernel().executeReduce(Range.create(JavaDevice.THREAD_POOL, SIZE, 8), Kernel.ReduceOp.SUM);
+        assertEquals(SIZE * (SIZE - 1) / 2, sum, 0f);
+    }
+
+    @Test
+    public void testSumSequential() {
+        final float sum = newKernel().executeReduce(Range.create(JavaDevice.SEQUENTIAL, SIZE, 1), Kernel.ReduceOp.SUM);
+        assertEquals(SIZE * (SIZE - 1) / 2, sum, 0f);
+    }
+
+    @Test
+    public void testMinMax() {
+        final ValuesKernel kernel = newKernel();
+        kernel.values[123] = -5f;
+        kernel.values[456] = 7000f;
+        final Range range = Range.create(JavaDevice.THREAD_POOL, SIZE, 8);
+        assertEquals(-5f, kernel.executeReduce(range, Kernel.ReduceOp.MIN), 0f);
+        assertEquals(7000f, kernel.executeReduce(range, Kernel.ReduceOp.MAX), 0f);
+    }
+
+    @Test
+    public void testMinMaxIgnoreNaN() {
+        final ValuesKernel kernel = newKernel();
+        kernel.values[0] = Float.NaN;
+        kernel.values[SIZE - 1] = Float.NaN;
+        final Range range = Range.create(JavaDevice.THREAD_POOL, SIZE, 8);
+        assertEquals(1f, kernel.executeReduce(range, Kernel.ReduceOp.MIN), 0f);
+        assertEquals(SIZE - 2, kernel.executeReduce(range, Kernel.ReduceOp.MAX), 0f);
+        assertEquals(Float.POSITIVE_INFINITY, Kernel.ReduceOp.MIN.apply(Float.NaN, Float.POSITIVE_INFINITY), 0f);
+        assertEquals(-1f, Kernel.ReduceOp.MAX.apply(-1f, Float.NaN), 0f);
+    }
+
+    @Test
+    public void testTwoDimensionalRange() {
+        final Kernel kernel = new Kernel(){
+            @Override
+            public void run() {
+                reduce(getGlobalId(0) * getGlobalId(1));
+            }
+        };
+        // (0 + 1 + ... + 15) * (0 + 1 + ... + 7)
+        final float sum = kernel.executeReduce(Range.create2D(JavaDevice.THREAD_POOL, 16, 8, 4, 2), Kernel.ReduceOp.SUM);
+        assertEquals(120f * 28f, sum, 0f);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testReduceOutsideExecuteReduce() {
+        newKernel().run();
+    }
+
+    private static ValuesKernel newKernel() {
+        final ValuesKernel kernel = new ValuesKernel();
+        for (int i = 0; i < SIZE; i++) {
+            kernel.values[i] = i;
+        }
+        return (kernel);
+    }
+
+    public static class ValuesKernel extends Kernel {
+        final float[] values = new float[SIZE];
+
+        @Override
+        public void run() {
+            reduce(values[getGlobalId()]);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2016 - 2018 Syncleus, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aparapi.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.aparapi.Kernel;
+import com.aparapi.Range;
+import com.aparapi.device.JavaDevice;
+
+public class WorkGroupCollectivesTest {
+
+    private static final int SIZE = 64;
+
+    private static final int GROUP = 8;
+
+    @After
+    public void teardown() {
+        Util.resetKernelManager();
+    }
+
+    @Test
+    public void testThreadPool() {
+        final CollectivesKernel kernel = new CollectivesKernel();
+        kernel.execute(Range.create(JavaDevice.THREAD_POOL, SIZE, GROUP));
+        for (int i = 0; i < SIZE; i++) {
+            final int group = i / GROUP;
+            final int first = group * GROUP;
+            final int last = first + GROUP - 1;
+            assertEquals("sum " + i, (first + last) * GROUP / 2, kernel.sum[i]);
+            assertEquals("min " + i, first, kernel.min[i]);
+            assertEquals("max " + i, (float) last, kernel.max[i], 0f);
+            assertEquals("scan " + i, (first + i) * (i - first + 1) / 2, kernel.scan[i]);
+            assertEquals("broadcast " + i, (float) (first + 3), kernel.broadcast[i], 0f);
+        }
+    }
+
+    @Test
+    public void testSequential() {
+        final CollectivesKernel kernel = new CollectivesKernel();
+        kernel.source = 0;
+        kernel.execute(Range.create(JavaDevice.SEQUENTIAL, SIZE, 1));
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(i, kernel.sum[i]);
+            assertEquals(i, kernel.scan[i]);
+            assertEquals((float) i, kernel.broadcast[i], 0f);
+        }
+    }
+
+    @Test
+    public void testTwoDimensionalGroups() {
+        final int[] sums = new int[16 * 8];
+        final Kernel kernel = new Kernel(){
+            @Override
+            public void run() {
+                final int x = getGlobalId(0);
+                final int y = getGlobalId(1);
+                sums[(y * 16) + x] = workGroupReduceAdd(1) + workGroupScanInclusiveAdd(1) * 100;
+            }
+        };
+        kernel.execute(Range.create2D(JavaDevice.THREAD_POOL, 16, 8, 4, 2));
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 16; x++) {
+                // the position within the 4x2 group, in local id order
+                final int localId = (x % 4) + ((y % 2) * 4);
+                assertEquals(8 + ((localId + 1) * 100), sums[(y * 16) + x]);
+            }
+        }
+    }
+
+    @Test
+    public void testIndexedRangeRejected() {
+        final int[] indices = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            indices[i] = SIZE - 1 - i;
+        }
+        final Range range = Range.create(JavaDevice.THREAD_POOL, indices);
+        range.setLocalSize_0(GROUP);
+        range.setLocalIsDerived(false);
+        final CollectivesKernel kernel = new CollectivesKernel();
+        try {
+            kernel.execute(range);
+            fail("expected work group collectives on an indexed range to be rejected");
+        } catch (final IllegalStateException e) {
+            assertTrue(e.getMessage().contains("indexed"));
+        } finally {
+            kernel.dispose();
+        }
+        assertEquals(0, kernel.sum[0]);
+    }
+
+    @Test
+    public void testIndexedRangeOfSingleItemGroups() {
+        final int[] indices = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            indices[i] = SIZE - 1 - i;
+        }
+        final Range range = Range.create(JavaDevice.THREAD_POOL, indices);
+        range.setLocalSize_0(1);
+        range.setLocalIsDerived(false);
+        final CollectivesKernel kernel = new CollectivesKernel();
+        kernel.source = 0;
+        try {
+            kernel.execute(range);
+        } finally {
+            kernel.dispose();
+        }
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(i, kernel.sum[i]);
+            assertEquals(i, kernel.scan[i]);
+            assertEquals((float) i, kernel.broadcast[i], 0f);
+        }
+    }
+
+    public static class CollectivesKernel extends Kernel {
+        final int[] sum = new int[SIZE];
+
+        final int[] min = new int[SIZE];
+
+        final float[] max = new float[SIZE];
+
+        final int[] scan = new int[SIZE];
+
+        final float[] broadcast = new float[SIZE];
+
+        int source = 3;
+
+        @Override
+        public void run() {
+            final int gid = getGlobalId();
+            sum[gid] = workGroupReduceAdd(gid);
+            min[gid] = workGroupReduceMin(gid);
+            max[gid] = workGroupReduceMax((float) gid);
+            scan[gid] = workGroupScanInclusiveAdd(gid);
+            broadcast[gid] = workGroupBroadcast((float) gid, source);
+        }
+    }
+}